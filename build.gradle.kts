@@ -98,6 +98,8 @@ dependencies {
     }
 
     testImplementation("org.springframework.boot:spring-boot-starter-test")
+    testImplementation("org.testcontainers:junit-jupiter")
+    testImplementation("org.testcontainers:postgresql")
 
     developmentOnly("org.springframework.boot:spring-boot-devtools")
 }
@@ -109,6 +111,38 @@ tasks.withType<JavaCompile> {
 
 tasks.withType<Test> {
     useJUnitPlatform()
+    // -Dtest.postgres.url=jdbc:postgresql://host:5432/postgres runs the Postgres tests without Docker
+    listOf("test.postgres.url", "test.postgres.username", "test.postgres.password").forEach { key ->
+        providers.systemProperty(key).orNull?.let { systemProperty(key, it) }
+    }
+}
+
+tasks.named<Test>("test") {
+    useJUnitPlatform {
+        excludeTags("benchmark")
+    }
+}
+
+// Replays a full comic crawl, runs comic detection over stored fixture pages and image processing at several
+// pool sizes, failing on regressions against the stored baselines.
+// ./gradlew crawlBenchmark -PupdateBaseline stores the results as the new baselines.
+tasks.register<Test>("crawlBenchmark") {
+    description = "Runs the crawl benchmarks and compares them with the stored baselines"
+    group = "verification"
+    testClassesDirs = sourceSets["test"].output.classesDirs
+    classpath = sourceSets["test"].runtimeClasspath
+    useJUnitPlatform {
+        includeTags("benchmark")
+    }
+    systemProperty("benchmark.baseline", file("src/test/resources/benchmark/crawl-baseline.json").absolutePath)
+    systemProperty("benchmark.detectionBaseline", file("src/test/resources/benchmark/detection-baseline.json").absolutePath)
+    systemProperty("benchmark.report", layout.buildDirectory.file("reports/crawl-benchmark.json").get().asFile.absolutePath)
+    systemProperty("benchmark.updateBaseline", project.hasProperty("updateBaseline"))
+    systemProperty("benchmark.tolerance", providers.gradleProperty("benchmarkTolerance").getOrElse("0.3"))
+    System.getProperties().stringPropertyNames().filter { it.startsWith("replay.") }.forEach { key ->
+        systemProperty(key, System.getProperty(key))
+    }
+    outputs.upToDateWhen { false }
 }
 
 tasks.named<org.springframework.boot.gradle.tasks.run.BootRun>("bootRun") {
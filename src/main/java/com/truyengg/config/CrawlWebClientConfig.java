@@ -0,0 +1,68 @@
+package com.truyengg.config;
+
+import com.truyengg.model.properties.CrawlHttpProperties;
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import static com.truyengg.domain.constant.AppConstants.DATA_BUFFER_MAX_SIZE_BYTES;
+import static java.time.Duration.ofSeconds;
+
+/**
+ * Shared WebClient for crawling, backed by a tuned Reactor Netty connection pool.
+ * Connections are reused per host with keep-alive instead of building a client per request.
+ */
+@Configuration
+public class CrawlWebClientConfig {
+
+  @Bean(destroyMethod = "dispose")
+  public ConnectionProvider crawlConnectionProvider(CrawlHttpProperties properties) {
+    return ConnectionProvider.builder("crawl")
+        .maxConnections(properties.getMaxConnectionsPerHost())
+        .pendingAcquireMaxCount(properties.getPendingAcquireMaxCount())
+        .pendingAcquireTimeout(properties.getPendingAcquireTimeout())
+        .maxIdleTime(properties.getMaxIdleTime())
+        .maxLifeTime(properties.getMaxLifeTime())
+        .evictInBackground(properties.getEvictionInterval())
+        .metrics(true)
+        .build();
+  }
+
+  @Bean
+  public HttpClient crawlNettyHttpClient(ConnectionProvider crawlConnectionProvider,
+                                    CrawlHttpProperties properties,
+                                    @Value("${truyengg.crawl.request-timeout:15}") int requestTimeout) {
+    var httpClient = HttpClient.create(crawlConnectionProvider)
+        .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+        .option(ChannelOption.SO_KEEPALIVE, true)
+        .keepAlive(true)
+        .compress(true)
+        .followRedirect(true)
+        .responseTimeout(ofSeconds(requestTimeout));
+
+    if (properties.isH2c()) {
+      return httpClient.protocol(HttpProtocol.H2C, HttpProtocol.HTTP11);
+    }
+    if (properties.isHttp2()) {
+      return httpClient.secure().protocol(HttpProtocol.H2, HttpProtocol.HTTP11);
+    }
+    return httpClient;
+  }
+
+  /**
+   * Cloned from Boot's builder so its customizers (codecs, observation and HTTP client metrics) still apply.
+   */
+  @Bean
+  public WebClient crawlWebClient(WebClient.Builder webClientBuilder, HttpClient crawlNettyHttpClient) {
+    return webClientBuilder.clone()
+        .clientConnector(new ReactorClientHttpConnector(crawlNettyHttpClient))
+        .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(DATA_BUFFER_MAX_SIZE_BYTES))
+        .build();
+  }
+}
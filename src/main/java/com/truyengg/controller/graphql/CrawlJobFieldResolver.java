@@ -2,11 +2,13 @@ package com.truyengg.controller.graphql;
 
 import com.truyengg.domain.entity.CrawlCheckpoint;
 import com.truyengg.domain.entity.CrawlJob;
+import com.truyengg.domain.entity.CrawlJobRollup;
 import com.truyengg.domain.entity.CrawlProgress;
 import com.truyengg.domain.entity.CrawlSettings;
 import com.truyengg.domain.enums.CrawlType;
 import com.truyengg.domain.repository.CrawlCheckpointRepository;
 import com.truyengg.domain.repository.CrawlJobRepository;
+import com.truyengg.domain.repository.CrawlJobRollupRepository;
 import com.truyengg.domain.repository.CrawlProgressRepository;
 import com.truyengg.domain.repository.CrawlSettingsRepository;
 import com.truyengg.model.graphql.AggregatedStats;
@@ -24,15 +26,19 @@ import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
 import org.springframework.graphql.data.method.annotation.SchemaMapping;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.function.Function;
 
-import static com.truyengg.controller.graphql.CrawlJobCounterUtils.countJobs;
 import static java.util.Collections.emptyList;
 import static org.apache.commons.collections4.CollectionUtils.isEmpty;
 import static org.apache.commons.collections4.CollectionUtils.isNotEmpty;
@@ -48,6 +54,7 @@ import static org.apache.commons.collections4.CollectionUtils.isNotEmpty;
 public class CrawlJobFieldResolver {
 
   CrawlJobRepository jobRepository;
+  CrawlJobRollupRepository rollupRepository;
   CrawlProgressRepository progressRepository;
   CrawlCheckpointRepository checkpointRepository;
   CrawlSettingsRepository settingsRepository;
@@ -73,19 +80,21 @@ public class CrawlJobFieldResolver {
   }
 
   /**
-   * Resolve hasChildren field.
+   * Resolve hasChildren field for all jobs of a response with one grouped count query.
    */
-  @SchemaMapping(typeName = "CrawlJob", field = "hasChildren")
-  public boolean hasChildren(CrawlJob job) {
-    return jobRepository.existsByParentJobId(job.getId());
+  @BatchMapping(typeName = "CrawlJob", field = "hasChildren")
+  public Map<CrawlJob, Boolean> hasChildren(List<CrawlJob> jobs) {
+    var counts = countChildren(jobs);
+    return toMap(jobs, job -> counts.getOrDefault(job.getId(), 0L) > 0);
   }
 
   /**
-   * Resolve childrenCount field.
+   * Resolve childrenCount field for all jobs of a response with one grouped count query.
    */
-  @SchemaMapping(typeName = "CrawlJob", field = "childrenCount")
-  public int childrenCount(CrawlJob job) {
-    return (int) jobRepository.countByParentJobId(job.getId());
+  @BatchMapping(typeName = "CrawlJob", field = "childrenCount")
+  public Map<CrawlJob, Integer> childrenCount(List<CrawlJob> jobs) {
+    var counts = countChildren(jobs);
+    return toMap(jobs, job -> counts.getOrDefault(job.getId(), 0L).intValue());
   }
 
   /**
@@ -109,66 +118,37 @@ public class CrawlJobFieldResolver {
   }
 
   /**
-   * Resolve progress field.
+   * Resolve progress field for all jobs of a response with one IN query.
    */
-  @SchemaMapping(typeName = "CrawlJob", field = "progress")
-  public CrawlProgress progress(CrawlJob job) {
-    return progressRepository.findById(job.getId()).orElse(null);
+  @BatchMapping(typeName = "CrawlJob", field = "progress")
+  public Map<CrawlJob, CrawlProgress> progress(List<CrawlJob> jobs) {
+    return byJob(jobs, progressRepository.findAllById(jobIds(jobs)), CrawlProgress::getId);
   }
 
   /**
-   * Resolve checkpoint field.
+   * Resolve checkpoint field for all jobs of a response with one IN query.
    */
-  @SchemaMapping(typeName = "CrawlJob", field = "checkpoint")
-  public CrawlCheckpoint checkpoint(CrawlJob job) {
-    return checkpointRepository.findById(job.getId()).orElse(null);
+  @BatchMapping(typeName = "CrawlJob", field = "checkpoint")
+  public Map<CrawlJob, CrawlCheckpoint> checkpoint(List<CrawlJob> jobs) {
+    return loadCheckpoints(jobs);
   }
 
   /**
-   * Resolve settings field.
+   * Resolve settings field for all jobs of a response with one IN query.
    */
-  @SchemaMapping(typeName = "CrawlJob", field = "settings")
-  public CrawlSettings settings(CrawlJob job) {
-    return settingsRepository.findById(job.getId()).orElse(null);
+  @BatchMapping(typeName = "CrawlJob", field = "settings")
+  public Map<CrawlJob, CrawlSettings> settings(List<CrawlJob> jobs) {
+    return byJob(jobs, settingsRepository.findAllById(jobIds(jobs)), CrawlSettings::getId);
   }
 
   /**
-   * Resolve aggregatedStats field.
+   * Resolve aggregatedStats field for all jobs of a response with one primary-key lookup
+   * on the trigger-maintained rollup table.
    */
-  @SchemaMapping(typeName = "CrawlJob", field = "aggregatedStats")
-  public AggregatedStats aggregatedStats(CrawlJob job) {
-    var descendants = jobRepository.findByRootJobId(job.getId());
-    if (isEmpty(descendants)) {
-      return emptyStats();
-    }
-
-    var counter = countJobs(descendants);
-    var progressSum = descendants.stream()
-        .filter(desc -> desc.getTotalItems() > 0)
-        .mapToDouble(desc -> desc.getCompletedItems() * 100.0 / desc.getTotalItems())
-        .sum();
-    var avgProgress = progressSum / descendants.size();
-
-    return AggregatedStats.builder()
-        .totalChapters(counter.getChapter())
-        .totalImages(counter.getImage())
-        .totalBytes(0)
-        .byStatus(AggregatedStats.StatusCounts.builder()
-            .pending(counter.getPending())
-            .running(counter.getRunning())
-            .completed(counter.getCompleted())
-            .failed(counter.getFailed())
-            .paused(counter.getPaused())
-            .cancelled(counter.getCancelled())
-            .build())
-        .byType(AggregatedStats.TypeCounts.builder()
-            .category(counter.getCategory())
-            .comic(counter.getComic())
-            .chapter(counter.getChapter())
-            .image(counter.getImage())
-            .build())
-        .avgProgress(avgProgress)
-        .build();
+  @BatchMapping(typeName = "CrawlJob", field = "aggregatedStats")
+  public Map<CrawlJob, AggregatedStats> aggregatedStats(List<CrawlJob> jobs) {
+    var rollups = byJob(jobs, rollupRepository.findAllById(jobIds(jobs)), CrawlJobRollup::getRootJobId);
+    return toMap(jobs, job -> toStats(rollups.get(job)));
   }
 
   /**
@@ -257,11 +237,80 @@ public class CrawlJobFieldResolver {
   }
 
   /**
-   * Resolve failedItemsList field.
+   * Resolve failedItemsList field for all jobs of a response with one checkpoint query.
+   */
+  @BatchMapping(typeName = "CrawlJob", field = "failedItemsList")
+  public Map<CrawlJob, FailedItemsResult> failedItemsList(List<CrawlJob> jobs) {
+    var checkpoints = loadCheckpoints(jobs);
+    return toMap(jobs, job -> failedItems(checkpoints.get(job)));
+  }
+
+  /**
+   * Resolve images field (for IMAGE type jobs with downloadedImages in stateSnapshot)
+   * for all jobs of a response with one checkpoint query.
+   */
+  @BatchMapping(typeName = "CrawlJob", field = "images")
+  public Map<CrawlJob, List<ImageDownloadStatus>> images(List<CrawlJob> jobs) {
+    var checkpoints = loadCheckpoints(jobs);
+    return toMap(jobs, job -> images(checkpoints.get(job)));
+  }
+
+  // ===== CrawlCheckpoint field resolvers =====
+
+  @SchemaMapping(typeName = "CrawlCheckpoint", field = "hasFailedItems")
+  public boolean hasFailedItems(CrawlCheckpoint checkpoint) {
+    return checkpoint.hasFailedItems();
+  }
+
+  // ===== CrawlSettings field resolvers =====
+
+  @SchemaMapping(typeName = "CrawlSettings", field = "hasRange")
+  public boolean hasRange(CrawlSettings settings) {
+    return settings.hasRange();
+  }
+
+  // ===== Helper methods =====
+
+  private Map<CrawlJob, CrawlCheckpoint> loadCheckpoints(List<CrawlJob> jobs) {
+    return byJob(jobs, checkpointRepository.findAllById(jobIds(jobs)), CrawlCheckpoint::getId);
+  }
+
+  private Map<UUID, Long> countChildren(List<CrawlJob> jobs) {
+    var counts = new HashMap<UUID, Long>();
+    for (var row : jobRepository.countByParentJobIds(jobIds(jobs))) {
+      counts.put((UUID) row[0], (Long) row[1]);
+    }
+    return counts;
+  }
+
+  private List<UUID> jobIds(List<CrawlJob> jobs) {
+    return jobs.stream().map(CrawlJob::getId).toList();
+  }
+
+  /**
+   * Match rows keyed by job ID back to the requested jobs. Jobs without a row are left out (null).
    */
-  @SchemaMapping(typeName = "CrawlJob", field = "failedItemsList")
-  public FailedItemsResult failedItemsList(CrawlJob job) {
-    var checkpoint = checkpointRepository.findById(job.getId()).orElse(null);
+  private <T> Map<CrawlJob, T> byJob(List<CrawlJob> jobs, List<T> rows, Function<T, UUID> idOf) {
+    var rowsById = new HashMap<UUID, T>();
+    rows.forEach(row -> rowsById.put(idOf.apply(row), row));
+
+    var result = new HashMap<CrawlJob, T>();
+    for (var job : jobs) {
+      var row = rowsById.get(job.getId());
+      if (row != null) {
+        result.put(job, row);
+      }
+    }
+    return result;
+  }
+
+  private <T> Map<CrawlJob, T> toMap(List<CrawlJob> jobs, Function<CrawlJob, T> resolver) {
+    var result = new HashMap<CrawlJob, T>();
+    jobs.forEach(job -> result.put(job, resolver.apply(job)));
+    return result;
+  }
+
+  private FailedItemsResult failedItems(CrawlCheckpoint checkpoint) {
     var failedIndices = checkpoint != null ? checkpoint.getFailedItemIndices() : null;
 
     if (isEmpty(failedIndices)) {
@@ -281,13 +330,8 @@ public class CrawlJobFieldResolver {
         .build();
   }
 
-  /**
-   * Resolve images field (for IMAGE type jobs with downloadedImages in stateSnapshot).
-   */
-  @SchemaMapping(typeName = "CrawlJob", field = "images")
   @SuppressWarnings("unchecked")
-  public List<ImageDownloadStatus> images(CrawlJob job) {
-    var checkpoint = checkpointRepository.findById(job.getId()).orElse(null);
+  private List<ImageDownloadStatus> images(CrawlCheckpoint checkpoint) {
     if (checkpoint == null || checkpoint.getStateSnapshot() == null) {
       return emptyList();
     }
@@ -298,7 +342,11 @@ public class CrawlJobFieldResolver {
       return emptyList();
     }
 
-    return downloadedImages.stream()
+    // Entries are appended per download, so a re-downloaded image appears again: keep its last entry
+    var latestByIndex = new TreeMap<Integer, Map<String, Object>>();
+    downloadedImages.forEach(img -> latestByIndex.put(((Number) img.getOrDefault("index", 0)).intValue(), img));
+
+    return latestByIndex.values().stream()
         .map(img -> ImageDownloadStatus.builder()
             .index(((Number) img.getOrDefault("index", 0)).intValue())
             .originalUrl((String) img.get("url"))
@@ -311,22 +359,6 @@ public class CrawlJobFieldResolver {
         .toList();
   }
 
-  // ===== CrawlCheckpoint field resolvers =====
-
-  @SchemaMapping(typeName = "CrawlCheckpoint", field = "hasFailedItems")
-  public boolean hasFailedItems(CrawlCheckpoint checkpoint) {
-    return checkpoint.hasFailedItems();
-  }
-
-  // ===== CrawlSettings field resolvers =====
-
-  @SchemaMapping(typeName = "CrawlSettings", field = "hasRange")
-  public boolean hasRange(CrawlSettings settings) {
-    return settings.hasRange();
-  }
-
-  // ===== Helper methods =====
-
   private List<String> filterMessages(List<String> messages, MessageFilter filter) {
     if (filter == null) {
       return messages;
@@ -377,11 +409,40 @@ public class CrawlJobFieldResolver {
     };
   }
 
+  private AggregatedStats toStats(CrawlJobRollup rollup) {
+    if (rollup == null || rollup.getTotalJobs() == 0) {
+      return emptyStats();
+    }
+
+    return AggregatedStats.builder()
+        .totalChapters(rollup.getChapterJobs())
+        .totalImages(rollup.getImageJobs())
+        .totalBytes(rollup.getBytesDownloaded())
+        .failedItems(rollup.getFailedItems())
+        .byStatus(AggregatedStats.StatusCounts.builder()
+            .pending(rollup.getPendingJobs())
+            .running(rollup.getRunningJobs())
+            .completed(rollup.getCompletedJobs())
+            .failed(rollup.getFailedJobs())
+            .paused(rollup.getPausedJobs())
+            .cancelled(rollup.getCancelledJobs())
+            .build())
+        .byType(AggregatedStats.TypeCounts.builder()
+            .category(rollup.getCategoryJobs())
+            .comic(rollup.getComicJobs())
+            .chapter(rollup.getChapterJobs())
+            .image(rollup.getImageJobs())
+            .build())
+        .avgProgress(rollup.getAvgProgress())
+        .build();
+  }
+
   private AggregatedStats emptyStats() {
     return AggregatedStats.builder()
         .totalChapters(0)
         .totalImages(0)
         .totalBytes(0)
+        .failedItems(0)
         .byStatus(AggregatedStats.StatusCounts.builder()
             .pending(0).running(0).completed(0).failed(0).paused(0).cancelled(0)
             .build())
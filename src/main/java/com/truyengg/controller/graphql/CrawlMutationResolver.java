@@ -7,6 +7,7 @@ import com.truyengg.model.graphql.UpdateCrawlSettingsInput;
 import com.truyengg.model.request.CrawlJobRequest;
 import com.truyengg.security.UserPrincipal;
 import com.truyengg.service.auth.UserService;
+import com.truyengg.service.crawl.CrawlCheckpointService;
 import com.truyengg.service.crawl.CrawlJobService;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
@@ -23,7 +24,6 @@ import java.util.List;
 import java.util.UUID;
 
 import static com.truyengg.domain.enums.DownloadMode.FULL;
-import static java.time.ZonedDateTime.now;
 import static java.util.Collections.emptyList;
 
 /**
@@ -38,6 +38,7 @@ public class CrawlMutationResolver {
 
   CrawlJobService crawlJobService;
   CrawlCheckpointRepository checkpointRepository;
+  CrawlCheckpointService checkpointService;
   UserService userService;
 
   /**
@@ -176,16 +177,12 @@ public class CrawlMutationResolver {
       @Argument UUID jobId,
       @Argument List<Integer> indices
   ) {
-    var checkpoint = checkpointRepository.findById(jobId)
-        .orElseThrow(() -> new IllegalArgumentException("Checkpoint not found for job: " + jobId));
+    if (!checkpointRepository.existsById(jobId)) {
+      throw new IllegalArgumentException("Checkpoint not found for job: " + jobId);
+    }
 
     // Remove specified indices from failed list and add to retry queue
-    var failedIndices = checkpoint.getFailedItemIndices();
-    if (failedIndices != null) {
-      failedIndices.removeAll(indices);
-      checkpoint.setUpdatedAt(now());
-      checkpointRepository.save(checkpoint);
-    }
+    checkpointService.removeFailedIndices(jobId, indices);
 
     // Trigger retry
     return crawlJobService.retry(jobId);
@@ -196,15 +193,12 @@ public class CrawlMutationResolver {
    */
   @MutationMapping
   public CrawlJob retryAllFailedItems(@Argument UUID id) {
-    var checkpoint = checkpointRepository.findById(id)
-        .orElseThrow(() -> new IllegalArgumentException("Checkpoint not found for job: " + id));
+    if (!checkpointRepository.existsById(id)) {
+      throw new IllegalArgumentException("Checkpoint not found for job: " + id);
+    }
 
     // Clear failed indices to retry all
-    if (checkpoint.getFailedItemIndices() != null) {
-      checkpoint.getFailedItemIndices().clear();
-    }
-    checkpoint.setUpdatedAt(now());
-    checkpointRepository.save(checkpoint);
+    checkpointService.clearFailedIndices(id);
 
     return crawlJobService.retry(id);
   }
@@ -218,22 +212,17 @@ public class CrawlMutationResolver {
       @Argument List<Integer> indices
   ) {
     var job = crawlJobService.getById(id);
-    var checkpoint = checkpointRepository.findById(id)
-        .orElseThrow(() -> new IllegalArgumentException("Checkpoint not found for job: " + id));
+    if (!checkpointRepository.existsById(id)) {
+      throw new IllegalArgumentException("Checkpoint not found for job: " + id);
+    }
 
     // Remove from failed list (effectively skipping)
-    var failedIndices = checkpoint.getFailedItemIndices();
-    if (failedIndices != null) {
-      failedIndices.removeAll(indices);
-    }
+    checkpointService.removeFailedIndices(id, indices);
 
     // Update skipped count on job
     job.setSkippedItems(job.getSkippedItems() + indices.size());
     job.setFailedItems(Math.max(0, job.getFailedItems() - indices.size()));
 
-    checkpoint.setUpdatedAt(now());
-    checkpointRepository.save(checkpoint);
-
     return crawlJobService.getById(id);
   }
 }
@@ -10,6 +10,7 @@ public final class AppConstants {
 
   // Delay constants
   public static final int DATA_BUFFER_MAX_SIZE_BYTES = 10 * 1024 * 1024;
+  public static final long IMAGE_SPOOL_MAX_SIZE_BYTES = 100L * 1024 * 1024;
 
   public static final String MSG_FOUND = "Found ";
 
@@ -29,11 +30,6 @@ public final class AppConstants {
   public static final String API_CHAPTER = "/api/v1/manga/chapter";
   public static final String DEFAULT_DOMAIN = "https://truyenqqgo.com";
 
-  // API keys
-  public static final String API_KEY_RESPONSE = "response";
-  public static final String API_KEY_PAGES = "pages";
-  public static final String API_KEY_ID = "id";
-
   // User agents - Latest Chrome/Firefox versions (Dec 2024)
   public static final List<String> USER_AGENTS = List.of(
       "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/131.0.0.0 Safari/537.36",
@@ -4,6 +4,7 @@ import com.truyengg.domain.enums.AgeRating;
 import com.truyengg.domain.enums.ComicProgressStatus;
 import com.truyengg.domain.enums.ComicStatus;
 import com.truyengg.domain.enums.Gender;
+import com.truyengg.service.crawl.SeenSourceEntityListener;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -47,7 +48,7 @@ import java.util.List;
 @AllArgsConstructor
 @Builder
 @FieldDefaults(level = AccessLevel.PRIVATE)
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, SeenSourceEntityListener.class})
 public class Comic {
 
   @Id
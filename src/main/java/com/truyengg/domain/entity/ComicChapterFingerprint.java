@@ -0,0 +1,45 @@
+package com.truyengg.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+
+import java.time.ZonedDateTime;
+
+/**
+ * Last seen fingerprint of a comic's stored chapter source URLs, used by UPDATE-mode diffs.
+ */
+@Entity
+@Table(name = "comic_chapter_fingerprints")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ComicChapterFingerprint {
+
+  @Id
+  @Column(name = "comic_id")
+  Long comicId;
+
+  /**
+   * Order-independent combination of the 64-bit hashes of the normalized chapter URLs.
+   */
+  @Column(nullable = false)
+  long fingerprint;
+
+  @Column(name = "chapter_count", nullable = false)
+  int chapterCount;
+
+  @Column(name = "updated_at", nullable = false)
+  ZonedDateTime updatedAt;
+}
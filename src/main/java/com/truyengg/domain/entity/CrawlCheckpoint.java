@@ -1,5 +1,7 @@
 package com.truyengg.domain.entity;
 
+import com.truyengg.domain.enums.ImageTaskStatus;
+import com.truyengg.util.CheckpointCodec;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
@@ -23,11 +25,17 @@ import org.springframework.data.annotation.LastModifiedDate;
 
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
+import static com.truyengg.util.CheckpointCodec.addIndex;
+import static com.truyengg.util.CheckpointCodec.containsIndex;
+import static com.truyengg.util.CheckpointCodec.decodeIndices;
+import static com.truyengg.util.CheckpointCodec.encodeIndices;
+
 /**
  * Crawl checkpoint entity (1:1 with CrawlJob).
  * Unified last_item_index - meaning depends on crawl_type:
@@ -67,12 +75,10 @@ public class CrawlCheckpoint {
   int lastItemIndex = -1;
 
   /**
-   * Array of failed item indices for retry.
+   * Failed item indices for retry, as a bitset (see {@link CheckpointCodec}).
    */
-  @JdbcTypeCode(SqlTypes.ARRAY)
-  @Column(name = "failed_item_indices", columnDefinition = "INT[]")
-  @Builder.Default
-  List<Integer> failedItemIndices = new ArrayList<>();
+  @Column(name = "failed_items", columnDefinition = "BYTEA")
+  byte[] failedItems;
 
   /**
    * Nested failures: key = parent item index, value = array of failed child indices.
@@ -83,6 +89,19 @@ public class CrawlCheckpoint {
   @Builder.Default
   Map<Integer, List<Integer>> failedNestedItems = new HashMap<>();
 
+  /**
+   * Image URLs of a batched CHAPTER job, in page order.
+   */
+  @JdbcTypeCode(SqlTypes.ARRAY)
+  @Column(name = "image_urls", columnDefinition = "TEXT[]")
+  List<String> imageUrls;
+
+  /**
+   * One {@link ImageTaskStatus} code per entry of imageUrls.
+   */
+  @Column(name = "image_statuses", columnDefinition = "BYTEA")
+  byte[] imageStatuses;
+
   @Column(name = "resume_count", nullable = false)
   @Builder.Default
   int resumeCount = 0;
@@ -93,6 +112,12 @@ public class CrawlCheckpoint {
   @Column(name = "resumed_at")
   ZonedDateTime resumedAt;
 
+  /**
+   * Job whose pause also paused this one (the job itself when paused directly).
+   */
+  @Column(name = "paused_by")
+  UUID pausedBy;
+
   /**
    * State snapshot for complex resume scenarios.
    */
@@ -126,15 +151,23 @@ public class CrawlCheckpoint {
     this.lastItemIndex = index;
   }
 
+  /**
+   * Failed item indices in ascending order. Read-only view of the bitset.
+   */
+  public List<Integer> getFailedItemIndices() {
+    return decodeIndices(failedItems);
+  }
+
+  public void setFailedItemIndices(Collection<Integer> indices) {
+    this.failedItems = encodeIndices(indices);
+  }
+
   /**
    * Add a failed item index.
    */
   public void addFailedIndex(int index) {
-    if (failedItemIndices == null) {
-      failedItemIndices = new ArrayList<>();
-    }
-    if (!failedItemIndices.contains(index)) {
-      failedItemIndices.add(index);
+    if (!containsIndex(failedItems, index)) {
+      failedItems = addIndex(failedItems, index);
     }
   }
 
@@ -152,10 +185,25 @@ public class CrawlCheckpoint {
    * Check if there are failed items.
    */
   public boolean hasFailedItems() {
-    return (failedItemIndices != null && !failedItemIndices.isEmpty())
+    return !CheckpointCodec.isEmpty(failedItems)
         || (failedNestedItems != null && !failedNestedItems.isEmpty());
   }
 
+  /**
+   * Check if image tasks were stored for batch processing.
+   */
+  public boolean hasImageTasks() {
+    return imageUrls != null && !imageUrls.isEmpty()
+        && imageStatuses != null && imageStatuses.length == imageUrls.size();
+  }
+
+  /**
+   * Get status of an image task.
+   */
+  public ImageTaskStatus getImageStatus(int index) {
+    return ImageTaskStatus.fromCode(imageStatuses[index]);
+  }
+
   /**
    * Record pause time.
    */
@@ -0,0 +1,60 @@
+package com.truyengg.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+
+import java.time.ZonedDateTime;
+
+/**
+ * HTTP validators of a crawled page, used for conditional GET on re-crawls.
+ */
+@Entity
+@Table(name = "crawl_http_cache")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class CrawlHttpCache {
+
+  @Id
+  @Column(columnDefinition = "TEXT")
+  String url;
+
+  @Column(columnDefinition = "TEXT")
+  String etag;
+
+  @Column(name = "last_modified", columnDefinition = "TEXT")
+  String lastModified;
+
+  /**
+   * SHA-256 (hex) of the decoded response body.
+   */
+  @Column(name = "body_hash", nullable = false, length = 64)
+  String bodyHash;
+
+  @Column(name = "body_size", nullable = false)
+  long bodySize;
+
+  /**
+   * Time the handler spent parsing this page on the last full crawl.
+   */
+  @Column(name = "parse_millis", nullable = false)
+  long parseMillis;
+
+  @Column(name = "fetched_at", nullable = false)
+  ZonedDateTime fetchedAt;
+
+  @Column(name = "updated_at", nullable = false)
+  ZonedDateTime updatedAt;
+}
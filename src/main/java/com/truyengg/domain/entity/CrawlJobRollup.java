@@ -0,0 +1,86 @@
+package com.truyengg.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.hibernate.annotations.Immutable;
+
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+/**
+ * Aggregated counters of a job tree (descendants of a root job, soft-deleted jobs excluded).
+ * Maintained by database triggers in the same transaction as each job change (see V12 migration),
+ * so it is read-only here.
+ * Every job change in a tree updates this one row, so concurrent writers of the same tree serialize
+ * on its lock until commit (see V17 migration).
+ */
+@Entity
+@Immutable
+@Table(name = "crawl_job_rollup")
+@Getter
+@NoArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class CrawlJobRollup {
+
+  @Id
+  @Column(name = "root_job_id")
+  UUID rootJobId;
+
+  @Column(name = "total_jobs", nullable = false)
+  int totalJobs;
+
+  @Column(name = "pending_jobs", nullable = false)
+  int pendingJobs;
+
+  @Column(name = "running_jobs", nullable = false)
+  int runningJobs;
+
+  @Column(name = "paused_jobs", nullable = false)
+  int pausedJobs;
+
+  @Column(name = "completed_jobs", nullable = false)
+  int completedJobs;
+
+  @Column(name = "failed_jobs", nullable = false)
+  int failedJobs;
+
+  @Column(name = "cancelled_jobs", nullable = false)
+  int cancelledJobs;
+
+  @Column(name = "category_jobs", nullable = false)
+  int categoryJobs;
+
+  @Column(name = "comic_jobs", nullable = false)
+  int comicJobs;
+
+  @Column(name = "chapter_jobs", nullable = false)
+  int chapterJobs;
+
+  @Column(name = "image_jobs", nullable = false)
+  int imageJobs;
+
+  @Column(name = "failed_items", nullable = false)
+  long failedItems;
+
+  @Column(name = "bytes_downloaded", nullable = false)
+  long bytesDownloaded;
+
+  /**
+   * Sum of the completion percentages of all jobs in the tree.
+   */
+  @Column(name = "progress_sum", nullable = false)
+  double progressSum;
+
+  @Column(name = "updated_at", nullable = false)
+  ZonedDateTime updatedAt;
+
+  public double getAvgProgress() {
+    return totalJobs > 0 ? progressSum / totalJobs : 0;
+  }
+}
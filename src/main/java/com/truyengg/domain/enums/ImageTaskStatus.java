@@ -0,0 +1,46 @@
+package com.truyengg.domain.enums;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Status of a single image task inside a batched CHAPTER job.
+ * Stored as one byte per image in crawl_checkpoints.image_statuses.
+ */
+@Getter
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public enum ImageTaskStatus {
+  /**
+   * Waiting to be downloaded.
+   */
+  PENDING((byte) 0),
+
+  /**
+   * Downloaded, processed and stored.
+   */
+  COMPLETED((byte) 1),
+
+  /**
+   * Download or processing failed.
+   */
+  FAILED((byte) 2),
+
+  /**
+   * Skipped by range or skip settings.
+   */
+  SKIPPED((byte) 3);
+
+  byte code;
+
+  public static ImageTaskStatus fromCode(byte code) {
+    for (var status : values()) {
+      if (status.code == code) {
+        return status;
+      }
+    }
+    return PENDING;
+  }
+}
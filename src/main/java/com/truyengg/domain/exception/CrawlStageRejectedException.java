@@ -0,0 +1,21 @@
+package com.truyengg.domain.exception;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Thrown when a crawl pipeline stage is saturated: too many tasks already wait for a permit,
+ * or no permit became free within the configured wait.
+ */
+@Getter
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class CrawlStageRejectedException extends RuntimeException {
+
+  String stage;
+
+  public CrawlStageRejectedException(String stage, String message) {
+    super(message);
+    this.stage = stage;
+  }
+}
@@ -30,5 +30,7 @@ public interface ChapterImageRepository extends JpaRepository<ChapterImage, Long
 
   @Query("SELECT COUNT(ci) FROM ChapterImage ci WHERE ci.chapter = :chapter AND ci.isDownloaded = true AND ci.deletedAt IS NULL")
   long countDownloadedImagesByChapter(Chapter chapter);
-}
 
+  @Query("SELECT ci.originalUrl FROM ChapterImage ci WHERE ci.chapter.id = :chapterId AND ci.originalUrl IS NOT NULL")
+  List<String> findOriginalUrlsByChapterId(Long chapterId);
+}
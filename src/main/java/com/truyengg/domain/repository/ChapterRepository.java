@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,5 +28,8 @@ public interface ChapterRepository extends JpaRepository<Chapter, Long>, JpaSpec
 
   @Query("SELECT c FROM Chapter c WHERE c.comic = :comic AND c.deletedAt IS NULL ORDER BY c.createdAt ASC")
   List<Chapter> findActiveChaptersByComic(Comic comic);
+
+  @Query("SELECT c.comic.id, COUNT(c) FROM Chapter c WHERE c.comic.id IN :comicIds AND c.deletedAt IS NULL GROUP BY c.comic.id")
+  List<Object[]> countByComicIds(Collection<Long> comicIds);
 }
 
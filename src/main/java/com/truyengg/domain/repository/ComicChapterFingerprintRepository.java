@@ -0,0 +1,45 @@
+package com.truyengg.domain.repository;
+
+import com.truyengg.domain.entity.ComicChapterFingerprint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface ComicChapterFingerprintRepository extends JpaRepository<ComicChapterFingerprint, Long> {
+
+  @Transactional
+  @Modifying
+  @Query(value = """
+      INSERT INTO comic_chapter_fingerprints (comic_id, fingerprint, chapter_count, updated_at)
+      VALUES (:comicId, :fingerprint, :chapterCount, now())
+      ON CONFLICT (comic_id) DO UPDATE
+        SET fingerprint = EXCLUDED.fingerprint,
+            chapter_count = EXCLUDED.chapter_count,
+            updated_at = now()
+      """, nativeQuery = true)
+  void upsert(long comicId, long fingerprint, int chapterCount);
+
+  /**
+   * Stored fingerprint and chapter sources of a comic in one round trip.
+   * Rows are [source, fingerprint, chapter_count]: the stored fingerprint, if any, is the row with a
+   * NULL source; every other row is a stored source. When the stored fingerprint equals the given one
+   * the sources are not read at all.
+   */
+  @Query(value = """
+      WITH stored AS (SELECT fingerprint, chapter_count FROM comic_chapter_fingerprints WHERE comic_id = :comicId)
+      SELECT CAST(NULL AS VARCHAR) AS source, s.fingerprint, s.chapter_count
+      FROM stored s
+      UNION ALL
+      SELECT c.source, NULL, NULL
+      FROM chapters c
+      WHERE c.comic_id = :comicId
+        AND c.source IS NOT NULL
+        AND NOT EXISTS (SELECT 1 FROM stored s WHERE s.fingerprint = :fingerprint AND s.chapter_count = :chapterCount)
+      """, nativeQuery = true)
+  List<Object[]> findSourcesUnlessFingerprint(long comicId, long fingerprint, int chapterCount);
+}
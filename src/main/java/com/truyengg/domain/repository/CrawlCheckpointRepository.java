@@ -8,39 +8,156 @@ import org.springframework.stereotype.Repository;
 
 import java.time.ZonedDateTime;
 import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface CrawlCheckpointRepository extends JpaRepository<CrawlCheckpoint, UUID> {
 
   @Modifying
-  @Query("UPDATE CrawlCheckpoint c SET c.deletedAt = :now WHERE c.id IN :jobIds")
-  void softDeleteByJobIds(Collection<UUID> jobIds, ZonedDateTime now);
+  @Query(value = """
+      UPDATE crawl_checkpoints SET deleted_at = :now
+      WHERE id IN (SELECT descendant_id FROM crawl_job_closure WHERE ancestor_id = :jobId)
+      AND deleted_at IS NULL
+      """, nativeQuery = true)
+  int softDeleteSubtree(UUID jobId, ZonedDateTime now);
 
   @Modifying
-  @Query("UPDATE CrawlCheckpoint c SET c.deletedAt = NULL WHERE c.id IN :jobIds")
-  void restoreByJobIds(Collection<UUID> jobIds);
+  @Query(value = """
+      UPDATE crawl_checkpoints SET deleted_at = NULL
+      WHERE id IN (SELECT descendant_id FROM crawl_job_closure WHERE ancestor_id = :jobId)
+      AND deleted_at IS NOT NULL
+      """, nativeQuery = true)
+  int restoreSubtree(UUID jobId);
 
   @Modifying
   @Query("UPDATE CrawlCheckpoint c SET c.lastItemIndex = :index, c.updatedAt = :now WHERE c.id = :jobId")
   void updateLastItemIndex(UUID jobId, int index, ZonedDateTime now);
 
+  /**
+   * Record the pause of a set of jobs, marking which job's pause they belong to.
+   */
   @Modifying
   @Query("""
-      UPDATE CrawlCheckpoint c 
-      SET c.pausedAt = :now, 
-          c.updatedAt = :now 
-      WHERE c.id = :jobId
+      UPDATE CrawlCheckpoint c
+      SET c.pausedAt = :now,
+          c.pausedBy = :pausedBy,
+          c.updatedAt = :now
+      WHERE c.id IN :jobIds
+      """)
+  void recordPause(Collection<UUID> jobIds, UUID pausedBy, ZonedDateTime now);
+
+  @Modifying
+  @Query("""
+      UPDATE CrawlCheckpoint c
+      SET c.resumedAt = :now,
+          c.resumeCount = c.resumeCount + 1,
+          c.pausedBy = NULL,
+          c.updatedAt = :now
+      WHERE c.id IN :jobIds
       """)
-  void recordPause(UUID jobId, ZonedDateTime now);
+  void recordResume(Collection<UUID> jobIds, ZonedDateTime now);
+
+  @Query("SELECT c.id, c.lastItemIndex FROM CrawlCheckpoint c WHERE c.id IN :jobIds")
+  List<Object[]> findLastItemIndices(Collection<UUID> jobIds);
 
   @Modifying
   @Query("""
-      UPDATE CrawlCheckpoint c 
-      SET c.resumedAt = :now, 
-          c.resumeCount = c.resumeCount + 1, 
-          c.updatedAt = :now 
+      UPDATE CrawlCheckpoint c
+      SET c.imageUrls = :imageUrls,
+          c.imageStatuses = :imageStatuses,
+          c.updatedAt = :now
       WHERE c.id = :jobId
       """)
-  void recordResume(UUID jobId, ZonedDateTime now);
+  void saveImageTasks(UUID jobId, List<String> imageUrls, byte[] imageStatuses, ZonedDateTime now);
+
+  @Modifying
+  @Query(value = """
+      UPDATE crawl_checkpoints
+      SET image_statuses = set_byte(image_statuses, :index, :statusCode)
+      WHERE id = :jobId
+      """, nativeQuery = true)
+  void updateImageStatus(UUID jobId, int index, int statusCode);
+
+  // In-place deltas: failures and state entries are applied by the database without loading the row
+
+  @Modifying
+  @Query(value = """
+      UPDATE crawl_checkpoints
+      SET failed_items = bitset_apply(failed_items, CAST(:indices AS INT[]), 1),
+          updated_at = :now
+      WHERE id = :jobId
+      """, nativeQuery = true)
+  void addFailedIndices(UUID jobId, Integer[] indices, ZonedDateTime now);
+
+  @Modifying
+  @Query(value = """
+      UPDATE crawl_checkpoints
+      SET failed_items = bitset_apply(failed_items, CAST(:indices AS INT[]), 0),
+          updated_at = :now
+      WHERE id = :jobId
+      """, nativeQuery = true)
+  void removeFailedIndices(UUID jobId, Integer[] indices, ZonedDateTime now);
+
+  @Modifying
+  @Query(value = """
+      UPDATE crawl_checkpoints
+      SET failed_items = NULL,
+          failed_nested_items = '{}',
+          updated_at = :now
+      WHERE id = :jobId
+      """, nativeQuery = true)
+  void clearFailedItems(UUID jobId, ZonedDateTime now);
+
+  @Modifying
+  @Query(value = """
+      UPDATE crawl_checkpoints
+      SET failed_nested_items = jsonb_set(
+              COALESCE(failed_nested_items, '{}'),
+              ARRAY[CAST(:parentIndex AS TEXT)],
+              COALESCE(failed_nested_items -> CAST(:parentIndex AS TEXT), '[]') || to_jsonb(CAST(:childIndex AS INT))),
+          updated_at = :now
+      WHERE id = :jobId
+      AND NOT COALESCE(failed_nested_items -> CAST(:parentIndex AS TEXT) @> to_jsonb(CAST(:childIndex AS INT)), FALSE)
+      """, nativeQuery = true)
+  void addNestedFailure(UUID jobId, int parentIndex, int childIndex, ZonedDateTime now);
+
+  @Modifying
+  @Query(value = """
+      UPDATE crawl_checkpoints
+      SET state_snapshot = jsonb_set(COALESCE(state_snapshot, '{}'), ARRAY[CAST(:key AS TEXT)], CAST(:value AS JSONB)),
+          updated_at = :now
+      WHERE id = :jobId
+      """, nativeQuery = true)
+  void saveState(UUID jobId, String key, String value, ZonedDateTime now);
+
+  /**
+   * Set the status of one image task and append its entry to state_snapshot.downloadedImages in one
+   * statement, without reading the existing entries back.
+   * A re-downloaded image appends a second entry for its "index"; readers keep the last one.
+   */
+  @Modifying
+  @Query(value = """
+      UPDATE crawl_checkpoints
+      SET image_statuses = set_byte(image_statuses, :index, :statusCode),
+          state_snapshot = jsonb_set(
+              COALESCE(state_snapshot, '{}'),
+              '{downloadedImages}',
+              COALESCE(state_snapshot -> 'downloadedImages', '[]') || jsonb_build_array(CAST(:value AS JSONB))),
+          updated_at = :now
+      WHERE id = :jobId
+      """, nativeQuery = true)
+  void saveDownloadedImage(UUID jobId, int index, int statusCode, String value, ZonedDateTime now);
+
+  /**
+   * Trim trailing zero bytes left in failed-item bitsets by cleared bits.
+   */
+  @Modifying
+  @Query(value = """
+      UPDATE crawl_checkpoints
+      SET failed_items = bitset_trim(failed_items)
+      WHERE failed_items IS NOT NULL
+      AND CASE WHEN length(failed_items) = 0 THEN TRUE ELSE get_byte(failed_items, length(failed_items) - 1) = 0 END
+      """, nativeQuery = true)
+  int compactFailedItems();
 }
@@ -0,0 +1,19 @@
+package com.truyengg.domain.repository;
+
+import com.truyengg.domain.entity.CrawlHttpCache;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.ZonedDateTime;
+
+@Repository
+public interface CrawlHttpCacheRepository extends JpaRepository<CrawlHttpCache, String> {
+
+  @Transactional
+  @Modifying
+  @Query("UPDATE CrawlHttpCache c SET c.parseMillis = :parseMillis, c.updatedAt = :now WHERE c.url = :url")
+  void updateParseMillis(String url, long parseMillis, ZonedDateTime now);
+}
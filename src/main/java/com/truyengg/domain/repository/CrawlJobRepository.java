@@ -5,6 +5,7 @@ import com.truyengg.domain.enums.CrawlStatus;
 import com.truyengg.domain.enums.CrawlType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
@@ -20,6 +21,13 @@ import java.util.UUID;
 @Repository
 public interface CrawlJobRepository extends JpaRepository<CrawlJob, UUID>, JpaSpecificationExecutor<CrawlJob> {
 
+  /**
+   * Load a job with its parent and root so handlers can read them outside a session.
+   */
+  @EntityGraph(attributePaths = {"parentJob", "rootJob"})
+  @Query("SELECT j FROM CrawlJob j WHERE j.id = :id")
+  Optional<CrawlJob> findWithParentsById(UUID id);
+
   List<CrawlJob> findByStatusIn(Collection<CrawlStatus> statuses);
 
   long countByStatusIn(Collection<CrawlStatus> statuses);
@@ -33,6 +41,9 @@ public interface CrawlJobRepository extends JpaRepository<CrawlJob, UUID>, JpaSp
 
   long countByParentJobId(UUID parentJobId);
 
+  @Query("SELECT j.parentJob.id, COUNT(j) FROM CrawlJob j WHERE j.parentJob.id IN :parentJobIds GROUP BY j.parentJob.id")
+  List<Object[]> countByParentJobIds(Collection<UUID> parentJobIds);
+
   List<CrawlJob> findByRootJobId(UUID rootJobId);
 
   @Query("SELECT j FROM CrawlJob j WHERE j.parentJob IS NULL ORDER BY j.createdAt DESC")
@@ -54,13 +65,46 @@ public interface CrawlJobRepository extends JpaRepository<CrawlJob, UUID>, JpaSp
       """)
   List<Object[]> countByTypeAndStatus();
 
+  // Subtree operations select the job and all its descendants through crawl_job_closure
+
+  @Modifying
+  @Query(value = """
+      UPDATE crawl_jobs SET status = 'CANCELLED', completed_at = :now, updated_at = :now
+      WHERE id IN (SELECT descendant_id FROM crawl_job_closure WHERE ancestor_id = :jobId)
+      AND status IN ('PENDING', 'RUNNING', 'PAUSED')
+      AND deleted_at IS NULL
+      """, nativeQuery = true)
+  int cancelSubtree(UUID jobId, ZonedDateTime now);
+
   @Modifying
-  @Query("UPDATE CrawlJob j SET j.deletedAt = :now WHERE j.id IN :ids")
-  void softDeleteByIds(Collection<UUID> ids, ZonedDateTime now);
+  @Query(value = """
+      UPDATE crawl_jobs SET deleted_at = :now
+      WHERE id IN (SELECT descendant_id FROM crawl_job_closure WHERE ancestor_id = :jobId)
+      AND deleted_at IS NULL
+      """, nativeQuery = true)
+  int softDeleteSubtree(UUID jobId, ZonedDateTime now);
 
   @Modifying
-  @Query("UPDATE CrawlJob j SET j.deletedAt = NULL WHERE j.id IN :ids")
-  void restoreByIds(Collection<UUID> ids);
+  @Query(value = """
+      UPDATE crawl_jobs SET deleted_at = NULL
+      WHERE id IN (SELECT descendant_id FROM crawl_job_closure WHERE ancestor_id = :jobId)
+      AND deleted_at IS NOT NULL
+      """, nativeQuery = true)
+  int restoreSubtree(UUID jobId);
+
+  /**
+   * Paused descendants whose pause cascaded from this job.
+   */
+  @Query(value = """
+      SELECT j.id FROM crawl_jobs j
+      JOIN crawl_job_closure c ON c.descendant_id = j.id
+      JOIN crawl_checkpoints cp ON cp.id = j.id
+      WHERE c.ancestor_id = :jobId AND c.depth > 0
+      AND j.status = 'PAUSED'
+      AND cp.paused_by = :jobId
+      AND j.deleted_at IS NULL
+      """, nativeQuery = true)
+  List<UUID> findDescendantsPausedBy(UUID jobId);
 
   @Query(value = "SELECT * FROM crawl_jobs WHERE id = :id", nativeQuery = true)
   Optional<CrawlJob> findByIdIncludeDeleted(UUID id);
@@ -78,5 +122,11 @@ public interface CrawlJobRepository extends JpaRepository<CrawlJob, UUID>, JpaSp
       Collection<UUID> ids,
       CrawlStatus status,
       ZonedDateTime now);
+
+  @Query("SELECT j.id FROM CrawlJob j WHERE j.id IN :ids AND j.status = :status")
+  List<UUID> findIdsByIdInAndStatus(Collection<UUID> ids, CrawlStatus status);
+
+  @Query("SELECT j.id, j.status FROM CrawlJob j WHERE j.id IN :ids")
+  List<Object[]> findStatusesByIds(Collection<UUID> ids);
 }
 
@@ -0,0 +1,31 @@
+package com.truyengg.domain.repository;
+
+import com.truyengg.domain.entity.CrawlJobRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface CrawlJobRollupRepository extends JpaRepository<CrawlJobRollup, UUID> {
+
+  /**
+   * Roots with live descendants or a rollup row, i.e. every tree reconciliation has to look at.
+   */
+  @Query(value = """
+      SELECT root_job_id FROM crawl_jobs WHERE root_job_id IS NOT NULL AND deleted_at IS NULL
+      UNION
+      SELECT root_job_id FROM crawl_job_rollup
+      """, nativeQuery = true)
+  List<UUID> findRootJobIds();
+
+  /**
+   * Recompute the rollup of one tree under its row lock. Returns 1 if the row was corrected or removed.
+   */
+  @Transactional
+  @Query(value = "SELECT reconcile_crawl_job_rollup(:rootJobId)", nativeQuery = true)
+  int reconcile(UUID rootJobId);
+}
@@ -5,38 +5,139 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.ZonedDateTime;
-import java.util.Collection;
 import java.util.UUID;
 
+import static org.springframework.transaction.annotation.Propagation.REQUIRES_NEW;
+
 @Repository
 public interface CrawlProgressRepository extends JpaRepository<CrawlProgress, UUID> {
 
   @Modifying
-  @Query("UPDATE CrawlProgress p SET p.deletedAt = :now WHERE p.id IN :jobIds")
-  void softDeleteByJobIds(Collection<UUID> jobIds, ZonedDateTime now);
+  @Query(value = """
+      UPDATE crawl_progress SET deleted_at = :now
+      WHERE id IN (SELECT descendant_id FROM crawl_job_closure WHERE ancestor_id = :jobId)
+      AND deleted_at IS NULL
+      """, nativeQuery = true)
+  int softDeleteSubtree(UUID jobId, ZonedDateTime now);
+
+  @Modifying
+  @Query(value = """
+      UPDATE crawl_progress SET deleted_at = NULL
+      WHERE id IN (SELECT descendant_id FROM crawl_job_closure WHERE ancestor_id = :jobId)
+      AND deleted_at IS NOT NULL
+      """, nativeQuery = true)
+  int restoreSubtree(UUID jobId);
+
+  @Modifying
+  @Query(value = """
+      UPDATE crawl_progress SET message = :message, last_update_at = :now
+      WHERE id IN (SELECT descendant_id FROM crawl_job_closure WHERE ancestor_id = :jobId)
+      AND deleted_at IS NULL
+      """, nativeQuery = true)
+  int updateMessageSubtree(UUID jobId, String message, ZonedDateTime now);
+
+  /**
+   * Apply a flushed delta: counters, percent and buffered messages in one statement.
+   * Runs in its own transaction so a rollback of whatever work triggered the flush cannot drop counts
+   * that were already drained from the buffer.
+   */
+  @Transactional(propagation = REQUIRES_NEW)
+  @Modifying
+  @Query(value = """
+      UPDATE crawl_progress
+      SET completed_items = completed_items + :completed,
+          failed_items = failed_items + :failed,
+          skipped_items = skipped_items + :skipped,
+          bytes_downloaded = bytes_downloaded + :bytes,
+          message = COALESCE((CAST(:messages AS TEXT[]))[cardinality(CAST(:messages AS TEXT[]))], message),
+          messages = COALESCE(messages, '{}') || CAST(:messages AS TEXT[]),
+          last_update_at = :now,
+          percent = CASE WHEN total_items > 0
+                         THEN LEAST(100, (completed_items + :completed) * 100 / total_items)
+                         ELSE 0 END
+      WHERE id = :jobId
+      """, nativeQuery = true)
+  void applyDelta(UUID jobId, int completed, int failed, int skipped, long bytes, String[] messages,
+                  ZonedDateTime now);
+
+  @Transactional
+  @Modifying
+  @Query(value = """
+      UPDATE crawl_progress
+      SET message = :message,
+          messages = array_append(COALESCE(messages, '{}'), :message)
+      WHERE id = :jobId
+      """, nativeQuery = true)
+  void appendMessage(UUID jobId, String message);
+
+  // Field updates: each touches only its own columns, and percent is always derived from the
+  // counters already in the row, so these never overwrite concurrent deltas or message appends
+
+  @Transactional
+  @Modifying
+  @Query(value = """
+      UPDATE crawl_progress
+      SET started_at = :now,
+          last_update_at = :now
+      WHERE id = :jobId
+      """, nativeQuery = true)
+  void markStarted(UUID jobId, ZonedDateTime now);
+
+  @Transactional
+  @Modifying
+  @Query(value = """
+      UPDATE crawl_progress
+      SET item_index = :index,
+          item_name = :name,
+          item_url = :url,
+          last_update_at = :now
+      WHERE id = :jobId
+      """, nativeQuery = true)
+  void updateItem(UUID jobId, int index, String name, String url, ZonedDateTime now);
+
+  @Transactional
+  @Modifying
+  @Query(value = """
+      UPDATE crawl_progress
+      SET total_items = :totalItems,
+          percent = CASE WHEN :totalItems > 0 THEN LEAST(100, completed_items * 100 / :totalItems) ELSE 0 END,
+          last_update_at = :now
+      WHERE id = :jobId
+      """, nativeQuery = true)
+  void updateTotalItems(UUID jobId, int totalItems, ZonedDateTime now);
 
+  @Transactional
   @Modifying
-  @Query("UPDATE CrawlProgress p SET p.deletedAt = NULL WHERE p.id IN :jobIds")
-  void restoreByJobIds(Collection<UUID> jobIds);
+  @Query(value = """
+      UPDATE crawl_progress
+      SET item_index = :index,
+          item_name = :name,
+          total_items = :totalItems,
+          percent = CASE WHEN :totalItems > 0 THEN LEAST(100, completed_items * 100 / :totalItems) ELSE 0 END,
+          last_update_at = :now
+      WHERE id = :jobId
+      """, nativeQuery = true)
+  void updateProgress(UUID jobId, int index, String name, int totalItems, ZonedDateTime now);
 
+  @Transactional
   @Modifying
-  @Query("""
-      UPDATE CrawlProgress p
-      SET p.completedItems = p.completedItems + 1,
-          p.lastUpdateAt = :now,
-          p.percent = CASE WHEN p.totalItems > 0 THEN ((p.completedItems + 1) * 100 / p.totalItems) ELSE 0 END
-      WHERE p.id = :jobId
-      """)
-  void incrementCompletedItems(UUID jobId, ZonedDateTime now);
+  @Query(value = """
+      UPDATE crawl_progress
+      SET percent = 100,
+          last_update_at = :now
+      WHERE id = :jobId
+      """, nativeQuery = true)
+  void markFinished(UUID jobId, ZonedDateTime now);
 
+  @Transactional
   @Modifying
-  @Query("""
-      UPDATE CrawlProgress p
-      SET p.bytesDownloaded = p.bytesDownloaded + :bytes,
-          p.lastUpdateAt = :now
-      WHERE p.id = :jobId
-      """)
-  void addBytesDownloaded(UUID jobId, long bytes, ZonedDateTime now);
+  @Query(value = """
+      UPDATE crawl_progress
+      SET estimated_remaining_seconds = :seconds
+      WHERE id = :jobId
+      """, nativeQuery = true)
+  void updateEstimatedRemaining(UUID jobId, int seconds);
 }
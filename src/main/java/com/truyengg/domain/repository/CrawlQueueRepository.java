@@ -8,7 +8,6 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.ZonedDateTime;
-import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -18,13 +17,33 @@ public interface CrawlQueueRepository extends JpaRepository<CrawlQueue, UUID> {
   @Query("SELECT COUNT(q) FROM CrawlQueue q WHERE q.status = :status")
   long countByStatus(QueueStatus status);
 
+  /**
+   * Skip items of the subtree that have not started yet.
+   */
   @Modifying
-  @Query("UPDATE CrawlQueue q SET q.deletedAt = :now WHERE q.crawlJob.id IN :jobIds")
-  void softDeleteByJobIds(Collection<UUID> jobIds, ZonedDateTime now);
+  @Query(value = """
+      UPDATE crawl_queue SET status = 'SKIPPED', completed_at = :now
+      WHERE crawl_job_id IN (SELECT descendant_id FROM crawl_job_closure WHERE ancestor_id = :jobId)
+      AND status IN ('PENDING', 'DELAYED')
+      AND deleted_at IS NULL
+      """, nativeQuery = true)
+  int skipPendingSubtree(UUID jobId, ZonedDateTime now);
+
+  @Modifying
+  @Query(value = """
+      UPDATE crawl_queue SET deleted_at = :now
+      WHERE crawl_job_id IN (SELECT descendant_id FROM crawl_job_closure WHERE ancestor_id = :jobId)
+      AND deleted_at IS NULL
+      """, nativeQuery = true)
+  int softDeleteSubtree(UUID jobId, ZonedDateTime now);
 
   @Modifying
-  @Query("UPDATE CrawlQueue q SET q.deletedAt = NULL WHERE q.crawlJob.id IN :jobIds")
-  void restoreByJobIds(Collection<UUID> jobIds);
+  @Query(value = """
+      UPDATE crawl_queue SET deleted_at = NULL
+      WHERE crawl_job_id IN (SELECT descendant_id FROM crawl_job_closure WHERE ancestor_id = :jobId)
+      AND deleted_at IS NOT NULL
+      """, nativeQuery = true)
+  int restoreSubtree(UUID jobId);
 
   @Query(value = """
       SELECT * FROM crawl_queue
@@ -7,17 +7,24 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.ZonedDateTime;
-import java.util.Collection;
 import java.util.UUID;
 
 @Repository
 public interface CrawlSettingsRepository extends JpaRepository<CrawlSettings, UUID> {
 
   @Modifying
-  @Query("UPDATE CrawlSettings s SET s.deletedAt = :now WHERE s.id IN :jobIds")
-  void softDeleteByJobIds(Collection<UUID> jobIds, ZonedDateTime now);
+  @Query(value = """
+      UPDATE crawl_settings SET deleted_at = :now
+      WHERE id IN (SELECT descendant_id FROM crawl_job_closure WHERE ancestor_id = :jobId)
+      AND deleted_at IS NULL
+      """, nativeQuery = true)
+  int softDeleteSubtree(UUID jobId, ZonedDateTime now);
 
   @Modifying
-  @Query("UPDATE CrawlSettings s SET s.deletedAt = NULL WHERE s.id IN :jobIds")
-  void restoreByJobIds(Collection<UUID> jobIds);
+  @Query(value = """
+      UPDATE crawl_settings SET deleted_at = NULL
+      WHERE id IN (SELECT descendant_id FROM crawl_job_closure WHERE ancestor_id = :jobId)
+      AND deleted_at IS NOT NULL
+      """, nativeQuery = true)
+  int restoreSubtree(UUID jobId);
 }
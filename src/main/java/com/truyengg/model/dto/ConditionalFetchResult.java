@@ -0,0 +1,34 @@
+package com.truyengg.model.dto;
+
+/**
+ * Result of a conditional page fetch.
+ * unchanged is true on 304 Not Modified or when the body hash equals the cached one;
+ * body is empty on 304.
+ * etag and lastModified are the validators of a 200 response. The caller stores them only
+ * once the page has been processed, so a failed crawl is not skipped as unchanged next time.
+ */
+public record ConditionalFetchResult(
+    String body,
+    boolean unchanged,
+    boolean notModified,
+    long bytesSaved,
+    long parseMillisSaved,
+    String etag,
+    String lastModified
+) {
+
+  public static ConditionalFetchResult changed(String body) {
+    return changed(body, null, null);
+  }
+
+  public static ConditionalFetchResult changed(String body, String etag, String lastModified) {
+    return new ConditionalFetchResult(body, false, false, 0L, 0L, etag, lastModified);
+  }
+
+  /**
+   * Whether the response carried a body whose validators can be stored.
+   */
+  public boolean hasBody() {
+    return body != null && !body.isEmpty();
+  }
+}
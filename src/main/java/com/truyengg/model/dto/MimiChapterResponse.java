@@ -0,0 +1,9 @@
+package com.truyengg.model.dto;
+
+import java.util.List;
+
+/**
+ * Page image URLs returned by the MimiHentai chapter API. Unknown fields are ignored.
+ */
+public record MimiChapterResponse(List<String> pages) {
+}
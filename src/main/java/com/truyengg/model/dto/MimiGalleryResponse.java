@@ -0,0 +1,14 @@
+package com.truyengg.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * Chapter list returned by the MimiHentai gallery API. Unknown fields are ignored.
+ */
+public record MimiGalleryResponse(List<Chapter> response) {
+
+  public record Chapter(String id, @JsonProperty("manga_title") String mangaTitle) {
+  }
+}
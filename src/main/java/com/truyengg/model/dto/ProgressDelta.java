@@ -0,0 +1,66 @@
+package com.truyengg.model.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.lang.Math.max;
+import static java.util.Collections.emptyList;
+
+/**
+ * Pending progress counter changes for a job, merged in memory before being flushed.
+ */
+public record ProgressDelta(
+    int completed,
+    int failed,
+    int skipped,
+    long bytes,
+    List<String> messages,
+    int events
+) {
+
+  /**
+   * Maximum error messages kept per flush; older ones are dropped.
+   */
+  public static final int MAX_MESSAGES = 20;
+
+  public static ProgressDelta ofCompleted(int count, long bytes) {
+    return new ProgressDelta(count, 0, 0, bytes, emptyList(), 1);
+  }
+
+  public static ProgressDelta ofFailed(String message) {
+    return new ProgressDelta(0, 1, 0, 0L, message != null ? List.of(message) : emptyList(), 1);
+  }
+
+  /**
+   * A previously failed item that succeeded on retry: moves one item from failed to completed.
+   */
+  public static ProgressDelta ofRetried(long bytes) {
+    return new ProgressDelta(1, -1, 0, bytes, emptyList(), 1);
+  }
+
+  public static ProgressDelta ofSkipped() {
+    return new ProgressDelta(0, 0, 1, 0L, emptyList(), 1);
+  }
+
+  public ProgressDelta merge(ProgressDelta other) {
+    var mergedMessages = messages;
+    if (!other.messages.isEmpty()) {
+      var combined = new ArrayList<String>(messages.size() + other.messages.size());
+      combined.addAll(messages);
+      combined.addAll(other.messages);
+      mergedMessages = combined.subList(max(0, combined.size() - MAX_MESSAGES), combined.size());
+    }
+    return new ProgressDelta(
+        completed + other.completed,
+        failed + other.failed,
+        skipped + other.skipped,
+        bytes + other.bytes,
+        mergedMessages,
+        events + other.events
+    );
+  }
+
+  public boolean hasCounters() {
+    return completed != 0 || failed != 0 || skipped != 0 || bytes != 0L;
+  }
+}
@@ -0,0 +1,12 @@
+package com.truyengg.model.dto;
+
+/**
+ * Item to enqueue for a crawl job.
+ * The item index is the position in the parent's item list and becomes the child job's item index.
+ */
+public record QueueItemRequest(
+    String url,
+    String name,
+    int itemIndex
+) {
+}
@@ -0,0 +1,23 @@
+package com.truyengg.model.dto;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+
+import static java.nio.file.Files.deleteIfExists;
+
+/**
+ * Image downloaded to a temporary file, with its size and SHA-256 computed while streaming.
+ * Closing deletes the file.
+ */
+public record SpooledImage(Path file, long size, String sha256) implements AutoCloseable {
+
+  @Override
+  public void close() {
+    try {
+      deleteIfExists(file);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to delete spooled image " + file, e);
+    }
+  }
+}
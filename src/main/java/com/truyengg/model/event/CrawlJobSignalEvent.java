@@ -0,0 +1,15 @@
+package com.truyengg.model.event;
+
+import com.truyengg.domain.enums.CrawlStatus;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Event published when jobs are paused, resumed or cancelled.
+ * Running handlers are signalled only after the status change commits, so they never
+ * stop on (or continue past) a change that is later rolled back.
+ * The signal is PAUSED, CANCELLED, or RUNNING for a resume.
+ */
+public record CrawlJobSignalEvent(List<UUID> jobIds, CrawlStatus signal) {
+}
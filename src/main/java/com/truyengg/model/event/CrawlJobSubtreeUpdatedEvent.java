@@ -0,0 +1,16 @@
+package com.truyengg.model.event;
+
+import java.util.UUID;
+
+/**
+ * Event published once when a job and its whole subtree were updated by set-based statements.
+ * Carries the affected row counts instead of one event per descendant job.
+ */
+public record CrawlJobSubtreeUpdatedEvent(UUID jobId, Operation operation, int jobs, int queueItems) {
+
+  public enum Operation {
+    CANCELLED,
+    DELETED,
+    RESTORED
+  }
+}
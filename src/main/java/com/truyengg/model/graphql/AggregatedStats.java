@@ -16,6 +16,7 @@ public class AggregatedStats {
   int totalChapters;
   int totalImages;
   long totalBytes;
+  long failedItems;
   StatusCounts byStatus;
   TypeCounts byType;
   double avgProgress;
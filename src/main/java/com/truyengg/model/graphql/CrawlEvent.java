@@ -31,6 +31,8 @@ public class CrawlEvent {
     JOB_COMPLETED,
     JOB_FAILED,
     JOB_CANCELLED,
+    JOB_DELETED,
+    JOB_RESTORED,
     CHILD_CREATED,
     PROGRESS_UPDATE,
     MESSAGE_ADDED,
@@ -0,0 +1,63 @@
+package com.truyengg.model.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+import static java.time.Duration.ofMinutes;
+import static java.time.Duration.ofSeconds;
+
+/**
+ * Connection pool settings of the shared crawl WebClient.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "truyengg.crawl.http")
+@Getter
+@Setter
+public class CrawlHttpProperties {
+
+  /**
+   * Maximum open connections per remote host (Reactor Netty keeps one pool per host).
+   */
+  private int maxConnectionsPerHost = 8;
+
+  /**
+   * Maximum requests waiting for a connection per host before failing fast.
+   */
+  private int pendingAcquireMaxCount = 256;
+
+  /**
+   * Maximum time to wait for a pooled connection.
+   */
+  private Duration pendingAcquireTimeout = ofSeconds(30);
+
+  /**
+   * Idle connections are closed after this time.
+   */
+  private Duration maxIdleTime = ofSeconds(30);
+
+  /**
+   * Connections are recycled after this lifetime.
+   */
+  private Duration maxLifeTime = ofMinutes(5);
+
+  /**
+   * Interval of background eviction of idle/expired connections.
+   */
+  private Duration evictionInterval = ofSeconds(30);
+
+  private Duration connectTimeout = ofSeconds(5);
+
+  /**
+   * Negotiate HTTP/2 over TLS (falls back to HTTP/1.1).
+   */
+  private boolean http2 = false;
+
+  /**
+   * Use cleartext HTTP/2 (h2c) - for local stub servers only.
+   */
+  private boolean h2c = false;
+}
@@ -0,0 +1,63 @@
+package com.truyengg.model.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Concurrency limits for the staged crawl pipeline.
+ * DB-bound limits should stay below the Hikari pool size; CPU-bound limits default to the core count.
+ * These limits are global across all jobs, while CrawlSettings.parallelLimit bounds the fan-out of a
+ * single job: a stage runs at most min(stage permits, sum of parallelLimit over running jobs) tasks.
+ * Sizing fetch-permits near max-concurrent-jobs x the typical parallelLimit keeps jobs from queueing
+ * behind each other at the fetch stage.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "truyengg.crawl.pipeline")
+@Getter
+@Setter
+public class CrawlPipelineProperties {
+
+  /**
+   * Maximum crawl jobs executing at once (DB-bound: each running job holds connections for progress and checkpoints).
+   */
+  private int maxConcurrentJobs = 8;
+
+  /**
+   * Maximum concurrent HTTP requests (fetch stage, I/O-bound).
+   */
+  private int fetchPermits = 32;
+
+  /**
+   * Maximum concurrent HTML/JSON parses (parse stage, CPU-bound). 0 = available processors.
+   */
+  private int parsePermits = 0;
+
+  /**
+   * Maximum concurrent image compressions (image process stage, CPU- and heap-bound). 0 = available processors.
+   */
+  private int processPermits = 0;
+
+  /**
+   * Maximum concurrent storage uploads (upload stage, I/O-bound).
+   */
+  private int uploadPermits = 16;
+
+  /**
+   * Longest wait for a fetch, parse, process or upload permit before the task is rejected.
+   */
+  private Duration acquireTimeout = Duration.ofMinutes(2);
+
+  /**
+   * Longest wait for a job slot before the job is deferred and re-dispatched later (a running job holds its slot until it ends).
+   */
+  private Duration jobAcquireTimeout = Duration.ofMinutes(30);
+
+  /**
+   * Maximum tasks waiting for a permit of one stage; further tasks are rejected immediately.
+   */
+  private int maxWaiting = 1024;
+}
@@ -0,0 +1,75 @@
+package com.truyengg.model.properties;
+
+import com.truyengg.domain.enums.CrawlSourceType;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import static com.truyengg.domain.enums.CrawlSourceType.API;
+import static com.truyengg.domain.enums.CrawlSourceType.HTML;
+
+/**
+ * Per-host token bucket settings for outgoing crawl requests.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "truyengg.crawl.rate-limit")
+@Getter
+@Setter
+public class CrawlRateLimitProperties {
+
+  /**
+   * Enable per-host rate limiting.
+   */
+  private boolean enabled = true;
+
+  /**
+   * Lowest refill rate (tokens per second) adaptive throttling may fall to.
+   */
+  private double minRefillPerSecond = 0.05;
+
+  /**
+   * Refill rate restored per successful request after a throttle, as a fraction of the configured rate.
+   */
+  private double recoveryStep = 0.05;
+
+  /**
+   * Bucket settings per source type.
+   */
+  private Map<CrawlSourceType, Bucket> sources = defaultSources();
+
+  /**
+   * Get bucket settings for a source type, falling back to HTML settings.
+   */
+  public Bucket forSource(CrawlSourceType sourceType) {
+    var bucket = sources.get(sourceType);
+    return bucket != null ? bucket : sources.getOrDefault(HTML, new Bucket());
+  }
+
+  private static Map<CrawlSourceType, Bucket> defaultSources() {
+    var defaults = new EnumMap<CrawlSourceType, Bucket>(CrawlSourceType.class);
+    defaults.put(HTML, new Bucket());
+    var api = new Bucket();
+    api.setCapacity(4);
+    api.setRefillPerSecond(2.0);
+    defaults.put(API, api);
+    return defaults;
+  }
+
+  @Getter
+  @Setter
+  public static class Bucket {
+    /**
+     * Maximum burst size per host.
+     */
+    private int capacity = 2;
+
+    /**
+     * Tokens added per second per host.
+     */
+    private double refillPerSecond = 1.0;
+  }
+}
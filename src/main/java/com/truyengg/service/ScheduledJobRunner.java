@@ -4,7 +4,7 @@ import com.truyengg.security.jwt.RefreshTokenService;
 import com.truyengg.security.jwt.TokenBlacklistService;
 import com.truyengg.service.crawl.CrawlCleanupService;
 import com.truyengg.service.crawl.CrawlQueueProcessor;
-import com.truyengg.service.crawl.PauseStateService;
+import com.truyengg.service.crawl.JobControlSignals;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
@@ -29,7 +29,7 @@ public class ScheduledJobRunner implements CommandLineRunner {
   JobScheduler jobScheduler;
   RefreshTokenService refreshTokenService;
   TokenBlacklistService tokenBlacklistService;
-  PauseStateService pauseStateService;
+  JobControlSignals jobControlSignals;
   CrawlCleanupService crawlCleanupService;
   CrawlQueueProcessor crawlQueueProcessor;
 
@@ -45,7 +45,7 @@ public class ScheduledJobRunner implements CommandLineRunner {
 
     jobScheduler.scheduleRecurrently("pause-state-cleanup",
         hourly(),
-        pauseStateService::cleanup);
+        jobControlSignals::cleanup);
 
     jobScheduler.scheduleRecurrently("crawl-cleanup",
         daily(4, 0),
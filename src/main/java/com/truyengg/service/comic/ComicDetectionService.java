@@ -13,6 +13,8 @@ import org.apache.commons.lang3.StringUtils;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
+import org.jsoup.select.Evaluator;
+import org.jsoup.select.QueryParser;
 import org.springframework.stereotype.Service;
 
 import java.net.URI;
@@ -21,6 +23,7 @@ import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -29,50 +32,35 @@ import java.util.regex.Pattern;
 @Slf4j
 public class ComicDetectionService {
 
+  private static final Pattern AUTHOR_PATTERN = Pattern.compile("(?:Tác giả|Author)[:：]\\s*(.+?)(?:\\n|$)");
+  private static final Pattern COUNTRY_PATTERN = Pattern.compile("(?:Quốc gia|Country)[:：]\\s*(.+?)(?:\\n|$)");
+  private static final Pattern COUNT_PATTERN = Pattern.compile("(\\d+(?:[,\\.]\\d+)*)");
+  private static final Pattern SEPARATOR_PATTERN = Pattern.compile("[,\\.]");
+  private static final Pattern NUMBER_PATTERN = Pattern.compile("(\\d+)");
+  private static final Pattern WHITESPACE_PATTERN = Pattern.compile("\\s+");
+  private static final Pattern CHAPTER_TITLE_NUMBER_PATTERN = Pattern.compile("(?i)(?:chapter|chap|chương)\\s*(\\d+)");
+  private static final Pattern CHAPTER_URL_NUMBER_PATTERN = Pattern.compile("(?:chapter|chap|chuong)[-_]?(\\d+)");
+  private static final Pattern CHAPTER_PATH_PATTERN = Pattern.compile("/(?:chapter|chap|chuong)[-_]?\\d+.*$");
+  private static final Evaluator TITLE_FALLBACK = QueryParser.parse("h1, title");
+
+  // Source profiles per host, built on first use
+  private final Map<String, SourceProfile> profiles = new ConcurrentHashMap<>();
+
   public ComicInfo detectComicInfoHtmlBased(String url, Document doc) {
+    var profile = profileFor(url);
+
     // Extract source URL (normalize to base comic URL)
     String source = normalizeComicUrl(url);
 
-    // Comic name from h1 or title - try multiple selectors
-    String name = "";
-
-    // TruyenQQ specific selectors first
-    String[] nameSelectors = {
-        "h1.detail-title",
-        "h1.txt-primary",
-        "h1.title",
-        "h1.book-title",
-        "article h1",
-        "div.detail-info h1",
-        "div.book-info h1",
-        "div.manga-info h1",
-        "div.comic-info h1",
-        "h1"
-    };
-
-    for (String selector : nameSelectors) {
-      Elements h1Elements = doc.select(selector);
-      if (!h1Elements.isEmpty()) {
-        name = h1Elements.first().text().trim();
-        // Clean up common suffixes
-        name = name.replaceAll("\\s*[-–]\\s*TruyenQQ.*$", "").trim();
-        name = name.replaceAll("\\s*[-–]\\s*Đọc.*$", "").trim();
-        if (StringUtils.isNotBlank(name)) {
-          log.debug("Found comic name '{}' using selector '{}'", name, selector);
-          break;
-        }
-      }
-    }
+    // Comic name from h1 or title - try the selector that won last time for this domain first
+    String name = detectName(profile, doc);
 
     // Fallback to title tag
     if (StringUtils.isBlank(name)) {
       String title = doc.title();
       if (StringUtils.isNotBlank(title)) {
         // Clean up title - remove common suffixes
-        name = title.replaceAll("\\s*[-–|]\\s*TruyenQQ.*$", "")
-            .replaceAll("\\s*[-–|]\\s*Đọc.*$", "")
-            .replaceAll("\\s*[-–|]\\s*Truyện.*$", "")
-            .trim();
+        name = profile.stripTitleSuffixes(title);
         log.debug("Found comic name '{}' from title tag", name);
       }
     }
@@ -85,9 +73,9 @@ public class ComicDetectionService {
 
     // Origin name (alternative name)
     String originName = "";
-    Elements originElements = doc.select("div.detail-info, div.info, div.meta");
+    Elements originElements = doc.select(profile.getOriginInfo());
     for (Element info : originElements) {
-      Elements labels = info.select("span.label, span.title, strong");
+      Elements labels = info.select(profile.getOriginLabel());
       for (Element label : labels) {
         String labelText = label.text().toLowerCase();
         if (labelText.contains("tên gốc") || labelText.contains("origin") || labelText.contains("tên khác")) {
@@ -105,9 +93,8 @@ public class ComicDetectionService {
 
     // Description/content
     String content = "";
-    Elements descElements = doc.select("div.detail-content, div.description, div.summary, div.content, meta[name=description]");
-    if (!descElements.isEmpty()) {
-      Element desc = descElements.first();
+    Element desc = doc.selectFirst(profile.getDescription());
+    if (desc != null) {
       if ("meta".equals(desc.tagName())) {
         content = desc.attr("content");
       } else {
@@ -117,18 +104,16 @@ public class ComicDetectionService {
 
     // Author
     String author = "";
-    Elements authorElements = doc.select("div.detail-info a[href*='author'], div.info a[href*='author'], " +
-        "span:contains('Tác giả'), span:contains('Author')");
-    if (!authorElements.isEmpty()) {
-      author = authorElements.first().text().trim();
+    Element authorElement = doc.selectFirst(profile.getAuthor());
+    if (authorElement != null) {
+      author = authorElement.text().trim();
     } else {
       // Try to find in info sections
-      Elements infoSections = doc.select("div.detail-info, div.info");
+      Elements infoSections = doc.select(profile.getAuthorInfo());
       for (Element section : infoSections) {
         String text = section.text();
         if (text.contains("Tác giả") || text.contains("Author")) {
-          Pattern pattern = Pattern.compile("(?:Tác giả|Author)[:：]\\s*(.+?)(?:\\n|$)");
-          Matcher matcher = pattern.matcher(text);
+          Matcher matcher = AUTHOR_PATTERN.matcher(text);
           if (matcher.find()) {
             author = matcher.group(1).trim();
             break;
@@ -139,10 +124,8 @@ public class ComicDetectionService {
 
     // Thumbnail
     String thumbUrl = "";
-    Elements thumbElements = doc.select("div.detail-cover img, div.cover img, img[src*='thumb'], " +
-        "meta[property=og:image]");
-    if (!thumbElements.isEmpty()) {
-      Element thumb = thumbElements.first();
+    Element thumb = doc.selectFirst(profile.getThumbnail());
+    if (thumb != null) {
       if ("meta".equals(thumb.tagName())) {
         thumbUrl = thumb.attr("content");
       } else {
@@ -163,22 +146,25 @@ public class ComicDetectionService {
       }
     }
 
+    // Info sections: text-based detection only looks at them, not the whole page
+    Elements infoScope = doc.select(profile.getInfoScope());
+    String infoText = (infoScope.isEmpty() ? doc.text() : infoScope.text()).toLowerCase();
+
     // Progress Status (ONGOING/COMPLETED)
     ComicProgressStatus progressStatus = ComicProgressStatus.ONGOING;
-    String statusText = doc.text().toLowerCase();
-    if (statusText.contains("hoàn thành") || statusText.contains("completed") ||
-        statusText.contains("đã hoàn thành") || statusText.contains("finished")) {
+    if (infoText.contains("hoàn thành") || infoText.contains("completed") ||
+        infoText.contains("đã hoàn thành") || infoText.contains("finished")) {
       progressStatus = ComicProgressStatus.COMPLETED;
     }
 
     // Extract additional fields
-    Long likes = extractLikes(doc);
-    Long follows = extractFollows(doc);
-    Integer totalChapters = extractTotalChapters(doc);
+    Long likes = extractCount(doc, infoScope, profile.getLikes(), "likes");
+    Long follows = extractCount(doc, infoScope, profile.getFollows(), "follows");
+    Integer totalChapters = extractTotalChapters(doc, infoScope, profile.getTotalChapters());
     ZonedDateTime lastChapterUpdatedAt = extractLastChapterUpdatedAt(doc);
-    AgeRating ageRating = extractAgeRating(doc);
-    Gender gender = extractGender(doc);
-    String country = extractCountry(doc);
+    AgeRating ageRating = extractAgeRating(infoText);
+    Gender gender = extractGender(infoText);
+    String country = extractCountry(doc, infoScope, profile.getCountry());
 
     // Slug will be generated by SlugService, so we pass empty string here
     return new ComicInfo(
@@ -228,9 +214,9 @@ public class ComicDetectionService {
 
     // Fallback to HTML parsing
     if (doc != null && name.isEmpty()) {
-      Elements titleElements = doc.select("h1, title");
-      if (!titleElements.isEmpty()) {
-        name = titleElements.first().text().trim();
+      Element titleElement = doc.selectFirst(TITLE_FALLBACK);
+      if (titleElement != null) {
+        name = titleElement.text().trim();
       }
     }
 
@@ -262,9 +248,9 @@ public class ComicDetectionService {
   public ChapterInfo detectChapterInfo(String url, Document doc, List<String> imageUrls) {
     // Chapter title
     String chapterTitle = "";
-    Elements h1Elements = doc.select("h1.detail-title.txt-primary, h1.detail-title, h1");
-    if (!h1Elements.isEmpty()) {
-      chapterTitle = h1Elements.first().text().trim().replaceAll("\\s+", " ");
+    Element h1Element = doc.selectFirst(profileFor(url).getChapterTitle());
+    if (h1Element != null) {
+      chapterTitle = WHITESPACE_PATTERN.matcher(h1Element.text().trim()).replaceAll(" ");
     }
 
     // Chapter name/number from title or URL
@@ -353,16 +339,14 @@ public class ComicDetectionService {
   private String extractChapterNameFromTitleOrUrl(String title, String url) {
     // Try to extract from title first
     if (StringUtils.isNotBlank(title)) {
-      Pattern pattern = Pattern.compile("(?i)(?:chapter|chap|chương)\\s*(\\d+)");
-      Matcher matcher = pattern.matcher(title);
+      Matcher matcher = CHAPTER_TITLE_NUMBER_PATTERN.matcher(title);
       if (matcher.find()) {
         return "chapter-" + matcher.group(1);
       }
     }
 
     // Fallback to URL
-    Pattern pattern = Pattern.compile("(?:chapter|chap|chuong)[-_]?(\\d+)");
-    Matcher matcher = pattern.matcher(url);
+    Matcher matcher = CHAPTER_URL_NUMBER_PATTERN.matcher(url);
     if (matcher.find()) {
       return "chapter-" + matcher.group(1);
     }
@@ -376,7 +360,7 @@ public class ComicDetectionService {
       var uri = new URI(url);
       var path = uri.getPath();
       // Remove chapter-specific paths
-      path = path.replaceAll("/(?:chapter|chap|chuong)[-_]?\\d+.*$", "");
+      path = CHAPTER_PATH_PATTERN.matcher(path).replaceAll("");
       return uri.getScheme() + "://" + uri.getHost() + path;
     } catch (Exception e) {
       log.warn("Failed to normalize comic URL: {}", url, e);
@@ -435,50 +419,24 @@ public class ComicDetectionService {
     return names;
   }
 
-  private Long extractLikes(Document doc) {
+  private Long extractCount(Document doc, Elements infoScope, Evaluator evaluator, String field) {
     try {
-      var elements = doc.select("span:contains('Lượt thích'), span:contains('Likes'), " +
-          "div:contains('Lượt thích'), div:contains('Likes')");
-      for (var element : elements) {
-        var text = element.text();
-        var pattern = Pattern.compile("(\\d+(?:[,\\.]\\d+)*)");
-        var matcher = pattern.matcher(text);
+      for (var element : selectScoped(doc, infoScope, evaluator)) {
+        var matcher = COUNT_PATTERN.matcher(element.text());
         if (matcher.find()) {
-          return Long.parseLong(matcher.group(1).replaceAll("[,\\.]", ""));
+          return Long.parseLong(SEPARATOR_PATTERN.matcher(matcher.group(1)).replaceAll(""));
         }
       }
     } catch (Exception e) {
-      log.debug("Failed to extract likes", e);
+      log.debug("Failed to extract {}", field, e);
     }
     return 0L;
   }
 
-  private Long extractFollows(Document doc) {
+  private Integer extractTotalChapters(Document doc, Elements infoScope, Evaluator evaluator) {
     try {
-      var elements = doc.select("span:contains('Theo dõi'), span:contains('Follows'), " +
-          "div:contains('Theo dõi'), div:contains('Follows')");
-      for (var element : elements) {
-        var text = element.text();
-        var pattern = Pattern.compile("(\\d+(?:[,\\.]\\d+)*)");
-        var matcher = pattern.matcher(text);
-        if (matcher.find()) {
-          return Long.parseLong(matcher.group(1).replaceAll("[,\\.]", ""));
-        }
-      }
-    } catch (Exception e) {
-      log.debug("Failed to extract follows", e);
-    }
-    return 0L;
-  }
-
-  private Integer extractTotalChapters(Document doc) {
-    try {
-      var elements = doc.select("span:contains('Số chương'), span:contains('Chapters'), " +
-          "div:contains('Số chương'), div:contains('Chapters')");
-      for (var element : elements) {
-        var text = element.text();
-        var pattern = Pattern.compile("(\\d+)");
-        var matcher = pattern.matcher(text);
+      for (var element : selectScoped(doc, infoScope, evaluator)) {
+        var matcher = NUMBER_PATTERN.matcher(element.text());
         if (matcher.find()) {
           return Integer.parseInt(matcher.group(1));
         }
@@ -496,46 +454,32 @@ public class ComicDetectionService {
     return null;
   }
 
-  private AgeRating extractAgeRating(Document doc) {
-    try {
-      var text = doc.text().toLowerCase();
-      if (text.contains("18+") || text.contains("mature") || text.contains("người lớn")) {
-        return AgeRating.MATURE;
-      } else if (text.contains("16+")) {
-        return AgeRating.SIXTEEN_PLUS;
-      } else if (text.contains("13+")) {
-        return AgeRating.THIRTEEN_PLUS;
-      }
-    } catch (Exception e) {
-      log.debug("Failed to extract age rating", e);
+  private AgeRating extractAgeRating(String text) {
+    if (text.contains("18+") || text.contains("mature") || text.contains("người lớn")) {
+      return AgeRating.MATURE;
+    } else if (text.contains("16+")) {
+      return AgeRating.SIXTEEN_PLUS;
+    } else if (text.contains("13+")) {
+      return AgeRating.THIRTEEN_PLUS;
     }
     return AgeRating.ALL;
   }
 
-  private Gender extractGender(Document doc) {
-    try {
-      var text = doc.text().toLowerCase();
-      if (text.contains("nam") || text.contains("male") || text.contains("shounen")) {
-        return Gender.MALE;
-      } else if (text.contains("nữ") || text.contains("female") || text.contains("shoujo")) {
-        return Gender.FEMALE;
-      } else if (text.contains("cả hai") || text.contains("both") || text.contains("seinen") || text.contains("josei")) {
-        return Gender.BOTH;
-      }
-    } catch (Exception e) {
-      log.debug("Failed to extract gender", e);
+  private Gender extractGender(String text) {
+    if (text.contains("nam") || text.contains("male") || text.contains("shounen")) {
+      return Gender.MALE;
+    } else if (text.contains("nữ") || text.contains("female") || text.contains("shoujo")) {
+      return Gender.FEMALE;
+    } else if (text.contains("cả hai") || text.contains("both") || text.contains("seinen") || text.contains("josei")) {
+      return Gender.BOTH;
     }
     return Gender.BOTH;
   }
 
-  private String extractCountry(Document doc) {
+  private String extractCountry(Document doc, Elements infoScope, Evaluator evaluator) {
     try {
-      var elements = doc.select("span:contains('Quốc gia'), span:contains('Country'), " +
-          "div:contains('Quốc gia'), div:contains('Country')");
-      for (var element : elements) {
-        var text = element.text();
-        var pattern = Pattern.compile("(?:Quốc gia|Country)[:：]\\s*(.+?)(?:\\n|$)");
-        var matcher = pattern.matcher(text);
+      for (var element : selectScoped(doc, infoScope, evaluator)) {
+        var matcher = COUNTRY_PATTERN.matcher(element.text());
         if (matcher.find()) {
           return matcher.group(1).trim();
         }
@@ -545,4 +489,62 @@ public class ComicDetectionService {
     }
     return null;
   }
+
+  /**
+   * Match inside the info sections first; only scan the whole document when they have no match.
+   */
+  private Elements selectScoped(Document doc, Elements infoScope, Evaluator evaluator) {
+    var scoped = new Elements();
+    for (var section : infoScope) {
+      scoped.addAll(section.select(evaluator));
+    }
+    return scoped.isEmpty() ? doc.select(evaluator) : scoped;
+  }
+
+  private SourceProfile profileFor(String url) {
+    return profiles.computeIfAbsent(extractHost(url), SourceProfile::forHost);
+  }
+
+  private String extractHost(String url) {
+    try {
+      var host = new URI(url).getHost();
+      return host != null ? host : "";
+    } catch (Exception e) {
+      return "";
+    }
+  }
+
+  private String detectName(SourceProfile profile, Document doc) {
+    var winner = profile.getWinningNameSelector();
+    var name = matchName(profile, doc, winner);
+    if (StringUtils.isNotBlank(name)) {
+      return name;
+    }
+
+    var selectors = profile.getNameSelectors();
+    for (var i = 0; i < selectors.size(); i++) {
+      if (i == winner) {
+        continue;
+      }
+      name = matchName(profile, doc, i);
+      if (StringUtils.isNotBlank(name)) {
+        profile.setWinningNameSelector(i);
+        return name;
+      }
+    }
+    return "";
+  }
+
+  private String matchName(SourceProfile profile, Document doc, int selectorIndex) {
+    Element element = doc.selectFirst(profile.getNameSelectors().get(selectorIndex));
+    if (element == null) {
+      return "";
+    }
+    // Clean up common suffixes
+    var name = profile.stripNameSuffixes(element.text().trim());
+    if (StringUtils.isNotBlank(name)) {
+      log.debug("Found comic name '{}' using selector '{}'", name, profile.getNameSelectorQueries().get(selectorIndex));
+    }
+    return name;
+  }
 }
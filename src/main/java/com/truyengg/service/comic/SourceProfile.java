@@ -0,0 +1,134 @@
+package com.truyengg.service.comic;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+import org.jsoup.select.Evaluator;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import static org.jsoup.select.QueryParser.parse;
+
+/**
+ * Precompiled detection rules for one source domain.
+ * Selectors are parsed into jsoup Evaluators once per domain instead of on every page,
+ * and the name selector that matched last is remembered so later pages try it first.
+ */
+@Getter
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class SourceProfile {
+
+  // TruyenQQ specific selectors first
+  private static final List<String> NAME_SELECTORS = List.of(
+      "h1.detail-title",
+      "h1.txt-primary",
+      "h1.title",
+      "h1.book-title",
+      "article h1",
+      "div.detail-info h1",
+      "div.book-info h1",
+      "div.manga-info h1",
+      "div.comic-info h1",
+      "h1"
+  );
+
+  String host;
+  List<String> nameSelectorQueries;
+  List<Evaluator> nameSelectors;
+
+  /**
+   * Suffixes removed from the matched name element.
+   */
+  List<Pattern> nameSuffixes;
+
+  /**
+   * Suffixes removed from the title tag when no name element matched.
+   */
+  List<Pattern> titleSuffixes;
+
+  /**
+   * Info sections. Status, age rating and gender are detected from their text only, and
+   * counters are searched inside them before falling back to the whole document.
+   */
+  Evaluator infoScope;
+  Evaluator originInfo;
+  Evaluator originLabel;
+  Evaluator description;
+  Evaluator author;
+  Evaluator authorInfo;
+  Evaluator thumbnail;
+  Evaluator likes;
+  Evaluator follows;
+  Evaluator totalChapters;
+  Evaluator country;
+  Evaluator chapterTitle;
+
+  @Getter(AccessLevel.NONE)
+  AtomicInteger winningNameSelector = new AtomicInteger();
+
+  private SourceProfile(String host) {
+    this.host = host;
+    this.nameSelectorQueries = NAME_SELECTORS;
+    this.nameSelectors = NAME_SELECTORS.stream().map(query -> parse(query)).toList();
+    this.nameSuffixes = List.of(
+        Pattern.compile("\\s*[-–]\\s*TruyenQQ.*$"),
+        Pattern.compile("\\s*[-–]\\s*Đọc.*$"));
+    this.titleSuffixes = List.of(
+        Pattern.compile("\\s*[-–|]\\s*TruyenQQ.*$"),
+        Pattern.compile("\\s*[-–|]\\s*Đọc.*$"),
+        Pattern.compile("\\s*[-–|]\\s*Truyện.*$"));
+    this.infoScope = parse("div.detail-info, div.info, div.meta, div.book-info, div.manga-info, div.comic-info");
+    this.originInfo = parse("div.detail-info, div.info, div.meta");
+    this.originLabel = parse("span.label, span.title, strong");
+    this.description = parse("div.detail-content, div.description, div.summary, div.content, meta[name=description]");
+    this.author = parse("div.detail-info a[href*='author'], div.info a[href*='author'], " +
+        "span:contains('Tác giả'), span:contains('Author')");
+    this.authorInfo = parse("div.detail-info, div.info");
+    this.thumbnail = parse("div.detail-cover img, div.cover img, img[src*='thumb'], meta[property=og:image]");
+    this.likes = parse("span:contains('Lượt thích'), span:contains('Likes'), " +
+        "div:contains('Lượt thích'), div:contains('Likes')");
+    this.follows = parse("span:contains('Theo dõi'), span:contains('Follows'), " +
+        "div:contains('Theo dõi'), div:contains('Follows')");
+    this.totalChapters = parse("span:contains('Số chương'), span:contains('Chapters'), " +
+        "div:contains('Số chương'), div:contains('Chapters')");
+    this.country = parse("span:contains('Quốc gia'), span:contains('Country'), " +
+        "div:contains('Quốc gia'), div:contains('Country')");
+    this.chapterTitle = parse("h1.detail-title.txt-primary, h1.detail-title, h1");
+  }
+
+  /**
+   * Generic profile for a host. All known HTML sources currently share the TruyenQQ-style
+   * rules; each host still gets its own instance so the winning-selector memo stays per domain.
+   */
+  public static SourceProfile forHost(String host) {
+    return new SourceProfile(host);
+  }
+
+  public int getWinningNameSelector() {
+    return winningNameSelector.get();
+  }
+
+  public void setWinningNameSelector(int index) {
+    winningNameSelector.set(index);
+  }
+
+  public String stripNameSuffixes(String name) {
+    return strip(name, nameSuffixes);
+  }
+
+  public String stripTitleSuffixes(String title) {
+    return strip(title, titleSuffixes);
+  }
+
+  // ===== Private methods =====
+
+  private String strip(String text, List<Pattern> suffixes) {
+    var result = text;
+    for (var suffix : suffixes) {
+      result = suffix.matcher(result).replaceAll("").trim();
+    }
+    return result;
+  }
+}
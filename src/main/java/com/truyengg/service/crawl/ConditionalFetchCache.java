@@ -0,0 +1,89 @@
+package com.truyengg.service.crawl;
+
+import com.truyengg.domain.entity.CrawlHttpCache;
+import com.truyengg.domain.repository.CrawlHttpCacheRepository;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.time.ZonedDateTime.now;
+import static org.apache.commons.lang3.StringUtils.isNotBlank;
+import static org.springframework.http.HttpHeaders.IF_MODIFIED_SINCE;
+import static org.springframework.http.HttpHeaders.IF_NONE_MATCH;
+
+/**
+ * Conditional GET support for crawled pages.
+ * Persists ETag / Last-Modified and a body hash per URL in crawl_http_cache.
+ * A changed body is returned with the probe result, so the handler that probed a page
+ * does not download it a second time.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ConditionalFetchCache {
+
+  CrawlHttpCacheRepository cacheRepository;
+
+  public Optional<CrawlHttpCache> find(String url) {
+    return cacheRepository.findById(url);
+  }
+
+  /**
+   * Add If-None-Match / If-Modified-Since from the cached validators.
+   */
+  public void applyValidators(HttpHeaders headers, CrawlHttpCache entry) {
+    if (isNotBlank(entry.getEtag())) {
+      headers.set(IF_NONE_MATCH, entry.getEtag());
+    }
+    if (isNotBlank(entry.getLastModified())) {
+      headers.set(IF_MODIFIED_SINCE, entry.getLastModified());
+    }
+  }
+
+  public boolean hasSameBody(CrawlHttpCache entry, String body) {
+    return entry.getBodyHash().equals(sha256Hex(body));
+  }
+
+  /**
+   * Store validators and body hash of a page that has been processed successfully.
+   */
+  public void store(String url, String etag, String lastModified, String body) {
+    var now = now();
+    var entry = find(url).orElseGet(() -> CrawlHttpCache.builder().url(url).build());
+    entry.setEtag(etag);
+    entry.setLastModified(lastModified);
+    entry.setBodyHash(sha256Hex(body));
+    entry.setBodySize(body.getBytes(UTF_8).length);
+    entry.setFetchedAt(now);
+    entry.setUpdatedAt(now);
+    cacheRepository.save(entry);
+  }
+
+  /**
+   * Record how long parsing the page took, reported as saved time on later unchanged fetches.
+   */
+  public void recordParseTime(String url, long parseMillis) {
+    cacheRepository.updateParseMillis(url, parseMillis, now());
+  }
+
+  // ===== Private methods =====
+
+  private static String sha256Hex(String body) {
+    try {
+      var digest = MessageDigest.getInstance("SHA-256").digest(body.getBytes(UTF_8));
+      return HexFormat.of().formatHex(digest);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 not available", e);
+    }
+  }
+}
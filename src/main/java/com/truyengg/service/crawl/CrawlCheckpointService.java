@@ -1,18 +1,23 @@
 package com.truyengg.service.crawl;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.truyengg.domain.entity.CrawlCheckpoint;
 import com.truyengg.domain.entity.CrawlJob;
+import com.truyengg.domain.enums.ImageTaskStatus;
 import com.truyengg.domain.repository.CrawlCheckpointRepository;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.ZonedDateTime;
-import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -21,6 +26,8 @@ import java.util.UUID;
 /**
  * Service for managing crawl checkpoints for pause/resume functionality.
  * Supports checkpointing at IMAGE level for fine-grained resume.
+ * Per-item updates are applied in place by the database (bitset, jsonb_set) instead of
+ * loading and rewriting the whole checkpoint row.
  */
 @Slf4j
 @Service
@@ -29,6 +36,7 @@ import java.util.UUID;
 public class CrawlCheckpointService {
 
   CrawlCheckpointRepository checkpointRepository;
+  ObjectMapper objectMapper;
 
   /**
    * Get checkpoint for a job.
@@ -45,7 +53,6 @@ public class CrawlCheckpointService {
     var checkpoint = CrawlCheckpoint.builder()
         .crawlJob(job)
         .lastItemIndex(-1)
-        .failedItemIndices(new ArrayList<>())
         .failedNestedItems(new HashMap<>())
         .createdAt(ZonedDateTime.now())
         .updatedAt(ZonedDateTime.now())
@@ -75,7 +82,7 @@ public class CrawlCheckpointService {
    */
   @Transactional
   public void recordPause(UUID jobId) {
-    checkpointRepository.recordPause(jobId, ZonedDateTime.now());
+    checkpointRepository.recordPause(List.of(jobId), jobId, ZonedDateTime.now());
     log.info("Recorded pause for job {}", jobId);
   }
 
@@ -84,7 +91,7 @@ public class CrawlCheckpointService {
    */
   @Transactional
   public void recordResume(UUID jobId) {
-    checkpointRepository.recordResume(jobId, ZonedDateTime.now());
+    checkpointRepository.recordResume(List.of(jobId), ZonedDateTime.now());
     log.info("Recorded resume for job {}", jobId);
   }
 
@@ -93,12 +100,8 @@ public class CrawlCheckpointService {
    */
   @Transactional
   public void addFailedIndex(UUID jobId, int index) {
-    findByJobId(jobId).ifPresent(checkpoint -> {
-      checkpoint.addFailedIndex(index);
-      checkpoint.setUpdatedAt(ZonedDateTime.now());
-      checkpointRepository.save(checkpoint);
-      log.debug("Added failed index {} to checkpoint for job {}", index, jobId);
-    });
+    checkpointRepository.addFailedIndices(jobId, new Integer[]{index}, ZonedDateTime.now());
+    log.debug("Added failed index {} to checkpoint for job {}", index, jobId);
   }
 
   /**
@@ -106,13 +109,26 @@ public class CrawlCheckpointService {
    */
   @Transactional
   public void addNestedFailure(UUID jobId, int parentIndex, int childIndex) {
-    findByJobId(jobId).ifPresent(checkpoint -> {
-      checkpoint.addNestedFailure(parentIndex, childIndex);
-      checkpoint.setUpdatedAt(ZonedDateTime.now());
-      checkpointRepository.save(checkpoint);
-      log.debug("Added nested failure {}:{} to checkpoint for job {}",
-          parentIndex, childIndex, jobId);
-    });
+    checkpointRepository.addNestedFailure(jobId, parentIndex, childIndex, ZonedDateTime.now());
+    log.debug("Added nested failure {}:{} to checkpoint for job {}",
+        parentIndex, childIndex, jobId);
+  }
+
+  /**
+   * Store image tasks for a batched CHAPTER job.
+   * Statuses must have one entry per image URL.
+   */
+  @Transactional
+  public void saveImageTasks(UUID jobId, List<String> imageUrls, byte[] imageStatuses) {
+    checkpointRepository.saveImageTasks(jobId, imageUrls, imageStatuses, ZonedDateTime.now());
+  }
+
+  /**
+   * Update status of a single image task in place.
+   */
+  @Transactional
+  public void updateImageStatus(UUID jobId, int index, ImageTaskStatus status) {
+    checkpointRepository.updateImageStatus(jobId, index, status.getCode());
   }
 
   /**
@@ -120,11 +136,32 @@ public class CrawlCheckpointService {
    */
   @Transactional
   public void saveState(UUID jobId, String key, Object value) {
-    findByJobId(jobId).ifPresent(checkpoint -> {
-      checkpoint.saveState(key, value);
-      checkpoint.setUpdatedAt(ZonedDateTime.now());
-      checkpointRepository.save(checkpoint);
-    });
+    try {
+      checkpointRepository.saveState(jobId, key, objectMapper.writeValueAsString(value), ZonedDateTime.now());
+    } catch (JsonProcessingException e) {
+      throw new IllegalArgumentException("Checkpoint state is not serializable: " + key, e);
+    }
+  }
+
+  /**
+   * Mark one image task COMPLETED and record its uploaded result in state_snapshot.downloadedImages.
+   * The entry is appended; an earlier entry for the same index is superseded, not removed.
+   */
+  @Transactional
+  public void saveDownloadedImage(UUID jobId, int index, String url, String path, String blurhash, long size) {
+    var image = new LinkedHashMap<String, Object>();
+    image.put("index", index);
+    image.put("url", url);
+    image.put("path", path);
+    image.put("blurhash", blurhash);
+    image.put("status", ImageTaskStatus.COMPLETED.name());
+    image.put("size", size);
+    try {
+      checkpointRepository.saveDownloadedImage(jobId, index, ImageTaskStatus.COMPLETED.getCode(),
+          objectMapper.writeValueAsString(image), ZonedDateTime.now());
+    } catch (JsonProcessingException e) {
+      throw new IllegalArgumentException("Downloaded image is not serializable: " + index, e);
+    }
   }
 
   /**
@@ -169,13 +206,8 @@ public class CrawlCheckpointService {
    */
   @Transactional
   public void clearFailedIndices(UUID jobId) {
-    findByJobId(jobId).ifPresent(checkpoint -> {
-      checkpoint.setFailedItemIndices(new ArrayList<>());
-      checkpoint.setFailedNestedItems(new HashMap<>());
-      checkpoint.setUpdatedAt(ZonedDateTime.now());
-      checkpointRepository.save(checkpoint);
-      log.info("Cleared failed indices for job {}", jobId);
-    });
+    checkpointRepository.clearFailedItems(jobId, ZonedDateTime.now());
+    log.info("Cleared failed indices for job {}", jobId);
   }
 
   /**
@@ -183,14 +215,29 @@ public class CrawlCheckpointService {
    */
   @Transactional
   public void removeFailedIndex(UUID jobId, int index) {
-    findByJobId(jobId).ifPresent(checkpoint -> {
-      var failedIndices = checkpoint.getFailedItemIndices();
-      if (failedIndices != null) {
-        failedIndices.remove(Integer.valueOf(index));
-        checkpoint.setUpdatedAt(ZonedDateTime.now());
-        checkpointRepository.save(checkpoint);
-      }
-    });
+    removeFailedIndices(jobId, List.of(index));
+  }
+
+  /**
+   * Remove failed indices that are retried or skipped.
+   */
+  @Transactional
+  public void removeFailedIndices(UUID jobId, Collection<Integer> indices) {
+    if (!indices.isEmpty()) {
+      checkpointRepository.removeFailedIndices(jobId, indices.toArray(Integer[]::new), ZonedDateTime.now());
+    }
+  }
+
+  /**
+   * Periodically trim failed-item bitsets shrunk by removals.
+   */
+  @Scheduled(fixedDelayString = "${crawl.checkpoint.compaction-interval-ms:600000}")
+  @Transactional
+  public void compact() {
+    var compacted = checkpointRepository.compactFailedItems();
+    if (compacted > 0) {
+      log.debug("Compacted failed items of {} checkpoints", compacted);
+    }
   }
 
   /**
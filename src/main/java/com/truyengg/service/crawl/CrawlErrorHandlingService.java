@@ -1,10 +1,8 @@
 package com.truyengg.service.crawl;
 
-import com.truyengg.domain.entity.CrawlCheckpoint;
 import com.truyengg.domain.entity.CrawlJob;
 import com.truyengg.domain.enums.CrawlErrorType;
 import com.truyengg.domain.enums.ErrorAction;
-import com.truyengg.domain.repository.CrawlCheckpointRepository;
 import com.truyengg.model.dto.CrawlErrorEvent;
 import com.truyengg.model.dto.CrawlErrorResult;
 import lombok.AccessLevel;
@@ -20,8 +18,6 @@ import org.springframework.transaction.annotation.Transactional;
 import java.net.ConnectException;
 import java.net.SocketTimeoutException;
 import java.time.ZonedDateTime;
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.Map;
 
 import static com.truyengg.domain.enums.CrawlErrorType.AUTH_REQUIRED;
@@ -50,7 +46,7 @@ import static org.apache.commons.lang3.StringUtils.isNotBlank;
 @FieldDefaults(level = AccessLevel.PRIVATE)
 public class CrawlErrorHandlingService {
 
-  final CrawlCheckpointRepository checkpointRepository;
+  final CrawlCheckpointService checkpointService;
   final ApplicationEventPublisher eventPublisher;
 
   @Value("${crawl.error.max-retries:3}")
@@ -165,59 +161,28 @@ public class CrawlErrorHandlingService {
 
   // ===== Private methods =====
 
+  /**
+   * Record the failed index and its error in place; the checkpoint row is not loaded.
+   */
   private void markForManualRetry(
       CrawlJob job,
       int itemIndex,
       CrawlErrorType errorType,
       String errorMessage
   ) {
-    var checkpoint = checkpointRepository.findById(job.getId())
-        .orElseGet(() -> CrawlCheckpoint.builder()
-            .crawlJob(job)
-            .createdAt(ZonedDateTime.now())
-            .updatedAt(ZonedDateTime.now())
-            .build());
-
-    // Add to failed indices
-    var failedIndices = checkpoint.getFailedItemIndices();
-    if (failedIndices == null) {
-      failedIndices = new ArrayList<>();
-    }
-    if (!failedIndices.contains(itemIndex)) {
-      failedIndices.add(itemIndex);
-    }
-    checkpoint.setFailedItemIndices(failedIndices);
-
-    // Store error info in state snapshot
-    var snapshot = checkpoint.getStateSnapshot();
-    if (snapshot == null) {
-      snapshot = new HashMap<>();
-    }
-    snapshot.put("lastError_" + itemIndex, Map.of(
+    checkpointService.addFailedIndex(job.getId(), itemIndex);
+    checkpointService.saveState(job.getId(), "lastError_" + itemIndex, Map.of(
         "type", errorType.name(),
         "message", errorMessage,
         "timestamp", ZonedDateTime.now().toString()
     ));
-    checkpoint.setStateSnapshot(snapshot);
-    checkpoint.setUpdatedAt(ZonedDateTime.now());
-
-    checkpointRepository.save(checkpoint);
 
     log.info("Marked item {} for manual retry: {} - {}",
         itemIndex, errorType, errorMessage);
   }
 
   private void markAsSkipped(CrawlJob job, int itemIndex, String errorMessage) {
-    var checkpoint = checkpointRepository.findById(job.getId())
-        .orElseGet(() -> CrawlCheckpoint.builder()
-            .crawlJob(job)
-            .createdAt(ZonedDateTime.now())
-            .updatedAt(ZonedDateTime.now())
-            .build());
-
-    checkpoint.addFailedIndex(itemIndex);
-    checkpoint.setUpdatedAt(ZonedDateTime.now());
-    checkpointRepository.save(checkpoint);
+    checkpointService.addFailedIndex(job.getId(), itemIndex);
   }
 
   private long calculateBackoffDelay(int retryCount) {
@@ -2,6 +2,9 @@ package com.truyengg.service.crawl;
 
 import com.truyengg.model.event.CrawlJobCreatedEvent;
 import com.truyengg.model.event.CrawlJobResumedEvent;
+import com.truyengg.model.event.CrawlJobSignalEvent;
+import com.truyengg.model.event.CrawlJobSubtreeUpdatedEvent;
+import com.truyengg.model.graphql.CrawlEvent;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
@@ -10,6 +13,11 @@ import org.springframework.stereotype.Component;
 import org.springframework.transaction.event.TransactionPhase;
 import org.springframework.transaction.event.TransactionalEventListener;
 
+import static com.truyengg.model.event.CrawlJobSubtreeUpdatedEvent.Operation.CANCELLED;
+import static com.truyengg.model.event.CrawlJobSubtreeUpdatedEvent.Operation.RESTORED;
+import static com.truyengg.service.crawl.CrawlPipeline.Stage.JOB;
+import static java.time.ZonedDateTime.now;
+
 /**
  * Event dispatcher for crawl job lifecycle events.
  * Uses @TransactionalEventListener to ensure events are processed AFTER transaction commits,
@@ -22,14 +30,19 @@ import org.springframework.transaction.event.TransactionalEventListener;
 public class CrawlEventDispatcher {
 
   CrawlExecutor executor;
+  CrawlPipeline pipeline;
+  CrawlEventPublisher crawlEventPublisher;
+  JobControlSignals controlSignals;
 
   /**
    * Handle new crawl job creation.
    * Triggers async execution of the job AFTER the transaction commits.
+   * The job is admitted to the JOB stage before the async hand-off so queue workers see its slot as taken.
    */
   @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
   public void onCrawlJobCreated(CrawlJobCreatedEvent event) {
     log.info("Received CrawlJobCreatedEvent for job: {}", event.jobId());
+    pipeline.admit(JOB);
     executor.execute(event.jobId());
   }
 
@@ -41,7 +54,54 @@ public class CrawlEventDispatcher {
   public void onCrawlJobResumed(CrawlJobResumedEvent event) {
     log.info("Received CrawlJobResumedEvent for job: {} from index: {}",
         event.jobId(), event.resumeFromIndex());
+    pipeline.admit(JOB);
     executor.executeWithResume(event.jobId(), event.resumeFromIndex());
   }
-}
 
+  /**
+   * Signal running handlers on this node once a pause, resume or cancel has committed.
+   */
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+  public void onCrawlJobSignal(CrawlJobSignalEvent event) {
+    log.info("Received CrawlJobSignalEvent {} for {} jobs", event.signal(), event.jobIds().size());
+
+    switch (event.signal()) {
+      case PAUSED -> controlSignals.pause(event.jobIds());
+      case CANCELLED -> controlSignals.cancel(event.jobIds());
+      case RUNNING -> controlSignals.resume(event.jobIds());
+      default -> log.warn("Ignoring unsupported job signal {}", event.signal());
+    }
+  }
+
+  /**
+   * Handle a set-based update of a job subtree.
+   * Signals cancelled descendants running on this node and publishes a single aggregated event.
+   */
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+  public void onCrawlJobSubtreeUpdated(CrawlJobSubtreeUpdatedEvent event) {
+    log.info("Received CrawlJobSubtreeUpdatedEvent for job: {} operation: {} jobs: {} queue items: {}",
+        event.jobId(), event.operation(), event.jobs(), event.queueItems());
+
+    if (event.operation() == CANCELLED) {
+      controlSignals.reconcile();
+    }
+
+    var eventType = switch (event.operation()) {
+      case CANCELLED -> CrawlEvent.EventType.JOB_CANCELLED;
+      case DELETED -> CrawlEvent.EventType.JOB_DELETED;
+      case RESTORED -> CrawlEvent.EventType.JOB_RESTORED;
+    };
+
+    crawlEventPublisher.publishGlobalEvent(CrawlEvent.builder()
+        .eventType(eventType)
+        .jobId(event.jobId())
+        .message("%s %d jobs, %d queue items".formatted(event.operation(), event.jobs(), event.queueItems()))
+        .timestamp(now())
+        .build());
+
+    // Descendant sinks expire through the idle TTL
+    if (event.operation() != RESTORED) {
+      crawlEventPublisher.removeJobSinks(event.jobId());
+    }
+  }
+}
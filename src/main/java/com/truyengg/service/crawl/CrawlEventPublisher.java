@@ -5,20 +5,32 @@ import com.truyengg.model.graphql.CrawlEvent;
 import com.truyengg.model.graphql.CrawlProgressUpdate;
 import com.truyengg.model.graphql.ImageDownloadStatus;
 import com.truyengg.model.graphql.MessageDto;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Sinks;
 
 import java.time.ZonedDateTime;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 /**
  * Event publisher for GraphQL subscriptions using Reactor Sinks.
+ * All buffers are bounded: progress and status sinks keep only the latest value, other per-job
+ * sinks and the global sink buffer a fixed number of events. Per-job sinks are removed when the
+ * job reaches a terminal status, or after an idle TTL once nobody subscribes to them.
  */
 @Slf4j
 @Service
@@ -26,14 +38,37 @@ import java.util.concurrent.ConcurrentHashMap;
 public class CrawlEventPublisher {
 
   // Global event sink for all crawl events
-  Sinks.Many<CrawlEvent> globalEventSink = Sinks.many().multicast().onBackpressureBuffer();
+  Sinks.Many<CrawlEvent> globalEventSink;
 
   // Per-job sinks for targeted subscriptions
-  Map<UUID, Sinks.Many<CrawlProgressUpdate>> progressSinks = new ConcurrentHashMap<>();
-  Map<UUID, Sinks.Many<MessageDto>> messageSinks = new ConcurrentHashMap<>();
-  Map<UUID, Sinks.Many<CrawlJob>> childCreatedSinks = new ConcurrentHashMap<>();
-  Map<UUID, Sinks.Many<ImageDownloadStatus>> imageProgressSinks = new ConcurrentHashMap<>();
-  Map<UUID, Sinks.Many<CrawlJob>> statusChangedSinks = new ConcurrentHashMap<>();
+  SinkRegistry<CrawlProgressUpdate> progressSinks;
+  SinkRegistry<MessageDto> messageSinks;
+  SinkRegistry<CrawlJob> childCreatedSinks;
+  SinkRegistry<ImageDownloadStatus> imageProgressSinks;
+  SinkRegistry<CrawlJob> statusChangedSinks;
+  List<SinkRegistry<?>> registries;
+
+  long idleTtlNanos;
+
+  public CrawlEventPublisher(MeterRegistry meterRegistry,
+                             @Value("${crawl.events.buffer-size:256}") int bufferSize,
+                             @Value("${crawl.events.idle-ttl-ms:600000}") long idleTtlMs) {
+    this.globalEventSink = Sinks.many().multicast().onBackpressureBuffer(bufferSize, false);
+    this.progressSinks = new SinkRegistry<>("progress", () -> Sinks.many().replay().latest());
+    this.messageSinks = new SinkRegistry<>("message", () -> Sinks.many().multicast().onBackpressureBuffer(bufferSize, false));
+    this.childCreatedSinks = new SinkRegistry<>("child_created", () -> Sinks.many().multicast().onBackpressureBuffer(bufferSize, false));
+    this.imageProgressSinks = new SinkRegistry<>("image_progress", () -> Sinks.many().multicast().onBackpressureBuffer(bufferSize, false));
+    this.statusChangedSinks = new SinkRegistry<>("status_changed", () -> Sinks.many().replay().latest());
+    this.registries = List.of(progressSinks, messageSinks, childCreatedSinks, imageProgressSinks, statusChangedSinks);
+    this.idleTtlNanos = MILLISECONDS.toNanos(idleTtlMs);
+
+    for (var registry : registries) {
+      Gauge.builder("crawl.events.sinks", registry, SinkRegistry::size)
+          .description("Live per-job subscription sinks")
+          .tag("type", registry.type)
+          .register(meterRegistry);
+    }
+  }
 
   // ===== Global Events =====
 
@@ -48,33 +83,31 @@ public class CrawlEventPublisher {
   // ===== Job-specific Subscriptions =====
 
   public Flux<CrawlProgressUpdate> subscribeToProgress(UUID jobId) {
-    return getOrCreateProgressSink(jobId).asFlux();
+    // Latest wins: a slow subscriber skips intermediate progress updates
+    return progressSinks.subscribe(jobId).onBackpressureLatest();
   }
 
   public Flux<MessageDto> subscribeToMessages(UUID jobId) {
-    return getOrCreateMessageSink(jobId).asFlux();
+    return messageSinks.subscribe(jobId);
   }
 
   public Flux<CrawlJob> subscribeToChildCreated(UUID parentJobId) {
-    return getOrCreateChildCreatedSink(parentJobId).asFlux();
+    return childCreatedSinks.subscribe(parentJobId);
   }
 
   public Flux<ImageDownloadStatus> subscribeToImageProgress(UUID jobId) {
-    return getOrCreateImageProgressSink(jobId).asFlux();
+    return imageProgressSinks.subscribe(jobId);
   }
 
   public Flux<CrawlJob> subscribeToStatusChanged(UUID jobId) {
-    return getOrCreateStatusChangedSink(jobId).asFlux();
+    return statusChangedSinks.subscribe(jobId).onBackpressureLatest();
   }
 
   // ===== Publish Methods =====
 
   public void publishProgressUpdate(UUID jobId, CrawlProgressUpdate update) {
     // Publish to job-specific sink
-    var sink = progressSinks.get(jobId);
-    if (sink != null) {
-      sink.tryEmitNext(update);
-    }
+    progressSinks.emit(jobId, update);
 
     // Also publish to global
     publishGlobalEvent(CrawlEvent.builder()
@@ -86,10 +119,7 @@ public class CrawlEventPublisher {
   }
 
   public void publishMessage(UUID jobId, MessageDto message) {
-    var sink = messageSinks.get(jobId);
-    if (sink != null) {
-      sink.tryEmitNext(message);
-    }
+    messageSinks.emit(jobId, message);
 
     publishGlobalEvent(CrawlEvent.builder()
         .eventType(CrawlEvent.EventType.MESSAGE_ADDED)
@@ -100,10 +130,7 @@ public class CrawlEventPublisher {
   }
 
   public void publishChildCreated(UUID parentJobId, CrawlJob childJob) {
-    var sink = childCreatedSinks.get(parentJobId);
-    if (sink != null) {
-      sink.tryEmitNext(childJob);
-    }
+    childCreatedSinks.emit(parentJobId, childJob);
 
     publishGlobalEvent(CrawlEvent.builder()
         .eventType(CrawlEvent.EventType.CHILD_CREATED)
@@ -114,10 +141,7 @@ public class CrawlEventPublisher {
   }
 
   public void publishImageProgress(UUID jobId, ImageDownloadStatus status) {
-    var sink = imageProgressSinks.get(jobId);
-    if (sink != null) {
-      sink.tryEmitNext(status);
-    }
+    imageProgressSinks.emit(jobId, status);
 
     var eventType = status.getStatus() == ImageDownloadStatus.Status.COMPLETED
         ? CrawlEvent.EventType.IMAGE_DOWNLOADED
@@ -132,10 +156,7 @@ public class CrawlEventPublisher {
   }
 
   public void publishStatusChanged(CrawlJob job) {
-    var sink = statusChangedSinks.get(job.getId());
-    if (sink != null) {
-      sink.tryEmitNext(job);
-    }
+    statusChangedSinks.emit(job.getId(), job);
 
     var eventType = switch (job.getStatus()) {
       case RUNNING -> CrawlEvent.EventType.JOB_STARTED;
@@ -152,6 +173,11 @@ public class CrawlEventPublisher {
         .job(job)
         .timestamp(ZonedDateTime.now())
         .build());
+
+    // Subscribers receive the terminal status, then their streams complete
+    if (job.isTerminal()) {
+      removeJobSinks(job.getId());
+    }
   }
 
   public void publishJobCreated(CrawlJob job) {
@@ -166,44 +192,87 @@ public class CrawlEventPublisher {
   // ===== Cleanup =====
 
   public void removeJobSinks(UUID jobId) {
-    completeSink(progressSinks.remove(jobId));
-    completeSink(messageSinks.remove(jobId));
-    completeSink(childCreatedSinks.remove(jobId));
-    completeSink(imageProgressSinks.remove(jobId));
-    completeSink(statusChangedSinks.remove(jobId));
+    registries.forEach(registry -> registry.remove(jobId));
   }
 
-  // ===== Private Helpers =====
-
-  private Sinks.Many<CrawlProgressUpdate> getOrCreateProgressSink(UUID jobId) {
-    return progressSinks.computeIfAbsent(jobId,
-        k -> Sinks.many().multicast().onBackpressureBuffer());
+  /**
+   * Evict sinks without subscribers that saw no activity for the idle TTL.
+   */
+  @Scheduled(fixedDelayString = "${crawl.events.sweep-interval-ms:60000}")
+  public void evictIdleSinks() {
+    var deadline = System.nanoTime() - idleTtlNanos;
+    var evicted = 0;
+    for (var registry : registries) {
+      evicted += registry.evictIdle(deadline);
+    }
+    if (evicted > 0) {
+      log.debug("Evicted {} idle crawl event sinks", evicted);
+    }
   }
 
-  private Sinks.Many<MessageDto> getOrCreateMessageSink(UUID jobId) {
-    return messageSinks.computeIfAbsent(jobId,
-        k -> Sinks.many().multicast().onBackpressureBuffer());
-  }
+  /**
+   * Per-job sinks of one subscription type with their last activity time.
+   */
+  @RequiredArgsConstructor
+  private static final class SinkRegistry<T> {
 
-  private Sinks.Many<CrawlJob> getOrCreateChildCreatedSink(UUID parentJobId) {
-    return childCreatedSinks.computeIfAbsent(parentJobId,
-        k -> Sinks.many().multicast().onBackpressureBuffer());
-  }
+    final String type;
+    final Supplier<Sinks.Many<T>> factory;
+    final Map<UUID, Entry<T>> entries = new ConcurrentHashMap<>();
 
-  private Sinks.Many<ImageDownloadStatus> getOrCreateImageProgressSink(UUID jobId) {
-    return imageProgressSinks.computeIfAbsent(jobId,
-        k -> Sinks.many().multicast().onBackpressureBuffer());
-  }
+    Flux<T> subscribe(UUID jobId) {
+      var entry = entries.computeIfAbsent(jobId, k -> new Entry<>(factory.get()));
+      entry.touch();
+      return entry.sink.asFlux();
+    }
+
+    /**
+     * Emit only to existing sinks: events of jobs nobody subscribed to are not buffered.
+     */
+    void emit(UUID jobId, T value) {
+      var entry = entries.get(jobId);
+      if (entry != null) {
+        entry.touch();
+        entry.sink.tryEmitNext(value);
+      }
+    }
+
+    void remove(UUID jobId) {
+      var entry = entries.remove(jobId);
+      if (entry != null) {
+        entry.sink.tryEmitComplete();
+      }
+    }
+
+    int evictIdle(long deadline) {
+      var evicted = 0;
+      for (var it = entries.entrySet().iterator(); it.hasNext(); ) {
+        var entry = it.next().getValue();
+        if (entry.sink.currentSubscriberCount() == 0 && entry.lastActivity - deadline < 0) {
+          it.remove();
+          entry.sink.tryEmitComplete();
+          evicted++;
+        }
+      }
+      return evicted;
+    }
 
-  private Sinks.Many<CrawlJob> getOrCreateStatusChangedSink(UUID jobId) {
-    return statusChangedSinks.computeIfAbsent(jobId,
-        k -> Sinks.many().multicast().onBackpressureBuffer());
+    int size() {
+      return entries.size();
+    }
   }
 
-  private <T> void completeSink(Sinks.Many<T> sink) {
-    if (sink != null) {
-      sink.tryEmitComplete();
+  private static final class Entry<T> {
+
+    final Sinks.Many<T> sink;
+    volatile long lastActivity = System.nanoTime();
+
+    Entry(Sinks.Many<T> sink) {
+      this.sink = sink;
+    }
+
+    void touch() {
+      lastActivity = System.nanoTime();
     }
   }
 }
-
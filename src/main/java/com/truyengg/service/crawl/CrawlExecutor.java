@@ -3,13 +3,16 @@ package com.truyengg.service.crawl;
 import com.truyengg.domain.entity.CrawlJob;
 import com.truyengg.domain.enums.CrawlType;
 import com.truyengg.domain.exception.CrawlException;
+import com.truyengg.domain.exception.CrawlStageRejectedException;
 import com.truyengg.service.crawl.handler.CrawlTypeHandler;
 import jakarta.annotation.PostConstruct;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.util.EnumMap;
@@ -17,8 +20,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 
 import static com.truyengg.domain.exception.CrawlException.Reason.PAUSED;
+import static com.truyengg.service.crawl.CrawlPipeline.Stage.JOB;
 import static java.util.Optional.of;
 import static org.apache.commons.lang3.exception.ExceptionUtils.getRootCauseMessage;
 
@@ -32,13 +38,23 @@ import static org.apache.commons.lang3.exception.ExceptionUtils.getRootCauseMess
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class CrawlExecutor {
 
+  private static final int FROM_CHECKPOINT = -1;
+
   CrawlJobService jobService;
   CrawlProgressService progressService;
   CrawlCheckpointService checkpointService;
+  CrawlPipeline pipeline;
+  JobControlSignals controlSignals;
   List<CrawlTypeHandler> handlers;
 
+  @Qualifier("virtualThreadExecutor")
+  Executor virtualThreadExecutor;
+
   Map<CrawlType, Optional<CrawlTypeHandler>> handlerMap = new EnumMap<>(CrawlType.class);
 
+  // Jobs that got no job slot, by the index to resume from (FROM_CHECKPOINT for a normal start)
+  Map<UUID, Integer> deferredJobs = new ConcurrentHashMap<>();
+
   @PostConstruct
   void init() {
     for (var handler : handlers) {
@@ -52,16 +68,19 @@ public class CrawlExecutor {
   /**
    * Execute a crawl job asynchronously.
    * Determines the appropriate handler based on crawl type and delegates processing.
+   * Waits for a job slot first so only a bounded number of jobs touch the database at once.
    */
   @Async("virtualThreadExecutor")
   public void execute(UUID jobId) {
-    var job = jobService.getById(jobId);
+    runInJobSlot(jobId, FROM_CHECKPOINT, () -> {
+      var job = jobService.getForExecution(jobId);
 
-    jobService.start(jobId);
-    progressService.initProgress(jobId);
+      jobService.start(jobId);
+      progressService.initProgress(jobId);
 
-    var resumeIndex = getResumeIndex(jobId);
-    doExecute(job, resumeIndex);
+      var resumeIndex = getResumeIndex(jobId);
+      doExecute(job, resumeIndex);
+    });
   }
 
   /**
@@ -69,15 +88,55 @@ public class CrawlExecutor {
    */
   @Async("virtualThreadExecutor")
   public void executeWithResume(UUID jobId, int resumeFromIndex) {
-    var job = jobService.getById(jobId);
+    runInJobSlot(jobId, resumeFromIndex, () -> {
+      var job = jobService.getForExecution(jobId);
 
-    doExecute(job, resumeFromIndex);
+      doExecute(job, resumeFromIndex);
+    });
+  }
+
+  /**
+   * Run deferred jobs again, no more than the job slots nobody is waiting for.
+   */
+  @Scheduled(fixedDelayString = "${crawl.pipeline.redispatch-interval-ms:1000}")
+  public void redispatchDeferred() {
+    var slots = pipeline.getAvailablePermits(JOB) - pipeline.getQueueLength(JOB);
+    var deferred = deferredJobs.entrySet().iterator();
+    for (; slots > 0 && deferred.hasNext(); slots--) {
+      var entry = deferred.next();
+      deferred.remove();
+      var jobId = entry.getKey();
+      int resumeFromIndex = entry.getValue();
+      virtualThreadExecutor.execute(() -> {
+        if (resumeFromIndex == FROM_CHECKPOINT) {
+          execute(jobId);
+        } else {
+          executeWithResume(jobId, resumeFromIndex);
+        }
+      });
+    }
   }
 
   // ===== Private methods =====
 
+  /**
+   * Run a job inside the JOB stage. A job that gets no slot in time has not started, so it is
+   * deferred unchanged instead of failed. It stays admitted to the stage while deferred, which
+   * keeps queue workers from creating more jobs until it has run.
+   */
+  private void runInJobSlot(UUID jobId, int resumeFromIndex, Runnable task) {
+    try {
+      pipeline.run(JOB, task);
+    } catch (CrawlStageRejectedException e) {
+      log.info("Crawl job {} deferred: {}", jobId, e.getMessage());
+      pipeline.admit(JOB);
+      deferredJobs.put(jobId, resumeFromIndex);
+    }
+  }
+
   private void doExecute(CrawlJob job, int startIndex) {
     var jobId = job.getId();
+    controlSignals.register(job);
 
     try {
       var handler = getHandler(job.getCrawlType());
@@ -94,6 +153,8 @@ public class CrawlExecutor {
       onCrawlException(jobId, e);
     } catch (Exception e) {
       onFailure(jobId, e);
+    } finally {
+      controlSignals.unregister(jobId);
     }
   }
 
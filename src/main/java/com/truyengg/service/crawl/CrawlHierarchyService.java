@@ -8,6 +8,7 @@ import lombok.experimental.FieldDefaults;
 import lombok.experimental.NonFinal;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
 
@@ -22,7 +23,8 @@ import static org.apache.commons.lang3.StringUtils.isBlank;
 
 /**
  * Service for crawl job hierarchy operations.
- * Uses Apache AGE for graph queries when available, falls back to recursive CTE.
+ * Uses Apache AGE for graph queries when available, otherwise the crawl_job_closure table:
+ * every subtree or ancestor lookup is a single indexed join instead of a recursive CTE.
  */
 @Slf4j
 @Service
@@ -47,7 +49,7 @@ public class CrawlHierarchyService {
   @PostConstruct
   void checkAgeAvailability() {
     if (!ageEnabled) {
-      log.info("Apache AGE is disabled by configuration - using recursive CTE");
+      log.info("Apache AGE is disabled by configuration - using closure table");
       return;
     }
 
@@ -57,7 +59,7 @@ public class CrawlHierarchyService {
       log.info("Apache AGE is available - using graph queries");
     } catch (Exception e) {
       ageAvailable = false;
-      log.info("Apache AGE not available - falling back to recursive CTE");
+      log.info("Apache AGE not available - falling back to closure table");
     }
   }
 
@@ -72,7 +74,25 @@ public class CrawlHierarchyService {
     if (isAgeAvailable()) {
       return findDescendantsWithAge(jobId);
     }
-    return findDescendantsWithRecursiveCTE(jobId);
+    return findDescendantsWithClosure(jobId);
+  }
+
+  /**
+   * Record a new job in the closure table: its self pair plus one row per ancestor of its parent.
+   * Must run in the same transaction as the job insert, after the insert was flushed.
+   */
+  public void addToClosure(UUID jobId, UUID parentId) {
+    var sql = """
+        INSERT INTO crawl_job_closure (ancestor_id, descendant_id, depth)
+        SELECT :jobId, :jobId, 0
+        UNION ALL
+        SELECT ancestor_id, :jobId, depth + 1 FROM crawl_job_closure WHERE descendant_id = :parentId
+        """;
+
+    var params = new MapSqlParameterSource()
+        .addValue("jobId", jobId)
+        .addValue("parentId", parentId);
+    jdbcTemplate.update(sql, params);
   }
 
   /**
@@ -86,7 +106,7 @@ public class CrawlHierarchyService {
     if (isAgeAvailable()) {
       return findAncestorsWithAge(jobId);
     }
-    return findAncestorsWithRecursiveCTE(jobId);
+    return findAncestorsWithClosure(jobId);
   }
 
   /**
@@ -115,14 +135,9 @@ public class CrawlHierarchyService {
     }
 
     var sql = """
-        WITH RECURSIVE tree AS (
-            SELECT id, 0 as level FROM crawl_jobs WHERE id = :jobId
-            UNION ALL
-            SELECT j.id, t.level + 1 FROM crawl_jobs j
-            INNER JOIN tree t ON j.parent_job_id = t.id
-            WHERE j.deleted_at IS NULL
-        )
-        SELECT COALESCE(MAX(level), 0) FROM tree
+        SELECT COALESCE(MAX(c.depth), 0) FROM crawl_job_closure c
+        INNER JOIN crawl_jobs j ON j.id = c.descendant_id
+        WHERE c.ancestor_id = :jobId AND j.deleted_at IS NULL
         """;
 
     var depth = jdbcTemplate.queryForObject(sql, singletonMap("jobId", rootJobId), Integer.class);
@@ -138,14 +153,9 @@ public class CrawlHierarchyService {
     }
 
     var sql = """
-        WITH RECURSIVE descendants AS (
-            SELECT id FROM crawl_jobs WHERE parent_job_id = :jobId AND deleted_at IS NULL
-            UNION ALL
-            SELECT j.id FROM crawl_jobs j
-            INNER JOIN descendants d ON j.parent_job_id = d.id
-            WHERE j.deleted_at IS NULL
-        )
-        SELECT COUNT(*) FROM descendants
+        SELECT COUNT(*) FROM crawl_job_closure c
+        INNER JOIN crawl_jobs j ON j.id = c.descendant_id
+        WHERE c.ancestor_id = :jobId AND c.depth > 0 AND j.deleted_at IS NULL
         """;
 
     var count = jdbcTemplate.queryForObject(sql, singletonMap("jobId", jobId), Long.class);
@@ -161,47 +171,42 @@ public class CrawlHierarchyService {
     }
 
     var sql = """
-        WITH RECURSIVE ancestors AS (
-            SELECT id, parent_job_id, root_job_id FROM crawl_jobs WHERE id = :jobId
-            UNION ALL
-            SELECT j.id, j.parent_job_id, j.root_job_id FROM crawl_jobs j
-            INNER JOIN ancestors a ON j.id = a.parent_job_id
-            WHERE j.deleted_at IS NULL
-        )
-        SELECT id FROM ancestors WHERE parent_job_id IS NULL
+        SELECT ancestor_id FROM crawl_job_closure
+        WHERE descendant_id = :jobId
+        ORDER BY depth DESC
+        LIMIT 1
         """;
 
     var roots = jdbcTemplate.queryForList(sql, singletonMap("jobId", jobId), UUID.class);
     return roots.isEmpty() ? jobId : roots.getFirst();
   }
 
-  // ===== Private methods for recursive CTE fallback =====
-
-  private List<UUID> findDescendantsWithRecursiveCTE(UUID jobId) {
-    String sql = """
-        WITH RECURSIVE descendants AS (
-            SELECT id FROM crawl_jobs WHERE parent_job_id = :jobId AND deleted_at IS NULL
-            UNION ALL
-            SELECT j.id FROM crawl_jobs j
-            INNER JOIN descendants d ON j.parent_job_id = d.id
-            WHERE j.deleted_at IS NULL
-        )
-        SELECT id FROM descendants
+  // ===== Private methods for closure table =====
+
+  /**
+   * Descendants at any depth. A soft-deleted job hides its whole subtree.
+   */
+  private List<UUID> findDescendantsWithClosure(UUID jobId) {
+    var sql = """
+        SELECT c.descendant_id FROM crawl_job_closure c
+        WHERE c.ancestor_id = :jobId AND c.depth > 0
+          AND NOT EXISTS (
+              SELECT 1 FROM crawl_job_closure p
+              INNER JOIN crawl_jobs j ON j.id = p.ancestor_id
+              WHERE p.descendant_id = c.descendant_id
+                AND p.depth < c.depth
+                AND j.deleted_at IS NOT NULL
+          )
         """;
 
     return jdbcTemplate.queryForList(sql, singletonMap("jobId", jobId), UUID.class);
   }
 
-  private List<UUID> findAncestorsWithRecursiveCTE(UUID jobId) {
+  private List<UUID> findAncestorsWithClosure(UUID jobId) {
     var sql = """
-        WITH RECURSIVE ancestors AS (
-            SELECT id, parent_job_id FROM crawl_jobs WHERE id = :jobId
-            UNION ALL
-            SELECT j.id, j.parent_job_id FROM crawl_jobs j
-            INNER JOIN ancestors a ON j.id = a.parent_job_id
-            WHERE j.deleted_at IS NULL
-        )
-        SELECT id FROM ancestors WHERE id != :jobId
+        SELECT ancestor_id FROM crawl_job_closure
+        WHERE descendant_id = :jobId AND depth > 0
+        ORDER BY depth
         """;
 
     return jdbcTemplate.queryForList(sql, singletonMap("jobId", jobId), UUID.class);
@@ -224,8 +229,8 @@ public class CrawlHierarchyService {
         return fromString(jobIdStr.replace("\"", ""));
       });
     } catch (Exception e) {
-      log.warn("AGE query failed, falling back to CTE: {}", e.getMessage());
-      return findDescendantsWithRecursiveCTE(jobId);
+      log.warn("AGE query failed, falling back to closure table: {}", e.getMessage());
+      return findDescendantsWithClosure(jobId);
     }
   }
 
@@ -243,8 +248,8 @@ public class CrawlHierarchyService {
         return fromString(jobIdStr.replace("\"", ""));
       });
     } catch (Exception e) {
-      log.warn("AGE query failed, falling back to CTE: {}", e.getMessage());
-      return findAncestorsWithRecursiveCTE(jobId);
+      log.warn("AGE query failed, falling back to closure table: {}", e.getMessage());
+      return findAncestorsWithClosure(jobId);
     }
   }
 
@@ -1,36 +1,69 @@
 package com.truyengg.service.crawl;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.truyengg.domain.entity.CrawlHttpCache;
+import com.truyengg.model.dto.ConditionalFetchResult;
+import com.truyengg.model.dto.SpooledImage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.compress.compressors.brotli.BrotliCompressorInputStream;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
-
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
 
 import static com.truyengg.domain.constant.AppConstants.DATA_BUFFER_MAX_SIZE_BYTES;
 import static com.truyengg.domain.constant.AppConstants.DEFAULT_DOMAIN;
+import static com.truyengg.domain.constant.AppConstants.IMAGE_SPOOL_MAX_SIZE_BYTES;
 import static com.truyengg.domain.constant.AppConstants.PROTOCOL_HTTP;
 import static com.truyengg.domain.constant.AppConstants.PROTOCOL_HTTPS;
 import static com.truyengg.domain.constant.AppConstants.USER_AGENTS;
+import static com.truyengg.model.dto.ConditionalFetchResult.changed;
+import static com.truyengg.service.crawl.CrawlPipeline.Stage.FETCH;
+import static com.truyengg.service.crawl.HostRateLimiter.parseRetryAfter;
+import static java.lang.Math.min;
 import static java.lang.Math.pow;
 import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.Files.createTempFile;
+import static java.nio.file.Files.deleteIfExists;
 import static java.time.Duration.ofSeconds;
+import static java.util.Locale.ROOT;
 import static java.util.concurrent.ThreadLocalRandom.current;
 import static org.apache.commons.lang3.ObjectUtils.isEmpty;
-import static org.apache.commons.lang3.ObjectUtils.isNotEmpty;
 import static org.apache.commons.lang3.StringUtils.EMPTY;
 import static org.apache.commons.lang3.StringUtils.isNotBlank;
 import static org.apache.commons.lang3.exception.ExceptionUtils.getRootCauseMessage;
 import static org.springframework.core.io.buffer.DataBufferUtils.join;
 import static org.springframework.core.io.buffer.DataBufferUtils.release;
+import static org.springframework.core.io.buffer.DataBufferUtils.write;
+import static org.springframework.http.HttpHeaders.CONTENT_ENCODING;
+import static org.springframework.http.HttpHeaders.LAST_MODIFIED;
+import static org.springframework.http.HttpHeaders.RETRY_AFTER;
+import static org.springframework.http.HttpStatus.NOT_MODIFIED;
 import static reactor.core.publisher.Mono.delay;
 
 @Component
@@ -38,8 +71,14 @@ import static reactor.core.publisher.Mono.delay;
 @Slf4j
 public class CrawlHttpClient {
 
-  private final WebClient.Builder webClientBuilder;
+  private static final String IMAGE_SPOOL_PREFIX = "crawl-image-";
+
+  @Qualifier("crawlWebClient")
+  private final WebClient webClient;
   private final ObjectMapper objectMapper;
+  private final HostRateLimiter rateLimiter;
+  private final CrawlPipeline pipeline;
+  private final ConditionalFetchCache fetchCache;
 
   @Value("${truyengg.crawl.max-retries:3}")
   private int maxRetries;
@@ -68,70 +107,169 @@ public class CrawlHttpClient {
   }
 
   public String fetchUrl(String url, List<String> headers, boolean isJson) {
-    // Add initial random delay to avoid burst requests (1-3 seconds)
-    var initialDelay = 1 + current().nextInt(3);
-    waitBeforeRetry(initialDelay);
+    return withRetries(url, () -> executeRequest(url, headers, isJson), EMPTY);
+  }
+
+  /**
+   * Fetch an HTML page with If-None-Match / If-Modified-Since from crawl_http_cache.
+   * Reports the page as unchanged on 304 or when the body hash equals the cached one,
+   * so the caller can skip parsing and enqueueing. A changed body is returned in the result
+   * for the caller to parse instead of fetching the page again.
+   */
+  public ConditionalFetchResult fetchUrlIfChanged(String url, List<String> headers) {
+    var cached = fetchCache.find(url);
+    return withRetries(url, () -> executeConditionalRequest(url, headers, cached), changed(EMPTY));
+  }
+
+  /**
+   * Fetch a JSON API response and bind it directly to the given type.
+   * The body is decompressed and parsed as a stream - no intermediate Map, String or decompressed byte array.
+   * Returns null when the request or parsing fails.
+   */
+  public <T> T fetchJson(String url, List<String> headers, Class<T> type) {
+    return withRetries(url, () -> executeJsonRequest(url, headers, type), null);
+  }
+
+  private <T> T withRetries(String url, Supplier<T> request, T fallback) {
+    // Without per-host rate limiting, fall back to a random delay to avoid burst requests (1-3 seconds)
+    if (!rateLimiter.isEnabled()) {
+      waitBeforeRetry(1 + current().nextInt(3));
+    }
 
     for (var attempt = 1; attempt <= maxRetries; attempt++) {
       try {
-        return executeRequest(url, headers, isJson);
+        return request.get();
       } catch (WebClientResponseException e) {
         if (!handleWebClientError(e, url, attempt)) {
-          return EMPTY;
+          return fallback;
         }
       } catch (Exception e) {
         if (!handleGenericError(e, url, attempt)) {
-          return EMPTY;
+          return fallback;
         }
       }
     }
-    return EMPTY;
+    return fallback;
+  }
+
+  private ConditionalFetchResult executeConditionalRequest(String url, List<String> headers,
+                                                           Optional<CrawlHttpCache> cached) {
+    var requestSpec = buildRequestSpec(url, headers, false)
+        .headers(httpHeaders -> cached.ifPresent(entry -> fetchCache.applyValidators(httpHeaders, entry)));
+
+    return readResponse(url, requestSpec, changed(EMPTY), (response, body) -> {
+      if (cached.isPresent() && response.getStatusCode().value() == NOT_MODIFIED.value()) {
+        var entry = cached.get();
+        return new ConditionalFetchResult(EMPTY, true, true, entry.getBodySize(), entry.getParseMillis(), null, null);
+      }
+
+      var text = new String(body.readAllBytes(), UTF_8);
+      if (text.isEmpty()) {
+        return changed(EMPTY);
+      }
+
+      // Validators are returned, not stored: the caller persists them after processing the page
+      var responseHeaders = response.getHeaders();
+      var etag = responseHeaders.getETag();
+      var lastModified = responseHeaders.getFirst(LAST_MODIFIED);
+
+      return cached.isPresent() && fetchCache.hasSameBody(cached.get(), text)
+          ? new ConditionalFetchResult(text, true, false, 0L, cached.get().getParseMillis(), etag, lastModified)
+          : changed(text, etag, lastModified);
+    });
   }
 
   private String executeRequest(String url, List<String> headers, boolean isJson) {
-    var webClient = webClientBuilder.build();
-    var requestSpec = buildRequestSpec(webClient, url, headers, isJson);
-
-    if (isJson) {
-      var responseObj = requestSpec
-          .retrieve()
-          .bodyToMono(Object.class)
-          .timeout(ofSeconds(requestTimeout))
-          .block();
+    // JSON bodies are returned as-is; callers that need objects use fetchJson
+    return readResponse(url, buildRequestSpec(url, headers, isJson), EMPTY,
+        (response, body) -> new String(body.readAllBytes(), UTF_8));
+  }
 
-      if (responseObj instanceof Map<?, ?> response) {
-        try {
-          return objectMapper.writeValueAsString(response);
-        } catch (Exception e) {
-          log.warn("Failed to serialize JSON response from {}: {}", url, getRootCauseMessage(e));
-          return EMPTY;
-        }
+  private <T> T executeJsonRequest(String url, List<String> headers, Class<T> type) {
+    return readResponse(url, buildRequestSpec(url, headers, true), null, (response, body) -> {
+      try {
+        return objectMapper.readValue(body, type);
+      } catch (JsonProcessingException e) {
+        log.warn("Failed to parse JSON response from {}: {}", url, getRootCauseMessage(e));
+        return null;
       }
-    }
+    });
+  }
 
-    var responseEntity = requestSpec
-        .retrieve()
-        .toEntity(DataBuffer.class)
-        .timeout(ofSeconds(requestTimeout))
-        .block();
+  /**
+   * Run the request inside the fetch stage and hand the body to the reader as it streams in.
+   * The reader sees the status and headers with a decompressing stream over the body, so a page
+   * is never joined into one buffer first. Decoding failures are logged and return the fallback;
+   * transport errors while reading propagate so the caller can retry.
+   */
+  private <T> T readResponse(String url, WebClient.RequestHeadersSpec<?> requestSpec, T fallback,
+                             ResponseReader<T> reader) {
+    return inFetchStage(url, () -> {
+      var response = rateLimiter.acquire(url)
+          .then(requestSpec.retrieve().toEntityFlux(DataBuffer.class))
+          .block();
+      if (isEmpty(response)) {
+        return fallback;
+      }
 
-    if (isEmpty(responseEntity) || isEmpty(responseEntity.getBody())) {
-      return EMPTY;
-    }
+      try (var body = openBody(response)) {
+        return reader.read(response, body);
+      } catch (IOException e) {
+        log.warn("Error decoding response body from {}: {}", url, getRootCauseMessage(e));
+        return fallback;
+      }
+    });
+  }
 
-    var dataBuffer = responseEntity.getBody();
+  /**
+   * Open the response body as a stream, decompressing on the fly when the server sent
+   * an encoding the connector did not already decode. Encodings are undone in reverse order
+   * of application; an encoding that cannot be decoded is rejected instead of returned as text.
+   * Closing the stream releases the buffers and cancels the rest of the transfer.
+   */
+  private InputStream openBody(ResponseEntity<Flux<DataBuffer>> response) throws IOException {
+    InputStream body = new BodyInputStream(response.getBody(), DATA_BUFFER_MAX_SIZE_BYTES);
+    var encodings = response.getHeaders().getValuesAsList(CONTENT_ENCODING);
     try {
-      var responseBytes = readDataBuffer(dataBuffer);
-      var contentEncoding = responseEntity.getHeaders().getFirst("Content-Encoding");
-      var decompressedBytes = decompressResponse(responseBytes, contentEncoding);
-      return new String(decompressedBytes, UTF_8);
-    } finally {
-      release(dataBuffer);
+      for (var i = encodings.size() - 1; i >= 0; i--) {
+        body = decoding(body, encodings.get(i));
+      }
+      return body;
+    } catch (IOException e) {
+      body.close();
+      throw e;
     }
   }
 
-  private WebClient.RequestHeadersSpec<?> buildRequestSpec(WebClient webClient, String url,
-                                                           List<String> headers, boolean isJson) {
+  private static InputStream decoding(InputStream body, String encoding) throws IOException {
+    return switch (encoding.toLowerCase(ROOT)) {
+      case "br" -> new BrotliCompressorInputStream(body);
+      case "gzip", "x-gzip" -> new GZIPInputStream(body);
+      // HTTP deflate is the zlib format, which InflaterInputStream expects by default
+      case "deflate" -> new InflaterInputStream(body);
+      case "identity" -> body;
+      default -> throw new IOException("Unsupported Content-Encoding: " + encoding);
+    };
+  }
+
+  /**
+   * Run the request inside the bounded fetch stage, chained after the host's rate-limit token.
+   * The token wait is a Reactor delay composed into the request, so the thread blocks once for
+   * both and the wait counts towards the fetch stage latency.
+   * No overall deadline is applied: the connector's response timeout bounds the wait for the response
+   * and every idle gap between reads, so a large body that keeps streaming is not cut off.
+   */
+  private <T> T awaitResponse(String url, Mono<T> request) {
+    return inFetchStage(url, () -> rateLimiter.acquire(url).then(request).block());
+  }
+
+  private <T> T inFetchStage(String url, Supplier<T> request) {
+    var response = pipeline.run(FETCH, request);
+    rateLimiter.onSuccess(url);
+    return response;
+  }
+
+  private WebClient.RequestHeadersSpec<?> buildRequestSpec(String url, List<String> headers, boolean isJson) {
     var userAgent = getRandomUserAgent();
     var isFirefox = userAgent.contains("Firefox");
 
@@ -143,7 +281,7 @@ public class CrawlHttpClient {
         .header("Upgrade-Insecure-Requests", "1")
         .header("User-Agent", userAgent)
         .header("Accept", isJson ? "application/json" : "text/html,application/xhtml+xml,application/xml;q=0.9,image/avif,image/webp,image/apng,*/*;q=0.8")
-        .header("Accept-Encoding", "gzip, deflate, br, zstd")
+        .header("Accept-Encoding", "gzip, deflate, br")
         .header("Accept-Language", "vi-VN,vi;q=0.9,en-US;q=0.8,en;q=0.7")
         .header("Sec-Ch-Ua", isFirefox ? null : "\"Google Chrome\";v=\"131\", \"Chromium\";v=\"131\", \"Not_A Brand\";v=\"24\"")
         .header("Sec-Ch-Ua-Mobile", "?0")
@@ -187,31 +325,25 @@ public class CrawlHttpClient {
     return bytes;
   }
 
-  private byte[] decompressResponse(byte[] responseBytes, String contentEncoding) {
-    if (isNotBlank(contentEncoding) && contentEncoding.contains("br")) {
-      return decompressBrotli(responseBytes);
-    }
-    return responseBytes;
-  }
-
   private boolean handleWebClientError(WebClientResponseException e, String url, int attempt) {
     var statusCode = e.getStatusCode().value();
 
     if (statusCode == 429) {
       if (attempt < maxRetries) {
-        var delaySeconds = calculateExponentialDelay(attempt) * 2; // Double delay for 429
+        var backoff = retryAfterOrDefault(e, calculateExponentialDelay(attempt) * 2); // Double delay for 429
         log.warn("Rate limit (429) hit for URL: {}, retrying after {} seconds (attempt {}/{})",
-            url, delaySeconds, attempt, maxRetries);
-        waitBeforeRetry(delaySeconds);
+            url, backoff.toSeconds(), attempt, maxRetries);
+        backOffThrottled(url, backoff);
         return true;
       }
+      rateLimiter.onThrottled(url, retryAfterOrDefault(e, 0));
       log.warn("Rate limit exceeded after {} attempts for URL: {}", maxRetries, url);
       return false;
     }
 
     if (statusCode == 403 || statusCode == 503) {
       if (attempt < maxRetries) {
-        waitBeforeRetry(calculateExponentialDelay(attempt));
+        backOffBlocked(url, e, attempt);
         return true;
       }
       log.warn("Blocked after {} attempts for URL: {}", maxRetries, url);
@@ -242,54 +374,136 @@ public class CrawlHttpClient {
     delay(ofSeconds(delaySeconds)).block();
   }
 
+  private Duration retryAfterOrDefault(WebClientResponseException e, int defaultSeconds) {
+    var retryAfter = parseRetryAfter(e.getHeaders().getFirst(RETRY_AFTER));
+    return retryAfter.isZero() ? ofSeconds(defaultSeconds) : retryAfter;
+  }
+
+  /**
+   * Back off after a 429: the rate limiter slows down and blocks the whole host,
+   * so the next acquire for this host waits instead of this thread.
+   */
+  private void backOffThrottled(String url, Duration backoff) {
+    if (rateLimiter.isEnabled()) {
+      rateLimiter.onThrottled(url, backoff);
+    } else {
+      delay(backoff).block();
+    }
+  }
+
+  /**
+   * Back off after a 403/503: honour Retry-After through the rate limiter when present.
+   */
+  private void backOffBlocked(String url, WebClientResponseException e, int attempt) {
+    var retryAfter = parseRetryAfter(e.getHeaders().getFirst(RETRY_AFTER));
+    if (!retryAfter.isZero() && rateLimiter.isEnabled()) {
+      rateLimiter.onThrottled(url, retryAfter);
+    } else {
+      waitBeforeRetry(calculateExponentialDelay(attempt));
+    }
+  }
+
   public byte[] downloadImage(String imageUrl, List<String> headers) {
-    for (var attempt = 1; attempt <= maxRetries; attempt++) {
+    return withImageRetries(imageUrl, () -> {
+      var dataBuffer = awaitResponse(imageUrl, join(imageBody(imageUrl, headers), DATA_BUFFER_MAX_SIZE_BYTES));
+      if (isEmpty(dataBuffer)) {
+        return null;
+      }
       try {
-        var webClient = webClientBuilder.build();
-
-        var requestSpec = webClient.get()
-            .uri(imageUrl)
-            .header("User-Agent", getRandomUserAgent())
-            .header("Accept", "image/webp,image/apng,image/*,*/*;q=0.8")
-            .header("Referer", extractReferer(headers));
-
-        var dataBufferFlux = requestSpec
-            .retrieve()
-            .bodyToFlux(DataBuffer.class)
-            .timeout(ofSeconds(requestTimeout));
-
-        var dataBuffer = join(dataBufferFlux, DATA_BUFFER_MAX_SIZE_BYTES)
-            .block();
-
-        if (isNotEmpty(dataBuffer)) {
-          try {
-            var imageBytes = new byte[dataBuffer.readableByteCount()];
-            dataBuffer.read(imageBytes);
-            return imageBytes;
-          } finally {
-            release(dataBuffer);
+        return readDataBuffer(dataBuffer);
+      } finally {
+        release(dataBuffer);
+      }
+    }, new byte[0]);
+  }
+
+  /**
+   * Download an image straight to a temporary file instead of joining it in memory.
+   * The SHA-256 is computed while the buffers stream through, so the bytes never need to be read back.
+   * Returns null when the download fails; the caller closes the result to delete the file.
+   */
+  public SpooledImage downloadImageToFile(String imageUrl, List<String> headers) {
+    return withImageRetries(imageUrl, () -> spoolImage(imageUrl, headers), null);
+  }
+
+  private SpooledImage spoolImage(String imageUrl, List<String> headers) {
+    var file = createSpoolFile();
+    var digest = sha256Digest();
+    var size = new AtomicLong();
+
+    var body = imageBody(imageUrl, headers)
+        .<DataBuffer>handle((buffer, sink) -> {
+          if (size.addAndGet(buffer.readableByteCount()) > IMAGE_SPOOL_MAX_SIZE_BYTES) {
+            release(buffer);
+            sink.error(new DataBufferLimitException("Image exceeds " + IMAGE_SPOOL_MAX_SIZE_BYTES + " bytes: " + imageUrl));
+            return;
+          }
+          try (var byteBuffers = buffer.readableByteBuffers()) {
+            byteBuffers.forEachRemaining(digest::update);
           }
+          sink.next(buffer);
+        });
+
+    try {
+      awaitResponse(imageUrl, write(body, file));
+    } catch (RuntimeException e) {
+      deleteSpoolFile(file);
+      throw e;
+    }
+
+    if (size.get() == 0) {
+      deleteSpoolFile(file);
+      return null;
+    }
+    return new SpooledImage(file, size.get(), HexFormat.of().formatHex(digest.digest()));
+  }
+
+  private Flux<DataBuffer> imageBody(String imageUrl, List<String> headers) {
+    return webClient.get()
+        .uri(imageUrl)
+        .header("User-Agent", getRandomUserAgent())
+        .header("Accept", "image/webp,image/apng,image/*,*/*;q=0.8")
+        .header("Referer", extractReferer(headers))
+        .retrieve()
+        .bodyToFlux(DataBuffer.class)
+        // Idle timeout: applies to the first buffer and to each gap between buffers, not the whole transfer
+        .timeout(ofSeconds(requestTimeout));
+  }
+
+  /**
+   * Retry an image download. A null result (empty body) is retried like a failure.
+   */
+  private <T> T withImageRetries(String imageUrl, Supplier<T> download, T fallback) {
+    for (var attempt = 1; attempt <= maxRetries; attempt++) {
+      try {
+        var result = download.get();
+        if (result != null) {
+          return result;
         }
       } catch (WebClientResponseException e) {
         var statusCode = e.getStatusCode().value();
         if (statusCode == 429) {
           if (attempt < maxRetries) {
-            var delaySeconds = calculateExponentialDelay(attempt) * 2;
+            var backoff = retryAfterOrDefault(e, calculateExponentialDelay(attempt) * 2);
             log.warn("Rate limit (429) when downloading image: {}, retrying after {} seconds (attempt {}/{})",
-                imageUrl, delaySeconds, attempt, maxRetries);
-            waitBeforeRetry(delaySeconds);
+                imageUrl, backoff.toSeconds(), attempt, maxRetries);
+            backOffThrottled(imageUrl, backoff);
             continue;
           }
+          rateLimiter.onThrottled(imageUrl, retryAfterOrDefault(e, 0));
           log.warn("Rate limit exceeded after {} attempts for image: {}", maxRetries, imageUrl);
-          return new byte[0];
+          return fallback;
         }
         if ((statusCode == 403 || statusCode == 503) && attempt < maxRetries) {
-          waitBeforeRetry(calculateExponentialDelay(attempt));
+          backOffBlocked(imageUrl, e, attempt);
           continue;
         }
 
         log.warn("HTTP Error {} downloading image: {}", statusCode, imageUrl);
-        return new byte[0];
+        return fallback;
+      } catch (DataBufferLimitException e) {
+        log.warn("Image too large, not retrying {}: {}", imageUrl, getRootCauseMessage(e));
+        return fallback;
       } catch (Exception e) {
         if (attempt < maxRetries) {
           log.warn("Error downloading image {}, retrying (attempt {}/{}): {}", imageUrl, attempt, maxRetries, getRootCauseMessage(e));
@@ -297,10 +511,34 @@ public class CrawlHttpClient {
           continue;
         }
         log.warn("Error downloading image {}: {}", imageUrl, getRootCauseMessage(e));
-        return new byte[0];
+        return fallback;
       }
     }
-    return new byte[0];
+    return fallback;
+  }
+
+  private Path createSpoolFile() {
+    try {
+      return createTempFile(IMAGE_SPOOL_PREFIX, ".tmp");
+    } catch (IOException e) {
+      throw new IllegalStateException("Failed to create image spool file", e);
+    }
+  }
+
+  private void deleteSpoolFile(Path file) {
+    try {
+      deleteIfExists(file);
+    } catch (IOException e) {
+      log.warn("Failed to delete image spool file {}: {}", file, getRootCauseMessage(e));
+    }
+  }
+
+  private MessageDigest sha256Digest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 not available", e);
+    }
   }
 
   private String extractReferer(List<String> headers) {
@@ -312,23 +550,6 @@ public class CrawlHttpClient {
     return EMPTY;
   }
 
-  private byte[] decompressBrotli(byte[] compressedData) {
-    try (var inputStream = new BrotliCompressorInputStream(new ByteArrayInputStream(compressedData));
-         var outputStream = new ByteArrayOutputStream()) {
-
-      var buffer = new byte[8192];
-      int bytesRead;
-      while ((bytesRead = inputStream.read(buffer)) != -1) {
-        outputStream.write(buffer, 0, bytesRead);
-      }
-
-      return outputStream.toByteArray();
-    } catch (Exception e) {
-      log.warn("Error decompressing Brotli data: {}", getRootCauseMessage(e));
-      return new byte[0];
-    }
-  }
-
   public String extractDomainFromUrl(String url) {
     try {
       if (url.startsWith(PROTOCOL_HTTP) || url.startsWith(PROTOCOL_HTTPS)) {
@@ -365,5 +586,78 @@ public class CrawlHttpClient {
     var normalizedDomain = domain.endsWith("/") ? domain.substring(0, domain.length() - 1) : domain;
     return normalizedDomain + "/" + url;
   }
-}
 
+  @FunctionalInterface
+  private interface ResponseReader<T> {
+    T read(ResponseEntity<Flux<DataBuffer>> response, InputStream body) throws IOException;
+  }
+
+  /**
+   * Blocking view of a streamed response body. Buffers are pulled on the reading thread with a
+   * small prefetch, so only a few are held at a time, and each is released once it has been read.
+   */
+  private static final class BodyInputStream extends InputStream {
+
+    private static final int PREFETCH = 8;
+
+    private final Stream<DataBuffer> buffers;
+    private final Iterator<DataBuffer> iterator;
+    private final long maxSize;
+    private long size;
+    private DataBuffer current;
+
+    private BodyInputStream(Flux<DataBuffer> body, long maxSize) {
+      this.buffers = body.doOnDiscard(DataBuffer.class, DataBufferUtils::release).toStream(PREFETCH);
+      this.iterator = buffers.iterator();
+      this.maxSize = maxSize;
+    }
+
+    @Override
+    public int read() {
+      var buffer = nextReadable();
+      return buffer == null ? -1 : buffer.read() & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) {
+      if (length == 0) {
+        return 0;
+      }
+      var buffer = nextReadable();
+      if (buffer == null) {
+        return -1;
+      }
+      var count = min(length, buffer.readableByteCount());
+      buffer.read(bytes, offset, count);
+      return count;
+    }
+
+    @Override
+    public void close() {
+      if (current != null) {
+        release(current);
+        current = null;
+      }
+      // Cancels the subscription when the body was not read to the end
+      buffers.close();
+    }
+
+    private DataBuffer nextReadable() {
+      while (current == null || current.readableByteCount() == 0) {
+        if (current != null) {
+          release(current);
+          current = null;
+        }
+        if (!iterator.hasNext()) {
+          return null;
+        }
+        current = iterator.next();
+        size += current.readableByteCount();
+        if (size > maxSize) {
+          throw new DataBufferLimitException("Response body exceeds " + maxSize + " bytes");
+        }
+      }
+      return current;
+    }
+  }
+}
@@ -1,5 +1,6 @@
 package com.truyengg.service.crawl;
 
+import com.truyengg.model.dto.SpooledImage;
 import com.truyengg.service.image.ImageService;
 import com.truyengg.service.storage.ImageStorageService;
 import lombok.RequiredArgsConstructor;
@@ -8,6 +9,7 @@ import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -17,6 +19,9 @@ import static com.truyengg.domain.constant.AppConstants.ATTR_DATA_SRC;
 import static com.truyengg.domain.constant.AppConstants.ATTR_SRC;
 import static com.truyengg.domain.constant.AppConstants.PREFIX_DATA_URI;
 import static com.truyengg.domain.constant.AppConstants.PROTOCOL_HTTPS;
+import static com.truyengg.service.crawl.CrawlPipeline.Stage.PROCESS;
+import static com.truyengg.service.crawl.CrawlPipeline.Stage.UPLOAD;
+import static java.nio.file.Files.newInputStream;
 import static org.apache.commons.lang3.StringUtils.isBlank;
 import static org.apache.commons.lang3.StringUtils.isEmpty;
 import static org.apache.commons.lang3.StringUtils.isNotBlank;
@@ -32,6 +37,7 @@ public class CrawlImageProcessor {
 
   private final ImageStorageService imageStorageService;
   private final ImageService imageService;
+  private final CrawlPipeline pipeline;
 
   /**
    * Normalize image URL to absolute URL.
@@ -72,18 +78,38 @@ public class CrawlImageProcessor {
    * Returns the storage path and blurhash in the result.
    */
   public ImageUploadResult processAndUpload(byte[] imageBytes, String comicSlug, String chapterId, String fileName) {
-    var compressionResult = imageService.compressAndConvertImage(imageBytes, "image/jpeg");
+    var compressionResult = pipeline.run(PROCESS, () -> imageService.compressAndConvertImage(imageBytes, "image/jpeg"));
     var compressedBytes = compressionResult.compressedBytes();
     var contentType = compressionResult.contentType();
     var blurhash = compressionResult.blurhash();
     var finalFileName = updateFileNameWithExtension(fileName, contentType);
 
-    imageStorageService.uploadImage(comicSlug, chapterId, finalFileName, compressedBytes, contentType);
+    pipeline.run(UPLOAD, () -> imageStorageService.uploadImage(comicSlug, chapterId, finalFileName, compressedBytes, contentType));
     var path = imageStorageService.getImagePath(comicSlug, chapterId, finalFileName);
 
     return new ImageUploadResult(path, blurhash);
   }
 
+  /**
+   * Process and upload an image spooled to a temporary file.
+   * Decodes from the file; when the original is kept, it is streamed to storage from the file.
+   */
+  public ImageUploadResult processAndUpload(SpooledImage image, String comicSlug, String chapterId, String fileName) {
+    var compressionResult = pipeline.run(PROCESS, () -> imageService.compressAndConvertImage(image.file(), image.size(), "image/jpeg"));
+    var compressedBytes = compressionResult.compressedBytes();
+    var contentType = compressionResult.contentType();
+    var finalFileName = updateFileNameWithExtension(fileName, contentType);
+
+    if (compressedBytes != null) {
+      pipeline.run(UPLOAD, () -> imageStorageService.uploadImage(comicSlug, chapterId, finalFileName, compressedBytes, contentType));
+    } else {
+      pipeline.run(UPLOAD, () -> uploadFile(image, comicSlug, chapterId, finalFileName, contentType));
+    }
+    var path = imageStorageService.getImagePath(comicSlug, chapterId, finalFileName);
+
+    return new ImageUploadResult(path, compressionResult.blurhash());
+  }
+
   private boolean extractFromPrimarySelector(Document doc, List<String> imageUrls) {
     var imgElements = doc.select("div.page-chapter img[" + ATTR_DATA_ORIGINAL + "]");
     for (var img : imgElements) {
@@ -165,6 +191,14 @@ public class CrawlImageProcessor {
         url.contains("banner") || url.contains("ad");
   }
 
+  private String uploadFile(SpooledImage image, String comicSlug, String chapterId, String fileName, String contentType) {
+    try (var inputStream = newInputStream(image.file())) {
+      return imageStorageService.uploadImage(comicSlug, chapterId, fileName, inputStream, contentType, image.size());
+    } catch (IOException e) {
+      throw new IllegalStateException("Failed to read spooled image " + image.file(), e);
+    }
+  }
+
   private String updateFileNameWithExtension(String fileName, String contentType) {
     var fileExtension = imageService.getFileExtensionForContentType(contentType);
     var lastDotIndex = fileName.lastIndexOf('.');
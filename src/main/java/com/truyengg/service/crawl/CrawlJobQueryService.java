@@ -1,6 +1,9 @@
 package com.truyengg.service.crawl;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.truyengg.domain.entity.CrawlJob;
+import com.truyengg.domain.enums.CrawlStatus;
+import com.truyengg.domain.enums.CrawlType;
 import com.truyengg.model.graphql.Connection;
 import com.truyengg.model.graphql.CrawlJobFilter;
 import com.truyengg.model.graphql.CrawlJobSort;
@@ -8,27 +11,35 @@ import com.truyengg.model.graphql.PageInfo;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Service;
 
-import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Base64;
+import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 
+import static com.truyengg.domain.constant.AppConstants.JOB_COUNTS;
+import static com.truyengg.model.graphql.CrawlJobSort.CrawlJobSortField.COMPLETED_AT;
+import static com.truyengg.model.graphql.CrawlJobSort.CrawlJobSortField.CREATED_AT;
+import static com.truyengg.model.graphql.CrawlJobSort.CrawlJobSortField.STARTED_AT;
+import static com.truyengg.model.graphql.CrawlJobSort.CrawlJobSortField.TARGET_NAME;
+import static java.util.stream.Collectors.joining;
 import static org.apache.commons.collections4.CollectionUtils.isEmpty;
 import static org.apache.commons.collections4.CollectionUtils.isNotEmpty;
 import static org.springframework.util.StringUtils.hasText;
 
 /**
- * Service for building dynamic GraphQL queries with filtering, sorting, and cursor-based pagination.
+ * Service for building dynamic GraphQL queries with filtering, sorting, and keyset pagination.
  */
 @Slf4j
 @Service
@@ -39,9 +50,14 @@ public class CrawlJobQueryService {
   private static final int DEFAULT_PAGE_SIZE = 20;
   private static final int MAX_PAGE_SIZE = 100;
   EntityManager entityManager;
+  CacheManager cacheManager;
+  ObjectMapper objectMapper;
 
   /**
-   * Find jobs with dynamic filtering, sorting, and cursor-based pagination.
+   * Find jobs with dynamic filtering, sorting, and keyset pagination.
+   * Rows are ordered by the requested sort keys with the job ID as tiebreaker, and the cursor
+   * carries the values of all keys, so pages neither skip nor repeat rows and any page depth
+   * costs one index range scan.
    */
   public Connection<CrawlJob> findJobsWithFilter(
       CrawlJobFilter filter,
@@ -58,35 +74,33 @@ public class CrawlJobQueryService {
     // Build predicates from filter
     var predicates = buildPredicates(cb, root, filter);
 
-    // Handle cursor pagination
+    // Handle cursor pagination: 'before' scans backwards in reverse order
     var pageSize = resolvePageSize(first, last);
-    var cursorId = decodeCursor(after != null ? after : before);
+    var backward = after == null && before != null;
+    var keys = resolveSortKeys(sorts);
+    var cursor = decodeCursor(backward ? before : after, keys);
 
-    if (cursorId != null) {
-      // Forward pagination (after cursor)
-      if (after != null) {
-        predicates.add(cb.greaterThan(root.get("id"), cursorId));
-      } else {
-        // Backward pagination (before cursor)
-        predicates.add(cb.lessThan(root.get("id"), cursorId));
-      }
+    if (cursor != null) {
+      predicates.add(buildKeysetPredicate(cb, root, keys, cursor, backward));
     }
 
     query.where(predicates.toArray(new Predicate[0]));
 
     // Build ORDER BY
-    var orders = buildOrders(cb, root, sorts);
-    query.orderBy(orders);
+    query.orderBy(buildOrders(cb, root, keys, backward));
 
     // Execute query with limit
-    var results = entityManager.createQuery(query)
-        .setMaxResults(pageSize + 1) // Fetch one extra to determine hasNextPage
-        .getResultList();
+    var results = new ArrayList<>(entityManager.createQuery(query)
+        .setMaxResults(pageSize + 1) // Fetch one extra to determine whether more pages follow
+        .getResultList());
 
     // Determine pagination info
     var hasMorePages = results.size() > pageSize;
     if (hasMorePages) {
-      results = results.subList(0, pageSize);
+      results.removeLast();
+    }
+    if (backward) {
+      Collections.reverse(results);
     }
 
     // Get total count (cached)
@@ -96,14 +110,14 @@ public class CrawlJobQueryService {
     var edges = results.stream()
         .map(job -> Connection.Edge.<CrawlJob>builder()
             .node(job)
-            .cursor(encodeCursor(job.getId()))
+            .cursor(encodeCursor(job, keys))
             .build())
         .toList();
 
     // Build page info
     var pageInfo = PageInfo.builder()
-        .hasNextPage(hasMorePages)
-        .hasPreviousPage(cursorId != null)
+        .hasNextPage(backward ? cursor != null : hasMorePages)
+        .hasPreviousPage(backward ? hasMorePages : cursor != null)
         .startCursor(edges.isEmpty() ? null : edges.getFirst().getCursor())
         .endCursor(edges.isEmpty() ? null : edges.getLast().getCursor())
         .build();
@@ -116,19 +130,17 @@ public class CrawlJobQueryService {
   }
 
   /**
-   * Count jobs with filter (cacheable for pagination).
+   * Count jobs with filter. Counts are cached per filter for a short TTL (see CacheConfig),
+   * so paging through a result set does not repeat the COUNT(*) on every page.
    */
-  @Cacheable(value = "jobCounts", key = "#filter != null ? #filter.hashCode() : 'all'")
   public long countJobsWithFilter(CrawlJobFilter filter) {
-    var cb = entityManager.getCriteriaBuilder();
-    var query = cb.createQuery(Long.class);
-    var root = query.from(CrawlJob.class);
-
-    var predicates = buildPredicates(cb, root, filter);
-    query.select(cb.count(root));
-    query.where(predicates.toArray(new Predicate[0]));
-
-    return entityManager.createQuery(query).getSingleResult();
+    var cache = cacheManager.getCache(JOB_COUNTS);
+    if (cache == null) {
+      return countJobs(filter);
+    }
+    // Filter is a mutable @Data input; key on its rendered state rather than the instance
+    var count = cache.get(String.valueOf(filter), () -> countJobs(filter));
+    return count != null ? count : 0;
   }
 
   /**
@@ -339,23 +351,105 @@ public class CrawlJobQueryService {
     return predicates;
   }
 
-  private List<Order> buildOrders(CriteriaBuilder cb, Root<CrawlJob> root, List<CrawlJobSort> sorts) {
+  private long countJobs(CrawlJobFilter filter) {
+    var cb = entityManager.getCriteriaBuilder();
+    var query = cb.createQuery(Long.class);
+    var root = query.from(CrawlJob.class);
+
+    var predicates = buildPredicates(cb, root, filter);
+    query.select(cb.count(root));
+    query.where(predicates.toArray(new Predicate[0]));
+
+    return entityManager.createQuery(query).getSingleResult();
+  }
+
+  private List<SortKey> resolveSortKeys(List<CrawlJobSort> sorts) {
     if (isEmpty(sorts)) {
       // Default sort: createdAt DESC
-      return List.of(cb.desc(root.get("createdAt")));
+      return List.of(new SortKey(CREATED_AT, false));
     }
 
     return sorts.stream()
-        .map(sort -> {
-          var fieldName = toFieldName(sort.getField());
-          var path = root.<Comparable<?>>get(fieldName);
-          return sort.getDirection() == CrawlJobSort.SortDirection.ASC
-              ? cb.asc(path)
-              : cb.desc(path);
-        })
+        .map(sort -> new SortKey(sort.getField(), sort.getDirection() == CrawlJobSort.SortDirection.ASC))
         .toList();
   }
 
+  /**
+   * ORDER BY the sort keys, then the job ID in the direction of the last key so a composite
+   * (key, id) index can serve the whole ordering. Backward pages reverse every key.
+   */
+  private List<Order> buildOrders(CriteriaBuilder cb, Root<CrawlJob> root, List<SortKey> keys, boolean backward) {
+    var orders = new ArrayList<Order>();
+    for (var key : keys) {
+      var path = root.get(toFieldName(key.field()));
+      orders.add(key.ascending() != backward ? cb.asc(path) : cb.desc(path));
+    }
+    var idPath = root.get("id");
+    orders.add(keys.getLast().ascending() != backward ? cb.asc(idPath) : cb.desc(idPath));
+    return orders;
+  }
+
+  /**
+   * Rows strictly after the cursor in scan order:
+   * (k1 beyond v1) OR (k1 = v1 AND k2 beyond v2) OR ... OR (all keys equal AND id beyond cursor id).
+   * NULLs sort last ascending and first descending in PostgreSQL, i.e. they compare as larger
+   * than every value.
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private Predicate buildKeysetPredicate(CriteriaBuilder cb, Root<CrawlJob> root, List<SortKey> keys,
+                                         Cursor cursor, boolean backward) {
+    var alternatives = new ArrayList<Predicate>();
+    var equalities = new ArrayList<Predicate>();
+
+    for (var i = 0; i < keys.size(); i++) {
+      var key = keys.get(i);
+      var path = root.<Comparable>get(toFieldName(key.field()));
+      var value = (Comparable) cursor.values().get(i);
+      var nullable = isNullable(key.field());
+
+      var beyond = key.ascending() != backward
+          ? greaterThan(cb, path, value, nullable)
+          : lessThan(cb, path, value, nullable);
+      alternatives.add(and(cb, equalities, beyond));
+      equalities.add(value != null ? cb.equal(path, value) : cb.isNull(path));
+    }
+
+    var idPath = root.<UUID>get("id");
+    var idBeyond = keys.getLast().ascending() != backward
+        ? cb.greaterThan(idPath, cursor.id())
+        : cb.lessThan(idPath, cursor.id());
+    alternatives.add(and(cb, equalities, idBeyond));
+
+    return cb.or(alternatives.toArray(new Predicate[0]));
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private Predicate greaterThan(CriteriaBuilder cb, Path<Comparable> path, Comparable value, boolean nullable) {
+    if (value == null) {
+      return cb.disjunction();
+    }
+    var greater = cb.greaterThan(path, value);
+    return nullable ? cb.or(greater, cb.isNull(path)) : greater;
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private Predicate lessThan(CriteriaBuilder cb, Path<Comparable> path, Comparable value, boolean nullable) {
+    if (value == null) {
+      return cb.isNotNull(path);
+    }
+    return cb.lessThan(path, value);
+  }
+
+  private Predicate and(CriteriaBuilder cb, List<Predicate> equalities, Predicate last) {
+    var predicates = new ArrayList<>(equalities);
+    predicates.add(last);
+    return cb.and(predicates.toArray(new Predicate[0]));
+  }
+
+  private boolean isNullable(CrawlJobSort.CrawlJobSortField field) {
+    return field == STARTED_AT || field == COMPLETED_AT || field == TARGET_NAME;
+  }
+
   private String toFieldName(CrawlJobSort.CrawlJobSortField field) {
     return switch (field) {
       case CREATED_AT -> "createdAt";
@@ -376,21 +470,87 @@ public class CrawlJobQueryService {
     return Math.min(size, MAX_PAGE_SIZE);
   }
 
-  private String encodeCursor(UUID id) {
-    return Base64.getEncoder().encodeToString(id.toString().getBytes(StandardCharsets.UTF_8));
+  /**
+   * Opaque cursor: Base64 (URL-safe) JSON of the sort signature, the sort key values and the job ID.
+   */
+  private String encodeCursor(CrawlJob job, List<SortKey> keys) {
+    var values = new ArrayList<String>();
+    for (var key : keys) {
+      var value = sortValue(job, key.field());
+      values.add(value != null ? value.toString() : null);
+    }
+    var node = objectMapper.createObjectNode()
+        .put("s", signature(keys))
+        .put("id", job.getId().toString());
+    node.putPOJO("v", values);
+    try {
+      return Base64.getUrlEncoder().withoutPadding().encodeToString(objectMapper.writeValueAsBytes(node));
+    } catch (Exception e) {
+      throw new IllegalStateException("Failed to encode cursor for job " + job.getId(), e);
+    }
   }
 
-  private UUID decodeCursor(String cursor) {
+  /**
+   * Decode a cursor. Invalid cursors and cursors issued for a different sort are ignored,
+   * which restarts pagination from the first page.
+   */
+  private Cursor decodeCursor(String cursor, List<SortKey> keys) {
     if (cursor == null || cursor.isBlank()) {
       return null;
     }
     try {
-      var decoded = new String(Base64.getDecoder().decode(cursor), StandardCharsets.UTF_8);
-      return UUID.fromString(decoded);
+      var node = objectMapper.readTree(Base64.getUrlDecoder().decode(cursor));
+      if (!signature(keys).equals(node.path("s").asText())) {
+        log.debug("Ignoring cursor issued for another sort: {}", cursor);
+        return null;
+      }
+      var encodedValues = node.path("v");
+      var values = new ArrayList<>();
+      for (var i = 0; i < keys.size(); i++) {
+        var value = encodedValues.get(i);
+        values.add(value == null || value.isNull() ? null : parseSortValue(keys.get(i).field(), value.asText()));
+      }
+      return new Cursor(values, UUID.fromString(node.path("id").asText()));
     } catch (Exception e) {
       log.warn("Failed to decode cursor: {}", cursor, e);
       return null;
     }
   }
-}
 
+  private String signature(List<SortKey> keys) {
+    return keys.stream()
+        .map(key -> key.field() + (key.ascending() ? ":ASC" : ":DESC"))
+        .collect(joining(","));
+  }
+
+  private Object sortValue(CrawlJob job, CrawlJobSort.CrawlJobSortField field) {
+    return switch (field) {
+      case CREATED_AT -> job.getCreatedAt();
+      case UPDATED_AT -> job.getUpdatedAt();
+      case STARTED_AT -> job.getStartedAt();
+      case COMPLETED_AT -> job.getCompletedAt();
+      case TARGET_NAME -> job.getTargetName();
+      case STATUS -> job.getStatus();
+      case TYPE -> job.getCrawlType();
+      case PERCENT -> job.getCompletedItems();
+      case TOTAL_ITEMS -> job.getTotalItems();
+      case FAILED_ITEMS -> job.getFailedItems();
+    };
+  }
+
+  private Object parseSortValue(CrawlJobSort.CrawlJobSortField field, String value) {
+    return switch (field) {
+      case CREATED_AT, UPDATED_AT, STARTED_AT, COMPLETED_AT -> ZonedDateTime.parse(value);
+      case TARGET_NAME -> value;
+      case STATUS -> CrawlStatus.valueOf(value);
+      case TYPE -> CrawlType.valueOf(value);
+      case PERCENT, TOTAL_ITEMS, FAILED_ITEMS -> Integer.valueOf(value);
+    };
+  }
+
+  private record SortKey(CrawlJobSort.CrawlJobSortField field, boolean ascending) {
+  }
+
+  private record Cursor(List<Object> values, UUID id) {
+  }
+}
@@ -5,6 +5,7 @@ import com.truyengg.domain.entity.CrawlJob;
 import com.truyengg.domain.entity.CrawlProgress;
 import com.truyengg.domain.entity.CrawlSettings;
 import com.truyengg.domain.entity.User;
+import com.truyengg.domain.enums.CrawlStatus;
 import com.truyengg.domain.enums.CrawlType;
 import com.truyengg.domain.enums.DownloadMode;
 import com.truyengg.domain.repository.CrawlCheckpointRepository;
@@ -16,6 +17,9 @@ import com.truyengg.domain.exception.ResourceNotFoundException;
 import com.truyengg.model.dto.DuplicateCheckResult;
 import com.truyengg.model.event.CrawlJobCreatedEvent;
 import com.truyengg.model.event.CrawlJobResumedEvent;
+import com.truyengg.model.event.CrawlJobSignalEvent;
+import com.truyengg.model.event.CrawlJobSubtreeUpdatedEvent;
+import com.truyengg.model.event.CrawlJobSubtreeUpdatedEvent.Operation;
 import com.truyengg.model.request.CrawlJobRequest;
 import jakarta.transaction.Transactional;
 import lombok.AccessLevel;
@@ -27,6 +31,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -95,7 +100,9 @@ public class CrawlJobService {
       job.setItemIndex(request.itemIndex());
     }
 
-    job = crawlJobRepository.save(job);
+    // Flushed so the closure rows below can reference the new job
+    job = crawlJobRepository.saveAndFlush(job);
+    hierarchyService.addToClosure(job.getId(), job.getParentJob() != null ? job.getParentJob().getId() : null);
 
     // Create settings - use -1 as sentinel for "use default"
     var settings = CrawlSettings.builder()
@@ -236,6 +243,14 @@ public class CrawlJobService {
         .orElseThrow(() -> new ResourceNotFoundException("Crawl job not found: " + id));
   }
 
+  /**
+   * Get a job for execution, with its parent and root loaded.
+   */
+  public CrawlJob getForExecution(UUID id) {
+    return crawlJobRepository.findWithParentsById(id)
+        .orElseThrow(() -> new ResourceNotFoundException("Crawl job not found: " + id));
+  }
+
   // Related data (settings, progress, checkpoint) use @MapsId - fetch separately via repositories
 
   public Page<CrawlJob> findAllRootJobs(Pageable pageable) {
@@ -304,8 +319,15 @@ public class CrawlJobService {
     job.setStatus(PAUSED);
     job.setUpdatedAt(now());
 
-    // Record pause in checkpoint
-    checkpointRepository.recordPause(jobId, now());
+    // Pause running descendants as well, marking them as paused by this job
+    var runningChildIds = findDescendantsWithStatus(jobId, RUNNING);
+    if (!runningChildIds.isEmpty()) {
+      crawlJobRepository.updateStatusByIds(runningChildIds, PAUSED, now());
+    }
+    var pausedIds = concat(jobId, runningChildIds);
+    checkpointRepository.recordPause(pausedIds, jobId, now());
+
+    eventPublisher.publishEvent(new CrawlJobSignalEvent(pausedIds, PAUSED));
 
     return crawlJobRepository.save(job);
   }
@@ -324,15 +346,18 @@ public class CrawlJobService {
     job.setStatus(RUNNING);
     job.setUpdatedAt(now());
 
-    // Record resume in checkpoint
-    checkpointRepository.recordResume(jobId, now());
-
     var savedJob = crawlJobRepository.save(job);
 
-    // Get resume index from checkpoint and publish event
-    var checkpoint = checkpointRepository.findById(jobId);
-    var resumeFromIndex = checkpoint.map(c -> c.getLastItemIndex() + 1).orElse(0);
-    eventPublisher.publishEvent(new CrawlJobResumedEvent(jobId, resumeFromIndex));
+    // Resume only descendants paused together with this job; a child paused on its own stays paused
+    var pausedChildIds = crawlJobRepository.findDescendantsPausedBy(jobId);
+    if (!pausedChildIds.isEmpty()) {
+      crawlJobRepository.updateStatusByIds(pausedChildIds, RUNNING, now());
+    }
+    var resumedIds = concat(jobId, pausedChildIds);
+    checkpointRepository.recordResume(resumedIds, now());
+
+    eventPublisher.publishEvent(new CrawlJobSignalEvent(resumedIds, RUNNING));
+    publishResumed(resumedIds);
 
     return savedJob;
   }
@@ -367,15 +392,20 @@ public class CrawlJobService {
       throw new IllegalStateException("Cannot cancel terminal jobs. Current status: " + job.getStatus());
     }
 
+    // One statement per table for the whole subtree, including this job
+    var now = now();
+    var jobs = crawlJobRepository.cancelSubtree(jobId, now);
+    var queueItems = queueRepository.skipPendingSubtree(jobId, now);
+    progressRepository.updateMessageSubtree(jobId, "Cancelled", now);
+
     job.setStatus(CANCELLED);
-    job.setCompletedAt(now());
-    job.setUpdatedAt(now());
+    job.setCompletedAt(now);
+    job.setUpdatedAt(now);
 
-    // Cancel all child jobs
-    var childIds = hierarchyService.findAllDescendants(jobId);
-    if (!childIds.isEmpty()) {
-      crawlJobRepository.updateStatusByIds(childIds, CANCELLED, now());
-    }
+    // Descendants running on this node are signalled when the event reconciles after commit
+    eventPublisher.publishEvent(new CrawlJobSignalEvent(List.of(jobId), CANCELLED));
+    eventPublisher.publishEvent(new CrawlJobSubtreeUpdatedEvent(jobId, Operation.CANCELLED, jobs, queueItems));
+    log.info("Cancelled job {}: {} jobs, {} queue items skipped", jobId, jobs, queueItems);
 
     return crawlJobRepository.save(job);
   }
@@ -440,26 +470,28 @@ public class CrawlJobService {
 
   /**
    * Soft delete a job and all its descendants.
+   *
+   * @return number of jobs deleted
    */
   @Transactional
-  public void softDelete(UUID jobId) {
-    var job = crawlJobRepository.findById(jobId)
-        .orElseThrow(() -> new ResourceNotFoundException("Job not found: " + jobId));
+  public int softDelete(UUID jobId) {
+    if (!crawlJobRepository.existsById(jobId)) {
+      throw new ResourceNotFoundException("Job not found: " + jobId);
+    }
 
     var now = now();
 
-    // Get all descendants
-    var descendantIds = hierarchyService.findAllDescendants(jobId);
-    var allIds = Stream.concat(Stream.of(jobId), descendantIds.stream()).toList();
-
     // Soft delete all jobs
-    crawlJobRepository.softDeleteByIds(allIds, now);
+    var jobs = crawlJobRepository.softDeleteSubtree(jobId, now);
 
     // Soft delete related records
-    settingsRepository.softDeleteByJobIds(allIds, now);
-    progressRepository.softDeleteByJobIds(allIds, now);
-    checkpointRepository.softDeleteByJobIds(allIds, now);
-    queueRepository.softDeleteByJobIds(allIds, now);
+    settingsRepository.softDeleteSubtree(jobId, now);
+    progressRepository.softDeleteSubtree(jobId, now);
+    checkpointRepository.softDeleteSubtree(jobId, now);
+    var queueItems = queueRepository.softDeleteSubtree(jobId, now);
+
+    eventPublisher.publishEvent(new CrawlJobSubtreeUpdatedEvent(jobId, Operation.DELETED, jobs, queueItems));
+    return jobs;
   }
 
   /**
@@ -479,9 +511,11 @@ public class CrawlJobService {
 
   /**
    * Restore a soft-deleted job and all its descendants.
+   *
+   * @return number of jobs restored
    */
   @Transactional
-  public void restore(UUID jobId) {
+  public int restore(UUID jobId) {
     var job = crawlJobRepository.findByIdIncludeDeleted(jobId)
         .orElseThrow(() -> new ResourceNotFoundException("Job not found: " + jobId));
 
@@ -489,18 +523,17 @@ public class CrawlJobService {
       throw new IllegalStateException("Job is not deleted");
     }
 
-    // Get all descendants
-    var descendantIds = hierarchyService.findAllDescendants(jobId);
-    var allIds = Stream.concat(Stream.of(jobId), descendantIds.stream()).toList();
-
     // Restore all jobs
-    crawlJobRepository.restoreByIds(allIds);
+    var jobs = crawlJobRepository.restoreSubtree(jobId);
 
     // Restore related records
-    settingsRepository.restoreByJobIds(allIds);
-    progressRepository.restoreByJobIds(allIds);
-    checkpointRepository.restoreByJobIds(allIds);
-    queueRepository.restoreByJobIds(allIds);
+    settingsRepository.restoreSubtree(jobId);
+    progressRepository.restoreSubtree(jobId);
+    checkpointRepository.restoreSubtree(jobId);
+    var queueItems = queueRepository.restoreSubtree(jobId);
+
+    eventPublisher.publishEvent(new CrawlJobSubtreeUpdatedEvent(jobId, Operation.RESTORED, jobs, queueItems));
+    return jobs;
   }
 
   // ===== Statistics =====
@@ -576,5 +609,27 @@ public class CrawlJobService {
 
     return job;
   }
-}
 
+  // ===== Private methods =====
+
+  private List<UUID> findDescendantsWithStatus(UUID jobId, CrawlStatus status) {
+    var childIds = hierarchyService.findAllDescendants(jobId);
+    return childIds.isEmpty() ? List.of() : crawlJobRepository.findIdsByIdInAndStatus(childIds, status);
+  }
+
+  /**
+   * Publish a resume event per job, each continuing after its last checkpointed item.
+   */
+  private void publishResumed(List<UUID> jobIds) {
+    var lastIndices = new HashMap<UUID, Integer>();
+    for (var row : checkpointRepository.findLastItemIndices(jobIds)) {
+      lastIndices.put((UUID) row[0], (Integer) row[1]);
+    }
+    jobIds.forEach(id ->
+        eventPublisher.publishEvent(new CrawlJobResumedEvent(id, lastIndices.getOrDefault(id, -1) + 1)));
+  }
+
+  private static List<UUID> concat(UUID jobId, List<UUID> childIds) {
+    return Stream.concat(Stream.of(jobId), childIds.stream()).toList();
+  }
+}
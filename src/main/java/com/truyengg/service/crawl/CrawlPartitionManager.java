@@ -0,0 +1,201 @@
+package com.truyengg.service.crawl;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import static java.lang.Integer.parseInt;
+import static org.apache.commons.lang3.exception.ExceptionUtils.getRootCauseMessage;
+import static org.springframework.transaction.annotation.Propagation.NOT_SUPPORTED;
+import static org.springframework.transaction.annotation.Propagation.REQUIRES_NEW;
+
+/**
+ * Maintains the monthly partitions of crawl_queue (see V11 migration).
+ * Pre-creates partitions for the coming months and detaches partitions older than the
+ * retention period in one metadata operation, instead of deleting their rows one by one.
+ * Detached partitions are moved to the crawl_archive schema, or dropped when archiving is off,
+ * and archived partitions are dropped once they exceed the archive retention.
+ * Partitions are detached CONCURRENTLY (PostgreSQL 14+), so workers claiming queue items are not
+ * blocked; that statement cannot run inside a transaction, so maintenance runs without one.
+ * There is no default partition (it would forbid the concurrent detach), so a month that has no
+ * partition yet is created on demand when items of one of its jobs are enqueued.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class CrawlPartitionManager {
+
+  private static final String ARCHIVE_SCHEMA = "crawl_archive";
+  private static final Pattern PARTITION_NAME = Pattern.compile("crawl_queue_p(\\d{4})_(\\d{2})");
+
+  private static final String FIND_PARTITIONS_SQL = """
+      SELECT c.relname, i.inhdetachpending FROM pg_inherits i
+      INNER JOIN pg_class c ON c.oid = i.inhrelid
+      WHERE i.inhparent = 'crawl_queue'::regclass
+      """;
+
+  private static final String FIND_ARCHIVED_SQL = """
+      SELECT tablename FROM pg_tables WHERE schemaname = 'crawl_archive'
+      """;
+
+  // Month bounds are computed in the session time zone, like date_trunc in create_crawl_queue_partition
+  private static final String HAS_ACTIVE_JOBS_SQL = """
+      SELECT EXISTS (
+          SELECT 1 FROM crawl_jobs
+          WHERE created_at >= make_timestamptz(:year, :month, 1, 0, 0, 0)
+          AND created_at < make_timestamptz(:year, :month, 1, 0, 0, 0) + INTERVAL '1 month'
+          AND status IN ('PENDING', 'RUNNING', 'PAUSED')
+          AND deleted_at IS NULL
+      )
+      """;
+
+  NamedParameterJdbcTemplate jdbcTemplate;
+
+  @NonFinal
+  @Value("${crawl.partition.enabled:true}")
+  boolean enabled;
+
+  @NonFinal
+  @Value("${crawl.partition.premake-months:2}")
+  int premakeMonths;
+
+  @NonFinal
+  @Value("${crawl.partition.retention-months:3}")
+  int retentionMonths;
+
+  @NonFinal
+  @Value("${crawl.partition.archive:true}")
+  boolean archive;
+
+  @NonFinal
+  @Value("${crawl.partition.archive-retention-months:12}")
+  int archiveRetentionMonths;
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void onStartup() {
+    maintain();
+  }
+
+  /**
+   * Create upcoming partitions, then detach and archive expired ones.
+   * Runs at 2:30 AM daily by default.
+   */
+  @Scheduled(cron = "${crawl.partition.cron:0 30 2 * * ?}")
+  @Transactional(propagation = NOT_SUPPORTED)
+  public void maintain() {
+    if (!enabled) {
+      return;
+    }
+
+    try {
+      createUpcomingPartitions();
+      detachExpiredPartitions();
+      dropExpiredArchives();
+    } catch (Exception e) {
+      log.warn("Crawl queue partition maintenance failed: {}", getRootCauseMessage(e));
+    }
+  }
+
+  /**
+   * Create the partition for a job's month when it is missing, e.g. for a job created before
+   * maintenance first ran or one retried after its month was detached.
+   * Creating a partition locks crawl_queue, so it commits on its own instead of holding that lock
+   * for the rest of the enqueueing transaction.
+   */
+  @Transactional(propagation = REQUIRES_NEW)
+  public void createPartition(OffsetDateTime jobCreatedAt) {
+    var partition = jdbcTemplate.queryForObject("SELECT create_crawl_queue_partition(:month)",
+        Map.of("month", jobCreatedAt), String.class);
+    log.info("Created missing crawl queue partition {}", partition);
+  }
+
+  // ===== Private methods =====
+
+  private void createUpcomingPartitions() {
+    var current = YearMonth.now();
+    for (var i = 0; i <= premakeMonths; i++) {
+      // Mid-month, so the database time zone cannot shift it into a neighbouring month
+      var month = current.plusMonths(i).atDay(15).atStartOfDay(ZoneId.systemDefault()).toOffsetDateTime();
+      jdbcTemplate.queryForObject("SELECT create_crawl_queue_partition(:month)", Map.of("month", month), String.class);
+    }
+  }
+
+  private void detachExpiredPartitions() {
+    var oldestKept = YearMonth.now().minusMonths(retentionMonths);
+    var partitions = jdbcTemplate.getJdbcTemplate().queryForList(FIND_PARTITIONS_SQL);
+
+    for (var row : partitions) {
+      var partition = (String) row.get("relname");
+      var month = parseMonth(partition);
+      if (month == null || !month.isBefore(oldestKept)) {
+        continue;
+      }
+
+      try {
+        if (Boolean.TRUE.equals(row.get("inhdetachpending"))) {
+          // An earlier concurrent detach was interrupted between its two transactions
+          jdbcTemplate.getJdbcTemplate().execute("ALTER TABLE crawl_queue DETACH PARTITION " + partition + " FINALIZE");
+        } else if (hasActiveJobs(month)) {
+          log.info("Keeping crawl queue partition {}: it still has active jobs", partition);
+          continue;
+        } else {
+          jdbcTemplate.getJdbcTemplate().execute("ALTER TABLE crawl_queue DETACH PARTITION " + partition + " CONCURRENTLY");
+        }
+        if (archive) {
+          jdbcTemplate.getJdbcTemplate().execute("ALTER TABLE " + partition + " SET SCHEMA " + ARCHIVE_SCHEMA);
+        } else {
+          jdbcTemplate.getJdbcTemplate().execute("DROP TABLE " + partition);
+        }
+        log.info("Detached crawl queue partition {} ({})", partition, archive ? "archived" : "dropped");
+      } catch (Exception e) {
+        log.warn("Failed to detach crawl queue partition {}: {}", partition, getRootCauseMessage(e));
+      }
+    }
+  }
+
+  private void dropExpiredArchives() {
+    var oldestKept = YearMonth.now().minusMonths(retentionMonths + archiveRetentionMonths);
+    var archived = jdbcTemplate.getJdbcTemplate().queryForList(FIND_ARCHIVED_SQL, String.class);
+
+    for (var table : archived) {
+      var month = parseMonth(table);
+      if (month != null && month.isBefore(oldestKept)) {
+        jdbcTemplate.getJdbcTemplate().execute("DROP TABLE " + ARCHIVE_SCHEMA + "." + table);
+        log.info("Dropped archived crawl queue partition {}", table);
+      }
+    }
+  }
+
+  private boolean hasActiveJobs(YearMonth month) {
+    var params = Map.of("year", month.getYear(), "month", month.getMonthValue());
+    return Boolean.TRUE.equals(jdbcTemplate.queryForObject(HAS_ACTIVE_JOBS_SQL, params, Boolean.class));
+  }
+
+  /**
+   * Month of a partition table name; null for the default partition and unknown tables.
+   * Only names matching the pattern are ever used in DDL statements.
+   */
+  private YearMonth parseMonth(String tableName) {
+    var matcher = PARTITION_NAME.matcher(tableName);
+    if (!matcher.matches()) {
+      return null;
+    }
+    return YearMonth.of(parseInt(matcher.group(1)), parseInt(matcher.group(2)));
+  }
+}
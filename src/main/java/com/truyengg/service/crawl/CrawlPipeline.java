@@ -0,0 +1,232 @@
+package com.truyengg.service.crawl;
+
+import com.truyengg.domain.exception.CrawlStageRejectedException;
+import com.truyengg.model.properties.CrawlPipelineProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import static java.lang.Math.max;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Bounded stages of the crawl pipeline: job, fetch, parse, image process, upload.
+ * Each stage is guarded by a fair semaphore so work beyond the limit waits in arrival order
+ * instead of piling up virtual threads that hold DB connections and image buffers.
+ * Waiting is bounded: a stage rejects new tasks once max-waiting tasks queue for it, and a task
+ * that gets no permit within the acquire timeout fails with {@link CrawlStageRejectedException}.
+ * Stage limits are global; per-job fan-out is bounded by CrawlSettings.parallelLimit in the handlers,
+ * so a stage runs min(stage permits, sum of parallelLimit over running jobs) tasks at once.
+ * A JOB permit is held for a job's own run only: parent jobs enqueue their children and return
+ * without waiting for them, so children never wait on a slot held by their parent.
+ * Producers that dispatch work to other threads (the queue workers creating child jobs) claim no more
+ * than {@link #getFreePermits} and announce each dispatched task with {@link #admit}, so the stage
+ * queue stays short instead of filling up with tasks that would later be rejected.
+ * Wait and run times are recorded per stage (crawl.pipeline.wait / crawl.pipeline.run, with p95)
+ * so stage throughput and latency regressions show up in /actuator/metrics.
+ */
+@Slf4j
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class CrawlPipeline {
+
+  Map<Stage, Semaphore> permits = new EnumMap<>(Stage.class);
+  Map<Stage, Timer> waitTimers = new EnumMap<>(Stage.class);
+  Map<Stage, Timer> runTimers = new EnumMap<>(Stage.class);
+  Map<Stage, Counter> rejectedCounters = new EnumMap<>(Stage.class);
+  Map<Stage, AtomicInteger> admitted = new EnumMap<>(Stage.class);
+  Map<Stage, Condition> permitReleased = new EnumMap<>(Stage.class);
+  Lock releaseLock = new ReentrantLock();
+  AtomicInteger producersWaiting = new AtomicInteger();
+  Duration acquireTimeout;
+  Duration jobAcquireTimeout;
+  int maxWaiting;
+
+  public CrawlPipeline(CrawlPipelineProperties properties, MeterRegistry meterRegistry) {
+    var cpus = Runtime.getRuntime().availableProcessors();
+    this.acquireTimeout = properties.getAcquireTimeout();
+    this.jobAcquireTimeout = properties.getJobAcquireTimeout();
+    this.maxWaiting = max(1, properties.getMaxWaiting());
+    permits.put(Stage.JOB, new Semaphore(max(1, properties.getMaxConcurrentJobs()), true));
+    permits.put(Stage.FETCH, new Semaphore(max(1, properties.getFetchPermits()), true));
+    permits.put(Stage.PARSE, new Semaphore(orDefault(properties.getParsePermits(), cpus), true));
+    permits.put(Stage.PROCESS, new Semaphore(orDefault(properties.getProcessPermits(), cpus), true));
+    permits.put(Stage.UPLOAD, new Semaphore(max(1, properties.getUploadPermits()), true));
+    permits.forEach((stage, semaphore) -> registerMetrics(meterRegistry, stage, semaphore));
+    for (var stage : Stage.values()) {
+      admitted.put(stage, new AtomicInteger());
+      permitReleased.put(stage, releaseLock.newCondition());
+    }
+    log.info("Crawl pipeline limits: {}", permits.entrySet().stream()
+        .map(e -> e.getKey() + "=" + e.getValue().availablePermits())
+        .toList());
+  }
+
+  /**
+   * Run a task inside a stage, waiting for a free permit first.
+   * Throws {@link CrawlStageRejectedException} when the stage is saturated.
+   */
+  public <T> T run(Stage stage, Supplier<T> task) {
+    var semaphore = permits.get(stage);
+    var waitStart = nanoTime();
+    arrive(stage);
+    acquire(stage, semaphore);
+    var runStart = nanoTime();
+    waitTimers.get(stage).record(runStart - waitStart, NANOSECONDS);
+    try {
+      return task.get();
+    } finally {
+      semaphore.release();
+      signalReleased(stage);
+      runTimers.get(stage).record(nanoTime() - runStart, NANOSECONDS);
+    }
+  }
+
+  /**
+   * Run a task without result inside a stage.
+   */
+  public void run(Stage stage, Runnable task) {
+    run(stage, () -> {
+      task.run();
+      return null;
+    });
+  }
+
+  /**
+   * Tasks currently waiting for a permit of the stage.
+   */
+  public int getQueueLength(Stage stage) {
+    return permits.get(stage).getQueueLength();
+  }
+
+  public int getAvailablePermits(Stage stage) {
+    return permits.get(stage).availablePermits();
+  }
+
+  /**
+   * Announce a task that will enter the stage from another thread shortly, so producers stop
+   * counting the permit it is about to take as free. The admission ends when a task enters the stage.
+   */
+  public void admit(Stage stage) {
+    admitted.get(stage).incrementAndGet();
+  }
+
+  /**
+   * Permits a producer may still fill: free permits minus tasks waiting for one and tasks admitted
+   * but not yet arrived.
+   */
+  public int getFreePermits(Stage stage) {
+    var semaphore = permits.get(stage);
+    return max(0, semaphore.availablePermits() - semaphore.getQueueLength() - admitted.get(stage).get());
+  }
+
+  /**
+   * Wait until the stage has free permits, up to the timeout, without taking any.
+   * Returns the free permits, 0 when none came free in time.
+   */
+  public int awaitFreePermits(Stage stage, Duration timeout) throws InterruptedException {
+    var remaining = timeout.toNanos();
+    releaseLock.lock();
+    producersWaiting.incrementAndGet();
+    try {
+      var free = getFreePermits(stage);
+      while (free == 0 && remaining > 0) {
+        remaining = permitReleased.get(stage).awaitNanos(remaining);
+        free = getFreePermits(stage);
+      }
+      return free;
+    } finally {
+      producersWaiting.decrementAndGet();
+      releaseLock.unlock();
+    }
+  }
+
+  // ===== Private methods =====
+
+  private void arrive(Stage stage) {
+    admitted.get(stage).getAndUpdate(count -> max(0, count - 1));
+  }
+
+  private void signalReleased(Stage stage) {
+    if (producersWaiting.get() == 0) {
+      return;
+    }
+    releaseLock.lock();
+    try {
+      permitReleased.get(stage).signalAll();
+    } finally {
+      releaseLock.unlock();
+    }
+  }
+
+  private void acquire(Stage stage, Semaphore semaphore) {
+    if (semaphore.tryAcquire()) {
+      return;
+    }
+    if (semaphore.getQueueLength() >= maxWaiting) {
+      throw reject(stage, "%d tasks already waiting".formatted(semaphore.getQueueLength()));
+    }
+
+    var timeout = stage == Stage.JOB ? jobAcquireTimeout : acquireTimeout;
+    try {
+      if (!semaphore.tryAcquire(timeout.toNanos(), NANOSECONDS)) {
+        throw reject(stage, "no permit within " + timeout);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw reject(stage, "interrupted while waiting");
+    }
+  }
+
+  private CrawlStageRejectedException reject(Stage stage, String reason) {
+    rejectedCounters.get(stage).increment();
+    return new CrawlStageRejectedException(stage.name(),
+        "Crawl pipeline stage %s is saturated: %s".formatted(stage, reason));
+  }
+
+  private void registerMetrics(MeterRegistry meterRegistry, Stage stage, Semaphore semaphore) {
+    var tag = stage.name().toLowerCase();
+    waitTimers.put(stage, Timer.builder("crawl.pipeline.wait")
+        .description("Time spent waiting for a crawl stage permit")
+        .tag("stage", tag)
+        .publishPercentiles(0.95)
+        .register(meterRegistry));
+    runTimers.put(stage, Timer.builder("crawl.pipeline.run")
+        .description("Time spent running inside a crawl stage")
+        .tag("stage", tag)
+        .publishPercentiles(0.95)
+        .register(meterRegistry));
+    rejectedCounters.put(stage, Counter.builder("crawl.pipeline.rejected")
+        .description("Tasks rejected by a saturated crawl stage")
+        .tag("stage", tag)
+        .register(meterRegistry));
+    Gauge.builder("crawl.pipeline.queued", semaphore, Semaphore::getQueueLength)
+        .description("Tasks waiting for a crawl stage permit")
+        .tag("stage", tag)
+        .register(meterRegistry);
+  }
+
+  private static int orDefault(int configured, int fallback) {
+    return configured > 0 ? configured : max(1, fallback);
+  }
+
+  public enum Stage {
+    JOB, FETCH, PARSE, PROCESS, UPLOAD
+  }
+}
@@ -4,11 +4,13 @@ import com.truyengg.domain.entity.CrawlJob;
 import com.truyengg.domain.entity.CrawlProgress;
 import com.truyengg.domain.repository.CrawlProgressRepository;
 import com.truyengg.model.dto.CrawlProgressDto;
+import com.truyengg.model.dto.ProgressDelta;
 import com.truyengg.controller.websocket.WebSocketProgressService;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -17,9 +19,11 @@ import java.util.Optional;
 import java.util.UUID;
 
 import static java.time.ZonedDateTime.now;
+import static org.apache.commons.lang3.exception.ExceptionUtils.getRootCauseMessage;
 
 /**
  * Service for managing crawl progress and broadcasting updates via WebSocket.
+ * Counter increments are write-behind through {@link ProgressAccumulator}; broadcasts are coalesced per flush.
  */
 @Slf4j
 @Service
@@ -29,6 +33,7 @@ public class CrawlProgressService {
 
   CrawlProgressRepository progressRepository;
   WebSocketProgressService webSocketService;
+  ProgressAccumulator accumulator;
 
   /**
    * Get progress for a crawl job.
@@ -56,13 +61,9 @@ public class CrawlProgressService {
    */
   @Transactional
   public void start(UUID jobId, int totalItems) {
-    progressRepository.findById(jobId).ifPresent(progress -> {
-      progress.setTotalItems(totalItems);
-      progress.setStartedAt(now());
-      progress.setLastUpdateAt(now());
-      progressRepository.save(progress);
-      broadcastProgress(progress);
-    });
+    progressRepository.markStarted(jobId, now());
+    progressRepository.updateTotalItems(jobId, totalItems, now());
+    broadcastProgress(jobId);
   }
 
   /**
@@ -70,58 +71,82 @@ public class CrawlProgressService {
    */
   @Transactional
   public void updateCurrentItem(UUID jobId, int index, String name, String url) {
-    progressRepository.findById(jobId).ifPresent(progress -> {
-      progress.updateItem(index, name, url);
-      progressRepository.save(progress);
-      broadcastProgress(progress);
-    });
+    progressRepository.updateItem(jobId, index, name, url, now());
+    broadcastProgress(jobId);
   }
 
   /**
    * Increment completed items counter.
    */
-  @Transactional
   public void incrementCompleted(UUID jobId) {
-    progressRepository.incrementCompletedItems(jobId, now());
-    progressRepository.findById(jobId).ifPresent(this::broadcastProgress);
+    record(jobId, ProgressDelta.ofCompleted(1, 0L));
+  }
+
+  /**
+   * Add several completed items at once (bulk enqueue).
+   */
+  public void incrementCompleted(UUID jobId, int count) {
+    if (count <= 0) {
+      return;
+    }
+    record(jobId, ProgressDelta.ofCompleted(count, 0L));
   }
 
   /**
    * Increment completed items and add bytes downloaded.
    */
-  @Transactional
   public void incrementCompletedWithBytes(UUID jobId, long bytes) {
-    var now = now();
-    progressRepository.incrementCompletedItems(jobId, now);
-    progressRepository.addBytesDownloaded(jobId, bytes, now);
-    progressRepository.findById(jobId).ifPresent(this::broadcastProgress);
+    record(jobId, ProgressDelta.ofCompleted(1, bytes));
+  }
+
+  /**
+   * Count an item that failed in an earlier run and succeeded on retry as completed.
+   */
+  public void incrementRetriedWithBytes(UUID jobId, long bytes) {
+    record(jobId, ProgressDelta.ofRetried(bytes));
   }
 
   /**
    * Increment failed items counter.
    */
-  @Transactional
   public void incrementFailed(UUID jobId, String message) {
-    progressRepository.findById(jobId).ifPresent(progress -> {
-      progress.incrementFailed();
-      if (message != null) {
-        progress.addMessage("Error: " + message);
-      }
-      progressRepository.save(progress);
-      broadcastProgress(progress);
-    });
+    record(jobId, ProgressDelta.ofFailed(message != null ? "Error: " + message : null));
   }
 
   /**
    * Increment skipped items counter.
    */
-  @Transactional
   public void incrementSkipped(UUID jobId) {
-    progressRepository.findById(jobId).ifPresent(progress -> {
-      progress.incrementSkipped();
-      progressRepository.save(progress);
-      broadcastProgress(progress);
-    });
+    record(jobId, ProgressDelta.ofSkipped());
+  }
+
+  /**
+   * Write pending counter deltas and broadcast once per job.
+   * Runs every crawl.progress.flush-interval-ms; terminal states flush synchronously.
+   */
+  @Scheduled(fixedDelayString = "${crawl.progress.flush-interval-ms:500}")
+  public void flushPending() {
+    for (var jobId : accumulator.pendingJobs()) {
+      try {
+        flush(jobId);
+      } catch (Exception e) {
+        log.warn("Failed to flush progress for job {}: {}", jobId, getRootCauseMessage(e));
+      }
+    }
+  }
+
+  /**
+   * Flush pending deltas of a job and broadcast its progress if anything changed.
+   */
+  public void flush(UUID jobId) {
+    var dirty = accumulator.clearDirty(jobId);
+    var delta = accumulator.drain(jobId);
+
+    delta.ifPresent(d -> applyDelta(jobId, d));
+
+    if (dirty || delta.isPresent()) {
+      progressRepository.findById(jobId).ifPresent(this::sendProgress);
+    }
   }
 
   /**
@@ -129,11 +154,8 @@ public class CrawlProgressService {
    */
   @Transactional
   public void updateMessage(UUID jobId, String message) {
-    progressRepository.findById(jobId).ifPresent(progress -> {
-      progress.addMessage(message);
-      progressRepository.save(progress);
-      broadcastProgress(progress);
-    });
+    progressRepository.appendMessage(jobId, message);
+    broadcastProgress(jobId);
   }
 
   /**
@@ -141,13 +163,9 @@ public class CrawlProgressService {
    */
   @Transactional
   public void initProgress(UUID jobId) {
-    progressRepository.findById(jobId).ifPresent(progress -> {
-      progress.setStartedAt(now());
-      progress.setLastUpdateAt(now());
-      progress.addMessage("Starting crawl...");
-      progressRepository.save(progress);
-      broadcastProgress(progress);
-    });
+    progressRepository.markStarted(jobId, now());
+    progressRepository.appendMessage(jobId, "Starting crawl...");
+    broadcastProgress(jobId);
   }
 
   /**
@@ -155,15 +173,8 @@ public class CrawlProgressService {
    */
   @Transactional
   public void updateProgress(UUID jobId, int currentIndex, int totalItems, String itemName) {
-    progressRepository.findById(jobId).ifPresent(progress -> {
-      progress.setItemIndex(currentIndex);
-      progress.setTotalItems(totalItems);
-      progress.setItemName(itemName);
-      progress.updatePercent();
-      progress.setLastUpdateAt(now());
-      progressRepository.save(progress);
-      broadcastProgress(progress);
-    });
+    progressRepository.updateProgress(jobId, currentIndex, itemName, totalItems, now());
+    broadcastProgress(jobId);
   }
 
   /**
@@ -171,13 +182,8 @@ public class CrawlProgressService {
    */
   @Transactional
   public void setTotalItems(UUID jobId, int totalItems) {
-    progressRepository.findById(jobId).ifPresent(progress -> {
-      progress.setTotalItems(totalItems);
-      progress.updatePercent();
-      progress.setLastUpdateAt(now());
-      progressRepository.save(progress);
-      broadcastProgress(progress);
-    });
+    progressRepository.updateTotalItems(jobId, totalItems, now());
+    broadcastProgress(jobId);
   }
 
   /**
@@ -185,12 +191,9 @@ public class CrawlProgressService {
    */
   @Transactional
   public void setError(UUID jobId, String errorMessage) {
-    progressRepository.findById(jobId).ifPresent(progress -> {
-      progress.addMessage("Error: " + errorMessage);
-      progress.setLastUpdateAt(now());
-      progressRepository.save(progress);
-      broadcastProgress(progress);
-    });
+    flushDeltas(jobId);
+    progressRepository.appendMessage(jobId, "Error: " + errorMessage);
+    progressRepository.findById(jobId).ifPresent(this::sendProgress);
   }
 
   /**
@@ -198,19 +201,15 @@ public class CrawlProgressService {
    */
   @Transactional
   public void finalize(UUID jobId, String message) {
-    progressRepository.findById(jobId).ifPresent(progress -> {
-      progress.addMessage(message);
-      progress.setPercent(100);
-      progress.setLastUpdateAt(now());
-      progressRepository.save(progress);
-      broadcastProgress(progress);
-    });
+    flushDeltas(jobId);
+    progressRepository.appendMessage(jobId, message);
+    progressRepository.markFinished(jobId, now());
+    progressRepository.findById(jobId).ifPresent(this::sendProgress);
   }
 
   /**
    * Increment failed items without error message.
    */
-  @Transactional
   public void incrementFailed(UUID jobId) {
     incrementFailed(jobId, null);
   }
@@ -220,13 +219,7 @@ public class CrawlProgressService {
    */
   @Transactional
   public void updateTotalItems(UUID jobId, int totalItems) {
-    progressRepository.findById(jobId).ifPresent(progress -> {
-      progress.setTotalItems(totalItems);
-      progress.updatePercent();
-      progress.setLastUpdateAt(now());
-      progressRepository.save(progress);
-      broadcastProgress(progress);
-    });
+    setTotalItems(jobId, totalItems);
   }
 
   /**
@@ -234,11 +227,8 @@ public class CrawlProgressService {
    */
   @Transactional
   public void updateEstimatedTime(UUID jobId) {
-    progressRepository.findById(jobId).ifPresent(progress -> {
-      int remaining = calculateRemainingSeconds(progress);
-      progress.setEstimatedRemainingSeconds(remaining);
-      progressRepository.save(progress);
-    });
+    progressRepository.findById(jobId).ifPresent(progress ->
+        progressRepository.updateEstimatedRemaining(jobId, calculateRemainingSeconds(progress)));
   }
 
   /**
@@ -251,11 +241,49 @@ public class CrawlProgressService {
 
   // ===== Private methods =====
 
-  private void broadcastProgress(CrawlProgress progress) {
+  /**
+   * Coalesced broadcast: the frame is sent on the next flush.
+   */
+  private void broadcastProgress(UUID jobId) {
+    accumulator.markDirty(jobId);
+  }
+
+  private void sendProgress(CrawlProgress progress) {
     var dto = toDto(progress);
     webSocketService.sendProgress(dto);
   }
 
+  private void record(UUID jobId, ProgressDelta delta) {
+    if (accumulator.add(jobId, delta)) {
+      flush(jobId);
+    }
+  }
+
+  /**
+   * Write pending deltas synchronously (terminal states) without broadcasting.
+   */
+  private void flushDeltas(UUID jobId) {
+    accumulator.clearDirty(jobId);
+    accumulator.drain(jobId).ifPresent(delta -> applyDelta(jobId, delta));
+  }
+
+  /**
+   * Write a drained delta in its own transaction. If the UPDATE fails the delta is merged back into
+   * the buffer so the next flush retries it instead of losing the counts.
+   */
+  private void applyDelta(UUID jobId, ProgressDelta delta) {
+    if (!delta.hasCounters() && delta.messages().isEmpty()) {
+      return;
+    }
+    try {
+      progressRepository.applyDelta(jobId, delta.completed(), delta.failed(), delta.skipped(), delta.bytes(),
+          delta.messages().toArray(String[]::new), now());
+    } catch (RuntimeException e) {
+      accumulator.restore(jobId, delta);
+      throw e;
+    }
+  }
+
   private CrawlProgressDto toDto(CrawlProgress progress) {
     return new CrawlProgressDto(
         progress.getCrawlJob().getId(),
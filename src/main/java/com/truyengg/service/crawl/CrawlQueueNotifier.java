@@ -0,0 +1,165 @@
+package com.truyengg.service.crawl;
+
+import jakarta.annotation.PreDestroy;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+
+import static com.truyengg.service.crawl.CrawlPipeline.Stage.JOB;
+import static java.lang.Math.max;
+import static java.sql.DriverManager.getConnection;
+import static java.time.Duration.ofMillis;
+import static java.time.Duration.ofSeconds;
+import static org.apache.commons.lang3.exception.ExceptionUtils.getRootCauseMessage;
+
+/**
+ * Wakes crawl queue workers through PostgreSQL LISTEN/NOTIFY.
+ * A trigger on crawl_queue sends NOTIFY crawl_queue on insert; a dedicated listener
+ * connection (outside the Hikari pool) receives it and wakes a small pool of workers,
+ * which drain pending items until the queue is empty.
+ * Each queue item becomes a job, so a worker claims no more items than there are free job slots
+ * and waits for a slot to free up before the next batch; the rest stays pending in the queue.
+ * The scheduled crawl-queue-processor poll remains as a safety net.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class CrawlQueueNotifier {
+
+  private static final String CHANNEL = "crawl_queue";
+  private static final int LISTEN_TIMEOUT_MS = 5000;
+  private static final long RECONNECT_DELAY_SECONDS = 5;
+
+  DataSourceProperties dataSourceProperties;
+  CrawlQueueProcessor queueProcessor;
+  CrawlPipeline pipeline;
+
+  Semaphore wakeups = new Semaphore(0);
+  List<Thread> threads = new ArrayList<>();
+
+  @NonFinal
+  @Value("${crawl.queue.notify-enabled:true}")
+  boolean enabled;
+
+  @NonFinal
+  @Value("${crawl.queue.workers:2}")
+  int workerCount;
+
+  @NonFinal
+  volatile boolean running;
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    if (!enabled) {
+      log.info("Crawl queue notifications disabled, relying on scheduled polling");
+      return;
+    }
+
+    running = true;
+    threads.add(Thread.ofVirtual().name("crawl-queue-listener").start(this::listen));
+    for (var i = 0; i < max(1, workerCount); i++) {
+      threads.add(Thread.ofVirtual().name("crawl-queue-worker-" + i).start(this::work));
+    }
+
+    // Drain whatever was enqueued while the application was down
+    wakeUp();
+  }
+
+  @PreDestroy
+  public void stop() {
+    running = false;
+    threads.forEach(Thread::interrupt);
+  }
+
+  /**
+   * Wake idle workers. Wakeups are coalesced: at most one pending wakeup per worker.
+   */
+  public void wakeUp() {
+    var missing = max(1, workerCount) - wakeups.availablePermits();
+    if (missing > 0) {
+      wakeups.release(missing);
+    }
+  }
+
+  // ===== Private methods =====
+
+  private void listen() {
+    while (running) {
+      try (var connection = openListenerConnection()) {
+        var pgConnection = connection.unwrap(PGConnection.class);
+        log.info("Listening for crawl queue notifications on channel '{}'", CHANNEL);
+
+        while (running) {
+          var notifications = pgConnection.getNotifications(LISTEN_TIMEOUT_MS);
+          if (notifications != null && notifications.length > 0) {
+            wakeUp();
+          }
+        }
+      } catch (Exception e) {
+        if (!running) {
+          return;
+        }
+        log.warn("Crawl queue listener failed, reconnecting in {}s: {}", RECONNECT_DELAY_SECONDS, getRootCauseMessage(e));
+        sleep(RECONNECT_DELAY_SECONDS);
+        // Items may have been inserted while disconnected
+        wakeUp();
+      }
+    }
+  }
+
+  private Connection openListenerConnection() throws Exception {
+    var connection = getConnection(
+        dataSourceProperties.determineUrl(),
+        dataSourceProperties.determineUsername(),
+        dataSourceProperties.determinePassword());
+    try (var statement = connection.createStatement()) {
+      statement.execute("LISTEN " + CHANNEL);
+    }
+    return connection;
+  }
+
+  private void work() {
+    while (running) {
+      try {
+        wakeups.acquire();
+        drain();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (Exception e) {
+        log.warn("Crawl queue worker failed: {}", getRootCauseMessage(e));
+      }
+    }
+  }
+
+  private void drain() throws InterruptedException {
+    while (running) {
+      var slots = pipeline.awaitFreePermits(JOB, ofMillis(LISTEN_TIMEOUT_MS));
+      if (slots > 0 && queueProcessor.drainNextBatch(slots) == 0) {
+        return;
+      }
+    }
+  }
+
+  private void sleep(long seconds) {
+    try {
+      Thread.sleep(ofSeconds(seconds));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -3,7 +3,9 @@ package com.truyengg.service.crawl;
 import com.truyengg.domain.entity.CrawlQueue;
 import com.truyengg.domain.enums.CrawlType;
 import com.truyengg.domain.enums.QueueStatus;
+import com.truyengg.domain.exception.ResourceNotFoundException;
 import com.truyengg.domain.repository.CrawlQueueRepository;
+import com.truyengg.model.dto.QueueItemRequest;
 import com.truyengg.model.dto.QueueStats;
 import com.truyengg.model.event.CrawlJobCreatedEvent;
 import lombok.AccessLevel;
@@ -14,11 +16,17 @@ import lombok.extern.slf4j.Slf4j;
 import org.jobrunr.scheduling.JobScheduler;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
@@ -26,10 +34,12 @@ import static com.truyengg.domain.enums.CrawlType.CHAPTER;
 import static com.truyengg.domain.enums.CrawlType.COMIC;
 import static com.truyengg.domain.enums.CrawlType.IMAGE;
 import static com.truyengg.model.request.CrawlJobRequest.child;
-import static java.time.ZonedDateTime.now;
+import static com.truyengg.service.crawl.CrawlPipeline.Stage.JOB;
+import static java.lang.Math.min;
 import static java.util.concurrent.CompletableFuture.completedFuture;
 import static java.util.concurrent.CompletableFuture.failedFuture;
 import static org.apache.commons.collections4.CollectionUtils.isEmpty;
+import static org.apache.commons.collections4.ListUtils.partition;
 import static org.apache.commons.lang3.StringUtils.EMPTY;
 import static org.apache.commons.lang3.StringUtils.defaultIfBlank;
 import static org.apache.commons.lang3.exception.ExceptionUtils.getRootCauseMessage;
@@ -43,40 +53,89 @@ import static org.apache.commons.lang3.exception.ExceptionUtils.getRootCauseMess
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class CrawlQueueProcessor {
 
+  private static final int ENQUEUE_BATCH_SIZE = 500;
+
+  private static final String INSERT_QUEUE_ITEM_SQL = """
+      INSERT INTO crawl_queue (crawl_job_id, job_created_at, crawl_type, target_url, target_name, item_index)
+      VALUES (:jobId, :jobCreatedAt, CAST(:crawlType AS crawl_type), :targetUrl, :targetName, :itemIndex)
+      ON CONFLICT (crawl_job_id, target_url, job_created_at) DO NOTHING
+      """;
+
+  // Partition key of the job's items, and whether its month partition is attached (named as in V11)
+  private static final String FIND_JOB_PARTITION_SQL = """
+      SELECT j.created_at,
+             EXISTS (SELECT 1 FROM pg_inherits i
+                     WHERE i.inhparent = 'crawl_queue'::regclass
+                     AND i.inhrelid = to_regclass('crawl_queue_p' || to_char(j.created_at, 'YYYY_MM'))) AS has_partition
+      FROM crawl_jobs j
+      WHERE j.id = :jobId
+      """;
+
   CrawlQueueRepository queueRepository;
   CrawlJobService jobService;
   CrawlProgressService progressService;
   CrawlErrorHandlingService errorHandler;
   JobScheduler jobScheduler;
   ApplicationEventPublisher eventPublisher;
+  NamedParameterJdbcTemplate jdbcTemplate;
+  CrawlPartitionManager partitionManager;
+  CrawlPipeline pipeline;
 
   @NonFinal
   @Value("${crawl.queue.batch-size:10}")
   int batchSize;
 
+  @NonFinal
+  @Value("${crawl.queue.notify-enabled:true}")
+  boolean notifyEnabled;
+
   /**
    * Process next batch of pending queue items.
+   * Every item becomes a job, so no more items are taken than there are free job slots.
    */
   @Transactional
   public void processNextBatch() {
-    var items = queueRepository.findAndLockPending(batchSize);
+    var limit = claimLimit();
+    if (limit == 0) {
+      return;
+    }
+    var items = queueRepository.findAndLockPending(limit);
     processItems(items);
   }
 
   /**
-   * Process queue items of a specific type.
+   * Process up to maxItems pending queue items for a queue worker, which waits for free job slots first.
+   * Returns the number of items taken from the queue (processed or failed), 0 when the queue is drained.
+   */
+  @Transactional
+  public int drainNextBatch(int maxItems) {
+    var items = queueRepository.findAndLockPending(min(batchSize, maxItems));
+    processItems(items);
+    return items.size();
+  }
+
+  /**
+   * Process queue items of a specific type, no more than there are free job slots.
    */
   @Transactional
   public int processNextBatchByType(CrawlType type) {
-    var items = queueRepository.findAndLockPendingByType(type.name(), batchSize);
+    var limit = claimLimit();
+    if (limit == 0) {
+      return 0;
+    }
+    var items = queueRepository.findAndLockPendingByType(type.name(), limit);
     return processItems(items);
   }
 
   /**
    * Trigger immediate using JobRunr enqueue.
    * Use when items need to be processed immediately rather than waiting for scheduled job.
+   * With queue notifications enabled the insert trigger already wakes the workers on commit.
    */
   public void process() {
+    if (notifyEnabled) {
+      return;
+    }
     jobScheduler.enqueue(this::processNextBatch);
   }
 
@@ -89,6 +148,18 @@ public class CrawlQueueProcessor {
     process();
   }
 
+  /**
+   * Enqueue all items of a job in one batch and trigger processing immediately.
+   */
+  @Transactional
+  public void enqueueAllAndProcess(UUID jobId, CrawlType type, List<QueueItemRequest> items) {
+    if (isEmpty(items)) {
+      return;
+    }
+    enqueueBatch(jobId, type, items);
+    process();
+  }
+
   /**
    * Common processing logic for both batch methods.
    */
@@ -153,20 +224,35 @@ public class CrawlQueueProcessor {
       List<String> urls,
       List<String> names
   ) {
-    var job = jobService.getById(jobId);
-
+    var items = new ArrayList<QueueItemRequest>(urls.size());
     for (var i = 0; i < urls.size(); i++) {
-      var item = CrawlQueue.builder()
-          .crawlJob(job)
-          .crawlType(type)
-          .targetUrl(urls.get(i))
-          .targetName(names != null && i < names.size() ? names.get(i) : null)
-          .itemIndex(i)
-          .createdAt(now())
-          .updatedAt(now())
-          .build();
-      queueRepository.save(item);
+      var name = names != null && i < names.size() ? names.get(i) : null;
+      items.add(new QueueItemRequest(urls.get(i), name, i));
+    }
+    enqueueBatch(jobId, type, items);
+  }
+
+  /**
+   * Insert queue items with JDBC batches instead of one JPA save per row.
+   * Items already queued for the job (same URL) are skipped via ON CONFLICT.
+   * The job's created_at (the partition key) is looked up once per call, not once per row.
+   */
+  @Transactional
+  public void enqueueBatch(UUID jobId, CrawlType type, List<QueueItemRequest> items) {
+    var jobCreatedAt = findJobPartitionKey(jobId);
+    for (var chunk : partition(items, ENQUEUE_BATCH_SIZE)) {
+      var params = chunk.stream()
+          .map(item -> new MapSqlParameterSource()
+              .addValue("jobId", jobId)
+              .addValue("jobCreatedAt", jobCreatedAt)
+              .addValue("crawlType", type.name())
+              .addValue("targetUrl", item.url())
+              .addValue("targetName", item.name())
+              .addValue("itemIndex", item.itemIndex()))
+          .toArray(SqlParameterSource[]::new);
+      jdbcTemplate.batchUpdate(INSERT_QUEUE_ITEM_SQL, params);
     }
+    log.debug("Enqueued {} {} items for job {}", items.size(), type, jobId);
   }
 
   /**
@@ -184,6 +270,30 @@ public class CrawlQueueProcessor {
 
   // ===== Private processing methods =====
 
+  /**
+   * Items a batch may claim: an item left in the queue waits for a job slot without holding a thread.
+   */
+  private int claimLimit() {
+    return min(batchSize, pipeline.getFreePermits(JOB));
+  }
+
+  /**
+   * created_at of the job, after making sure its month has a crawl_queue partition.
+   */
+  private OffsetDateTime findJobPartitionKey(UUID jobId) {
+    var rows = jdbcTemplate.query(FIND_JOB_PARTITION_SQL, Map.of("jobId", jobId), (rs, rowNum) ->
+        Map.entry(rs.getObject("created_at", OffsetDateTime.class), rs.getBoolean("has_partition")));
+    if (rows.isEmpty()) {
+      throw new ResourceNotFoundException("Crawl job not found: " + jobId);
+    }
+
+    var createdAt = rows.get(0).getKey();
+    if (!rows.get(0).getValue()) {
+      partitionManager.createPartition(createdAt);
+    }
+    return createdAt;
+  }
+
   private void processCategoryItem(CrawlQueue item) {
     createChildJob(item, COMIC);
   }
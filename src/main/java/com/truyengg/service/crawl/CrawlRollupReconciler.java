@@ -0,0 +1,64 @@
+package com.truyengg.service.crawl;
+
+import com.truyengg.domain.repository.CrawlJobRollupRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import static org.apache.commons.lang3.exception.ExceptionUtils.getRootCauseMessage;
+
+/**
+ * Periodically recomputes crawl_job_rollup from crawl_jobs.
+ * The triggers keep the rollups exact; this only repairs drift from changes that bypass them
+ * (replica-mode loads, manual fixes) and reports how many rows were off.
+ * Each tree is recounted in its own short transaction under its rollup row lock, so status changes
+ * committed meanwhile are never overwritten and only one tree's writers wait at a time.
+ */
+@Slf4j
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class CrawlRollupReconciler {
+
+  CrawlJobRollupRepository rollupRepository;
+  Counter corrected;
+
+  @NonFinal
+  @Value("${crawl.rollup.reconcile-enabled:true}")
+  boolean enabled;
+
+  public CrawlRollupReconciler(CrawlJobRollupRepository rollupRepository, MeterRegistry meterRegistry) {
+    this.rollupRepository = rollupRepository;
+    this.corrected = Counter.builder("crawl.rollup.corrected")
+        .description("Job tree rollups corrected by reconciliation")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Runs hourly by default.
+   */
+  @Scheduled(cron = "${crawl.rollup.reconcile-cron:0 15 * * * ?}")
+  public void reconcile() {
+    if (!enabled) {
+      return;
+    }
+
+    try {
+      var changed = 0;
+      for (var rootJobId : rollupRepository.findRootJobIds()) {
+        changed += rollupRepository.reconcile(rootJobId);
+      }
+      if (changed > 0) {
+        corrected.increment(changed);
+        log.warn("Reconciled {} crawl job rollups that drifted from crawl_jobs", changed);
+      }
+    } catch (Exception e) {
+      log.warn("Crawl job rollup reconciliation failed: {}", getRootCauseMessage(e));
+    }
+  }
+}
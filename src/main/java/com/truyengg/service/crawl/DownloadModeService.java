@@ -1,13 +1,10 @@
 package com.truyengg.service.crawl;
 
-import com.truyengg.domain.entity.Chapter;
-import com.truyengg.domain.entity.ChapterImage;
 import com.truyengg.domain.entity.CrawlJob;
 import com.truyengg.domain.entity.CrawlSettings;
 import com.truyengg.domain.enums.DownloadMode;
 import com.truyengg.domain.repository.ChapterImageRepository;
-import com.truyengg.domain.repository.ChapterRepository;
-import com.truyengg.domain.repository.ComicRepository;
+import com.truyengg.domain.repository.ComicChapterFingerprintRepository;
 import com.truyengg.domain.repository.CrawlSettingsRepository;
 import com.truyengg.model.dto.DuplicateCheckResult;
 import lombok.AccessLevel;
@@ -18,19 +15,18 @@ import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.BitSet;
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.Optional;
+import java.util.stream.LongStream;
 
+import static com.truyengg.domain.enums.CrawlType.CHAPTER;
+import static com.truyengg.domain.enums.CrawlType.COMIC;
 import static com.truyengg.domain.enums.DownloadMode.FULL;
 import static com.truyengg.domain.enums.DownloadMode.NONE;
 import static com.truyengg.domain.enums.DownloadMode.UPDATE;
-import static java.util.Collections.emptyList;
-import static java.util.Collections.emptySet;
-import static java.util.stream.Collectors.toCollection;
-import static java.util.stream.IntStream.range;
+import static java.util.Arrays.binarySearch;
+import static java.util.Optional.empty;
 import static org.apache.commons.collections4.CollectionUtils.isNotEmpty;
 import static org.apache.commons.lang3.StringUtils.EMPTY;
 import static org.apache.commons.lang3.StringUtils.isBlank;
@@ -45,82 +41,109 @@ import static org.apache.commons.lang3.StringUtils.isBlank;
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class DownloadModeService {
 
-  ComicRepository comicRepository;
-  ChapterRepository chapterRepository;
   ChapterImageRepository imageRepository;
   CrawlSettingsRepository settingsRepository;
+  ComicChapterFingerprintRepository fingerprintRepository;
 
   /**
    * Determine which items to download based on mode and settings.
    *
    * @param job            The crawl job
    * @param sourceItemUrls List of URLs discovered from source
-   * @return List of indices to download
+   * @return Indices to download
    */
-  public List<Integer> determineItemsToDownload(CrawlJob job, List<String> sourceItemUrls) {
-    var settings = settingsRepository.findById(job.getId()).orElse(null);
+  public BitSet determineItemsToDownload(CrawlJob job, List<String> sourceItemUrls) {
     var totalItems = sourceItemUrls.size();
 
     return switch (job.getDownloadMode()) {
       case FULL -> {
         // Download all items
-        var indices = range(0, totalItems).boxed()
-            .collect(toCollection(ArrayList::new));
+        var settings = settingsRepository.findById(job.getId()).orElse(null);
+        var indices = new BitSet(totalItems);
+        indices.set(0, totalItems);
 
         // Apply skip list if present
-        if (settings != null && isNotEmpty(settings.getSkipItems())) {
-          indices.removeAll(settings.getSkipItems());
+        if (settings != null) {
+          clearSkipItems(indices, settings);
         }
 
         yield indices;
       }
 
-      case UPDATE -> {
-        // Only new items (not in DB)
-        var existingUrls = getExistingItemUrls(job);
-
-        yield range(0, totalItems)
-            .filter(i -> !existingUrls.contains(normalizeUrl(sourceItemUrls.get(i))))
-            .boxed()
-            .toList();
-      }
+      // Only new items (not in DB)
+      case UPDATE -> diffNewItems(job, sourceItemUrls);
 
       case PARTIAL -> {
+        var settings = settingsRepository.findById(job.getId()).orElse(null);
+        var indices = new BitSet(totalItems);
         if (settings == null) {
-          yield emptyList();
+          yield indices;
         }
 
         // Use range and/or specific indices
         int start = settings.getRangeStart() >= 0 ? settings.getRangeStart() : 0;
         int end = settings.getRangeEnd() >= 0 ?
             Math.min(settings.getRangeEnd(), totalItems - 1) : totalItems - 1;
-
-        var indices = IntStream.rangeClosed(start, end).boxed()
-            .collect(toCollection(ArrayList::new));
+        if (start <= end) {
+          indices.set(start, end + 1);
+        }
 
         // Add redownload items (force include)
         if (isNotEmpty(settings.getRedownloadItems())) {
           for (int idx : settings.getRedownloadItems()) {
-            if (idx >= 0 && idx < totalItems && !indices.contains(idx)) {
-              indices.add(idx);
+            if (idx >= 0 && idx < totalItems) {
+              indices.set(idx);
             }
           }
-          Collections.sort(indices);
         }
 
         // Remove skip items
-        if (isNotEmpty(settings.getSkipItems())) {
-          indices.removeAll(settings.getSkipItems());
-        }
+        clearSkipItems(indices, settings);
 
         yield indices;
       }
 
       case NONE -> // Skip all - for duplicates that user chose to skip
-          emptyList();
+          new BitSet();
     };
   }
 
+  /**
+   * Incremental UPDATE diff: indices of source items whose normalized URL is not stored yet.
+   * Existing URLs are reduced to a sorted array of 64-bit hashes.
+   * For comics, a fingerprint of the stored set is kept per comic and checked in the same query that
+   * loads the stored sources: when the freshly parsed list has the stored fingerprint nothing changed
+   * upstream and no chapters are loaded at all. Chapter deletes drop the fingerprint (V14 trigger).
+   */
+  public BitSet diffNewItems(CrawlJob job, List<String> sourceItemUrls) {
+    var sourceHashes = new long[sourceItemUrls.size()];
+    for (var i = 0; i < sourceHashes.length; i++) {
+      sourceHashes[i] = hashUrl(sourceItemUrls.get(i));
+    }
+
+    var comicId = job.getCrawlType() == COMIC && job.getContentId() > 0 ? job.getContentId() : 0L;
+    long[] existingSet;
+    if (comicId > 0) {
+      var sourceSet = distinctSorted(sourceHashes);
+      var stored = getStoredChapterHashes(comicId, sourceSet);
+      if (stored.isEmpty()) {
+        log.debug("Chapter list of comic {} unchanged ({} chapters)", comicId, sourceSet.length);
+        return new BitSet();
+      }
+      existingSet = stored.get();
+    } else {
+      existingSet = getExistingItemHashes(job);
+    }
+
+    var newItems = new BitSet(sourceHashes.length);
+    for (var i = 0; i < sourceHashes.length; i++) {
+      if (binarySearch(existingSet, sourceHashes[i]) < 0) {
+        newItems.set(i);
+      }
+    }
+    return newItems;
+  }
+
   /**
    * Suggest download mode based on duplicate check result.
    */
@@ -157,10 +180,9 @@ public class DownloadModeService {
 
   /**
    * Check if an item should be downloaded based on settings.
+   * For UPDATE mode, pass the diff computed once by {@link #diffNewItems}.
    */
-  public boolean shouldDownloadItem(CrawlJob job, int itemIndex, String itemUrl) {
-    var settings = settingsRepository.findById(job.getId()).orElse(null);
-
+  public boolean shouldDownloadItem(CrawlJob job, CrawlSettings settings, int itemIndex, BitSet newItems) {
     // Check skip list
     if (settings != null && isNotEmpty(settings.getSkipItems())) {
       if (settings.getSkipItems().contains(itemIndex)) {
@@ -185,10 +207,9 @@ public class DownloadModeService {
       }
     }
 
-    // For UPDATE mode, check if exists in DB
+    // For UPDATE mode, only items missing from the DB
     if (job.getDownloadMode() == UPDATE) {
-      var existingUrls = getExistingItemUrls(job);
-      return !existingUrls.contains(normalizeUrl(itemUrl));
+      return newItems.get(itemIndex);
     }
 
     return job.getDownloadMode() != NONE;
@@ -198,35 +219,104 @@ public class DownloadModeService {
    * Get the count of items that will be downloaded.
    */
   public int countItemsToDownload(CrawlJob job, List<String> sourceItemUrls) {
-    return determineItemsToDownload(job, sourceItemUrls).size();
+    return determineItemsToDownload(job, sourceItemUrls).cardinality();
   }
 
   // ===== Private methods =====
 
-  private Set<String> getExistingItemUrls(CrawlJob job) {
-    return switch (job.getCrawlType()) {
-      case COMIC -> {
-        // Get existing chapter URLs for this comic
-        if (job.getContentId() <= 0) yield emptySet();
-        var comic = comicRepository.findById(job.getContentId()).orElse(null);
-        if (comic == null) yield emptySet();
-        yield chapterRepository.findByComic(comic).stream()
-            .map(Chapter::getSource)
-            .filter(StringUtils::isNotBlank)
-            .map(this::normalizeUrl)
-            .collect(Collectors.toUnmodifiableSet());
-      }
-      case CHAPTER -> {
-        // Get existing image URLs for this chapter
-        if (job.getContentId() <= 0) yield emptySet();
-        yield imageRepository.findByChapterIdOrderByImageOrderAsc(job.getContentId()).stream()
-            .map(ChapterImage::getOriginalUrl)
-            .filter(StringUtils::isNotBlank)
-            .map(this::normalizeUrl)
-            .collect(Collectors.toUnmodifiableSet());
+  /**
+   * Stored chapter hashes of a comic, or empty when the stored fingerprint matches the source set.
+   * The fingerprint is rewritten only when the stored set differs from the one it was computed for.
+   */
+  private Optional<long[]> getStoredChapterHashes(long comicId, long[] sourceSet) {
+    var rows = fingerprintRepository.findSourcesUnlessFingerprint(comicId, fingerprint(sourceSet), sourceSet.length);
+
+    Long storedFingerprint = null;
+    var storedCount = -1;
+    var urls = new ArrayList<String>(rows.size());
+    for (var row : rows) {
+      if (row[0] == null) {
+        storedFingerprint = ((Number) row[1]).longValue();
+        storedCount = ((Number) row[2]).intValue();
+      } else {
+        urls.add((String) row[0]);
       }
-      default -> emptySet();
-    };
+    }
+
+    if (storedFingerprint != null && storedFingerprint == fingerprint(sourceSet) && storedCount == sourceSet.length) {
+      return empty();
+    }
+
+    var existingSet = hashUrls(urls);
+    var existingFingerprint = fingerprint(existingSet);
+    if (storedFingerprint == null || storedFingerprint != existingFingerprint || storedCount != existingSet.length) {
+      fingerprintRepository.upsert(comicId, existingFingerprint, existingSet.length);
+    }
+    return Optional.of(existingSet);
+  }
+
+  private long[] getExistingItemHashes(CrawlJob job) {
+    if (job.getContentId() <= 0 || job.getCrawlType() != CHAPTER) {
+      return new long[0];
+    }
+
+    // Existing image URLs for this chapter
+    return hashUrls(imageRepository.findOriginalUrlsByChapterId(job.getContentId()));
+  }
+
+  private long[] hashUrls(List<String> urls) {
+    var hashes = urls.stream()
+        .filter(StringUtils::isNotBlank)
+        .mapToLong(this::hashUrl)
+        .toArray();
+    return distinctSorted(hashes);
+  }
+
+  private void clearSkipItems(BitSet indices, CrawlSettings settings) {
+    if (isNotEmpty(settings.getSkipItems())) {
+      settings.getSkipItems().stream()
+          .filter(idx -> idx >= 0)
+          .forEach(indices::clear);
+    }
+  }
+
+  private long[] distinctSorted(long[] hashes) {
+    return LongStream.of(hashes).sorted().distinct().toArray();
+  }
+
+  /**
+   * Order-independent fingerprint of a hash set.
+   */
+  private long fingerprint(long[] distinctHashes) {
+    var sum = 0L;
+    var xor = 0L;
+    for (var hash : distinctHashes) {
+      sum += hash;
+      xor ^= mix(hash);
+    }
+    return sum * 31 + xor;
+  }
+
+  /**
+   * 64-bit hash of the normalized URL: FNV-1a followed by a murmur3 finalizer.
+   */
+  private long hashUrl(String url) {
+    var normalized = normalizeUrl(url);
+    var hash = 0xcbf29ce484222325L;
+    for (var i = 0; i < normalized.length(); i++) {
+      hash ^= normalized.charAt(i);
+      hash *= 0x100000001b3L;
+    }
+    return mix(hash);
+  }
+
+  private static long mix(long hash) {
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    hash *= 0xc4ceb9fe1a85ec53L;
+    hash ^= hash >>> 33;
+    return hash;
   }
 
   private String normalizeUrl(String url) {
@@ -1,5 +1,6 @@
 package com.truyengg.service.crawl;
 
+import com.truyengg.domain.entity.Comic;
 import com.truyengg.domain.entity.CrawlJob;
 import com.truyengg.domain.enums.CrawlStatus;
 import com.truyengg.domain.repository.ChapterRepository;
@@ -10,13 +11,13 @@ import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.codec.digest.DigestUtils;
 import org.jsoup.Jsoup;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -25,6 +26,9 @@ import static com.truyengg.model.dto.DuplicateCheckResult.contentHash;
 import static com.truyengg.model.dto.DuplicateCheckResult.exactUrl;
 import static com.truyengg.model.dto.DuplicateCheckResult.noDuplicate;
 import static com.truyengg.model.dto.DuplicateCheckResult.similarUrl;
+import static com.truyengg.service.crawl.SeenSourceFilter.Kind.COVER_HASH;
+import static com.truyengg.service.crawl.SeenSourceFilter.Kind.SLUG;
+import static com.truyengg.service.crawl.SeenSourceFilter.Kind.SOURCE;
 import static com.truyengg.service.crawl.SlugExtractor.extractFromUrl;
 import static org.apache.commons.lang3.StringUtils.EMPTY;
 import static org.apache.commons.lang3.StringUtils.isBlank;
@@ -47,6 +51,7 @@ public class DuplicateDetectionService {
   ChapterRepository chapterRepository;
   CrawlJobRepository crawlJobRepository;
   CrawlHttpClient httpClient;
+  SeenSourceFilter seenSourceFilter;
 
   @Value("${crawl.duplicate.check-content-hash:false}")
   boolean checkContentHashEnabled = false;
@@ -58,8 +63,8 @@ public class DuplicateDetectionService {
     // Step 1: Normalize URL
     var normalizedUrl = normalizeUrl(url);
 
-    // Step 2: Exact URL match (fastest)
-    var exactMatch = comicRepository.findBySource(normalizedUrl);
+    // Step 2: Exact URL match (fastest) - skipped when the filter knows the URL is new
+    var exactMatch = findBySource(normalizedUrl);
     if (exactMatch.isPresent()) {
       var comic = exactMatch.get();
       var activeJob = findActiveJobForContent(comic.getId());
@@ -75,7 +80,7 @@ public class DuplicateDetectionService {
     // Step 3: Slug match (same comic different mirror)
     var slug = extractFromUrl(url);
     if (isNotBlank(slug)) {
-      var slugMatch = comicRepository.findBySlug(slug);
+      var slugMatch = findBySlug(slug);
       if (slugMatch.isPresent()) {
         var comic = slugMatch.get();
         var activeJob = findActiveJobForContent(comic.getId());
@@ -109,35 +114,28 @@ public class DuplicateDetectionService {
 
   /**
    * Batch check for category crawl efficiency.
-   * Uses individual lookups since batch methods aren't available.
+   * URLs the seen-source filter reports as definitely new never reach the database;
+   * chapter counts of all matched comics are loaded in one grouped query.
    */
   public Map<String, DuplicateCheckResult> batchCheckDuplicates(Collection<String> urls) {
     Map<String, DuplicateCheckResult> results = new HashMap<>();
+    Map<String, Comic> exactMatches = new HashMap<>();
+    Map<String, Comic> slugMatches = new HashMap<>();
 
     for (var url : urls) {
-      var normalized = normalizeUrl(url);
-
       // Check exact match by source URL
-      var exactMatch = comicRepository.findBySource(normalized);
+      var exactMatch = findBySource(normalizeUrl(url));
       if (exactMatch.isPresent()) {
-        var comic = exactMatch.get();
-        var chapterCount = (int) chapterRepository.countByComic(comic);
-        results.put(url, exactUrl(
-            null, comic.getId(), comic.getSource(), chapterCount
-        ));
+        exactMatches.put(url, exactMatch.get());
         continue;
       }
 
       // Check slug match
       var slug = extractFromUrl(url);
       if (isNotBlank(slug)) {
-        var slugMatch = comicRepository.findBySlug(slug);
+        var slugMatch = findBySlug(slug);
         if (slugMatch.isPresent()) {
-          var comic = slugMatch.get();
-          var chapterCount = (int) chapterRepository.countByComic(comic);
-          results.put(url, similarUrl(
-              null, comic.getId(), comic.getSource(), chapterCount
-          ));
+          slugMatches.put(url, slugMatch.get());
           continue;
         }
       }
@@ -146,6 +144,14 @@ public class DuplicateDetectionService {
       results.put(url, noDuplicate());
     }
 
+    var chapterCounts = countChapters(exactMatches.values(), slugMatches.values());
+    exactMatches.forEach((url, comic) -> results.put(url, exactUrl(
+        null, comic.getId(), comic.getSource(), chapterCounts.getOrDefault(comic.getId(), 0)
+    )));
+    slugMatches.forEach((url, comic) -> results.put(url, similarUrl(
+        null, comic.getId(), comic.getSource(), chapterCounts.getOrDefault(comic.getId(), 0)
+    )));
+
     return results;
   }
 
@@ -192,6 +198,51 @@ public class DuplicateDetectionService {
         .replaceAll("\\?.*$", "");  // Remove query params
   }
 
+  private Optional<Comic> findBySource(String normalizedUrl) {
+    if (!seenSourceFilter.mightContain(SOURCE, normalizedUrl)) {
+      return Optional.empty();
+    }
+    return confirmed(comicRepository.findBySource(normalizedUrl));
+  }
+
+  private Optional<Comic> findBySlug(String slug) {
+    if (!seenSourceFilter.mightContain(SLUG, slug)) {
+      return Optional.empty();
+    }
+    return confirmed(comicRepository.findBySlug(slug));
+  }
+
+  private Optional<Comic> findByCoverHash(String hash) {
+    if (!seenSourceFilter.mightContain(COVER_HASH, hash)) {
+      return Optional.empty();
+    }
+    return confirmed(comicRepository.findByCoverHash(hash));
+  }
+
+  private Optional<Comic> confirmed(Optional<Comic> match) {
+    if (match.isEmpty()) {
+      seenSourceFilter.recordFalsePositive();
+    }
+    return match;
+  }
+
+  @SafeVarargs
+  private Map<Long, Integer> countChapters(Collection<Comic>... comicGroups) {
+    var comicIds = new HashSet<Long>();
+    for (var comics : comicGroups) {
+      comics.forEach(comic -> comicIds.add(comic.getId()));
+    }
+    if (comicIds.isEmpty()) {
+      return Map.of();
+    }
+
+    var counts = new HashMap<Long, Integer>();
+    for (var row : chapterRepository.countByComicIds(comicIds)) {
+      counts.put((Long) row[0], ((Number) row[1]).intValue());
+    }
+    return counts;
+  }
+
   private Optional<CrawlJob> findActiveJobForContent(long contentId) {
     return crawlJobRepository.findFirstByContentIdAndStatusInOrderByCreatedAtDesc(
         contentId, ACTIVE_STATUSES
@@ -214,17 +265,18 @@ public class DuplicateDetectionService {
       // Step 2: Download cover and calculate hash
       var domain = httpClient.extractDomainFromUrl(url);
       var headers = httpClient.buildHeaders(domain);
-      var coverBytes = httpClient.downloadImage(coverUrl, headers);
-
-      if (coverBytes == null || coverBytes.length == 0) {
-        log.debug("Could not download cover image from: {}", coverUrl);
-        return Optional.empty();
+      String hash;
+      try (var cover = httpClient.downloadImageToFile(coverUrl, headers)) {
+        if (cover == null) {
+          log.debug("Could not download cover image from: {}", coverUrl);
+          return Optional.empty();
+        }
+        // Computed while streaming the cover to disk
+        hash = cover.sha256();
       }
 
-      var hash = DigestUtils.sha256Hex(coverBytes);
-
       // Step 3: Find existing comic with same cover hash
-      var existing = comicRepository.findByCoverHash(hash);
+      var existing = findByCoverHash(hash);
       if (existing.isPresent()) {
         var comic = existing.get();
         var activeJob = findActiveJobForContent(comic.getId());
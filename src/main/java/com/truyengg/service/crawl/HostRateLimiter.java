@@ -0,0 +1,195 @@
+package com.truyengg.service.crawl;
+
+import com.truyengg.model.properties.CrawlRateLimitProperties;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.truyengg.domain.enums.CrawlSourceType.detectSourceFromUrl;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.System.nanoTime;
+import static java.time.Duration.ZERO;
+import static java.time.format.DateTimeFormatter.RFC_1123_DATE_TIME;
+import static org.apache.commons.lang3.StringUtils.isBlank;
+import static org.apache.commons.lang3.StringUtils.isNumeric;
+
+/**
+ * Per-host token bucket rate limiter for crawl requests.
+ * Buckets are configured per source type and adapt to server feedback:
+ * a 429 or Retry-After halves the host's refill rate, successful requests slowly restore it.
+ * Waiting is expressed as a Reactor delay so callers compose it into their request pipeline.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class HostRateLimiter {
+
+  private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+  CrawlRateLimitProperties properties;
+  Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+  public boolean isEnabled() {
+    return properties.isEnabled();
+  }
+
+  /**
+   * Reserve a token for the URL's host.
+   * Completes immediately when a token is available, otherwise after the host's wait time.
+   */
+  public Mono<Void> acquire(String url) {
+    if (!isEnabled()) {
+      return Mono.empty();
+    }
+
+    var waitNanos = bucketFor(url).reserve(nanoTime());
+    return waitNanos > 0
+        ? Mono.delay(Duration.ofNanos(waitNanos)).then()
+        : Mono.empty();
+  }
+
+  /**
+   * Record a throttling response (429 or Retry-After) for the URL's host.
+   * Halves the refill rate and blocks the host for the given delay.
+   */
+  public void onThrottled(String url, Duration retryAfter) {
+    if (!isEnabled()) {
+      return;
+    }
+
+    var host = extractHost(url);
+    var bucket = bucketFor(url);
+    bucket.throttle(nanoTime(), retryAfter.toNanos(), properties.getMinRefillPerSecond());
+    log.info("Throttled by host {}: refill rate now {}/s, blocked for {}s",
+        host, "%.2f".formatted(bucket.getRate()), retryAfter.toSeconds());
+  }
+
+  /**
+   * Record a successful request, restoring part of the configured refill rate.
+   */
+  public void onSuccess(String url) {
+    if (!isEnabled()) {
+      return;
+    }
+    bucketFor(url).recover(properties.getRecoveryStep());
+  }
+
+  /**
+   * Current refill rate (tokens per second) for a host, or -1 if unknown.
+   */
+  public double getRefillRate(String host) {
+    var bucket = buckets.get(host);
+    return bucket != null ? bucket.getRate() : -1;
+  }
+
+  /**
+   * Parse a Retry-After header value (delay in seconds or HTTP date).
+   */
+  public static Duration parseRetryAfter(String value) {
+    if (isBlank(value)) {
+      return ZERO;
+    }
+
+    var trimmed = value.trim();
+    if (isNumeric(trimmed)) {
+      return Duration.ofSeconds(Long.parseLong(trimmed));
+    }
+
+    try {
+      var retryAt = ZonedDateTime.parse(trimmed, RFC_1123_DATE_TIME);
+      var delay = Duration.between(ZonedDateTime.now(retryAt.getZone()), retryAt);
+      return delay.isNegative() ? ZERO : delay;
+    } catch (Exception e) {
+      log.debug("Invalid Retry-After header: {}", value);
+      return ZERO;
+    }
+  }
+
+  // ===== Private methods =====
+
+  private TokenBucket bucketFor(String url) {
+    return buckets.computeIfAbsent(extractHost(url), host -> {
+      var settings = properties.forSource(detectSourceFromUrl(url));
+      return new TokenBucket(settings.getCapacity(), settings.getRefillPerSecond(), nanoTime());
+    });
+  }
+
+  private String extractHost(String url) {
+    try {
+      var host = URI.create(url).getHost();
+      return host != null ? host : url;
+    } catch (Exception e) {
+      return url;
+    }
+  }
+
+  /**
+   * Token bucket with reservation semantics: a token is always taken and the
+   * caller waits until the bucket would have refilled it.
+   */
+  static final class TokenBucket {
+
+    final int capacity;
+    final double baseRate;
+    double rate;
+    double tokens;
+    long lastRefillNanos;
+    long blockedUntilNanos;
+    long lastThrottleNanos;
+
+    TokenBucket(int capacity, double refillPerSecond, long now) {
+      this.capacity = max(1, capacity);
+      this.baseRate = refillPerSecond;
+      this.rate = refillPerSecond;
+      this.tokens = this.capacity;
+      this.lastRefillNanos = now;
+      this.lastThrottleNanos = now - NANOS_PER_SECOND;
+    }
+
+    synchronized long reserve(long now) {
+      refill(now);
+      tokens -= 1;
+
+      var waitNanos = tokens < 0 ? (long) (-tokens / rate * NANOS_PER_SECOND) : 0L;
+      return max(waitNanos, blockedUntilNanos - now);
+    }
+
+    synchronized void throttle(long now, long retryAfterNanos, double minRate) {
+      refill(now);
+      // Concurrent requests usually hit the same 429 burst - halve at most once per second
+      if (now - lastThrottleNanos >= NANOS_PER_SECOND) {
+        rate = max(minRate, rate / 2);
+        lastThrottleNanos = now;
+      }
+      tokens = min(tokens, 0);
+      blockedUntilNanos = max(blockedUntilNanos, now + retryAfterNanos);
+    }
+
+    synchronized void recover(double step) {
+      if (rate < baseRate) {
+        rate = min(baseRate, rate + baseRate * step);
+      }
+    }
+
+    synchronized double getRate() {
+      return rate;
+    }
+
+    private void refill(long now) {
+      var elapsedSeconds = (now - lastRefillNanos) / (double) NANOS_PER_SECOND;
+      tokens = min(capacity, tokens + elapsedSeconds * rate);
+      lastRefillNanos = now;
+    }
+  }
+}
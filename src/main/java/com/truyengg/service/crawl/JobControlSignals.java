@@ -0,0 +1,112 @@
+package com.truyengg.service.crawl;
+
+import com.truyengg.domain.entity.CrawlJob;
+import com.truyengg.domain.enums.CrawlStatus;
+import com.truyengg.domain.repository.CrawlJobRepository;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.truyengg.domain.enums.CrawlStatus.CANCELLED;
+import static com.truyengg.domain.enums.CrawlStatus.PAUSED;
+import static org.apache.commons.lang3.exception.ExceptionUtils.getRootCauseMessage;
+
+/**
+ * In-process pause/cancel signal bus for running crawl jobs.
+ * CrawlJobService publishes PAUSED/CANCELLED for a job and its descendants, handlers read
+ * a single map entry per loop iteration instead of querying crawl_jobs. A periodic reconcile
+ * against the database picks up changes made by other nodes.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class JobControlSignals {
+
+  CrawlJobRepository crawlJobRepository;
+
+  Map<UUID, CrawlStatus> signals = new ConcurrentHashMap<>();
+  Set<UUID> activeJobs = ConcurrentHashMap.newKeySet();
+
+  /**
+   * Current control signal of a job: PAUSED, CANCELLED, or null when it may keep running.
+   */
+  public CrawlStatus get(UUID jobId) {
+    return signals.get(jobId);
+  }
+
+  public void pause(Collection<UUID> jobIds) {
+    jobIds.forEach(id -> signals.put(id, PAUSED));
+  }
+
+  public void cancel(Collection<UUID> jobIds) {
+    jobIds.forEach(id -> signals.put(id, CANCELLED));
+  }
+
+  public void resume(Collection<UUID> jobIds) {
+    jobIds.forEach(id -> signals.remove(id, PAUSED));
+  }
+
+  /**
+   * Track a job that starts executing on this node.
+   * A cancelled parent cancels the child right away.
+   */
+  public void register(CrawlJob job) {
+    var jobId = job.getId();
+    activeJobs.add(jobId);
+
+    if (job.getStatus() == PAUSED || job.getStatus() == CANCELLED) {
+      signals.put(jobId, job.getStatus());
+    } else if (job.getParentJob() != null && signals.get(job.getParentJob().getId()) == CANCELLED) {
+      signals.put(jobId, CANCELLED);
+    }
+  }
+
+  /**
+   * Stop tracking a job once its execution ended on this node.
+   */
+  public void unregister(UUID jobId) {
+    activeJobs.remove(jobId);
+    signals.remove(jobId);
+  }
+
+  /**
+   * Reconcile signals of jobs running on this node with the database (one query per interval).
+   */
+  @Scheduled(fixedDelayString = "${crawl.control.reconcile-interval-ms:5000}")
+  public void reconcile() {
+    if (activeJobs.isEmpty()) {
+      return;
+    }
+
+    try {
+      for (var row : crawlJobRepository.findStatusesByIds(Set.copyOf(activeJobs))) {
+        var jobId = (UUID) row[0];
+        var status = (CrawlStatus) row[1];
+        if (status == PAUSED || status == CANCELLED) {
+          signals.put(jobId, status);
+        } else {
+          signals.remove(jobId, PAUSED);
+        }
+      }
+    } catch (Exception e) {
+      log.warn("Failed to reconcile job control signals: {}", getRootCauseMessage(e));
+    }
+  }
+
+  /**
+   * Drop signals of jobs that no longer execute on this node.
+   */
+  public void cleanup() {
+    signals.keySet().removeIf(jobId -> !activeJobs.contains(jobId));
+  }
+}
@@ -0,0 +1,79 @@
+package com.truyengg.service.crawl;
+
+import com.truyengg.model.dto.ProgressDelta;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.Optional.ofNullable;
+
+/**
+ * In-memory write-behind buffer for crawl progress.
+ * Collects counter deltas and pending broadcasts per job; CrawlProgressService flushes them
+ * with one atomic UPDATE and at most one WebSocket frame per job per interval.
+ */
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ProgressAccumulator {
+
+  Map<UUID, ProgressDelta> deltas = new ConcurrentHashMap<>();
+  Set<UUID> dirtyJobs = ConcurrentHashMap.newKeySet();
+
+  @NonFinal
+  @Value("${crawl.progress.flush-events:50}")
+  int flushEvents;
+
+  /**
+   * Add a delta for a job.
+   * Returns true when the job reached the event threshold and should be flushed now.
+   */
+  public boolean add(UUID jobId, ProgressDelta delta) {
+    var merged = deltas.merge(jobId, delta, ProgressDelta::merge);
+    dirtyJobs.add(jobId);
+    return merged.events() >= flushEvents;
+  }
+
+  /**
+   * Merge a drained delta back after its write failed, so the next flush retries it.
+   */
+  public void restore(UUID jobId, ProgressDelta delta) {
+    deltas.merge(jobId, delta, ProgressDelta::merge);
+    dirtyJobs.add(jobId);
+  }
+
+  /**
+   * Mark a job as needing a broadcast on the next flush.
+   */
+  public void markDirty(UUID jobId) {
+    dirtyJobs.add(jobId);
+  }
+
+  /**
+   * Remove and return the pending delta of a job.
+   */
+  public Optional<ProgressDelta> drain(UUID jobId) {
+    return ofNullable(deltas.remove(jobId));
+  }
+
+  /**
+   * Clear the broadcast flag of a job; returns true if it was set.
+   */
+  public boolean clearDirty(UUID jobId) {
+    return dirtyJobs.remove(jobId);
+  }
+
+  /**
+   * Jobs with pending deltas or broadcasts.
+   */
+  public Set<UUID> pendingJobs() {
+    return Set.copyOf(dirtyJobs);
+  }
+}
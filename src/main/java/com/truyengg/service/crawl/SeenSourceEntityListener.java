@@ -0,0 +1,34 @@
+package com.truyengg.service.crawl;
+
+import com.truyengg.domain.entity.Comic;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.stereotype.Component;
+
+import static com.truyengg.service.crawl.SeenSourceFilter.Kind.COVER_HASH;
+import static com.truyengg.service.crawl.SeenSourceFilter.Kind.SLUG;
+import static com.truyengg.service.crawl.SeenSourceFilter.Kind.SOURCE;
+
+/**
+ * Keeps {@link SeenSourceFilter} current when comics are inserted or updated.
+ * Instantiated through Spring's Hibernate bean container, so the filter is injected.
+ * A rolled-back insert only leaves a harmless false positive behind.
+ */
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class SeenSourceEntityListener {
+
+  SeenSourceFilter seenSourceFilter;
+
+  @PostPersist
+  @PostUpdate
+  public void onSaved(Comic comic) {
+    seenSourceFilter.put(SOURCE, comic.getSource());
+    seenSourceFilter.put(SLUG, comic.getSlug());
+    seenSourceFilter.put(COVER_HASH, comic.getCoverHash());
+  }
+}
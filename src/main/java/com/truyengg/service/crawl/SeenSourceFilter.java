@@ -0,0 +1,239 @@
+package com.truyengg.service.crawl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.lang.Math.ceil;
+import static java.lang.Math.log;
+import static java.lang.Math.max;
+import static java.lang.Math.round;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.apache.commons.lang3.StringUtils.isBlank;
+import static org.apache.commons.lang3.exception.ExceptionUtils.getRootCauseMessage;
+
+/**
+ * In-memory Bloom filters of comic sources, slugs and cover hashes already stored.
+ * A negative answer means the value is definitely new, so duplicate checks can skip the
+ * exact query; a positive answer is only a hint and must be confirmed against the database.
+ * Built from the comics table at startup and kept current by {@link SeenSourceEntityListener}.
+ * Until the build finishes every value is reported as possibly seen.
+ */
+@Slf4j
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class SeenSourceFilter {
+
+  NamedParameterJdbcTemplate jdbcTemplate;
+  Map<Kind, ScalableBloomFilter> filters = new EnumMap<>(Kind.class);
+  Counter definitelyNew;
+  Counter possiblySeen;
+  Counter falsePositives;
+
+  @NonFinal
+  @Value("${crawl.duplicate.bloom-filter.enabled:true}")
+  boolean enabled;
+
+  @NonFinal
+  volatile boolean ready;
+
+  public SeenSourceFilter(NamedParameterJdbcTemplate jdbcTemplate,
+                          MeterRegistry meterRegistry,
+                          @Value("${crawl.duplicate.bloom-filter.expected-insertions:100000}") int expectedInsertions,
+                          @Value("${crawl.duplicate.bloom-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+    this.jdbcTemplate = jdbcTemplate;
+    for (var kind : Kind.values()) {
+      filters.put(kind, new ScalableBloomFilter(expectedInsertions, falsePositiveRate));
+    }
+    this.definitelyNew = counter(meterRegistry, "definitely_new");
+    this.possiblySeen = counter(meterRegistry, "possibly_seen");
+    this.falsePositives = counter(meterRegistry, "false_positive");
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void build() {
+    if (!enabled) {
+      return;
+    }
+    Thread.ofVirtual().name("seen-source-filter-build").start(this::load);
+  }
+
+  /**
+   * False only when the value was definitely never stored.
+   */
+  public boolean mightContain(Kind kind, String value) {
+    if (!ready || isBlank(value)) {
+      return true;
+    }
+    var result = filters.get(kind).mightContain(value);
+    (result ? possiblySeen : definitelyNew).increment();
+    return result;
+  }
+
+  public void put(Kind kind, String value) {
+    if (!isBlank(value)) {
+      filters.get(kind).put(value);
+    }
+  }
+
+  /**
+   * Record that a possible hit was not confirmed by the exact query.
+   */
+  public void recordFalsePositive() {
+    if (ready) {
+      falsePositives.increment();
+    }
+  }
+
+  // ===== Private methods =====
+
+  private void load() {
+    try {
+      var count = new long[1];
+      jdbcTemplate.getJdbcTemplate().query("SELECT source, slug, cover_hash FROM comics", rs -> {
+        put(Kind.SOURCE, rs.getString(1));
+        put(Kind.SLUG, rs.getString(2));
+        put(Kind.COVER_HASH, rs.getString(3));
+        count[0]++;
+      });
+      ready = true;
+      log.info("Seen-source filter built from {} comics", count[0]);
+    } catch (Exception e) {
+      log.warn("Failed to build seen-source filter, duplicate checks will query the database: {}",
+          getRootCauseMessage(e));
+    }
+  }
+
+  private Counter counter(MeterRegistry meterRegistry, String result) {
+    return Counter.builder("crawl.duplicate.filter")
+        .description("Seen-source Bloom filter answers")
+        .tag("result", result)
+        .register(meterRegistry);
+  }
+
+  public enum Kind {
+    SOURCE, SLUG, COVER_HASH
+  }
+
+  /**
+   * Bloom filter that adds a larger segment with a tighter error rate whenever the current
+   * segment is full, so the overall false-positive rate stays bounded as the catalog grows.
+   */
+  private static final class ScalableBloomFilter {
+
+    private static final int GROWTH = 2;
+    private static final double TIGHTENING = 0.5;
+
+    final List<Segment> segments = new ArrayList<>();
+    final double falsePositiveRate;
+
+    ScalableBloomFilter(int expectedInsertions, double falsePositiveRate) {
+      this.falsePositiveRate = falsePositiveRate;
+      // The first segment takes half the error budget; the geometric series keeps the total below the target
+      segments.add(new Segment(max(1, expectedInsertions), falsePositiveRate * TIGHTENING));
+    }
+
+    synchronized void put(String value) {
+      var hash = hash64(value);
+      for (var segment : segments) {
+        if (segment.mightContain(hash)) {
+          return;
+        }
+      }
+      var current = segments.getLast();
+      if (current.isFull()) {
+        current = new Segment(current.capacity * GROWTH, current.falsePositiveRate * TIGHTENING);
+        segments.add(current);
+      }
+      current.put(hash);
+    }
+
+    synchronized boolean mightContain(String value) {
+      var hash = hash64(value);
+      for (var segment : segments) {
+        if (segment.mightContain(hash)) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    /**
+     * 64-bit FNV-1a over UTF-8 bytes followed by a murmur3 finalizer.
+     */
+    private static long hash64(String value) {
+      var hash = 0xcbf29ce484222325L;
+      for (var b : value.getBytes(UTF_8)) {
+        hash ^= b & 0xff;
+        hash *= 0x100000001b3L;
+      }
+      hash ^= hash >>> 33;
+      hash *= 0xff51afd7ed558ccdL;
+      hash ^= hash >>> 33;
+      hash *= 0xc4ceb9fe1a85ec53L;
+      hash ^= hash >>> 33;
+      return hash;
+    }
+  }
+
+  /**
+   * Fixed-size Bloom filter using double hashing over a long[] bit array.
+   */
+  private static final class Segment {
+
+    final long[] bits;
+    final long bitCount;
+    final int hashCount;
+    final int capacity;
+    final double falsePositiveRate;
+    int size;
+
+    Segment(int capacity, double falsePositiveRate) {
+      this.capacity = capacity;
+      this.falsePositiveRate = falsePositiveRate;
+      var optimalBits = (long) ceil(-capacity * log(falsePositiveRate) / (log(2) * log(2)));
+      this.bits = new long[(int) ((max(64, optimalBits) + 63) / 64)];
+      this.bitCount = bits.length * 64L;
+      this.hashCount = max(1, (int) round((double) bitCount / capacity * log(2)));
+    }
+
+    boolean isFull() {
+      return size >= capacity;
+    }
+
+    void put(long hash) {
+      var h1 = (int) hash;
+      var h2 = (int) (hash >>> 32);
+      for (var i = 1; i <= hashCount; i++) {
+        var index = Integer.toUnsignedLong(h1 + i * h2) % bitCount;
+        bits[(int) (index >>> 6)] |= 1L << index;
+      }
+      size++;
+    }
+
+    boolean mightContain(long hash) {
+      var h1 = (int) hash;
+      var h2 = (int) (hash >>> 32);
+      for (var i = 1; i <= hashCount; i++) {
+        var index = Integer.toUnsignedLong(h1 + i * h2) % bitCount;
+        if ((bits[(int) (index >>> 6)] & (1L << index)) == 0) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+}
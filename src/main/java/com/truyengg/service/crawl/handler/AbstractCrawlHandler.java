@@ -4,18 +4,20 @@ import com.truyengg.domain.entity.CrawlJob;
 import com.truyengg.domain.entity.CrawlSettings;
 import com.truyengg.domain.enums.CrawlType;
 import com.truyengg.domain.repository.CrawlSettingsRepository;
+import com.truyengg.model.dto.QueueItemRequest;
 import com.truyengg.service.crawl.CrawlCheckpointService;
 import com.truyengg.service.crawl.CrawlHttpClient;
 import com.truyengg.service.crawl.CrawlJobService;
 import com.truyengg.service.crawl.CrawlProgressService;
 import com.truyengg.service.crawl.CrawlQueueProcessor;
 import com.truyengg.service.crawl.DownloadModeService;
-import com.truyengg.service.crawl.PauseStateService;
+import com.truyengg.service.crawl.JobControlSignals;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.BitSet;
 import java.util.List;
 import java.util.UUID;
 
@@ -24,10 +26,10 @@ import static com.truyengg.domain.enums.CrawlStatus.PAUSED;
 import static com.truyengg.domain.exception.CrawlException.cancelled;
 import static com.truyengg.domain.exception.CrawlException.paused;
 import static com.truyengg.service.crawl.SlugExtractor.extractSlugFromUrl;
-import static java.lang.Boolean.TRUE;
 import static java.lang.Math.min;
 import static org.apache.commons.collections4.CollectionUtils.isNotEmpty;
 import static org.apache.commons.lang3.StringUtils.isNotBlank;
+import static org.apache.commons.lang3.exception.ExceptionUtils.getRootCauseMessage;
 
 /**
  * Abstract base class for crawl type handlers.
@@ -43,7 +45,7 @@ public abstract class AbstractCrawlHandler implements CrawlTypeHandler {
   CrawlCheckpointService checkpointService;
   CrawlHttpClient httpClient;
   CrawlHandlerFactory handlerFactory;
-  PauseStateService pauseStateService;
+  JobControlSignals controlSignals;
   DownloadModeService downloadModeService;
   CrawlSettingsRepository settingsRepository;
   CrawlQueueProcessor queueProcessor;
@@ -58,30 +60,16 @@ public abstract class AbstractCrawlHandler implements CrawlTypeHandler {
   /**
    * Check if the job is paused or cancelled, and throw appropriate exception if so.
    * Call this at the beginning of each item processing loop iteration.
+   * Reads the in-memory signal only; JobControlSignals is kept in sync with the database.
    */
   protected void checkPauseOrCancel(UUID jobId, int lastIndex) {
-    // Check in-memory state first (faster)
-    if (TRUE.equals(pauseStateService.isPaused(jobId))) {
+    var signal = controlSignals.get(jobId);
+    if (signal == PAUSED) {
       throw paused(jobId, lastIndex);
     }
-
-    if (TRUE.equals(pauseStateService.isCancelled(jobId))) {
+    if (signal == CANCELLED) {
       throw cancelled(jobId);
     }
-
-    // Check database state (authoritative)
-    var jobOpt = jobService.findById(jobId);
-    if (jobOpt.isPresent()) {
-      var job = jobOpt.get();
-      if (job.getStatus() == PAUSED) {
-        pauseStateService.setPaused(jobId);
-        throw paused(jobId, lastIndex);
-      }
-      if (job.getStatus() == CANCELLED) {
-        pauseStateService.setCancelled(jobId);
-        throw cancelled(jobId);
-      }
-    }
   }
 
   // ===== Progress Tracking =====
@@ -149,6 +137,39 @@ public abstract class AbstractCrawlHandler implements CrawlTypeHandler {
     queueProcessor.enqueueAndProcess(jobId, type, urls, names);
   }
 
+  /**
+   * Enqueue all discovered items in one batch and trigger processing.
+   */
+  protected void enqueueAllAndProcess(UUID jobId, CrawlType type, List<QueueItemRequest> items) {
+    queueProcessor.enqueueAllAndProcess(jobId, type, items);
+  }
+
+  /**
+   * Enqueue all items in one batch, record them as completed and checkpoint at lastIndex.
+   * If the batch fails, every item is recorded as failed so it can be retried.
+   * Returns the number of enqueued items.
+   */
+  protected int enqueueAll(UUID jobId, CrawlType type, List<QueueItemRequest> items, int lastIndex) {
+    if (items.isEmpty()) {
+      saveCheckpoint(jobId, lastIndex);
+      return 0;
+    }
+
+    try {
+      enqueueAllAndProcess(jobId, type, items);
+      progressService.incrementCompleted(jobId, items.size());
+      saveCheckpoint(jobId, lastIndex);
+      return items.size();
+    } catch (Exception e) {
+      log.warn("Failed to enqueue {} {} items for job {}: {}", items.size(), type, jobId, getRootCauseMessage(e));
+      for (var item : items) {
+        incrementFailed(jobId);
+        checkpointService.addFailedIndex(jobId, item.itemIndex());
+      }
+      return 0;
+    }
+  }
+
   // ===== Range & Skip Settings =====
 
   /**
@@ -162,7 +183,7 @@ public abstract class AbstractCrawlHandler implements CrawlTypeHandler {
    * Get list of item indices to download based on job's download mode and settings.
    * Delegates to DownloadModeService for proper filtering (FULL/UPDATE/PARTIAL/NONE).
    */
-  protected List<Integer> getItemsToDownload(CrawlJob job, List<String> itemUrls) {
+  protected BitSet getItemsToDownload(CrawlJob job, List<String> itemUrls) {
     return downloadModeService.determineItemsToDownload(job, itemUrls);
   }
 
@@ -1,44 +1,36 @@
 package com.truyengg.service.crawl.handler;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.truyengg.model.dto.ChapterCrawlProcessingParams;
 import com.truyengg.model.dto.ChapterInfo;
 import com.truyengg.model.dto.ComicInfo;
+import com.truyengg.model.dto.MimiChapterResponse;
+import com.truyengg.model.dto.MimiGalleryResponse;
 import com.truyengg.service.comic.ComicDetectionService;
 import com.truyengg.service.crawl.CrawlHttpClient;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.lang3.StringUtils;
 import org.jsoup.nodes.Document;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.regex.Pattern;
 
 import static com.truyengg.domain.constant.AppConstants.API_BASE_URL;
 import static com.truyengg.domain.constant.AppConstants.API_CHAPTER;
-import static com.truyengg.domain.constant.AppConstants.API_KEY_ID;
-import static com.truyengg.domain.constant.AppConstants.API_KEY_PAGES;
-import static com.truyengg.domain.constant.AppConstants.API_KEY_RESPONSE;
 import static com.truyengg.domain.constant.AppConstants.MIMI_HENTAI_API_GALLERY;
 import static com.truyengg.domain.constant.AppConstants.MSG_FOUND;
 import static java.util.Collections.emptyList;
 import static org.apache.commons.collections4.CollectionUtils.isNotEmpty;
 
-@SuppressWarnings("unchecked")
 @Component
 @Slf4j
 public class ApiCrawlHandler extends CrawlHandler {
 
-  private final ObjectMapper objectMapper;
   private final ComicDetectionService comicDetectionService;
 
-  public ApiCrawlHandler(ObjectMapper objectMapper,
-                         ComicDetectionService comicDetectionService,
+  public ApiCrawlHandler(ComicDetectionService comicDetectionService,
                          CrawlHttpClient crawlHttpClient) {
     super(crawlHttpClient);
-    this.objectMapper = objectMapper;
     this.comicDetectionService = comicDetectionService;
   }
 
@@ -65,20 +57,11 @@ public class ApiCrawlHandler extends CrawlHandler {
 
     // Try API call first
     var apiUrl = API_BASE_URL + MIMI_HENTAI_API_GALLERY + mangaId;
-    var apiResponseJson = crawlHttpClient.fetchUrl(apiUrl, headers, true);
-
-    Map<String, Object> apiResponse = null;
-    if (StringUtils.isNotEmpty(apiResponseJson)) {
-      try {
-        apiResponse = objectMapper.readValue(apiResponseJson, Map.class);
-      } catch (Exception e) {
-        log.error("Failed to parse API response JSON from: {}", apiUrl, e);
-      }
-    }
+    var apiResponse = crawlHttpClient.fetchJson(apiUrl, headers, MimiGalleryResponse.class);
 
-    List<Map<String, Object>> chapters;
-    if (apiResponse != null && apiResponse.containsKey(API_KEY_RESPONSE) && apiResponse.get(API_KEY_RESPONSE) instanceof List) {
-      chapters = (List<Map<String, Object>>) apiResponse.get(API_KEY_RESPONSE);
+    List<MimiGalleryResponse.Chapter> chapters;
+    if (apiResponse != null && apiResponse.response() != null) {
+      chapters = apiResponse.response();
       if (messages != null) {
         messages.add("Found " + chapters.size() + " chapters.");
       }
@@ -93,8 +76,7 @@ public class ApiCrawlHandler extends CrawlHandler {
     // Convert chapters to list of chapter IDs (strings)
     var chapterIds = new ArrayList<String>();
     for (var chapter : chapters) {
-      var chapterId = String.valueOf(chapter.get(API_KEY_ID));
-      chapterIds.add(chapterId);
+      chapterIds.add(chapter.id());
     }
 
     return chapterIds;
@@ -105,22 +87,13 @@ public class ApiCrawlHandler extends CrawlHandler {
     var headers = crawlHttpClient.buildHeaders(API_BASE_URL);
 
     var apiUrl = API_BASE_URL + API_CHAPTER + "?id=" + params.url();
-    var responseJson = crawlHttpClient.fetchUrl(apiUrl, headers, true);
-
-    Map<String, Object> response = null;
-    if (StringUtils.isNotEmpty(responseJson)) {
-      try {
-        response = objectMapper.readValue(responseJson, Map.class);
-      } catch (Exception e) {
-        log.error("Failed to parse API response JSON from: {}", apiUrl, e);
-      }
-    }
+    var response = crawlHttpClient.fetchJson(apiUrl, headers, MimiChapterResponse.class);
 
-    if (response == null || !response.containsKey(API_KEY_PAGES)) {
+    if (response == null) {
       return emptyList();
     }
 
-    var imageUrls = (List<String>) response.get(API_KEY_PAGES);
+    var imageUrls = response.pages();
 
     return isNotEmpty(imageUrls) ? imageUrls : emptyList();
   }
@@ -3,13 +3,14 @@ package com.truyengg.service.crawl.handler;
 import com.truyengg.domain.entity.CrawlJob;
 import com.truyengg.domain.enums.CrawlType;
 import com.truyengg.domain.repository.CrawlSettingsRepository;
+import com.truyengg.model.dto.QueueItemRequest;
 import com.truyengg.service.crawl.CrawlCheckpointService;
 import com.truyengg.service.crawl.CrawlHttpClient;
 import com.truyengg.service.crawl.CrawlJobService;
 import com.truyengg.service.crawl.CrawlProgressService;
 import com.truyengg.service.crawl.CrawlQueueProcessor;
 import com.truyengg.service.crawl.DownloadModeService;
-import com.truyengg.service.crawl.PauseStateService;
+import com.truyengg.service.crawl.JobControlSignals;
 import lombok.AccessLevel;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
@@ -25,11 +26,9 @@ import static com.truyengg.domain.enums.CrawlType.CATEGORY;
 import static com.truyengg.domain.enums.CrawlType.COMIC;
 import static com.truyengg.service.crawl.SlugExtractor.extractSlugFromUrl;
 import static java.lang.Math.max;
-import static java.util.Collections.singletonList;
 import static org.apache.commons.lang3.StringUtils.SPACE;
 import static org.apache.commons.lang3.StringUtils.isBlank;
 import static org.apache.commons.lang3.StringUtils.isNotBlank;
-import static org.apache.commons.lang3.exception.ExceptionUtils.getRootCauseMessage;
 import static org.jsoup.Jsoup.parse;
 
 /**
@@ -47,11 +46,11 @@ public class CategoryCrawlHandler extends AbstractCrawlHandler {
       CrawlCheckpointService checkpointService,
       CrawlHttpClient httpClient,
       CrawlHandlerFactory handlerFactory,
-      PauseStateService pauseStateService,
+      JobControlSignals controlSignals,
       DownloadModeService downloadModeService,
       CrawlSettingsRepository settingsRepository,
       CrawlQueueProcessor queueProcessor) {
-    super(jobService, progressService, checkpointService, httpClient, handlerFactory, pauseStateService, downloadModeService, settingsRepository, queueProcessor);
+    super(jobService, progressService, checkpointService, httpClient, handlerFactory, controlSignals, downloadModeService, settingsRepository, queueProcessor);
   }
 
   @Override
@@ -88,33 +87,22 @@ public class CategoryCrawlHandler extends AbstractCrawlHandler {
     setTotalItems(jobId, effectiveEnd - effectiveStart);
     updateMessage(jobId, "Found " + comicUrls.size() + " comics. Processing " + (effectiveEnd - effectiveStart));
 
-    // Process each comic URL
-    for (var i = effectiveStart; i < effectiveEnd; i++) {
-      checkPauseOrCancel(jobId, i);
-
-      var comicUrl = comicUrls.get(i);
-      var comicName = extractComicName(comicUrl);
-
-      updateProgress(jobId, i - effectiveStart, effectiveEnd - effectiveStart, comicName);
-
-      try {
-        if (shouldSkipItem(i, settings)) {
-          incrementSkipped(jobId);
-          continue;
-        }
-
-        // Create child COMIC job via queue
-        enqueueAndProcess(job.getId(), COMIC, singletonList(comicUrl), singletonList(comicName));
-        incrementCompleted(jobId);
-        saveCheckpoint(jobId, i);
+    // Collect all comic URLs and enqueue them in one batch (child COMIC jobs are created via queue)
+    checkPauseOrCancel(jobId, startIndex - 1);
 
-      } catch (Exception e) {
-        log.warn("Failed to create job for comic {}: {}", comicUrl, getRootCauseMessage(e));
-        incrementFailed(jobId);
+    var items = new ArrayList<QueueItemRequest>(max(0, effectiveEnd - effectiveStart));
+    for (var i = effectiveStart; i < effectiveEnd; i++) {
+      if (shouldSkipItem(i, settings)) {
+        incrementSkipped(jobId);
+        continue;
       }
+      var comicUrl = comicUrls.get(i);
+      items.add(new QueueItemRequest(comicUrl, extractComicName(comicUrl), i));
     }
 
-    updateMessage(jobId, "Category crawl completed. Created " + (effectiveEnd - effectiveStart) + " comic jobs");
+    var enqueuedCount = enqueueAll(jobId, COMIC, items, effectiveEnd - 1);
+
+    updateMessage(jobId, "Category crawl completed. Created " + enqueuedCount + " comic jobs");
   }
 
   @Override
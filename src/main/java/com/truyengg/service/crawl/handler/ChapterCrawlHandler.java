@@ -1,62 +1,84 @@
 package com.truyengg.service.crawl.handler;
 
+import com.truyengg.domain.entity.CrawlCheckpoint;
 import com.truyengg.domain.entity.CrawlJob;
+import com.truyengg.domain.entity.CrawlSettings;
 import com.truyengg.domain.enums.CrawlType;
 import com.truyengg.domain.repository.CrawlSettingsRepository;
 import com.truyengg.model.dto.ChapterCrawlProcessingParams;
+import com.truyengg.model.dto.QueueItemRequest;
 import com.truyengg.service.crawl.CrawlCheckpointService;
 import com.truyengg.service.crawl.CrawlHttpClient;
 import com.truyengg.service.crawl.CrawlJobService;
 import com.truyengg.service.crawl.CrawlProgressService;
 import com.truyengg.service.crawl.CrawlQueueProcessor;
 import com.truyengg.service.crawl.DownloadModeService;
-import com.truyengg.service.crawl.PauseStateService;
+import com.truyengg.service.crawl.JobControlSignals;
 import lombok.AccessLevel;
 import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 import static com.truyengg.domain.enums.CrawlSourceType.detectSourceFromUrl;
 import static com.truyengg.domain.enums.CrawlType.CHAPTER;
 import static com.truyengg.domain.enums.CrawlType.IMAGE;
 import static com.truyengg.domain.enums.DownloadMode.NONE;
+import static com.truyengg.domain.enums.ImageTaskStatus.PENDING;
+import static com.truyengg.domain.enums.ImageTaskStatus.SKIPPED;
 import static java.lang.Math.max;
-import static java.util.Collections.singletonList;
 import static org.apache.commons.collections4.CollectionUtils.isEmpty;
-import static org.apache.commons.lang3.exception.ExceptionUtils.getRootCauseMessage;
 
 /**
  * Handler for CHAPTER type crawl jobs.
  * Extracts image URLs from a chapter page and enqueues IMAGE items for processing.
  * Uses unified queue-based pattern like other handlers.
+ * In batch image mode, images are stored as tasks on the chapter itself and downloaded
+ * by {@link ImageBatchCrawlHandler} instead of creating one IMAGE job per image.
  */
 @Slf4j
 @Component
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class ChapterCrawlHandler extends AbstractCrawlHandler {
 
+  ImageBatchCrawlHandler imageBatchHandler;
+
+  @NonFinal
+  @Value("${crawl.image.batch-mode:true}")
+  boolean batchMode;
+
   public ChapterCrawlHandler(
       CrawlJobService jobService,
       CrawlProgressService progressService,
       CrawlCheckpointService checkpointService,
       CrawlHttpClient httpClient,
       CrawlHandlerFactory handlerFactory,
-      PauseStateService pauseStateService,
+      JobControlSignals controlSignals,
       DownloadModeService downloadModeService,
       CrawlSettingsRepository settingsRepository,
-      CrawlQueueProcessor queueProcessor) {
-    super(jobService, progressService, checkpointService, httpClient, handlerFactory, pauseStateService, downloadModeService, settingsRepository, queueProcessor);
+      CrawlQueueProcessor queueProcessor,
+      ImageBatchCrawlHandler imageBatchHandler) {
+    super(jobService, progressService, checkpointService, httpClient, handlerFactory, controlSignals, downloadModeService, settingsRepository, queueProcessor);
+    this.imageBatchHandler = imageBatchHandler;
   }
 
   @Override
   public void handleWithResume(CrawlJob job, int startIndex) {
     var jobId = job.getId();
 
+    // Resumed batch chapter: image tasks are already stored, no need to re-fetch the page
+    if (batchMode && hasImageTasks(jobId)) {
+      imageBatchHandler.handleWithResume(job, startIndex);
+      return;
+    }
+
     var sourceType = detectSourceFromUrl(job.getTargetUrl());
     var handler = handlerFactory.getHandler(sourceType);
     var domain = handler.extractDomainFromUrl(job.getTargetUrl());
@@ -97,38 +119,29 @@ public class ChapterCrawlHandler extends AbstractCrawlHandler {
       return;
     }
 
+    if (batchMode) {
+      storeImageTasks(jobId, imageUrls, effectiveStart, effectiveEnd, settings);
+      imageBatchHandler.handleWithResume(job, startIndex);
+      return;
+    }
+
     // Store image URLs in checkpoint for reference
     storeImageUrls(jobId, imageUrls);
 
-    // Process each image one-by-one using unified queue pattern
-    var enqueuedCount = 0;
-    for (var imageIndex = effectiveStart; imageIndex < effectiveEnd; imageIndex++) {
-      checkPauseOrCancel(jobId, imageIndex);
-
-      var imageUrl = imageUrls.get(imageIndex);
-      var imageName = "Image #" + (imageIndex + 1);
-
-      updateProgress(jobId, enqueuedCount, totalImages, imageName);
-
-      try {
-        if (shouldSkipItem(imageIndex, settings)) {
-          incrementSkipped(jobId);
-          continue;
-        }
+    // Collect all images and enqueue them in one batch (IMAGE jobs are created in CrawlQueueProcessor)
+    checkPauseOrCancel(jobId, startIndex - 1);
 
-        // Enqueue single image for processing (will create IMAGE job in CrawlQueueProcessor)
-        enqueueAndProcess(jobId, IMAGE, singletonList(imageUrl), singletonList(imageName));
-        incrementCompleted(jobId);
-        saveCheckpoint(jobId, imageIndex);
-        enqueuedCount++;
-
-      } catch (Exception e) {
-        log.warn("Failed to enqueue image {}: {}", imageUrl, getRootCauseMessage(e));
-        incrementFailed(jobId);
-        checkpointService.addFailedIndex(jobId, imageIndex);
+    var items = new ArrayList<QueueItemRequest>(max(0, totalImages));
+    for (var imageIndex = effectiveStart; imageIndex < effectiveEnd; imageIndex++) {
+      if (shouldSkipItem(imageIndex, settings)) {
+        incrementSkipped(jobId);
+        continue;
       }
+      items.add(new QueueItemRequest(imageUrls.get(imageIndex), "Image #" + (imageIndex + 1), imageIndex));
     }
 
+    var enqueuedCount = enqueueAll(jobId, IMAGE, items, effectiveEnd - 1);
+
     updateMessage(jobId, "Chapter crawl completed - enqueued " + enqueuedCount + " images");
   }
 
@@ -139,6 +152,32 @@ public class ChapterCrawlHandler extends AbstractCrawlHandler {
 
   // ===== Private methods =====
 
+  private boolean hasImageTasks(UUID jobId) {
+    return checkpointService.findByJobId(jobId)
+        .map(CrawlCheckpoint::hasImageTasks)
+        .orElse(false);
+  }
+
+  /**
+   * Store image tasks on the chapter's checkpoint for batch processing.
+   * Images outside the range or in the skip list are marked SKIPPED up front.
+   */
+  private void storeImageTasks(UUID jobId, List<String> imageUrls, int effectiveStart, int effectiveEnd,
+                               CrawlSettings settings) {
+    var statuses = new byte[imageUrls.size()];
+    for (var i = 0; i < imageUrls.size(); i++) {
+      if (i < effectiveStart || i >= effectiveEnd) {
+        statuses[i] = SKIPPED.getCode();
+      } else if (shouldSkipItem(i, settings)) {
+        statuses[i] = SKIPPED.getCode();
+        incrementSkipped(jobId);
+      } else {
+        statuses[i] = PENDING.getCode();
+      }
+    }
+    checkpointService.saveImageTasks(jobId, imageUrls, statuses);
+  }
+
   /**
    * Store image URLs in parent job's checkpoint for reference.
    */
@@ -4,28 +4,34 @@ import com.truyengg.domain.entity.Comic;
 import com.truyengg.domain.entity.CrawlJob;
 import com.truyengg.domain.enums.CrawlType;
 import com.truyengg.domain.repository.CrawlSettingsRepository;
+import com.truyengg.model.dto.ConditionalFetchResult;
+import com.truyengg.model.dto.QueueItemRequest;
 import com.truyengg.service.comic.ComicService;
+import com.truyengg.service.crawl.ConditionalFetchCache;
 import com.truyengg.service.crawl.CrawlCheckpointService;
 import com.truyengg.service.crawl.CrawlHttpClient;
 import com.truyengg.service.crawl.CrawlJobService;
 import com.truyengg.service.crawl.CrawlProgressService;
 import com.truyengg.service.crawl.CrawlQueueProcessor;
 import com.truyengg.service.crawl.DownloadModeService;
-import com.truyengg.service.crawl.PauseStateService;
+import com.truyengg.service.crawl.JobControlSignals;
 import lombok.AccessLevel;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import static com.truyengg.domain.enums.CrawlSourceType.detectSourceFromUrl;
 import static com.truyengg.domain.enums.CrawlType.CHAPTER;
 import static com.truyengg.domain.enums.CrawlType.COMIC;
+import static com.truyengg.domain.enums.DownloadMode.UPDATE;
 import static java.lang.Math.max;
-import static java.util.Collections.singletonList;
+import static java.lang.System.nanoTime;
 import static java.util.Optional.empty;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import static org.apache.commons.lang3.StringUtils.isNotBlank;
 import static org.apache.commons.lang3.exception.ExceptionUtils.getRootCauseMessage;
 import static org.jsoup.Jsoup.parse;
@@ -40,6 +46,7 @@ import static org.jsoup.Jsoup.parse;
 public class ComicCrawlHandler extends AbstractCrawlHandler {
 
   ComicService comicService;
+  ConditionalFetchCache fetchCache;
 
   public ComicCrawlHandler(
       CrawlJobService jobService,
@@ -47,27 +54,59 @@ public class ComicCrawlHandler extends AbstractCrawlHandler {
       CrawlCheckpointService checkpointService,
       CrawlHttpClient httpClient,
       CrawlHandlerFactory handlerFactory,
-      PauseStateService pauseStateService,
+      JobControlSignals controlSignals,
       DownloadModeService downloadModeService,
       CrawlSettingsRepository settingsRepository,
       CrawlQueueProcessor queueProcessor,
-      ComicService comicService) {
-    super(jobService, progressService, checkpointService, httpClient, handlerFactory, pauseStateService, downloadModeService, settingsRepository, queueProcessor);
+      ComicService comicService,
+      ConditionalFetchCache fetchCache) {
+    super(jobService, progressService, checkpointService, httpClient, handlerFactory, controlSignals, downloadModeService, settingsRepository, queueProcessor);
     this.comicService = comicService;
+    this.fetchCache = fetchCache;
   }
 
   @Override
   public void handleWithResume(CrawlJob job, int startIndex) {
-    var jobId = job.getId();
-
     var sourceType = detectSourceFromUrl(job.getTargetUrl());
     var handler = handlerFactory.getHandler(sourceType);
     var domain = handler.extractDomainFromUrl(job.getTargetUrl());
 
+    // UPDATE re-crawls: skip parsing and enqueueing when the comic page did not change upstream
+    var conditional = job.getDownloadMode() == UPDATE && handler.isHtmlBased();
+    var probe = conditional ? httpClient.fetchUrlIfChanged(job.getTargetUrl(), httpClient.buildHeaders(domain)) : null;
+    if (probe != null && isUnchangedUpstream(job, probe)) {
+      storeValidators(job, probe, null);
+      return;
+    }
+
+    var parseStart = nanoTime();
+    var chapterUrls = extractChapters(job, handler, domain, probe);
+    var parseMillis = NANOSECONDS.toMillis(nanoTime() - parseStart);
+
+    enqueueChapters(job, startIndex, chapterUrls);
+
+    // Only a page whose chapters were enqueued may be reported as unchanged by the next crawl
+    if (probe != null && !chapterUrls.isEmpty()) {
+      storeValidators(job, probe, parseMillis);
+    }
+  }
+
+  @Override
+  public CrawlType getSupportedType() {
+    return COMIC;
+  }
+
+  // ===== Private methods =====
+
+  private List<String> extractChapters(CrawlJob job, CrawlHandler handler, String domain, ConditionalFetchResult probe) {
+    var jobId = job.getId();
     updateMessage(jobId, "Detecting comic information...");
 
+    // An HTML comic page is downloaded once - not at all when the probe returned it - and shared by both steps
+    var htmlContent = handler.isHtmlBased() ? fetchComicPage(job.getTargetUrl(), domain, probe) : null;
+
     // Detect and save comic info
-    var comicOpt = detectComic(handler, job.getTargetUrl(), domain);
+    var comicOpt = detectComic(handler, job.getTargetUrl(), htmlContent);
     if (comicOpt.isPresent()) {
       var comic = comicOpt.get();
       jobService.linkToContent(jobId, comic.getId());
@@ -76,8 +115,11 @@ public class ComicCrawlHandler extends AbstractCrawlHandler {
 
     // Extract chapters
     updateMessage(jobId, "Extracting chapter list...");
-    var chapterUrls = handler.extractChapterList(job.getTargetUrl(), domain, new ArrayList<>());
+    return handler.extractChapterList(job.getTargetUrl(), domain, htmlContent, new ArrayList<>());
+  }
 
+  private void enqueueChapters(CrawlJob job, int startIndex, List<String> chapterUrls) {
+    var jobId = job.getId();
     if (chapterUrls.isEmpty()) {
       updateMessage(jobId, "No chapters found");
       return;
@@ -89,65 +131,78 @@ public class ComicCrawlHandler extends AbstractCrawlHandler {
     // Apply range settings and resume index
     var settings = getSettings(jobId);
     var effectiveStart = max(startIndex, getEffectiveStart(settings));
-    var effectiveEnd = getEffectiveEnd(settings, itemsToDownload.size());
+    var effectiveEnd = getEffectiveEnd(settings, itemsToDownload.cardinality());
 
     // Filter items after resume index
     var filteredItems = itemsToDownload.stream()
         .filter(i -> i >= effectiveStart && i < effectiveEnd)
-        .toList();
+        .toArray();
 
-    var totalChapters = filteredItems.size();
+    var totalChapters = filteredItems.length;
     setTotalItems(jobId, totalChapters);
     updateMessage(jobId, "Found " + chapterUrls.size() + " chapters, will process " + totalChapters);
 
-    // Process each chapter one-by-one for proper progress tracking
-    var enqueuedCount = 0;
-    for (var chapterIndex : filteredItems) {
-      checkPauseOrCancel(jobId, chapterIndex);
-
-      var chapterUrl = chapterUrls.get(chapterIndex);
-      var chapterName = "Chapter " + (chapterIndex + 1);
-
-      updateProgress(jobId, enqueuedCount, totalChapters, chapterName);
-
-      try {
-        if (shouldSkipItem(chapterIndex, settings)) {
-          incrementSkipped(jobId);
-          continue;
-        }
+    if (totalChapters == 0) {
+      updateMessage(jobId, "No chapters to enqueue");
+      return;
+    }
 
-        // Enqueue single chapter for processing
-        enqueueAndProcess(jobId, CHAPTER, singletonList(chapterUrl), singletonList(chapterName));
-        incrementCompleted(jobId);
-        saveCheckpoint(jobId, chapterIndex);
-        enqueuedCount++;
+    // Collect all chapters and enqueue them in one batch
+    checkPauseOrCancel(jobId, startIndex - 1);
 
-      } catch (Exception e) {
-        log.warn("Failed to enqueue chapter {}: {}", chapterUrl, getRootCauseMessage(e));
-        incrementFailed(jobId);
+    var items = new ArrayList<QueueItemRequest>(totalChapters);
+    for (var chapterIndex : filteredItems) {
+      if (shouldSkipItem(chapterIndex, settings)) {
+        incrementSkipped(jobId);
+        continue;
       }
+      items.add(new QueueItemRequest(chapterUrls.get(chapterIndex), "Chapter " + (chapterIndex + 1), chapterIndex));
     }
 
+    var enqueuedCount = enqueueAll(jobId, CHAPTER, items, filteredItems[totalChapters - 1]);
+
     updateMessage(jobId, "Comic crawl completed - enqueued " + enqueuedCount + " chapters");
   }
 
-  @Override
-  public CrawlType getSupportedType() {
-    return COMIC;
+  /**
+   * Persist the probe's validators and body hash, plus the parse time when the page was parsed.
+   * A 304 leaves the stored entry as it is.
+   */
+  private void storeValidators(CrawlJob job, ConditionalFetchResult probe, Long parseMillis) {
+    if (!probe.hasBody()) {
+      return;
+    }
+    var url = job.getTargetUrl();
+    fetchCache.store(url, probe.etag(), probe.lastModified(), probe.body());
+    if (parseMillis != null) {
+      fetchCache.recordParseTime(url, parseMillis);
+    }
   }
 
-  // ===== Private methods =====
+  private boolean isUnchangedUpstream(CrawlJob job, ConditionalFetchResult result) {
+    if (!result.unchanged()) {
+      return false;
+    }
+
+    var reason = result.notModified() ? "304 Not Modified" : "same content hash";
+    updateMessage(job.getId(), "Comic page unchanged since last crawl (%s) - saved %d KB download, ~%d ms parsing"
+        .formatted(reason, result.bytesSaved() / 1024, result.parseMillisSaved()));
+    return true;
+  }
+
+  private String fetchComicPage(String url, String domain, ConditionalFetchResult probe) {
+    if (probe != null && probe.hasBody()) {
+      return probe.body();
+    }
+    return httpClient.fetchUrl(url, httpClient.buildHeaders(domain), false);
+  }
 
-  private Optional<Comic> detectComic(CrawlHandler handler, String url, String domain) {
+  private Optional<Comic> detectComic(CrawlHandler handler, String url, String htmlContent) {
     try {
-      if (handler.isHtmlBased()) {
-        var headers = httpClient.buildHeaders(domain);
-        var htmlContent = httpClient.fetchUrl(url, headers, false);
-        if (isNotBlank(htmlContent)) {
-          var doc = parse(htmlContent);
-          var comicInfo = handler.detectComicInfo(url, doc, null);
-          return comicService.createOrUpdateComic(comicInfo);
-        }
+      if (handler.isHtmlBased() && isNotBlank(htmlContent)) {
+        var doc = parse(htmlContent);
+        var comicInfo = handler.detectComicInfo(url, doc, null);
+        return comicService.createOrUpdateComic(comicInfo);
       }
     } catch (Exception e) {
       log.warn("Failed to detect comic info: {}", getRootCauseMessage(e));
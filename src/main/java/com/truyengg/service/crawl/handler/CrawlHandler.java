@@ -23,6 +23,14 @@ public abstract class CrawlHandler {
 
   public abstract List<String> extractChapterList(String url, String domain, List<String> messages);
 
+  /**
+   * Extract chapters from a comic page the caller has already fetched.
+   * Handlers that do not read chapters from the HTML page ignore it and fetch their own source.
+   */
+  public List<String> extractChapterList(String url, String domain, String htmlContent, List<String> messages) {
+    return extractChapterList(url, domain, messages);
+  }
+
   public abstract List<String> extractImageUrls(ChapterCrawlProcessingParams params);
 
   public abstract ChapterInfo detectChapterInfo(String url, Document doc, List<String> imageUrls, Object chapterData);
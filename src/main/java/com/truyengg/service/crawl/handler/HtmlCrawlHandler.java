@@ -7,6 +7,7 @@ import com.truyengg.service.comic.ComicDetectionService;
 import com.truyengg.service.crawl.CrawlChapterExtractor;
 import com.truyengg.service.crawl.CrawlHttpClient;
 import com.truyengg.service.crawl.CrawlImageProcessor;
+import com.truyengg.service.crawl.CrawlPipeline;
 import lombok.AccessLevel;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
@@ -15,6 +16,7 @@ import org.springframework.stereotype.Component;
 
 import java.util.List;
 
+import static com.truyengg.service.crawl.CrawlPipeline.Stage.PARSE;
 import static java.util.Collections.emptyList;
 import static org.apache.commons.lang3.StringUtils.isBlank;
 import static org.jsoup.Jsoup.parse;
@@ -27,15 +29,18 @@ public class HtmlCrawlHandler extends CrawlHandler {
   ComicDetectionService comicDetectionService;
   CrawlChapterExtractor crawlChapterExtractor;
   CrawlImageProcessor crawlImageProcessor;
+  CrawlPipeline pipeline;
 
   public HtmlCrawlHandler(ComicDetectionService comicDetectionService,
                           CrawlChapterExtractor crawlChapterExtractor,
                           CrawlImageProcessor crawlImageProcessor,
-                          CrawlHttpClient crawlHttpClient) {
+                          CrawlHttpClient crawlHttpClient,
+                          CrawlPipeline pipeline) {
     super(crawlHttpClient);
     this.comicDetectionService = comicDetectionService;
     this.crawlChapterExtractor = crawlChapterExtractor;
     this.crawlImageProcessor = crawlImageProcessor;
+    this.pipeline = pipeline;
   }
 
   @Override
@@ -46,13 +51,16 @@ public class HtmlCrawlHandler extends CrawlHandler {
   @Override
   public List<String> extractChapterList(String url, String domain, List<String> messages) {
     var headers = crawlHttpClient.buildHeaders(domain);
-    var htmlContent = crawlHttpClient.fetchUrl(url, headers, false);
+    return extractChapterList(url, domain, crawlHttpClient.fetchUrl(url, headers, false), messages);
+  }
 
+  @Override
+  public List<String> extractChapterList(String url, String domain, String htmlContent, List<String> messages) {
     if (isBlank(htmlContent)) {
       throw new IllegalStateException("Unable to load manga HTML: " + url);
     }
 
-    var doc = parse(htmlContent);
+    var doc = pipeline.run(PARSE, () -> parse(htmlContent));
     return crawlChapterExtractor.extractChapterList(domain, messages, doc);
   }
 
@@ -65,7 +73,7 @@ public class HtmlCrawlHandler extends CrawlHandler {
       return emptyList();
     }
 
-    var doc = parse(htmlContent);
+    var doc = pipeline.run(PARSE, () -> parse(htmlContent));
     return crawlImageProcessor.extractImageUrlsFromHtml(doc, params.domain());
   }
 
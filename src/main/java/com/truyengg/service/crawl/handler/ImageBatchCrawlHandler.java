@@ -0,0 +1,190 @@
+package com.truyengg.service.crawl.handler;
+
+import com.truyengg.domain.entity.CrawlJob;
+import com.truyengg.domain.enums.CrawlType;
+import com.truyengg.domain.enums.ImageTaskStatus;
+import com.truyengg.domain.repository.CrawlSettingsRepository;
+import com.truyengg.model.dto.SpooledImage;
+import com.truyengg.service.crawl.CrawlCheckpointService;
+import com.truyengg.service.crawl.CrawlHttpClient;
+import com.truyengg.service.crawl.CrawlImageProcessor;
+import com.truyengg.service.crawl.CrawlImageProcessor.ImageUploadResult;
+import com.truyengg.service.crawl.CrawlJobService;
+import com.truyengg.service.crawl.CrawlProgressService;
+import com.truyengg.service.crawl.CrawlQueueProcessor;
+import com.truyengg.service.crawl.DownloadModeService;
+import com.truyengg.service.crawl.JobControlSignals;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+
+import static com.truyengg.domain.enums.CrawlSourceType.detectSourceFromUrl;
+import static com.truyengg.domain.enums.ImageTaskStatus.FAILED;
+import static com.truyengg.domain.enums.ImageTaskStatus.PENDING;
+import static java.lang.Math.max;
+import static java.util.concurrent.Executors.newVirtualThreadPerTaskExecutor;
+import static org.apache.commons.lang3.exception.ExceptionUtils.getRootCauseMessage;
+
+/**
+ * Handler for image tasks stored inside a CHAPTER job (batch image mode).
+ * Downloads every pending image of the chapter without creating IMAGE child jobs;
+ * per-image status is kept in the chapter checkpoint's compact status array.
+ * Not routed by crawl type - invoked by {@link ChapterCrawlHandler}.
+ */
+@Slf4j
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ImageBatchCrawlHandler extends AbstractCrawlHandler {
+
+  CrawlImageProcessor imageProcessor;
+
+  public ImageBatchCrawlHandler(
+      CrawlJobService jobService,
+      CrawlProgressService progressService,
+      CrawlCheckpointService checkpointService,
+      CrawlHttpClient httpClient,
+      CrawlHandlerFactory handlerFactory,
+      JobControlSignals controlSignals,
+      DownloadModeService downloadModeService,
+      CrawlSettingsRepository settingsRepository,
+      CrawlQueueProcessor queueProcessor,
+      CrawlImageProcessor imageProcessor) {
+    super(jobService, progressService, checkpointService, httpClient, handlerFactory, controlSignals, downloadModeService, settingsRepository, queueProcessor);
+    this.imageProcessor = imageProcessor;
+  }
+
+  /**
+   * Process all pending image tasks of a CHAPTER job.
+   * The start index is ignored: the status array already records which images are done.
+   */
+  @Override
+  public void handleWithResume(CrawlJob job, int startIndex) {
+    var jobId = job.getId();
+    var checkpoint = checkpointService.findByJobId(jobId)
+        .orElseThrow(() -> new IllegalStateException("Checkpoint not found for job: " + jobId));
+
+    if (!checkpoint.hasImageTasks()) {
+      updateMessage(jobId, "No image tasks stored for chapter");
+      return;
+    }
+
+    var imageUrls = checkpoint.getImageUrls();
+    var statuses = checkpoint.getImageStatuses().clone();
+
+    var sourceType = detectSourceFromUrl(job.getTargetUrl());
+    var domain = handlerFactory.getHandler(sourceType).extractDomainFromUrl(job.getTargetUrl());
+    var headers = httpClient.buildHeaders(domain);
+    var comicSlug = extractSlug(job);
+    var chapterId = "chapter-" + job.getItemIndex();
+
+    var settings = getSettings(jobId);
+    var parallelLimit = settings != null ? settings.getParallelLimit() : 3;
+    var permits = new Semaphore(max(1, parallelLimit));
+
+    updateMessage(jobId, "Downloading " + countRunnable(statuses) + " images");
+
+    try (var executor = newVirtualThreadPerTaskExecutor()) {
+      for (var i = 0; i < imageUrls.size(); i++) {
+        if (!isRunnable(statuses[i])) {
+          continue;
+        }
+
+        checkPauseOrCancel(jobId, i - 1);
+        permits.acquireUninterruptibly();
+
+        var imageIndex = i;
+        var imageUrl = imageUrls.get(i);
+        var retry = ImageTaskStatus.fromCode(statuses[i]) == FAILED;
+        executor.submit(() -> {
+          try {
+            processImage(jobId, imageIndex, imageUrl, retry, headers, comicSlug, chapterId);
+          } finally {
+            permits.release();
+          }
+        });
+      }
+    }
+
+    updateMessage(jobId, "Chapter images processed");
+  }
+
+  @Override
+  public CrawlType getSupportedType() {
+    // Not registered in CrawlExecutor's handler map
+    return null;
+  }
+
+  // ===== Private methods =====
+
+  /**
+   * Download, process and upload one image. Bookkeeping runs only after the spooled file is
+   * released, so a failure to delete the temporary file cannot turn an uploaded image into a failure.
+   */
+  private void processImage(UUID jobId, int imageIndex, String imageUrl, boolean retry, List<String> headers,
+                            String comicSlug, String chapterId) {
+    ImageUploadResult result;
+    long size;
+    try {
+      var image = httpClient.downloadImageToFile(imageUrl, headers);
+      if (image == null) {
+        throw new IllegalStateException("Failed to download image: " + imageUrl);
+      }
+
+      try {
+        var fileName = "image-%03d.webp".formatted(imageIndex + 1);
+        size = image.size();
+        result = imageProcessor.processAndUpload(image, comicSlug, chapterId, fileName);
+      } finally {
+        release(image);
+      }
+
+    } catch (Exception e) {
+      log.warn("Failed to download image #{} for job {}: {}", imageIndex + 1, jobId, getRootCauseMessage(e));
+      checkpointService.updateImageStatus(jobId, imageIndex, FAILED);
+      checkpointService.addFailedIndex(jobId, imageIndex);
+      if (!retry) {
+        progressService.incrementFailed(jobId, getRootCauseMessage(e));
+      }
+      return;
+    }
+
+    checkpointService.saveDownloadedImage(jobId, imageIndex, imageUrl, result.path(), result.blurhash(), size);
+    if (retry) {
+      checkpointService.removeFailedIndex(jobId, imageIndex);
+      progressService.incrementRetriedWithBytes(jobId, size);
+    } else {
+      progressService.incrementCompletedWithBytes(jobId, size);
+    }
+  }
+
+  private void release(SpooledImage image) {
+    try {
+      image.close();
+    } catch (Exception e) {
+      log.warn("Failed to delete spooled image {}: {}", image.file(), getRootCauseMessage(e));
+    }
+  }
+
+  /**
+   * Pending images and images that failed in a previous run are (re)downloaded.
+   */
+  private boolean isRunnable(byte statusCode) {
+    var status = ImageTaskStatus.fromCode(statusCode);
+    return status == PENDING || status == FAILED;
+  }
+
+  private int countRunnable(byte[] statuses) {
+    var count = 0;
+    for (var status : statuses) {
+      if (isRunnable(status)) {
+        count++;
+      }
+    }
+    return count;
+  }
+}
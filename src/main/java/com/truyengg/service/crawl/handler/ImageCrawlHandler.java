@@ -11,7 +11,7 @@ import com.truyengg.service.crawl.CrawlJobService;
 import com.truyengg.service.crawl.CrawlProgressService;
 import com.truyengg.service.crawl.CrawlQueueProcessor;
 import com.truyengg.service.crawl.DownloadModeService;
-import com.truyengg.service.crawl.PauseStateService;
+import com.truyengg.service.crawl.JobControlSignals;
 import com.truyengg.service.crawl.SlugExtractor;
 import lombok.AccessLevel;
 import lombok.experimental.FieldDefaults;
@@ -46,12 +46,12 @@ public class ImageCrawlHandler extends AbstractCrawlHandler {
       CrawlCheckpointService checkpointService,
       CrawlHttpClient httpClient,
       CrawlHandlerFactory handlerFactory,
-      PauseStateService pauseStateService,
+      JobControlSignals controlSignals,
       DownloadModeService downloadModeService,
       CrawlSettingsRepository settingsRepository,
       CrawlQueueProcessor queueProcessor,
       CrawlImageProcessor imageProcessor) {
-    super(jobService, progressService, checkpointService, httpClient, handlerFactory, pauseStateService, downloadModeService, settingsRepository, queueProcessor);
+    super(jobService, progressService, checkpointService, httpClient, handlerFactory, controlSignals, downloadModeService, settingsRepository, queueProcessor);
     this.imageProcessor = imageProcessor;
   }
 
@@ -112,14 +112,16 @@ public class ImageCrawlHandler extends AbstractCrawlHandler {
   private ImageUploadResult downloadAndProcessImage(String imageUrl, String comicSlug, String chapterId,
                                                     String fileName, String domain) {
     var headers = httpClient.buildHeaders(domain);
-    var imageBytes = httpClient.downloadImage(imageUrl, headers);
+    var image = httpClient.downloadImageToFile(imageUrl, headers);
 
-    if (imageBytes == null || imageBytes.length == 0) {
+    if (image == null) {
       throw new IllegalStateException("Failed to download image: " + imageUrl);
     }
 
     // Process image: compress, convert to webp, generate blurhash
-    return imageProcessor.processAndUpload(imageBytes, comicSlug, chapterId, fileName);
+    try (image) {
+      return imageProcessor.processAndUpload(image, comicSlug, chapterId, fileName);
+    }
   }
 
   /**
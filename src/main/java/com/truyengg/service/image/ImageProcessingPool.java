@@ -0,0 +1,128 @@
+package com.truyengg.service.image;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static java.lang.Math.max;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Bounded platform-thread pool for CPU-heavy image work (decode, resize, blurhash, encode).
+ * Callers are mostly virtual threads; running the work on them would pin every carrier
+ * thread and oversubscribe the cores, so tasks are handed to a fixed pool sized to the CPUs.
+ * Submission is bounded by a semaphore over pool size + queue capacity: when the pool is
+ * saturated the caller blocks (cheap on a virtual thread) instead of queuing decoded
+ * images without limit or running the work on its own thread.
+ * Per-stage run times are recorded as image.processing.stage (decode, resize, hash, encode).
+ */
+@Slf4j
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ImageProcessingPool {
+
+  private static final String THREAD_PREFIX = "image-processing-";
+
+  ThreadPoolExecutor executor;
+  Semaphore slots;
+  Timer waitTimer;
+  Map<Stage, Timer> stageTimers = new EnumMap<>(Stage.class);
+
+  public ImageProcessingPool(MeterRegistry meterRegistry,
+                             @Value("${truyengg.image.pool.size:0}") int size,
+                             @Value("${truyengg.image.pool.queue-capacity:0}") int queueCapacity) {
+    var threads = size > 0 ? size : max(1, Runtime.getRuntime().availableProcessors());
+    var capacity = queueCapacity > 0 ? queueCapacity : threads * 2;
+    var counter = new AtomicInteger();
+
+    this.executor = new ThreadPoolExecutor(threads, threads, 60, SECONDS, new LinkedBlockingQueue<>(),
+        task -> {
+          var thread = new Thread(task, THREAD_PREFIX + counter.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        });
+    this.slots = new Semaphore(threads + capacity, true);
+    this.waitTimer = Timer.builder("image.processing.wait")
+        .description("Time spent waiting for an image processing slot")
+        .publishPercentiles(0.95, 0.99)
+        .register(meterRegistry);
+    for (var stage : Stage.values()) {
+      stageTimers.put(stage, Timer.builder("image.processing.stage")
+          .description("Time spent in an image processing stage")
+          .tag("stage", stage.name().toLowerCase())
+          .publishPercentiles(0.95, 0.99)
+          .register(meterRegistry));
+    }
+    Gauge.builder("image.processing.active", executor, ThreadPoolExecutor::getActiveCount)
+        .description("Image processing tasks running")
+        .register(meterRegistry);
+    Gauge.builder("image.processing.queued", executor, pool -> pool.getQueue().size())
+        .description("Image processing tasks queued")
+        .register(meterRegistry);
+    log.info("Image processing pool: {} threads, {} queued tasks", threads, capacity);
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  /**
+   * Run a task on the pool and wait for its result, blocking while the pool is saturated.
+   * Tasks submitted from a pool thread run inline, so nested calls cannot deadlock.
+   */
+  public <T> T process(Supplier<T> task) {
+    if (Thread.currentThread().getName().startsWith(THREAD_PREFIX)) {
+      return task.get();
+    }
+
+    var waitStart = nanoTime();
+    slots.acquireUninterruptibly();
+    waitTimer.record(nanoTime() - waitStart, NANOSECONDS);
+    Future<T> future = null;
+    try {
+      future = executor.submit(task::get);
+      return future.get();
+    } catch (InterruptedException e) {
+      future.cancel(true);
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for image processing", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw new IllegalStateException("Image processing failed", e.getCause());
+    } finally {
+      slots.release();
+    }
+  }
+
+  /**
+   * Record the time spent in one stage, measured from the given nanoTime() start.
+   */
+  public void record(Stage stage, long startNanos) {
+    stageTimers.get(stage).record(nanoTime() - startNanos, NANOSECONDS);
+  }
+
+  public enum Stage {
+    DECODE, RESIZE, HASH, ENCODE
+  }
+}
@@ -9,11 +9,16 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.imageio.IIOImage;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.stream.ImageInputStream;
 import java.awt.image.BufferedImage;
 import java.awt.image.ColorConvertOp;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Optional;
 import java.util.Random;
 
 import static com.truyengg.domain.constant.AppConstants.CONTENT_TYPE_JPEG;
@@ -23,6 +28,10 @@ import static com.truyengg.domain.constant.AppConstants.FORMAT_JPEG;
 import static com.truyengg.domain.constant.AppConstants.FORMAT_WEBP;
 import static com.truyengg.domain.constant.AppConstants.GRAYSCALE_SAMPLE_SIZE;
 import static com.truyengg.domain.constant.AppConstants.GRAYSCALE_THRESHOLD;
+import static com.truyengg.service.image.ImageProcessingPool.Stage.DECODE;
+import static com.truyengg.service.image.ImageProcessingPool.Stage.ENCODE;
+import static com.truyengg.service.image.ImageProcessingPool.Stage.HASH;
+import static com.truyengg.service.image.ImageProcessingPool.Stage.RESIZE;
 import static java.awt.RenderingHints.KEY_ANTIALIASING;
 import static java.awt.RenderingHints.KEY_INTERPOLATION;
 import static java.awt.RenderingHints.KEY_RENDERING;
@@ -34,8 +43,15 @@ import static java.awt.color.ColorSpace.getInstance;
 import static java.awt.image.BufferedImage.TYPE_BYTE_GRAY;
 import static java.awt.image.BufferedImage.TYPE_INT_RGB;
 import static java.lang.Math.abs;
+import static java.lang.Math.ceil;
+import static java.lang.Math.max;
 import static java.lang.Math.min;
+import static java.lang.Math.sqrt;
+import static java.lang.System.nanoTime;
+import static java.nio.file.Files.newInputStream;
+import static javax.imageio.ImageIO.createImageInputStream;
 import static javax.imageio.ImageIO.createImageOutputStream;
+import static javax.imageio.ImageIO.getImageReaders;
 import static javax.imageio.ImageIO.getImageWritersByFormatName;
 import static javax.imageio.ImageIO.read;
 import static javax.imageio.ImageWriteParam.MODE_EXPLICIT;
@@ -46,6 +62,7 @@ import static org.apache.commons.lang3.exception.ExceptionUtils.getRootCauseMess
 /**
  * Service for image processing: compression, format detection, resize, and blurhash generation.
  * Optimized for manga/comics with WebP support and intelligent grayscale detection.
+ * Decoding and encoding run on the bounded {@link ImageProcessingPool}, not on the calling thread.
  */
 @Slf4j
 @Service
@@ -54,6 +71,7 @@ import static org.apache.commons.lang3.exception.ExceptionUtils.getRootCauseMess
 public class ImageService {
 
   final BlurHashService blurHashService;
+  final ImageProcessingPool processingPool;
 
   @Value("${truyengg.image.compression.enabled:true}")
   boolean compressionEnabled;
@@ -82,6 +100,12 @@ public class ImageService {
   @Value("${truyengg.image.compression.resize-enabled:true}")
   boolean resizeEnabled;
 
+  /**
+   * Upper bound on decoded pixels when resizing is enabled; larger images are decoded subsampled.
+   */
+  @Value("${truyengg.image.compression.max-decode-pixels:40000000}")
+  long maxDecodePixels;
+
   /**
    * Compress and convert an image to the configured output format.
    * Auto-detects actual image format from magic bytes.
@@ -96,58 +120,21 @@ public class ImageService {
           imageBytes != null ? imageBytes.length : 0, 1.0, null);
     }
 
-    // Auto-detect actual format from magic bytes
-    var detectedFormat = detectFormat(imageBytes);
-    var originalContentType = "application/octet-stream".equals(detectedFormat)
-        ? fallbackContentType
-        : detectedFormat;
-
-    try {
-      var originalSize = imageBytes.length;
-      var bufferedImage = read(new ByteArrayInputStream(imageBytes));
-
-      if (bufferedImage == null) {
-        return new CompressedImageResult(imageBytes, originalContentType, originalSize, originalSize, 1.0, null);
-      }
-
-      // Resize if too large
-      if (resizeEnabled && bufferedImage.getWidth() > maxWidth) {
-        bufferedImage = resizeImage(bufferedImage, maxWidth);
-      }
-
-      // Generate blurhash from resized image
-      var blurhash = blurHashService.encode(bufferedImage);
-
-      // Detect grayscale for optimal quality
-      var isGrayscale = grayscaleDetection && isGrayscale(bufferedImage);
-      var quality = isGrayscale ? grayscaleQuality : getQualityForFormat();
-
-      // Compress to target format
-      var compressedBytes = EMPTY_BYTE_ARRAY;
-      var contentType = EMPTY;
-
-      if (FORMAT_WEBP.equalsIgnoreCase(outputFormat)) {
-        compressedBytes = tryConvertToWebP(bufferedImage, quality, isGrayscale);
-        if (compressedBytes.length > 0) {
-          contentType = CONTENT_TYPE_WEBP;
-        } else {
-          compressedBytes = convertToOptimizedJpeg(bufferedImage, jpegQuality);
-          contentType = CONTENT_TYPE_JPEG;
-        }
-      } else {
-        compressedBytes = convertToOptimizedJpeg(bufferedImage, quality);
-        contentType = CONTENT_TYPE_JPEG;
-      }
-
-      var compressedSize = compressedBytes.length;
-      var compressionRatio = (double) compressedSize / originalSize;
-
-      return new CompressedImageResult(compressedBytes, contentType, originalSize, compressedSize, compressionRatio, blurhash);
+    return processingPool.process(() -> compressBytes(imageBytes, fallbackContentType));
+  }
 
-    } catch (Exception e) {
-      log.warn("Error compressing image: {}", getRootCauseMessage(e));
-      return new CompressedImageResult(imageBytes, originalContentType, imageBytes.length, imageBytes.length, 1.0, null);
+  /**
+   * Compress and convert an image stored in a file.
+   * The image is decoded from a file-backed ImageInputStream, so the original bytes are never held on heap.
+   * When the image is kept as-is (compression disabled, unreadable or failed), compressedBytes is null
+   * and the caller uploads the file itself.
+   */
+  public CompressedImageResult compressAndConvertImage(Path imageFile, long originalSize, String fallbackContentType) {
+    if (!compressionEnabled || originalSize == 0) {
+      return new CompressedImageResult(null, fallbackContentType, originalSize, originalSize, 1.0, null);
     }
+
+    return processingPool.process(() -> compressFile(imageFile, originalSize, fallbackContentType));
   }
 
   /**
@@ -195,13 +182,82 @@ public class ImageService {
       return imageBytes;
     }
 
+    return processingPool.process(() -> recompress(imageBytes, quality));
+  }
+
+  /**
+   * Get file extension for content type.
+   */
+  public String getFileExtensionForContentType(String contentType) {
+    return switch (contentType.toLowerCase()) {
+      case CONTENT_TYPE_WEBP -> ".webp";
+      case CONTENT_TYPE_JPEG -> ".jpeg";
+      case CONTENT_TYPE_PNG -> ".png";
+      case "image/gif" -> ".gif";
+      default -> ".jpg";
+    };
+  }
+
+  private CompressedImageResult compressBytes(byte[] imageBytes, String fallbackContentType) {
+    // Auto-detect actual format from magic bytes
+    var detectedFormat = detectFormat(imageBytes);
+    var originalContentType = "application/octet-stream".equals(detectedFormat)
+        ? fallbackContentType
+        : detectedFormat;
+
+    try {
+      var originalSize = imageBytes.length;
+      BufferedImage bufferedImage;
+      try (var imageInput = createImageInputStream(new ByteArrayInputStream(imageBytes))) {
+        bufferedImage = decode(imageInput);
+      }
+
+      if (bufferedImage == null) {
+        return new CompressedImageResult(imageBytes, originalContentType, originalSize, originalSize, 1.0, null);
+      }
+
+      return compress(bufferedImage, originalSize);
+
+    } catch (Exception e) {
+      log.warn("Error compressing image: {}", getRootCauseMessage(e));
+      return new CompressedImageResult(imageBytes, originalContentType, imageBytes.length, imageBytes.length, 1.0, null);
+    }
+  }
+
+  private CompressedImageResult compressFile(Path imageFile, long originalSize, String fallbackContentType) {
+    var originalContentType = fallbackContentType;
+    try (var imageInput = createImageInputStream(imageFile.toFile())) {
+      var detectedFormat = detectFormat(readHeader(imageFile));
+      if (!"application/octet-stream".equals(detectedFormat)) {
+        originalContentType = detectedFormat;
+      }
+
+      var bufferedImage = decode(imageInput);
+      if (bufferedImage == null) {
+        return new CompressedImageResult(null, originalContentType, originalSize, originalSize, 1.0, null);
+      }
+
+      return compress(bufferedImage, originalSize);
+
+    } catch (Exception e) {
+      log.warn("Error compressing image file {}: {}", imageFile, getRootCauseMessage(e));
+      return new CompressedImageResult(null, originalContentType, originalSize, originalSize, 1.0, null);
+    }
+  }
+
+  private byte[] recompress(byte[] imageBytes, float quality) {
     try {
+      var decodeStart = nanoTime();
       var bufferedImage = read(new ByteArrayInputStream(imageBytes));
+      processingPool.record(DECODE, decodeStart);
       if (bufferedImage == null) {
         return imageBytes;
       }
 
-      return convertToOptimizedJpeg(bufferedImage, quality);
+      var encodeStart = nanoTime();
+      var recompressed = convertToOptimizedJpeg(bufferedImage, quality);
+      processingPool.record(ENCODE, encodeStart);
+      return recompressed;
     } catch (Exception e) {
       log.warn("Error recompressing image: {}", getRootCauseMessage(e));
       return imageBytes;
@@ -209,36 +265,152 @@ public class ImageService {
   }
 
   /**
-   * Get file extension for content type.
+   * Decode an image, already scaled to its output size when resizing applies.
+   * Dimensions are read from the header first and the image is decoded in one pass with source
+   * subsampling, so the full-resolution raster is never allocated: wide images to at most 4x the
+   * target width (at least 2x, so the final high-quality downscale still averages neighbouring
+   * pixels), and images above max-decode-pixels - e.g. very tall strips within max-width - until
+   * the decoded raster fits. The whole decoded image is then downscaled at once.
    */
-  public String getFileExtensionForContentType(String contentType) {
-    return switch (contentType.toLowerCase()) {
-      case CONTENT_TYPE_WEBP -> ".webp";
-      case CONTENT_TYPE_JPEG -> ".jpeg";
-      case CONTENT_TYPE_PNG -> ".png";
-      case "image/gif" -> ".gif";
-      default -> ".jpg";
-    };
+  private BufferedImage decode(ImageInputStream imageInput) throws IOException {
+    if (imageInput == null) {
+      return null;
+    }
+    var readers = getImageReaders(imageInput);
+    if (!readers.hasNext()) {
+      return null;
+    }
+
+    var reader = readers.next();
+    try {
+      reader.setInput(imageInput, true, true);
+      var width = reader.getWidth(0);
+      var height = reader.getHeight(0);
+      var param = reader.getDefaultReadParam();
+      if (removeMetadata) {
+        // Decode straight into RGB when the reader supports it, saving the later conversion copy
+        rgbImageType(reader).ifPresent(param::setDestinationType);
+      }
+
+      var subsampling = resizeEnabled ? subsampling(width, height) : 1;
+      if (subsampling > 1) {
+        param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+      }
+
+      var decodeStart = nanoTime();
+      var image = reader.read(0, param);
+      processingPool.record(DECODE, decodeStart);
+      if (!resizeEnabled || image.getWidth() <= maxWidth) {
+        return image;
+      }
+
+      var resizeStart = nanoTime();
+      var targetHeight = max(1, (int) ((long) image.getHeight() * maxWidth / image.getWidth()));
+      var resized = resizeImage(image, maxWidth, targetHeight);
+      processingPool.record(RESIZE, resizeStart);
+      return resized;
+    } finally {
+      reader.dispose();
+    }
+  }
+
+  /**
+   * Source subsampling factor: by width for images wider than max-width, and by pixel count for
+   * images whose decoded raster would exceed max-decode-pixels, whichever is larger.
+   */
+  private int subsampling(int width, int height) {
+    var byWidth = width > maxWidth ? max(1, width / (maxWidth * 2)) : 1;
+    var byPixels = (int) ceil(sqrt((double) width * height / maxDecodePixels));
+    return max(byWidth, byPixels);
   }
 
-  private BufferedImage resizeImage(BufferedImage original, int targetWidth) {
-    var ratio = (double) targetWidth / original.getWidth();
-    var targetHeight = (int) (original.getHeight() * ratio);
+  private Optional<ImageTypeSpecifier> rgbImageType(ImageReader reader) throws IOException {
+    var types = reader.getImageTypes(0);
+    while (types.hasNext()) {
+      var type = types.next();
+      if (type.getBufferedImageType() == TYPE_INT_RGB) {
+        return Optional.of(type);
+      }
+    }
+    return Optional.empty();
+  }
 
+  private CompressedImageResult compress(BufferedImage bufferedImage, long originalSize) throws IOException {
+    // Generate blurhash from the decoded image, already resized
+    var hashStart = nanoTime();
+    var blurhash = blurHashService.encode(bufferedImage);
+    processingPool.record(HASH, hashStart);
+
+    // Detect grayscale for optimal quality
+    var encodeStart = nanoTime();
+    var isGrayscale = grayscaleDetection && isGrayscale(bufferedImage);
+    var quality = isGrayscale ? grayscaleQuality : getQualityForFormat();
+
+    // Compress to target format
+    var compressedBytes = EMPTY_BYTE_ARRAY;
+    var contentType = EMPTY;
+
+    if (FORMAT_WEBP.equalsIgnoreCase(outputFormat)) {
+      compressedBytes = tryConvertToWebP(bufferedImage, quality, isGrayscale);
+      if (compressedBytes.length > 0) {
+        contentType = CONTENT_TYPE_WEBP;
+      } else {
+        compressedBytes = convertToOptimizedJpeg(bufferedImage, jpegQuality);
+        contentType = CONTENT_TYPE_JPEG;
+      }
+    } else {
+      compressedBytes = convertToOptimizedJpeg(bufferedImage, quality);
+      contentType = CONTENT_TYPE_JPEG;
+    }
+
+    processingPool.record(ENCODE, encodeStart);
+
+    var compressedSize = compressedBytes.length;
+    var compressionRatio = (double) compressedSize / originalSize;
+
+    return new CompressedImageResult(compressedBytes, contentType, originalSize, compressedSize, compressionRatio, blurhash);
+  }
+
+  private byte[] readHeader(Path imageFile) throws IOException {
+    try (var input = newInputStream(imageFile)) {
+      return input.readNBytes(12);
+    }
+  }
+
+  /**
+   * High-quality downscale: halve with bilinear filtering while more than 2x too large,
+   * then scale to the exact size, so every step averages all source pixels it covers.
+   */
+  private BufferedImage resizeImage(BufferedImage original, int targetWidth, int targetHeight) {
     var imageType = original.getType();
     if (imageType == 0) {
       imageType = TYPE_INT_RGB;
     }
 
-    var resized = new BufferedImage(targetWidth, targetHeight, imageType);
-    var g = resized.createGraphics();
+    var current = original;
+    do {
+      var width = max(targetWidth, current.getWidth() / 2);
+      var height = max(targetHeight, current.getHeight() / 2);
+      if (width == targetWidth || height == targetHeight) {
+        width = targetWidth;
+        height = targetHeight;
+      }
+      current = scale(current, width, height, imageType);
+    } while (current.getWidth() != targetWidth || current.getHeight() != targetHeight);
+
+    return current;
+  }
+
+  private BufferedImage scale(BufferedImage source, int width, int height, int imageType) {
+    var scaled = new BufferedImage(width, height, imageType);
+    var g = scaled.createGraphics();
     g.setRenderingHint(KEY_INTERPOLATION, VALUE_INTERPOLATION_BILINEAR);
     g.setRenderingHint(KEY_RENDERING, VALUE_RENDER_QUALITY);
     g.setRenderingHint(KEY_ANTIALIASING, VALUE_ANTIALIAS_ON);
-    g.drawImage(original, 0, 0, targetWidth, targetHeight, null);
+    g.drawImage(source, 0, 0, width, height, null);
     g.dispose();
 
-    return resized;
+    return scaled;
   }
 
   private byte[] tryConvertToWebP(BufferedImage image, float quality, boolean isGrayscale) {
@@ -11,6 +11,7 @@ import java.io.InputStream;
 import java.nio.file.Path;
 
 import static java.lang.String.format;
+import static java.nio.file.Files.copy;
 import static java.nio.file.Files.createDirectories;
 import static java.nio.file.Files.deleteIfExists;
 import static java.nio.file.Files.exists;
@@ -19,6 +20,7 @@ import static java.nio.file.Files.newDirectoryStream;
 import static java.nio.file.Files.readAllBytes;
 import static java.nio.file.Files.write;
 import static java.nio.file.Path.of;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
 import static org.apache.commons.io.IOUtils.EMPTY_BYTE_ARRAY;
 import static org.apache.commons.lang3.StringUtils.isBlank;
 
@@ -65,11 +67,13 @@ public class LocalImageStorageService implements ImageStorageService {
   public String uploadImage(String comicId, String chapterId, String imageName,
                             InputStream inputStream, String contentType, long size) {
     try {
-      var imageData = inputStream.readAllBytes();
-      return uploadImage(comicId, chapterId, imageName, imageData, contentType);
+      var filePath = buildFilePath(comicId, chapterId, imageName);
+      createDirectories(filePath.getParent());
+      copy(inputStream, filePath, REPLACE_EXISTING);
+      return getImagePath(comicId, chapterId, imageName);
     } catch (IOException e) {
-      log.error("Error reading input stream for upload: {}", e.getMessage(), e);
-      throw new IllegalStateException("Failed to read image data", e);
+      log.error("Error streaming image to local storage: {}", e.getMessage(), e);
+      throw new IllegalStateException("Failed to upload image to local storage", e);
     }
   }
 
@@ -0,0 +1,64 @@
+package com.truyengg.util;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Codec for the compact failed-item bitset stored in crawl_checkpoints.failed_items.
+ * Bit n is set when item n failed; the byte layout matches PostgreSQL set_bit/get_bit,
+ * so the database can apply deltas in place (see bitset_apply in the V10 migration).
+ */
+@UtilityClass
+public class CheckpointCodec {
+
+  /**
+   * Encode indices into a bitset. Returns null when there is no valid index.
+   */
+  public static byte[] encodeIndices(Collection<Integer> indices) {
+    if (indices == null || indices.isEmpty()) {
+      return null;
+    }
+    var bits = new BitSet();
+    for (var index : indices) {
+      if (index != null && index >= 0) {
+        bits.set(index);
+      }
+    }
+    return bits.isEmpty() ? null : bits.toByteArray();
+  }
+
+  /**
+   * Decode a bitset into sorted indices.
+   */
+  public static List<Integer> decodeIndices(byte[] encoded) {
+    if (encoded == null || encoded.length == 0) {
+      return List.of();
+    }
+    return BitSet.valueOf(encoded).stream().boxed().toList();
+  }
+
+  public static boolean containsIndex(byte[] encoded, int index) {
+    return encoded != null && index >= 0 && index / 8 < encoded.length
+        && (encoded[index / 8] & (1 << (index % 8))) != 0;
+  }
+
+  public static byte[] addIndex(byte[] encoded, int index) {
+    var bits = encoded != null ? BitSet.valueOf(encoded) : new BitSet();
+    bits.set(index);
+    return bits.toByteArray();
+  }
+
+  public static boolean isEmpty(byte[] encoded) {
+    if (encoded != null) {
+      for (var b : encoded) {
+        if (b != 0) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+}
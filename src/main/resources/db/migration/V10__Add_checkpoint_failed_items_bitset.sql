@@ -0,0 +1,50 @@
+-- Failed item indices of a checkpoint as a bitset instead of INT[]:
+-- bit n (PostgreSQL set_bit numbering, same as java.util.BitSet.valueOf) is set when item n failed.
+-- A 10k-item job needs at most 1250 bytes, and failures are recorded in place without reading the row.
+
+-- Set or clear the given bits, growing the bitset when a bit beyond its end is set
+CREATE OR REPLACE FUNCTION bitset_apply(bits BYTEA, indices INT[], val INT)
+    RETURNS BYTEA AS
+$$
+DECLARE
+    result BYTEA := COALESCE(bits, ''::BYTEA);
+    idx    INT;
+BEGIN
+    FOREACH idx IN ARRAY COALESCE(indices, '{}')
+        LOOP
+            CONTINUE WHEN idx < 0;
+            IF length(result) * 8 <= idx THEN
+                CONTINUE WHEN val = 0;
+                result := result || decode(repeat('00', idx / 8 + 1 - length(result)), 'hex');
+            END IF;
+            result := set_bit(result, idx, val);
+        END LOOP;
+    RETURN result;
+END;
+$$ LANGUAGE plpgsql IMMUTABLE;
+
+-- Drop trailing zero bytes left by cleared bits; NULL when no bit is set
+CREATE OR REPLACE FUNCTION bitset_trim(bits BYTEA)
+    RETURNS BYTEA AS
+$$
+DECLARE
+    len INT := COALESCE(length(bits), 0);
+BEGIN
+    WHILE len > 0 AND get_byte(bits, len - 1) = 0
+        LOOP
+            len := len - 1;
+        END LOOP;
+    RETURN CASE WHEN len = 0 THEN NULL ELSE substring(bits FROM 1 FOR len) END;
+END;
+$$ LANGUAGE plpgsql IMMUTABLE;
+
+ALTER TABLE crawl_checkpoints
+    ADD COLUMN IF NOT EXISTS failed_items BYTEA;
+
+UPDATE crawl_checkpoints
+SET failed_items = bitset_trim(bitset_apply(NULL, failed_item_indices, 1))
+WHERE failed_item_indices IS NOT NULL
+  AND cardinality(failed_item_indices) > 0;
+
+ALTER TABLE crawl_checkpoints
+    DROP COLUMN IF EXISTS failed_item_indices;
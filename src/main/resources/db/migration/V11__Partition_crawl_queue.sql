@@ -0,0 +1,109 @@
+-- Range-partition crawl_queue by month so old queue items are removed by detaching a partition
+-- instead of row-by-row cascading deletes.
+-- The partition key is the owning job's created_at (job_created_at): all items of a job share one
+-- partition, so per-job deduplication still works with the partition key in the unique index.
+-- crawl_jobs itself stays unpartitioned: crawl_settings, crawl_progress, crawl_checkpoints,
+-- crawl_queue and crawl_job_closure reference crawl_jobs(id), and a partitioned table can only
+-- have unique keys that contain the partition key.
+
+CREATE SCHEMA IF NOT EXISTS crawl_archive;
+
+ALTER TABLE crawl_queue
+    RENAME TO crawl_queue_unpartitioned;
+
+CREATE TABLE crawl_queue
+(
+    id             UUID         NOT NULL DEFAULT gen_random_uuid(),
+    crawl_job_id   UUID         NOT NULL REFERENCES crawl_jobs (id) ON DELETE CASCADE,
+    job_created_at TIMESTAMPTZ  NOT NULL,
+    crawl_type     crawl_type   NOT NULL,
+    target_url     TEXT         NOT NULL,
+    target_name    VARCHAR(500),
+    item_index     INT          NOT NULL DEFAULT 0,
+    priority       INT          NOT NULL DEFAULT 0,
+    status         queue_status NOT NULL DEFAULT 'PENDING',
+    retry_count    INT          NOT NULL DEFAULT 0,
+    max_retries    INT          NOT NULL DEFAULT 3,
+    next_retry_at  TIMESTAMPTZ,
+    error_message  TEXT,
+    started_at     TIMESTAMPTZ,
+    completed_at   TIMESTAMPTZ,
+    deleted_at     TIMESTAMPTZ,
+    created_at     TIMESTAMPTZ  NOT NULL DEFAULT now(),
+    updated_at     TIMESTAMPTZ  NOT NULL DEFAULT now(),
+    PRIMARY KEY (id, job_created_at)
+) PARTITION BY RANGE (job_created_at);
+
+-- Catches rows outside the pre-created range; stays empty while the partition manager runs
+CREATE TABLE crawl_queue_default PARTITION OF crawl_queue DEFAULT;
+
+-- Create the monthly partition containing the given time, returns its name
+CREATE OR REPLACE FUNCTION create_crawl_queue_partition(month TIMESTAMPTZ)
+    RETURNS TEXT AS
+$$
+DECLARE
+    start_at TIMESTAMPTZ := date_trunc('month', month);
+    name     TEXT        := 'crawl_queue_p' || to_char(start_at, 'YYYY_MM');
+BEGIN
+    EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF crawl_queue FOR VALUES FROM (%L) TO (%L)',
+                   name, start_at, start_at + INTERVAL '1 month');
+    RETURN name;
+END;
+$$ LANGUAGE plpgsql;
+
+SELECT create_crawl_queue_partition(month)
+FROM generate_series(
+             date_trunc('month', LEAST(COALESCE((SELECT MIN(created_at) FROM crawl_jobs), now()), now())),
+             date_trunc('month', now()) + INTERVAL '2 months',
+             INTERVAL '1 month') AS month;
+
+INSERT INTO crawl_queue (id, crawl_job_id, job_created_at, crawl_type, target_url, target_name, item_index,
+                         priority, status, retry_count, max_retries, next_retry_at, error_message,
+                         started_at, completed_at, deleted_at, created_at, updated_at)
+SELECT q.id,
+       q.crawl_job_id,
+       j.created_at,
+       q.crawl_type,
+       q.target_url,
+       q.target_name,
+       q.item_index,
+       q.priority,
+       q.status,
+       q.retry_count,
+       q.max_retries,
+       q.next_retry_at,
+       q.error_message,
+       q.started_at,
+       q.completed_at,
+       q.deleted_at,
+       q.created_at,
+       q.updated_at
+FROM crawl_queue_unpartitioned q
+         INNER JOIN crawl_jobs j ON j.id = q.crawl_job_id;
+
+DROP TABLE crawl_queue_unpartitioned;
+
+CREATE INDEX IF NOT EXISTS idx_crawl_queue_job ON crawl_queue (crawl_job_id) WHERE deleted_at IS NULL;
+CREATE INDEX IF NOT EXISTS idx_crawl_queue_status ON crawl_queue (status) WHERE deleted_at IS NULL;
+CREATE INDEX IF NOT EXISTS idx_crawl_queue_pending ON crawl_queue (status, priority DESC)
+    WHERE status = 'PENDING' AND deleted_at IS NULL;
+CREATE INDEX IF NOT EXISTS idx_crawl_queue_delayed ON crawl_queue (next_retry_at)
+    WHERE status = 'DELAYED' AND deleted_at IS NULL;
+CREATE INDEX IF NOT EXISTS idx_crawl_queue_priority
+    ON crawl_queue (priority DESC, created_at ASC)
+    WHERE status = 'PENDING' AND deleted_at IS NULL;
+CREATE UNIQUE INDEX IF NOT EXISTS uq_crawl_queue_job_url ON crawl_queue (crawl_job_id, target_url, job_created_at);
+
+CREATE TRIGGER trigger_crawl_queue_updated_at
+    BEFORE UPDATE
+    ON crawl_queue
+    FOR EACH ROW
+EXECUTE FUNCTION update_crawl_updated_at();
+
+CREATE TRIGGER trigger_crawl_queue_notify
+    AFTER INSERT
+    ON crawl_queue
+    FOR EACH STATEMENT
+EXECUTE FUNCTION notify_crawl_queue();
+
+ANALYZE crawl_queue;
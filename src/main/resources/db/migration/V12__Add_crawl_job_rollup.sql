@@ -0,0 +1,208 @@
+-- Aggregated stats of each job tree (all descendants of a root job, excluding soft-deleted jobs).
+-- Maintained by delta in the same transaction as the job change, so aggregatedStats is a
+-- primary-key lookup instead of loading every descendant.
+-- No foreign key: the rollup row is removed with its root, and deltas of descendants removed in
+-- the same cascade are skipped.
+
+CREATE TABLE IF NOT EXISTS crawl_job_rollup
+(
+    root_job_id      UUID PRIMARY KEY,
+    total_jobs       INT              NOT NULL DEFAULT 0,
+    pending_jobs     INT              NOT NULL DEFAULT 0,
+    running_jobs     INT              NOT NULL DEFAULT 0,
+    paused_jobs      INT              NOT NULL DEFAULT 0,
+    completed_jobs   INT              NOT NULL DEFAULT 0,
+    failed_jobs      INT              NOT NULL DEFAULT 0,
+    cancelled_jobs   INT              NOT NULL DEFAULT 0,
+    category_jobs    INT              NOT NULL DEFAULT 0,
+    comic_jobs       INT              NOT NULL DEFAULT 0,
+    chapter_jobs     INT              NOT NULL DEFAULT 0,
+    image_jobs       INT              NOT NULL DEFAULT 0,
+    failed_items     BIGINT           NOT NULL DEFAULT 0,
+    bytes_downloaded BIGINT           NOT NULL DEFAULT 0,
+    -- Sum of per-job completion percentages, avg = progress_sum / total_jobs
+    progress_sum     DOUBLE PRECISION NOT NULL DEFAULT 0,
+    updated_at       TIMESTAMPTZ      NOT NULL DEFAULT now()
+);
+
+-- Add (sign = 1) or remove (sign = -1) one job's contribution to its tree
+CREATE OR REPLACE FUNCTION crawl_job_rollup_delta(root UUID, sign INT, job crawl_jobs)
+    RETURNS VOID AS
+$$
+DECLARE
+    bytes BIGINT;
+BEGIN
+    IF root IS NULL OR job.deleted_at IS NOT NULL OR NOT EXISTS (SELECT 1 FROM crawl_jobs WHERE id = root) THEN
+        RETURN;
+    END IF;
+
+    SELECT COALESCE(MAX(bytes_downloaded), 0) INTO bytes FROM crawl_progress WHERE id = job.id;
+
+    INSERT INTO crawl_job_rollup AS r (root_job_id, total_jobs, pending_jobs, running_jobs, paused_jobs,
+                                       completed_jobs, failed_jobs, cancelled_jobs, category_jobs, comic_jobs,
+                                       chapter_jobs, image_jobs, failed_items, bytes_downloaded, progress_sum)
+    VALUES (root,
+            sign,
+            sign * (job.status = 'PENDING')::INT,
+            sign * (job.status = 'RUNNING')::INT,
+            sign * (job.status = 'PAUSED')::INT,
+            sign * (job.status = 'COMPLETED')::INT,
+            sign * (job.status = 'FAILED')::INT,
+            sign * (job.status = 'CANCELLED')::INT,
+            sign * (job.crawl_type = 'CATEGORY')::INT,
+            sign * (job.crawl_type = 'COMIC')::INT,
+            sign * (job.crawl_type = 'CHAPTER')::INT,
+            sign * (job.crawl_type = 'IMAGE')::INT,
+            sign * job.failed_items,
+            sign * bytes,
+            sign * CASE WHEN job.total_items > 0 THEN job.completed_items * 100.0 / job.total_items ELSE 0 END)
+    ON CONFLICT (root_job_id) DO UPDATE
+        SET total_jobs       = r.total_jobs + EXCLUDED.total_jobs,
+            pending_jobs     = r.pending_jobs + EXCLUDED.pending_jobs,
+            running_jobs     = r.running_jobs + EXCLUDED.running_jobs,
+            paused_jobs      = r.paused_jobs + EXCLUDED.paused_jobs,
+            completed_jobs   = r.completed_jobs + EXCLUDED.completed_jobs,
+            failed_jobs      = r.failed_jobs + EXCLUDED.failed_jobs,
+            cancelled_jobs   = r.cancelled_jobs + EXCLUDED.cancelled_jobs,
+            category_jobs    = r.category_jobs + EXCLUDED.category_jobs,
+            comic_jobs       = r.comic_jobs + EXCLUDED.comic_jobs,
+            chapter_jobs     = r.chapter_jobs + EXCLUDED.chapter_jobs,
+            image_jobs       = r.image_jobs + EXCLUDED.image_jobs,
+            failed_items     = r.failed_items + EXCLUDED.failed_items,
+            bytes_downloaded = r.bytes_downloaded + EXCLUDED.bytes_downloaded,
+            progress_sum     = r.progress_sum + EXCLUDED.progress_sum,
+            updated_at       = now();
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION crawl_jobs_rollup_trigger()
+    RETURNS TRIGGER AS
+$$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        PERFORM crawl_job_rollup_delta(OLD.root_job_id, -1, OLD);
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        PERFORM crawl_job_rollup_delta(NEW.root_job_id, 1, NEW);
+    END IF;
+    IF TG_OP = 'DELETE' AND OLD.root_job_id IS NULL THEN
+        DELETE FROM crawl_job_rollup WHERE root_job_id = OLD.id;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trigger_crawl_jobs_rollup_insert
+    AFTER INSERT OR DELETE
+    ON crawl_jobs
+    FOR EACH ROW
+EXECUTE FUNCTION crawl_jobs_rollup_trigger();
+
+-- Only fires when a rolled-up column changed, not on every full-row save
+CREATE TRIGGER trigger_crawl_jobs_rollup_update
+    AFTER UPDATE
+    ON crawl_jobs
+    FOR EACH ROW
+    WHEN (OLD.status IS DISTINCT FROM NEW.status
+        OR OLD.crawl_type IS DISTINCT FROM NEW.crawl_type
+        OR OLD.root_job_id IS DISTINCT FROM NEW.root_job_id
+        OR OLD.deleted_at IS DISTINCT FROM NEW.deleted_at
+        OR OLD.failed_items IS DISTINCT FROM NEW.failed_items
+        OR OLD.completed_items IS DISTINCT FROM NEW.completed_items
+        OR OLD.total_items IS DISTINCT FROM NEW.total_items)
+EXECUTE FUNCTION crawl_jobs_rollup_trigger();
+
+CREATE OR REPLACE FUNCTION crawl_progress_rollup_trigger()
+    RETURNS TRIGGER AS
+$$
+BEGIN
+    UPDATE crawl_job_rollup r
+    SET bytes_downloaded = r.bytes_downloaded + (NEW.bytes_downloaded - OLD.bytes_downloaded),
+        updated_at       = now()
+    FROM crawl_jobs j
+    WHERE j.id = NEW.id
+      AND j.deleted_at IS NULL
+      AND r.root_job_id = j.root_job_id;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trigger_crawl_progress_rollup
+    AFTER UPDATE
+    ON crawl_progress
+    FOR EACH ROW
+    WHEN (OLD.bytes_downloaded IS DISTINCT FROM NEW.bytes_downloaded)
+EXECUTE FUNCTION crawl_progress_rollup_trigger();
+
+-- Recompute every rollup from crawl_jobs; used for the backfill and by the periodic reconciliation
+CREATE OR REPLACE FUNCTION reconcile_crawl_job_rollup()
+    RETURNS INT AS
+$$
+DECLARE
+    changed INT;
+BEGIN
+    WITH actual AS (SELECT j.root_job_id,
+                           COUNT(*)                                                       AS total_jobs,
+                           COUNT(*) FILTER (WHERE j.status = 'PENDING')                   AS pending_jobs,
+                           COUNT(*) FILTER (WHERE j.status = 'RUNNING')                   AS running_jobs,
+                           COUNT(*) FILTER (WHERE j.status = 'PAUSED')                    AS paused_jobs,
+                           COUNT(*) FILTER (WHERE j.status = 'COMPLETED')                 AS completed_jobs,
+                           COUNT(*) FILTER (WHERE j.status = 'FAILED')                    AS failed_jobs,
+                           COUNT(*) FILTER (WHERE j.status = 'CANCELLED')                 AS cancelled_jobs,
+                           COUNT(*) FILTER (WHERE j.crawl_type = 'CATEGORY')              AS category_jobs,
+                           COUNT(*) FILTER (WHERE j.crawl_type = 'COMIC')                 AS comic_jobs,
+                           COUNT(*) FILTER (WHERE j.crawl_type = 'CHAPTER')               AS chapter_jobs,
+                           COUNT(*) FILTER (WHERE j.crawl_type = 'IMAGE')                 AS image_jobs,
+                           COALESCE(SUM(j.failed_items), 0)                               AS failed_items,
+                           COALESCE(SUM(p.bytes_downloaded), 0)                           AS bytes_downloaded,
+                           COALESCE(SUM(CASE
+                                            WHEN j.total_items > 0 THEN j.completed_items * 100.0 / j.total_items
+                                            ELSE 0 END), 0)                               AS progress_sum
+                    FROM crawl_jobs j
+                             INNER JOIN crawl_jobs root ON root.id = j.root_job_id
+                             LEFT JOIN crawl_progress p ON p.id = j.id
+                    WHERE j.deleted_at IS NULL
+                    GROUP BY j.root_job_id),
+         upserted AS (
+             INSERT INTO crawl_job_rollup AS r (root_job_id, total_jobs, pending_jobs, running_jobs, paused_jobs,
+                                                completed_jobs, failed_jobs, cancelled_jobs, category_jobs,
+                                                comic_jobs, chapter_jobs, image_jobs, failed_items,
+                                                bytes_downloaded, progress_sum)
+                 SELECT * FROM actual
+                 ON CONFLICT (root_job_id) DO UPDATE
+                     SET total_jobs = EXCLUDED.total_jobs,
+                         pending_jobs = EXCLUDED.pending_jobs,
+                         running_jobs = EXCLUDED.running_jobs,
+                         paused_jobs = EXCLUDED.paused_jobs,
+                         completed_jobs = EXCLUDED.completed_jobs,
+                         failed_jobs = EXCLUDED.failed_jobs,
+                         cancelled_jobs = EXCLUDED.cancelled_jobs,
+                         category_jobs = EXCLUDED.category_jobs,
+                         comic_jobs = EXCLUDED.comic_jobs,
+                         chapter_jobs = EXCLUDED.chapter_jobs,
+                         image_jobs = EXCLUDED.image_jobs,
+                         failed_items = EXCLUDED.failed_items,
+                         bytes_downloaded = EXCLUDED.bytes_downloaded,
+                         progress_sum = EXCLUDED.progress_sum,
+                         updated_at = now()
+                     WHERE (r.total_jobs, r.pending_jobs, r.running_jobs, r.paused_jobs, r.completed_jobs,
+                            r.failed_jobs, r.cancelled_jobs, r.category_jobs, r.comic_jobs, r.chapter_jobs,
+                            r.image_jobs, r.failed_items, r.bytes_downloaded)
+                               IS DISTINCT FROM
+                           (EXCLUDED.total_jobs, EXCLUDED.pending_jobs, EXCLUDED.running_jobs, EXCLUDED.paused_jobs,
+                            EXCLUDED.completed_jobs, EXCLUDED.failed_jobs, EXCLUDED.cancelled_jobs,
+                            EXCLUDED.category_jobs, EXCLUDED.comic_jobs, EXCLUDED.chapter_jobs, EXCLUDED.image_jobs,
+                            EXCLUDED.failed_items, EXCLUDED.bytes_downloaded)
+                        OR abs(r.progress_sum - EXCLUDED.progress_sum) > 0.001
+                 RETURNING 1),
+         removed AS (
+             DELETE FROM crawl_job_rollup r
+                 WHERE NOT EXISTS (SELECT 1 FROM actual a WHERE a.root_job_id = r.root_job_id)
+                 RETURNING 1)
+    SELECT (SELECT COUNT(*) FROM upserted) + (SELECT COUNT(*) FROM removed)
+    INTO changed;
+    RETURN changed;
+END;
+$$ LANGUAGE plpgsql;
+
+SELECT reconcile_crawl_job_rollup();
@@ -0,0 +1,27 @@
+-- Composite (sort key, id) indexes for keyset pagination of crawl jobs.
+-- Each page is a range scan starting at the cursor position instead of an OFFSET walk;
+-- the id column makes the order total so equal created_at values are never skipped or repeated.
+
+-- Default listing: root jobs newest first (replaces the created_at-only index)
+DROP INDEX IF EXISTS idx_crawl_jobs_root_created;
+CREATE INDEX IF NOT EXISTS idx_crawl_jobs_root_created_id
+    ON crawl_jobs (created_at DESC, id DESC)
+    WHERE parent_job_id IS NULL AND deleted_at IS NULL;
+
+-- Children of a job
+CREATE INDEX IF NOT EXISTS idx_crawl_jobs_parent_created_id
+    ON crawl_jobs (parent_job_id, created_at DESC, id DESC)
+    WHERE deleted_at IS NULL;
+
+-- Status filter with the default sort (replaces the status + created_at index)
+DROP INDEX IF EXISTS idx_crawl_jobs_status_created;
+CREATE INDEX IF NOT EXISTS idx_crawl_jobs_status_created_id
+    ON crawl_jobs (status, created_at DESC, id DESC)
+    WHERE deleted_at IS NULL;
+
+-- Any other filter combination with the default sort
+CREATE INDEX IF NOT EXISTS idx_crawl_jobs_created_id
+    ON crawl_jobs (created_at DESC, id DESC)
+    WHERE deleted_at IS NULL;
+
+ANALYZE crawl_jobs;
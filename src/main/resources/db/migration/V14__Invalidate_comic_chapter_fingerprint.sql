@@ -0,0 +1,30 @@
+-- Drop a comic's chapter fingerprint when a chapter leaves its stored source set or changes source:
+-- hard deletes, soft deletes and restores, source and comic changes. The next UPDATE crawl then
+-- diffs against the chapters table and stores a fresh fingerprint.
+-- Inserts keep it: a fingerprint of a subset of the stored sources can only match a chapter list
+-- whose chapters are all stored.
+
+CREATE OR REPLACE FUNCTION chapters_invalidate_fingerprint_trigger()
+    RETURNS TRIGGER AS
+$$
+BEGIN
+    DELETE FROM comic_chapter_fingerprints WHERE comic_id = OLD.comic_id;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trigger_chapters_fingerprint_delete
+    AFTER DELETE
+    ON chapters
+    FOR EACH ROW
+EXECUTE FUNCTION chapters_invalidate_fingerprint_trigger();
+
+-- Only fires when the stored source set may have changed, not on every full-row save
+CREATE TRIGGER trigger_chapters_fingerprint_update
+    AFTER UPDATE
+    ON chapters
+    FOR EACH ROW
+    WHEN (OLD.source IS DISTINCT FROM NEW.source
+        OR OLD.comic_id IS DISTINCT FROM NEW.comic_id
+        OR OLD.deleted_at IS DISTINCT FROM NEW.deleted_at)
+EXECUTE FUNCTION chapters_invalidate_fingerprint_trigger();
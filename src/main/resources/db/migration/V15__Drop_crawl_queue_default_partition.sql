@@ -0,0 +1,14 @@
+-- DETACH PARTITION ... CONCURRENTLY is not allowed while crawl_queue has a default partition.
+-- Rows that landed in the default partition are moved into their monthly partitions first;
+-- CrawlPartitionManager keeps the coming months pre-created, so new jobs never need a default.
+
+ALTER TABLE crawl_queue DETACH PARTITION crawl_queue_default;
+
+SELECT create_crawl_queue_partition(month)
+FROM (SELECT DISTINCT date_trunc('month', job_created_at) AS month FROM crawl_queue_default) AS months;
+
+INSERT INTO crawl_queue
+SELECT *
+FROM crawl_queue_default;
+
+DROP TABLE crawl_queue_default;
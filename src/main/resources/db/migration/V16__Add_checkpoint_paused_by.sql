@@ -0,0 +1,4 @@
+-- Job whose pause cascaded to this one. Resuming a job resumes only the descendants it paused,
+-- so a child paused on its own before its parent stays paused when the parent resumes.
+
+ALTER TABLE crawl_checkpoints ADD COLUMN IF NOT EXISTS paused_by UUID;
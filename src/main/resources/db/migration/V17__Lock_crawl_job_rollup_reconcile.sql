@@ -0,0 +1,102 @@
+-- Reconcile one job tree at a time under the rollup row lock.
+-- The V12 reconcile recounted every tree from one snapshot and then overwrote the rollups, so a delta
+-- committed by a status change in between was lost. Locking the row first makes the recount wait for
+-- deltas in flight; each statement of the function takes a new snapshot, so the recount sees them,
+-- and deltas that start later queue behind the lock and apply on top of the corrected row.
+--
+-- The rollup row is a hot row: every job change in a tree updates the same row, so concurrent
+-- transactions of one tree serialize on its lock until they commit. Trees never contend with each
+-- other; keep transactions that change job status short.
+
+CREATE OR REPLACE FUNCTION reconcile_crawl_job_rollup(root_id UUID)
+    RETURNS INT AS
+$$
+DECLARE
+    created BOOLEAN := FALSE;
+    actual  RECORD;
+    changed INT;
+BEGIN
+    PERFORM 1 FROM crawl_job_rollup WHERE root_job_id = root_id FOR UPDATE;
+    IF NOT FOUND THEN
+        INSERT INTO crawl_job_rollup (root_job_id) VALUES (root_id) ON CONFLICT DO NOTHING;
+        PERFORM 1 FROM crawl_job_rollup WHERE root_job_id = root_id FOR UPDATE;
+        created := TRUE;
+    END IF;
+
+    SELECT COUNT(*)                                                       AS total_jobs,
+           COUNT(*) FILTER (WHERE j.status = 'PENDING')                   AS pending_jobs,
+           COUNT(*) FILTER (WHERE j.status = 'RUNNING')                   AS running_jobs,
+           COUNT(*) FILTER (WHERE j.status = 'PAUSED')                    AS paused_jobs,
+           COUNT(*) FILTER (WHERE j.status = 'COMPLETED')                 AS completed_jobs,
+           COUNT(*) FILTER (WHERE j.status = 'FAILED')                    AS failed_jobs,
+           COUNT(*) FILTER (WHERE j.status = 'CANCELLED')                 AS cancelled_jobs,
+           COUNT(*) FILTER (WHERE j.crawl_type = 'CATEGORY')              AS category_jobs,
+           COUNT(*) FILTER (WHERE j.crawl_type = 'COMIC')                 AS comic_jobs,
+           COUNT(*) FILTER (WHERE j.crawl_type = 'CHAPTER')               AS chapter_jobs,
+           COUNT(*) FILTER (WHERE j.crawl_type = 'IMAGE')                 AS image_jobs,
+           COALESCE(SUM(j.failed_items), 0)                               AS failed_items,
+           COALESCE(SUM(p.bytes_downloaded), 0)                           AS bytes_downloaded,
+           COALESCE(SUM(CASE
+                            WHEN j.total_items > 0 THEN j.completed_items * 100.0 / j.total_items
+                            ELSE 0 END), 0)                               AS progress_sum
+    INTO actual
+    FROM crawl_jobs j
+             LEFT JOIN crawl_progress p ON p.id = j.id
+    WHERE j.root_job_id = root_id
+      AND j.deleted_at IS NULL
+      AND EXISTS (SELECT 1 FROM crawl_jobs root WHERE root.id = root_id);
+
+    IF actual.total_jobs = 0 THEN
+        DELETE FROM crawl_job_rollup WHERE root_job_id = root_id;
+        RETURN CASE WHEN created THEN 0 ELSE 1 END;
+    END IF;
+
+    UPDATE crawl_job_rollup r
+    SET total_jobs       = actual.total_jobs,
+        pending_jobs     = actual.pending_jobs,
+        running_jobs     = actual.running_jobs,
+        paused_jobs      = actual.paused_jobs,
+        completed_jobs   = actual.completed_jobs,
+        failed_jobs      = actual.failed_jobs,
+        cancelled_jobs   = actual.cancelled_jobs,
+        category_jobs    = actual.category_jobs,
+        comic_jobs       = actual.comic_jobs,
+        chapter_jobs     = actual.chapter_jobs,
+        image_jobs       = actual.image_jobs,
+        failed_items     = actual.failed_items,
+        bytes_downloaded = actual.bytes_downloaded,
+        progress_sum     = actual.progress_sum,
+        updated_at       = now()
+    WHERE r.root_job_id = root_id
+      AND ((r.total_jobs, r.pending_jobs, r.running_jobs, r.paused_jobs, r.completed_jobs, r.failed_jobs,
+            r.cancelled_jobs, r.category_jobs, r.comic_jobs, r.chapter_jobs, r.image_jobs, r.failed_items,
+            r.bytes_downloaded)
+               IS DISTINCT FROM
+           (actual.total_jobs, actual.pending_jobs, actual.running_jobs, actual.paused_jobs, actual.completed_jobs,
+            actual.failed_jobs, actual.cancelled_jobs, actual.category_jobs, actual.comic_jobs,
+            actual.chapter_jobs, actual.image_jobs, actual.failed_items, actual.bytes_downloaded)
+        OR abs(r.progress_sum - actual.progress_sum) > 0.001);
+    GET DIAGNOSTICS changed = ROW_COUNT;
+    RETURN changed;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Every tree in one transaction: locks are held until the end, so CrawlRollupReconciler calls the
+-- per-tree function in a transaction per tree instead
+CREATE OR REPLACE FUNCTION reconcile_crawl_job_rollup()
+    RETURNS INT AS
+$$
+DECLARE
+    root_id UUID;
+    changed INT := 0;
+BEGIN
+    FOR root_id IN SELECT root_job_id FROM crawl_jobs WHERE root_job_id IS NOT NULL AND deleted_at IS NULL
+                   UNION
+                   SELECT root_job_id FROM crawl_job_rollup
+                   ORDER BY 1
+        LOOP
+            changed := changed + reconcile_crawl_job_rollup(root_id);
+        END LOOP;
+    RETURN changed;
+END;
+$$ LANGUAGE plpgsql;
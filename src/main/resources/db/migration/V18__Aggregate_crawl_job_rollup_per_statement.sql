@@ -0,0 +1,131 @@
+-- Apply crawl_jobs rollup deltas once per statement instead of once per row.
+-- The V12 row triggers upserted the tree's rollup row for every changed job, twice per update. A set-based
+-- subtree cancel, soft-delete or restore of 100,000 jobs then updated the same row 200,000 times in one
+-- transaction, and every upsert had to walk past the versions left by the ones before it.
+-- The statement triggers read the changed rows from transition tables, sum the deltas per tree and
+-- upsert each affected rollup row once. Single-row changes behave as before.
+
+DROP TRIGGER IF EXISTS trigger_crawl_jobs_rollup_insert ON crawl_jobs;
+DROP TRIGGER IF EXISTS trigger_crawl_jobs_rollup_update ON crawl_jobs;
+
+-- Add the contribution of the added jobs and remove that of the removed jobs, one upsert per tree
+CREATE OR REPLACE FUNCTION crawl_job_rollup_apply(added crawl_jobs[], removed crawl_jobs[])
+    RETURNS VOID AS
+$$
+WITH changes AS (SELECT 1 AS sign, a.* FROM unnest(added) a
+                 UNION ALL
+                 SELECT -1 AS sign, r.* FROM unnest(removed) r),
+     deltas AS (SELECT c.root_job_id,
+                       SUM(c.sign)                                         AS total_jobs,
+                       SUM(c.sign * (c.status = 'PENDING')::INT)           AS pending_jobs,
+                       SUM(c.sign * (c.status = 'RUNNING')::INT)           AS running_jobs,
+                       SUM(c.sign * (c.status = 'PAUSED')::INT)            AS paused_jobs,
+                       SUM(c.sign * (c.status = 'COMPLETED')::INT)         AS completed_jobs,
+                       SUM(c.sign * (c.status = 'FAILED')::INT)            AS failed_jobs,
+                       SUM(c.sign * (c.status = 'CANCELLED')::INT)         AS cancelled_jobs,
+                       SUM(c.sign * (c.crawl_type = 'CATEGORY')::INT)      AS category_jobs,
+                       SUM(c.sign * (c.crawl_type = 'COMIC')::INT)         AS comic_jobs,
+                       SUM(c.sign * (c.crawl_type = 'CHAPTER')::INT)       AS chapter_jobs,
+                       SUM(c.sign * (c.crawl_type = 'IMAGE')::INT)         AS image_jobs,
+                       SUM(c.sign * c.failed_items)                        AS failed_items,
+                       SUM(c.sign * COALESCE(p.bytes_downloaded, 0))       AS bytes_downloaded,
+                       SUM(c.sign * CASE
+                                        WHEN c.total_items > 0 THEN c.completed_items * 100.0 / c.total_items
+                                        ELSE 0 END)                        AS progress_sum
+                FROM changes c
+                         LEFT JOIN crawl_progress p ON p.id = c.id
+                WHERE c.root_job_id IS NOT NULL
+                  AND c.deleted_at IS NULL
+                GROUP BY c.root_job_id)
+INSERT
+INTO crawl_job_rollup AS r (root_job_id, total_jobs, pending_jobs, running_jobs, paused_jobs, completed_jobs,
+                            failed_jobs, cancelled_jobs, category_jobs, comic_jobs, chapter_jobs, image_jobs,
+                            failed_items, bytes_downloaded, progress_sum)
+SELECT d.root_job_id, d.total_jobs, d.pending_jobs, d.running_jobs, d.paused_jobs, d.completed_jobs,
+       d.failed_jobs, d.cancelled_jobs, d.category_jobs, d.comic_jobs, d.chapter_jobs, d.image_jobs,
+       d.failed_items, d.bytes_downloaded, d.progress_sum
+FROM deltas d
+-- Deltas of descendants removed in the cascade of their root are skipped
+WHERE EXISTS (SELECT 1 FROM crawl_jobs root WHERE root.id = d.root_job_id)
+  AND (d.total_jobs, d.pending_jobs, d.running_jobs, d.paused_jobs, d.completed_jobs, d.failed_jobs,
+       d.cancelled_jobs, d.category_jobs, d.comic_jobs, d.chapter_jobs, d.image_jobs, d.failed_items,
+       d.bytes_downloaded, d.progress_sum)
+    IS DISTINCT FROM (0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0)
+ON CONFLICT (root_job_id) DO UPDATE
+    SET total_jobs       = r.total_jobs + EXCLUDED.total_jobs,
+        pending_jobs     = r.pending_jobs + EXCLUDED.pending_jobs,
+        running_jobs     = r.running_jobs + EXCLUDED.running_jobs,
+        paused_jobs      = r.paused_jobs + EXCLUDED.paused_jobs,
+        completed_jobs   = r.completed_jobs + EXCLUDED.completed_jobs,
+        failed_jobs      = r.failed_jobs + EXCLUDED.failed_jobs,
+        cancelled_jobs   = r.cancelled_jobs + EXCLUDED.cancelled_jobs,
+        category_jobs    = r.category_jobs + EXCLUDED.category_jobs,
+        comic_jobs       = r.comic_jobs + EXCLUDED.comic_jobs,
+        chapter_jobs     = r.chapter_jobs + EXCLUDED.chapter_jobs,
+        image_jobs       = r.image_jobs + EXCLUDED.image_jobs,
+        failed_items     = r.failed_items + EXCLUDED.failed_items,
+        bytes_downloaded = r.bytes_downloaded + EXCLUDED.bytes_downloaded,
+        progress_sum     = r.progress_sum + EXCLUDED.progress_sum,
+        updated_at       = now();
+$$ LANGUAGE sql;
+
+CREATE OR REPLACE FUNCTION crawl_jobs_rollup_statement_trigger()
+    RETURNS TRIGGER AS
+$$
+DECLARE
+    added   crawl_jobs[] := '{}';
+    removed crawl_jobs[] := '{}';
+BEGIN
+    IF TG_OP = 'UPDATE' THEN
+        -- Same filter as the V12 WHEN clause: full-row saves that change no rolled-up column do nothing
+        IF NOT EXISTS (SELECT 1
+                       FROM old_rows o
+                                JOIN new_rows n ON n.id = o.id
+                       WHERE (o.status, o.crawl_type, o.root_job_id, o.deleted_at, o.failed_items,
+                              o.completed_items, o.total_items)
+                                 IS DISTINCT FROM
+                             (n.status, n.crawl_type, n.root_job_id, n.deleted_at, n.failed_items,
+                              n.completed_items, n.total_items)) THEN
+            RETURN NULL;
+        END IF;
+        SELECT COALESCE(array_agg(o), '{}') INTO removed FROM old_rows o;
+        SELECT COALESCE(array_agg(n), '{}') INTO added FROM new_rows n;
+    ELSIF TG_OP = 'INSERT' THEN
+        SELECT COALESCE(array_agg(n), '{}') INTO added FROM new_rows n;
+    ELSE
+        SELECT COALESCE(array_agg(o), '{}') INTO removed FROM old_rows o;
+    END IF;
+
+    PERFORM crawl_job_rollup_apply(added, removed);
+
+    IF TG_OP = 'DELETE' THEN
+        DELETE FROM crawl_job_rollup WHERE root_job_id IN (SELECT o.id FROM old_rows o WHERE o.root_job_id IS NULL);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- A trigger with transition tables covers one event only
+CREATE TRIGGER trigger_crawl_jobs_rollup_insert
+    AFTER INSERT
+    ON crawl_jobs
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT
+EXECUTE FUNCTION crawl_jobs_rollup_statement_trigger();
+
+CREATE TRIGGER trigger_crawl_jobs_rollup_update
+    AFTER UPDATE
+    ON crawl_jobs
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT
+EXECUTE FUNCTION crawl_jobs_rollup_statement_trigger();
+
+CREATE TRIGGER trigger_crawl_jobs_rollup_delete
+    AFTER DELETE
+    ON crawl_jobs
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT
+EXECUTE FUNCTION crawl_jobs_rollup_statement_trigger();
+
+DROP FUNCTION IF EXISTS crawl_jobs_rollup_trigger();
+DROP FUNCTION IF EXISTS crawl_job_rollup_delta(UUID, INT, crawl_jobs);
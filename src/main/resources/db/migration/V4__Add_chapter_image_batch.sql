@@ -0,0 +1,12 @@
+-- V4: Batch image mode for CHAPTER jobs
+-- A CHAPTER job keeps its image tasks in its own checkpoint row instead of spawning one
+-- IMAGE crawl job (+ settings, progress, checkpoint, queue rows) per image.
+
+-- Image URLs discovered on the chapter page, in page order
+ALTER TABLE crawl_checkpoints
+    ADD COLUMN IF NOT EXISTS image_urls TEXT[];
+
+-- One status byte per image (0 = PENDING, 1 = COMPLETED, 2 = FAILED, 3 = SKIPPED),
+-- updated in place with set_byte() so per-image progress never rewrites the row document
+ALTER TABLE crawl_checkpoints
+    ADD COLUMN IF NOT EXISTS image_statuses BYTEA;
@@ -0,0 +1,10 @@
+-- Deduplicate queue items per job so bulk enqueue can use ON CONFLICT (crawl_job_id, target_url)
+
+DELETE
+FROM crawl_queue q
+    USING crawl_queue d
+WHERE q.crawl_job_id = d.crawl_job_id
+  AND q.target_url = d.target_url
+  AND (q.created_at, q.id) > (d.created_at, d.id);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_crawl_queue_job_url ON crawl_queue (crawl_job_id, target_url);
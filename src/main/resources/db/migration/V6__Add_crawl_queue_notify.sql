@@ -0,0 +1,17 @@
+-- Wake queue workers on insert instead of waiting for the scheduled poll.
+-- Statement-level trigger: a batch enqueue sends one notification, delivered on commit.
+
+CREATE OR REPLACE FUNCTION notify_crawl_queue()
+    RETURNS TRIGGER AS
+$$
+BEGIN
+    PERFORM pg_notify('crawl_queue', '');
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trigger_crawl_queue_notify
+    AFTER INSERT
+    ON crawl_queue
+    FOR EACH STATEMENT
+EXECUTE FUNCTION notify_crawl_queue();
@@ -0,0 +1,21 @@
+-- Validators of previously crawled pages for conditional GET (ETag / Last-Modified)
+
+CREATE TABLE IF NOT EXISTS crawl_http_cache
+(
+    url           TEXT PRIMARY KEY,
+    etag          TEXT,
+    last_modified TEXT,
+    body_hash     VARCHAR(64) NOT NULL,
+    body_size     BIGINT      NOT NULL DEFAULT 0,
+    parse_millis  BIGINT      NOT NULL DEFAULT 0,
+    fetched_at    TIMESTAMPTZ NOT NULL DEFAULT now(),
+    updated_at    TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+CREATE INDEX IF NOT EXISTS idx_crawl_http_cache_fetched ON crawl_http_cache (fetched_at);
+
+CREATE TRIGGER trigger_crawl_http_cache_updated_at
+    BEFORE UPDATE
+    ON crawl_http_cache
+    FOR EACH ROW
+EXECUTE FUNCTION update_crawl_updated_at();
@@ -0,0 +1,11 @@
+-- Fingerprint of the chapter source URLs already stored for a comic.
+-- UPDATE-mode crawls compare it with the freshly parsed chapter list and skip
+-- loading existing chapters when nothing changed upstream.
+
+CREATE TABLE IF NOT EXISTS comic_chapter_fingerprints
+(
+    comic_id      BIGINT PRIMARY KEY REFERENCES comics (id) ON DELETE CASCADE,
+    fingerprint   BIGINT      NOT NULL,
+    chapter_count INTEGER     NOT NULL,
+    updated_at    TIMESTAMPTZ NOT NULL DEFAULT now()
+);
@@ -0,0 +1,25 @@
+-- Closure table of the crawl job hierarchy: one row per (ancestor, descendant) pair,
+-- including the self pair at depth 0. Replaces recursive CTEs over crawl_jobs for
+-- subtree and ancestor lookups.
+
+CREATE TABLE IF NOT EXISTS crawl_job_closure
+(
+    ancestor_id   UUID NOT NULL REFERENCES crawl_jobs (id) ON DELETE CASCADE,
+    descendant_id UUID NOT NULL REFERENCES crawl_jobs (id) ON DELETE CASCADE,
+    depth         INT  NOT NULL,
+    PRIMARY KEY (ancestor_id, descendant_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_crawl_job_closure_descendant ON crawl_job_closure (descendant_id, depth);
+
+-- Backfill existing jobs
+INSERT INTO crawl_job_closure (ancestor_id, descendant_id, depth)
+WITH RECURSIVE paths AS (SELECT id AS ancestor_id, id AS descendant_id, 0 AS depth
+                         FROM crawl_jobs
+                         UNION ALL
+                         SELECT p.ancestor_id, j.id, p.depth + 1
+                         FROM paths p
+                                  INNER JOIN crawl_jobs j ON j.parent_job_id = p.descendant_id)
+SELECT ancestor_id, descendant_id, depth
+FROM paths
+ON CONFLICT DO NOTHING;
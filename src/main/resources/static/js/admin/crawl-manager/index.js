@@ -124,7 +124,7 @@ function handleGlobalEvent(event) {
     console.log('Global event:', event);
 
     // Refresh sidebar on status changes
-    if (['JOB_STARTED', 'JOB_COMPLETED', 'JOB_FAILED', 'JOB_PAUSED', 'JOB_RESUMED', 'JOB_CANCELLED', 'JOB_CREATED'].includes(event.eventType)) {
+    if (['JOB_STARTED', 'JOB_COMPLETED', 'JOB_FAILED', 'JOB_PAUSED', 'JOB_RESUMED', 'JOB_CANCELLED', 'JOB_CREATED', 'JOB_DELETED', 'JOB_RESTORED'].includes(event.eventType)) {
         refreshSidebar();
     }
 
@@ -0,0 +1,76 @@
+package com.truyengg.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Result of one replayed crawl, stored as JSON for the baseline comparison.
+ * p95Millis is keyed by "pipeline.{stage}" (crawl.pipeline.run) and "image.{stage}" (image.processing.stage).
+ */
+public record BenchmarkReport(int chapters, int images, double seconds, double pagesPerSecond,
+                              double imagesPerSecond, long sqlStatements, Map<String, Double> p95Millis) {
+
+  private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+  /**
+   * SQL statement counts barely vary between runs; more than this is a regression whatever the tolerance.
+   */
+  private static final double SQL_TOLERANCE = 0.10;
+
+  /**
+   * p95 latencies of a few milliseconds are dominated by scheduling noise, so a fixed slack is added.
+   */
+  private static final double P95_SLACK_MILLIS = 25;
+
+  public static BenchmarkReport read(Path path) {
+    try {
+      return MAPPER.readValue(path.toFile(), BenchmarkReport.class);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to read benchmark report " + path, e);
+    }
+  }
+
+  public void write(Path path) {
+    try {
+      Files.createDirectories(path.toAbsolutePath().getParent());
+      MAPPER.writeValue(path.toFile(), new BenchmarkReport(chapters, images, seconds, pagesPerSecond,
+          imagesPerSecond, sqlStatements, new TreeMap<>(p95Millis)));
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to write benchmark report " + path, e);
+    }
+  }
+
+  /**
+   * Regressions against the baseline: throughput below baseline * (1 - tolerance), p95 above
+   * baseline * (1 + tolerance) plus slack, or more SQL statements than baseline * 1.1.
+   * Stages missing from the baseline are not compared.
+   */
+  public List<String> regressionsAgainst(BenchmarkReport baseline, double tolerance) {
+    var regressions = new ArrayList<String>();
+    if (pagesPerSecond < baseline.pagesPerSecond() * (1 - tolerance)) {
+      regressions.add("pages/s %.2f < baseline %.2f".formatted(pagesPerSecond, baseline.pagesPerSecond()));
+    }
+    if (imagesPerSecond < baseline.imagesPerSecond() * (1 - tolerance)) {
+      regressions.add("images/s %.2f < baseline %.2f".formatted(imagesPerSecond, baseline.imagesPerSecond()));
+    }
+    if (sqlStatements > baseline.sqlStatements() * (1 + SQL_TOLERANCE)) {
+      regressions.add("SQL statements %d > baseline %d".formatted(sqlStatements, baseline.sqlStatements()));
+    }
+    baseline.p95Millis().forEach((stage, expected) -> {
+      var actual = p95Millis.get(stage);
+      if (actual != null && actual > expected * (1 + tolerance) + P95_SLACK_MILLIS) {
+        regressions.add("p95 %s %.1f ms > baseline %.1f ms".formatted(stage, actual, expected));
+      }
+    });
+    return regressions;
+  }
+}
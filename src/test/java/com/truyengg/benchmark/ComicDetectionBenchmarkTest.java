@@ -0,0 +1,129 @@
+package com.truyengg.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.truyengg.service.comic.ComicDetectionService;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.truyengg.domain.enums.ComicProgressStatus.COMPLETED;
+import static com.truyengg.domain.enums.ComicProgressStatus.ONGOING;
+import static java.lang.System.nanoTime;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Comic detection over 200 stored fixture pages: four recorded layouts, each from its own domain and
+ * each matched by a different name selector, filled with 50 comics. Pages are parsed once up front and
+ * detection is warmed up before it is timed, then pages/s is compared with the stored baseline.
+ * <p>
+ * Run with {@code ./gradlew crawlBenchmark}; {@code -PupdateBaseline} stores the result as the new baseline,
+ * {@code -PbenchmarkTolerance=0.3} changes the allowed throughput deviation.
+ */
+@Tag("benchmark")
+class ComicDetectionBenchmarkTest {
+
+  private static final Logger log = LoggerFactory.getLogger(ComicDetectionBenchmarkTest.class);
+  private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+  private static final List<String> LAYOUTS = List.of("detail-info", "book-info", "manga-info", "comic-info");
+  private static final int COMICS_PER_LAYOUT = 50;
+  private static final int WARMUP_ROUNDS = 20;
+  private static final int MEASURED_ROUNDS = 50;
+
+  @Test
+  void detectionOverFixturePagesMeetsBaseline() throws IOException {
+    var pages = fixturePages();
+    assertThat(pages).hasSize(LAYOUTS.size() * COMICS_PER_LAYOUT);
+
+    var detectionService = new ComicDetectionService();
+    for (var page : pages) {
+      var info = detectionService.detectComicInfoHtmlBased(page.url(), page.document());
+      assertThat(info.name()).as(page.url()).isEqualTo(page.name());
+      assertThat(info.progressStatus()).as(page.url()).isEqualTo(page.completed() ? COMPLETED : ONGOING);
+    }
+
+    for (var round = 0; round < WARMUP_ROUNDS; round++) {
+      detectAll(detectionService, pages);
+    }
+    var start = nanoTime();
+    var nameLength = 0L;
+    for (var round = 0; round < MEASURED_ROUNDS; round++) {
+      nameLength += detectAll(detectionService, pages);
+    }
+    var seconds = (nanoTime() - start) / 1e9;
+    // Keeps the detection results observable
+    assertThat(nameLength).isPositive();
+
+    var pagesPerSecond = MEASURED_ROUNDS * pages.size() / seconds;
+    var report = MAPPER.createObjectNode()
+        .put("pages", pages.size())
+        .put("rounds", MEASURED_ROUNDS)
+        .put("pagesPerSecond", pagesPerSecond)
+        .put("microsPerPage", 1e6 / pagesPerSecond);
+    log.info("Comic detection benchmark: {}", report);
+
+    var baselinePath = Path.of(System.getProperty("benchmark.detectionBaseline",
+        "src/test/resources/benchmark/detection-baseline.json"));
+    if (Boolean.getBoolean("benchmark.updateBaseline")) {
+      MAPPER.writeValue(baselinePath.toFile(), report);
+      log.info("Comic detection benchmark baseline updated: {}", baselinePath);
+      return;
+    }
+
+    assertThat(baselinePath).as("baseline, create it with -PupdateBaseline").exists();
+    var tolerance = Double.parseDouble(System.getProperty("benchmark.tolerance", "0.3"));
+    var baseline = MAPPER.readTree(baselinePath.toFile()).get("pagesPerSecond").asDouble();
+    assertThat(pagesPerSecond).as("pages/s against baseline %.1f", baseline)
+        .isGreaterThanOrEqualTo(baseline * (1 - tolerance));
+  }
+
+  // ===== Private methods =====
+
+  private int detectAll(ComicDetectionService detectionService, List<FixturePage> pages) {
+    var nameLength = 0;
+    for (var page : pages) {
+      nameLength += detectionService.detectComicInfoHtmlBased(page.url(), page.document()).name().length();
+    }
+    return nameLength;
+  }
+
+  private List<FixturePage> fixturePages() throws IOException {
+    var pages = new ArrayList<FixturePage>();
+    for (var layout = 0; layout < LAYOUTS.size(); layout++) {
+      var template = template(LAYOUTS.get(layout));
+      for (var comic = 0; comic < COMICS_PER_LAYOUT; comic++) {
+        var name = "Fixture Comic %d-%02d".formatted(layout, comic);
+        var slug = "fixture-comic-%d-%02d".formatted(layout, comic);
+        var completed = comic % 3 == 0;
+        var url = "https://site-%d.example/truyen-tranh/%s".formatted(layout, slug);
+        var html = template
+            .replace("${name}", name)
+            .replace("${slug}", slug)
+            .replace("${author}", "Author " + comic)
+            .replace("${status}", completed ? "Hoàn thành" : "Đang cập nhật");
+        pages.add(new FixturePage(url, name, completed, Jsoup.parse(html, url)));
+      }
+    }
+    return pages;
+  }
+
+  private String template(String layout) throws IOException {
+    try (InputStream input = getClass().getResourceAsStream("/benchmark/detection/" + layout + ".html")) {
+      assertThat(input).as(layout).isNotNull();
+      return new String(input.readAllBytes(), UTF_8);
+    }
+  }
+
+  private record FixturePage(String url, String name, boolean completed, Document document) {
+  }
+}
@@ -0,0 +1,221 @@
+package com.truyengg.benchmark;
+
+import com.truyengg.domain.repository.UserRepository;
+import com.truyengg.model.request.CrawlJobRequest;
+import com.truyengg.service.crawl.CrawlExecutor;
+import com.truyengg.service.crawl.CrawlJobService;
+import com.truyengg.support.PostgresIntegrationTest;
+import com.truyengg.support.PostgresTestDatabase;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static com.truyengg.domain.enums.CrawlType.COMIC;
+import static com.truyengg.domain.enums.ImageTaskStatus.COMPLETED;
+import static java.lang.System.nanoTime;
+import static java.time.Duration.ofMinutes;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Replays a full COMIC crawl (comic page, 12 chapters, 4 images each) from {@link ReplayServer}
+ * through {@link CrawlExecutor} against a real PostgreSQL, then compares pages/s, images/s,
+ * SQL statement count and per-stage p95 with the stored baseline.
+ * <p>
+ * Run with {@code ./gradlew crawlBenchmark}; {@code -PupdateBaseline} stores the result as the new baseline,
+ * {@code -PbenchmarkTolerance=0.3} changes the allowed throughput / p95 deviation.
+ * Latency and faults are set with replay.* system properties, see {@link ReplayServer.Options}.
+ */
+@Tag("benchmark")
+@PostgresIntegrationTest
+@SpringBootTest
+@Import(StatementCountingConfig.class)
+class CrawlBenchmarkTest {
+
+  private static final Logger log = LoggerFactory.getLogger(CrawlBenchmarkTest.class);
+  private static final int CHAPTERS = 12;
+  private static final int IMAGES_PER_CHAPTER = 4;
+  private static final String ADMIN_EMAIL = "admin@truyengg.com";
+
+  private static final ReplayServer.Options DEFAULT_OPTIONS = new ReplayServer.Options(20, 10, 19, 503, 23, 1);
+
+  private static PostgresTestDatabase database;
+  private static ReplayServer replayServer;
+
+  @Autowired
+  CrawlJobService jobService;
+
+  @Autowired
+  CrawlExecutor executor;
+
+  @Autowired
+  UserRepository userRepository;
+
+  @Autowired
+  StatementCountingDataSource statementCounter;
+
+  @Autowired
+  MeterRegistry meterRegistry;
+
+  @DynamicPropertySource
+  static void properties(DynamicPropertyRegistry registry) throws IOException {
+    database = PostgresTestDatabase.create();
+    registry.add("spring.datasource.url", database::url);
+    registry.add("spring.datasource.username", database::username);
+    registry.add("spring.datasource.password", database::password);
+    registry.add("truyengg.storage.type", () -> "local");
+    registry.add("truyengg.storage.local.base-path", Files.createTempDirectory("crawl-benchmark")::toString);
+    // Below the 720px wide fixture pages, so every image also goes through the resize stage
+    registry.add("truyengg.image.compression.max-width", () -> 600);
+    registry.add("truyengg.crawl.retry-delay", () -> 1);
+    registry.add("truyengg.crawl.rate-limit.sources.HTML.capacity", () -> 32);
+    registry.add("truyengg.crawl.rate-limit.sources.HTML.refill-per-second", () -> 100.0);
+    registry.add("jobrunr.background-job-server.enabled", () -> false);
+    registry.add("jobrunr.dashboard.enabled", () -> false);
+  }
+
+  @BeforeAll
+  static void startReplayServer() {
+    replayServer = ReplayServer.start(ReplayServer.Options.fromSystemProperties(DEFAULT_OPTIONS));
+  }
+
+  @AfterAll
+  static void stopReplayServer() {
+    if (replayServer != null) {
+      replayServer.close();
+    }
+  }
+
+  @Test
+  void replayedComicCrawlMeetsBaseline() {
+    var admin = userRepository.findByEmail(ADMIN_EMAIL).orElseThrow();
+    var request = CrawlJobRequest.simple(COMIC, replayServer.baseUrl() + "/truyen/benchmark-comic");
+
+    statementCounter.reset();
+    var start = nanoTime();
+
+    var job = jobService.createJob(request, admin);
+    executor.execute(job.getId());
+    awaitCrawl(job.getId());
+
+    var seconds = (nanoTime() - start) / 1e9;
+    var sqlStatements = statementCounter.count();
+
+    assertAllImagesCompleted(job.getId());
+
+    var pages = 1 + CHAPTERS;
+    var images = CHAPTERS * IMAGES_PER_CHAPTER;
+    var report = new BenchmarkReport(CHAPTERS, images, seconds, pages / seconds, images / seconds,
+        sqlStatements, p95ByStage());
+    report.write(Path.of(System.getProperty("benchmark.report", "build/reports/crawl-benchmark.json")));
+    log.info("Crawl benchmark: {} (replay served {} pages, {} images, injected {} errors and {} throttles)",
+        report, replayServer.pagesServed(), replayServer.imagesServed(), replayServer.errorsInjected(),
+        replayServer.throttlesInjected());
+
+    var baselinePath = Path.of(System.getProperty("benchmark.baseline",
+        "src/test/resources/benchmark/crawl-baseline.json"));
+    if (Boolean.getBoolean("benchmark.updateBaseline")) {
+      report.write(baselinePath);
+      log.info("Crawl benchmark baseline updated: {}", baselinePath);
+      return;
+    }
+
+    assertThat(baselinePath).as("baseline, create it with -PupdateBaseline").exists();
+    var tolerance = Double.parseDouble(System.getProperty("benchmark.tolerance", "0.3"));
+    assertThat(report.regressionsAgainst(BenchmarkReport.read(baselinePath), tolerance)).isEmpty();
+  }
+
+  // ===== Private methods =====
+
+  /**
+   * Wait until the comic job and every job below it has finished and no queue item of the subtree is left.
+   * Polls through its own connection so the polling is not counted as crawl SQL.
+   */
+  private void awaitCrawl(UUID rootJobId) {
+    var jdbc = new JdbcTemplate(database.dataSource());
+    var deadline = nanoTime() + ofMinutes(5).toNanos();
+    while (nanoTime() < deadline) {
+      var unfinished = jdbc.queryForObject("""
+          SELECT (SELECT count(*)
+                  FROM crawl_job_closure c
+                           JOIN crawl_jobs j ON j.id = c.descendant_id
+                  WHERE c.ancestor_id = ? AND j.status IN ('PENDING', 'RUNNING'))
+               + (SELECT count(*)
+                  FROM crawl_queue q
+                           JOIN crawl_job_closure c ON c.descendant_id = q.crawl_job_id
+                  WHERE c.ancestor_id = ? AND q.status IN ('PENDING', 'PROCESSING', 'DELAYED'))
+          """, Long.class, rootJobId, rootJobId);
+      var chapters = jdbc.queryForObject("""
+          SELECT count(*) FROM crawl_job_closure WHERE ancestor_id = ? AND depth = 1
+          """, Long.class, rootJobId);
+      if (unfinished == 0 && chapters == CHAPTERS) {
+        return;
+      }
+      sleep();
+    }
+    throw new AssertionError("Replayed crawl did not finish within 5 minutes");
+  }
+
+  private void assertAllImagesCompleted(UUID rootJobId) {
+    var jdbc = new JdbcTemplate(database.dataSource());
+    var statuses = jdbc.queryForList("""
+        SELECT cp.image_statuses
+        FROM crawl_checkpoints cp
+                 JOIN crawl_job_closure c ON c.descendant_id = cp.id
+        WHERE c.ancestor_id = ? AND c.depth = 1
+        """, byte[].class, rootJobId);
+
+    assertThat(statuses).hasSize(CHAPTERS);
+    assertThat(statuses).allSatisfy(chapter -> assertThat(chapter)
+        .hasSize(IMAGES_PER_CHAPTER)
+        .containsOnly(COMPLETED.getCode()));
+  }
+
+  private Map<String, Double> p95ByStage() {
+    var p95 = new HashMap<String, Double>();
+    meterRegistry.find("crawl.pipeline.run").timers()
+        .forEach(timer -> putP95(p95, "pipeline." + timer.getId().getTag("stage"), timer));
+    meterRegistry.find("image.processing.stage").timers()
+        .forEach(timer -> putP95(p95, "image." + timer.getId().getTag("stage"), timer));
+    return p95;
+  }
+
+  private void putP95(Map<String, Double> p95, String stage, Timer timer) {
+    var snapshot = timer.takeSnapshot();
+    if (snapshot.count() == 0) {
+      return;
+    }
+    for (var percentile : snapshot.percentileValues()) {
+      if (percentile.percentile() == 0.95) {
+        p95.put(stage, percentile.value(MILLISECONDS));
+      }
+    }
+  }
+
+  private void sleep() {
+    try {
+      Thread.sleep(200);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new AssertionError("Interrupted while waiting for the replayed crawl", e);
+    }
+  }
+}
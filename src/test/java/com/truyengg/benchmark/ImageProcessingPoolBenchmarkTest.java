@@ -0,0 +1,133 @@
+package com.truyengg.benchmark;
+
+import com.truyengg.service.image.BlurHashService;
+import com.truyengg.service.image.ImageProcessingPool;
+import com.truyengg.service.image.ImageService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.truyengg.domain.constant.AppConstants.CONTENT_TYPE_JPEG;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 1,000 fixture pages through {@link ImageService} at several {@link ImageProcessingPool} sizes, every
+ * page submitted at once from its own virtual thread as uncapped parallel crawls would. Reports pages/s
+ * and p99 latency per pool size; the default size, one thread per core, must come within the
+ * tolerance of the best throughput measured.
+ * <p>
+ * Run with {@code ./gradlew crawlBenchmark}; {@code -PbenchmarkTolerance=0.3} changes the allowed deviation.
+ */
+@Tag("benchmark")
+class ImageProcessingPoolBenchmarkTest {
+
+  private static final Logger log = LoggerFactory.getLogger(ImageProcessingPoolBenchmarkTest.class);
+  private static final int PAGES = 1_000;
+  private static final int WARMUP_PAGES = 100;
+  private static final List<String> FIXTURES = List.of("page-01.jpg", "page-02.jpg", "page-03.jpg", "page-04.jpg");
+
+  @Test
+  void poolSizedToTheCoresMatchesTheBestThroughput() throws Exception {
+    var fixtures = new ArrayList<byte[]>();
+    for (var fixture : FIXTURES) {
+      fixtures.add(read(fixture));
+    }
+    var cores = Runtime.getRuntime().availableProcessors();
+    var sizes = new TreeSet<>(List.of(1, cores, cores * 2, cores * 4));
+
+    var results = new LinkedHashMap<Integer, Result>();
+    for (var size : sizes) {
+      results.put(size, run(size, fixtures));
+    }
+
+    results.forEach((size, result) -> log.info("Image pool size {}: {} pages in {} ms, {} pages/s, p50 {} ms, p99 {} ms",
+        size, PAGES, result.millis(), "%.1f".formatted(result.pagesPerSecond()), result.p50Millis(), result.p99Millis()));
+    var best = results.values().stream().mapToDouble(Result::pagesPerSecond).max().orElseThrow();
+    var tolerance = Double.parseDouble(System.getProperty("benchmark.tolerance", "0.3"));
+    assertThat(results.get(cores).pagesPerSecond()).as("pages/s with %d threads against best %.1f", cores, best)
+        .isGreaterThanOrEqualTo(best * (1 - tolerance));
+  }
+
+  // ===== Private methods =====
+
+  private Result run(int poolSize, List<byte[]> fixtures) throws Exception {
+    var processingPool = new ImageProcessingPool(new SimpleMeterRegistry(), poolSize, 0);
+    try {
+      var service = imageService(processingPool);
+      process(service, fixtures, WARMUP_PAGES);
+      var start = nanoTime();
+      var latencies = process(service, fixtures, PAGES);
+      var millis = NANOSECONDS.toMillis(nanoTime() - start);
+      latencies.sort(null);
+      return new Result(millis, PAGES * 1_000.0 / Math.max(millis, 1),
+          NANOSECONDS.toMillis(latencies.get(PAGES / 2 - 1)), NANOSECONDS.toMillis(latencies.get(PAGES * 99 / 100 - 1)));
+    } finally {
+      processingPool.shutdown();
+    }
+  }
+
+  /**
+   * Submit every page at once, one virtual thread each, and collect the latency of each call.
+   */
+  private List<Long> process(ImageService service, List<byte[]> fixtures, int pages) throws Exception {
+    var futures = new ArrayList<Future<Long>>();
+    try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (var i = 0; i < pages; i++) {
+        var bytes = fixtures.get(i % fixtures.size());
+        futures.add(executor.submit(() -> {
+          var start = nanoTime();
+          var result = service.compressAndConvertImage(bytes, CONTENT_TYPE_JPEG);
+          assertThat(result.compressedBytes()).isNotEmpty();
+          return nanoTime() - start;
+        }));
+      }
+    }
+    var latencies = new ArrayList<Long>();
+    for (var future : futures) {
+      latencies.add(future.get());
+    }
+    return latencies;
+  }
+
+  private ImageService imageService(ImageProcessingPool processingPool) {
+    var blurHashService = new BlurHashService();
+    ReflectionTestUtils.setField(blurHashService, "enabled", true);
+    ReflectionTestUtils.setField(blurHashService, "componentX", 4);
+    ReflectionTestUtils.setField(blurHashService, "componentY", 3);
+
+    var service = new ImageService(blurHashService, processingPool);
+    ReflectionTestUtils.setField(service, "compressionEnabled", true);
+    ReflectionTestUtils.setField(service, "outputFormat", "jpeg");
+    ReflectionTestUtils.setField(service, "jpegQuality", 0.85f);
+    ReflectionTestUtils.setField(service, "removeMetadata", true);
+    // Below the 720px wide fixture pages, so every page also goes through the resize stage
+    ReflectionTestUtils.setField(service, "maxWidth", 600);
+    ReflectionTestUtils.setField(service, "resizeEnabled", true);
+    ReflectionTestUtils.setField(service, "maxDecodePixels", 40_000_000L);
+    return service;
+  }
+
+  private byte[] read(String fixture) throws IOException {
+    try (InputStream input = getClass().getResourceAsStream("/replay/images/" + fixture)) {
+      assertThat(input).as(fixture).isNotNull();
+      return input.readAllBytes();
+    }
+  }
+
+  private record Result(long millis, double pagesPerSecond, long p50Millis, long p99Millis) {
+  }
+}
@@ -0,0 +1,197 @@
+package com.truyengg.benchmark;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.Executors.newVirtualThreadPerTaskExecutor;
+
+/**
+ * Embedded HTTP server replaying recorded HTML-source crawl fixtures from src/test/resources/replay:
+ * <ul>
+ *   <li>/truyen/{slug} - html/comic.html, the chapter list</li>
+ *   <li>/truyen/{slug}/chuong-{n} - html/chapter.html, the page images of chapter n</li>
+ *   <li>/images/{n}/{file} - images/{file}</li>
+ * </ul>
+ * The API source is not replayed: its base URL is a constant (AppConstants.API_BASE_URL).
+ * Text fixtures may reference ${base} (this server's URL) and ${chapter} (the chapter number).
+ * Every response is delayed by the configured latency; every errorEvery-th request is answered with
+ * the error status and every throttleEvery-th with 429 and Retry-After, so the number of injected
+ * faults is the same on every run.
+ */
+public class ReplayServer implements AutoCloseable {
+
+  private static final Logger log = LoggerFactory.getLogger(ReplayServer.class);
+  private static final Pattern CHAPTER_PAGE = Pattern.compile("^/truyen/[^/]+/chuong-(\\d+)/?$");
+  private static final Pattern COMIC_PAGE = Pattern.compile("^/truyen/[^/]+/?$");
+  private static final Pattern IMAGE = Pattern.compile("^/images/\\d+/([\\w.-]+)$");
+
+  private final HttpServer server;
+  private final Options options;
+  private final AtomicInteger requests = new AtomicInteger();
+  private final AtomicInteger pages = new AtomicInteger();
+  private final AtomicInteger images = new AtomicInteger();
+  private final AtomicInteger errors = new AtomicInteger();
+  private final AtomicInteger throttled = new AtomicInteger();
+
+  private ReplayServer(Options options) throws IOException {
+    this.options = options;
+    this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    this.server.setExecutor(newVirtualThreadPerTaskExecutor());
+    this.server.createContext("/", this::handle);
+  }
+
+  public static ReplayServer start(Options options) {
+    try {
+      var replayServer = new ReplayServer(options);
+      replayServer.server.start();
+      log.info("Replay server listening on {} with {}", replayServer.baseUrl(), options);
+      return replayServer;
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to start replay server", e);
+    }
+  }
+
+  public String baseUrl() {
+    return "http://127.0.0.1:" + server.getAddress().getPort();
+  }
+
+  public int pagesServed() {
+    return pages.get();
+  }
+
+  public int imagesServed() {
+    return images.get();
+  }
+
+  public int errorsInjected() {
+    return errors.get();
+  }
+
+  public int throttlesInjected() {
+    return throttled.get();
+  }
+
+  @Override
+  public void close() {
+    server.stop(0);
+  }
+
+  // ===== Private methods =====
+
+  private void handle(HttpExchange exchange) throws IOException {
+    try (exchange) {
+      delay();
+
+      var number = requests.incrementAndGet();
+      if (options.throttleEvery() > 0 && number % options.throttleEvery() == 0) {
+        throttled.incrementAndGet();
+        exchange.getResponseHeaders().set("Retry-After", String.valueOf(options.retryAfterSeconds()));
+        exchange.sendResponseHeaders(429, -1);
+        return;
+      }
+      if (options.errorEvery() > 0 && number % options.errorEvery() == 0) {
+        errors.incrementAndGet();
+        exchange.sendResponseHeaders(options.errorStatus(), -1);
+        return;
+      }
+
+      serve(exchange);
+    }
+  }
+
+  private void serve(HttpExchange exchange) throws IOException {
+    var path = exchange.getRequestURI().getPath();
+
+    var chapter = CHAPTER_PAGE.matcher(path);
+    if (chapter.matches()) {
+      sendText(exchange, "html/chapter.html", chapter.group(1), "text/html; charset=utf-8");
+      return;
+    }
+    if (COMIC_PAGE.matcher(path).matches()) {
+      sendText(exchange, "html/comic.html", "", "text/html; charset=utf-8");
+      return;
+    }
+    var image = IMAGE.matcher(path);
+    if (image.matches()) {
+      var body = fixture("images/" + image.group(1));
+      if (body != null) {
+        images.incrementAndGet();
+        send(exchange, body, "image/jpeg");
+        return;
+      }
+    }
+
+    exchange.sendResponseHeaders(404, -1);
+  }
+
+  private void sendText(HttpExchange exchange, String fixture, String chapter, String contentType) throws IOException {
+    var template = fixture(fixture);
+    if (template == null) {
+      exchange.sendResponseHeaders(404, -1);
+      return;
+    }
+    var body = new String(template, UTF_8)
+        .replace("${base}", baseUrl())
+        .replace("${chapter}", chapter);
+    pages.incrementAndGet();
+    send(exchange, body.getBytes(UTF_8), contentType);
+  }
+
+  private void send(HttpExchange exchange, byte[] body, String contentType) throws IOException {
+    exchange.getResponseHeaders().set("Content-Type", contentType);
+    exchange.sendResponseHeaders(200, body.length);
+    exchange.getResponseBody().write(body);
+  }
+
+  private byte[] fixture(String name) throws IOException {
+    try (var stream = ReplayServer.class.getResourceAsStream("/replay/" + name)) {
+      return stream != null ? stream.readAllBytes() : null;
+    }
+  }
+
+  private void delay() {
+    var latency = options.latencyMillis();
+    if (options.jitterMillis() > 0) {
+      latency += ThreadLocalRandom.current().nextInt(options.jitterMillis() + 1);
+    }
+    if (latency <= 0) {
+      return;
+    }
+    try {
+      Thread.sleep(latency);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Fault and latency injection settings.
+   * errorEvery / throttleEvery of 0 disable the fault; errorStatus should be one the crawler retries (403, 503).
+   */
+  public record Options(int latencyMillis, int jitterMillis, int errorEvery, int errorStatus,
+                        int throttleEvery, int retryAfterSeconds) {
+
+    /**
+     * Read replay.* system properties, falling back to the given defaults.
+     */
+    public static Options fromSystemProperties(Options defaults) {
+      return new Options(
+          Integer.getInteger("replay.latency-ms", defaults.latencyMillis()),
+          Integer.getInteger("replay.jitter-ms", defaults.jitterMillis()),
+          Integer.getInteger("replay.error-every", defaults.errorEvery()),
+          Integer.getInteger("replay.error-status", defaults.errorStatus()),
+          Integer.getInteger("replay.throttle-every", defaults.throttleEvery()),
+          Integer.getInteger("replay.retry-after-seconds", defaults.retryAfterSeconds()));
+    }
+  }
+}
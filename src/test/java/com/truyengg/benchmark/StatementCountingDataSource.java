@@ -0,0 +1,133 @@
+package com.truyengg.benchmark;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * DataSource wrapper counting the statements sent to the database.
+ * Every execute* call counts once; executeBatch counts once per round trip, not per batched row,
+ * so a batched insert of 50 rows weighs the same as a single-row update.
+ * Counts are also kept per SQL string and per thread, so a test can count only the statements it cares
+ * about and leave out those of scheduled tasks running in the same context.
+ */
+public class StatementCountingDataSource extends DelegatingDataSource {
+
+  private final AtomicLong statements = new AtomicLong();
+  private final Map<String, AtomicLong> statementsBySql = new ConcurrentHashMap<>();
+  private final Map<Thread, AtomicLong> statementsByThread = new ConcurrentHashMap<>();
+
+  public StatementCountingDataSource(DataSource target) {
+    super(target);
+  }
+
+  public long count() {
+    return statements.get();
+  }
+
+  /**
+   * Statements whose SQL matches the filter; the SQL is lower-cased with whitespace collapsed.
+   */
+  public long count(Predicate<String> sqlFilter) {
+    return statementsBySql.entrySet().stream()
+        .filter(entry -> sqlFilter.test(entry.getKey()))
+        .mapToLong(entry -> entry.getValue().get())
+        .sum();
+  }
+
+  /**
+   * Statements sent from the calling thread.
+   */
+  public long countOnCurrentThread() {
+    var counter = statementsByThread.get(Thread.currentThread());
+    return counter != null ? counter.get() : 0;
+  }
+
+  public void reset() {
+    statements.set(0);
+    statementsBySql.clear();
+    statementsByThread.clear();
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    return wrapConnection(super.getConnection());
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    return wrapConnection(super.getConnection(username, password));
+  }
+
+  // ===== Private methods =====
+
+  private Connection wrapConnection(Connection connection) {
+    return proxy(Connection.class, connection, (target, method, args) -> {
+      var result = invoke(target, method, args);
+      var sql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+      if (result instanceof CallableStatement statement) {
+        return wrapStatement(CallableStatement.class, statement, sql);
+      }
+      if (result instanceof PreparedStatement statement) {
+        return wrapStatement(PreparedStatement.class, statement, sql);
+      }
+      if (result instanceof Statement statement) {
+        return wrapStatement(Statement.class, statement, null);
+      }
+      return result;
+    });
+  }
+
+  /**
+   * Wrap a statement; preparedSql is the SQL of a prepared statement, plain statements pass theirs to execute.
+   */
+  private <T extends Statement> T wrapStatement(Class<T> type, T statement, String preparedSql) {
+    return proxy(type, statement, (target, method, args) -> {
+      if (method.getName().startsWith("execute")) {
+        statements.incrementAndGet();
+        var sql = preparedSql != null ? preparedSql
+            : args != null && args.length > 0 && args[0] instanceof String text ? text : "";
+        statementsBySql.computeIfAbsent(normalize(sql), key -> new AtomicLong()).incrementAndGet();
+        statementsByThread.computeIfAbsent(Thread.currentThread(), key -> new AtomicLong()).incrementAndGet();
+      }
+      return invoke(target, method, args);
+    });
+  }
+
+  private static String normalize(String sql) {
+    return sql.strip().replaceAll("\\s+", " ").toLowerCase();
+  }
+
+  private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+    try {
+      return method.invoke(target, args);
+    } catch (InvocationTargetException e) {
+      throw e.getTargetException();
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> T proxy(Class<T> type, T target, TargetHandler handler) {
+    InvocationHandler invocationHandler = (proxy, method, args) -> handler.invoke(target, method, args);
+    return (T) Proxy.newProxyInstance(StatementCountingDataSource.class.getClassLoader(), new Class<?>[]{type},
+        invocationHandler);
+  }
+
+  @FunctionalInterface
+  private interface TargetHandler {
+    Object invoke(Object target, Method method, Object[] args) throws Throwable;
+  }
+}
@@ -0,0 +1,112 @@
+package com.truyengg.config;
+
+import com.sun.net.httpserver.HttpServer;
+import com.truyengg.model.properties.CrawlHttpProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The crawl WebClient keeps connections to a host alive and reuses them across requests.
+ */
+class CrawlWebClientConfigTest {
+
+  CrawlWebClientConfig config = new CrawlWebClientConfig();
+  CrawlHttpProperties properties = new CrawlHttpProperties();
+  Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+  Set<String> customizedHeaders = ConcurrentHashMap.newKeySet();
+  HttpServer server;
+  ConnectionProvider connectionProvider;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    server.createContext("/", exchange -> {
+      clientPorts.add(exchange.getRemoteAddress().getPort());
+      var header = exchange.getRequestHeaders().getFirst("X-Customized");
+      if (header != null) {
+        customizedHeaders.add(header);
+      }
+      var body = "ok".getBytes(UTF_8);
+      exchange.sendResponseHeaders(200, body.length);
+      try (var output = exchange.getResponseBody()) {
+        output.write(body);
+      }
+    });
+    server.start();
+    properties.setMaxConnectionsPerHost(4);
+    connectionProvider = config.crawlConnectionProvider(properties);
+  }
+
+  @AfterEach
+  void tearDown() {
+    connectionProvider.dispose();
+    server.stop(0);
+  }
+
+  @Test
+  void sequentialRequestsReuseTheirConnection() {
+    var webClient = webClient(WebClient.builder());
+
+    for (var i = 0; i < 50; i++) {
+      assertThat(get(webClient, "/page-" + i)).isEqualTo("ok");
+    }
+
+    // A connection goes back to the pool just after its body completes, so the next request may
+    // occasionally race it and open a second one - but never one per request
+    assertThat(clientPorts).hasSizeLessThanOrEqualTo(2);
+  }
+
+  @Test
+  void concurrentRequestsStayWithinThePerHostLimit() {
+    var webClient = webClient(WebClient.builder());
+
+    var bodies = Flux.range(0, 200)
+        .flatMap(i -> webClient.get().uri(url("/page-" + i)).retrieve().bodyToMono(String.class), 32)
+        .collectList()
+        .block();
+
+    assertThat(bodies).hasSize(200).containsOnly("ok");
+    assertThat(clientPorts).hasSizeLessThanOrEqualTo(4);
+  }
+
+  @Test
+  void bootBuilderCustomizationsAreKeptWithoutChangingTheSharedBuilder() {
+    var bootBuilder = WebClient.builder().defaultHeader("X-Customized", "boot");
+
+    var webClient = webClient(bootBuilder);
+    get(webClient, "/crawl");
+    get(bootBuilder.build(), "/other");
+
+    assertThat(customizedHeaders).containsExactly("boot");
+    assertThat(clientPorts).hasSize(2);
+  }
+
+  // ===== Private methods =====
+
+  private WebClient webClient(WebClient.Builder builder) {
+    var httpClient = config.crawlNettyHttpClient(connectionProvider, properties, 15);
+    return config.crawlWebClient(builder, httpClient);
+  }
+
+  private String get(WebClient webClient, String path) {
+    return webClient.get().uri(url(path)).retrieve().bodyToMono(String.class).block();
+  }
+
+  private String url(String path) {
+    return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+  }
+}
@@ -0,0 +1,162 @@
+package com.truyengg.controller.graphql;
+
+import com.truyengg.benchmark.StatementCountingConfig;
+import com.truyengg.benchmark.StatementCountingDataSource;
+import com.truyengg.domain.repository.UserRepository;
+import com.truyengg.model.request.CrawlJobRequest;
+import com.truyengg.service.crawl.CrawlExecutor;
+import com.truyengg.service.crawl.CrawlJobService;
+import com.truyengg.support.PostgresIntegrationTest;
+import com.truyengg.support.PostgresTestDatabase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.graphql.ExecutionGraphQlResponse;
+import org.springframework.graphql.ExecutionGraphQlService;
+import org.springframework.graphql.support.DefaultExecutionGraphQlRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static com.truyengg.domain.enums.CrawlType.CHAPTER;
+import static com.truyengg.domain.enums.CrawlType.COMIC;
+import static com.truyengg.model.request.CrawlJobRequest.child;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * CrawlJob fields of a crawlJobs page resolved through batch mappings: a page of 100 jobs sends
+ * as many SQL statements as a page of 10.
+ */
+@PostgresIntegrationTest
+@SpringBootTest
+@Import(StatementCountingConfig.class)
+class CrawlJobFieldResolverTest {
+
+  private static final Logger log = LoggerFactory.getLogger(CrawlJobFieldResolverTest.class);
+  private static final String ADMIN_EMAIL = "admin@truyengg.com";
+  private static final int ROOT_JOBS = 100;
+
+  private static final String PAGE_QUERY = """
+      query Page($first: Int) {
+        crawlJobs(first: $first) {
+          totalCount
+          edges {
+            node {
+              id
+              type
+              status
+              percent
+              hasChildren
+              childrenCount
+              progress { id percent }
+              checkpoint { id lastItemIndex hasFailedItems }
+              settings { id parallelLimit hasRange }
+              aggregatedStats { totalChapters avgProgress }
+              failedItemsList { totalCount }
+              images { index }
+            }
+          }
+        }
+      }
+      """;
+
+  private static PostgresTestDatabase database;
+
+  @Autowired
+  ExecutionGraphQlService graphQlService;
+
+  @Autowired
+  CrawlJobService jobService;
+
+  @Autowired
+  UserRepository userRepository;
+
+  @Autowired
+  StatementCountingDataSource statementCounter;
+
+  // Jobs are only created; nothing is crawled
+  @MockBean
+  CrawlExecutor executor;
+
+  @DynamicPropertySource
+  static void properties(DynamicPropertyRegistry registry) {
+    database = PostgresTestDatabase.create();
+    registry.add("spring.datasource.url", database::url);
+    registry.add("spring.datasource.username", database::username);
+    registry.add("spring.datasource.password", database::password);
+    registry.add("jobrunr.background-job-server.enabled", () -> false);
+    registry.add("jobrunr.dashboard.enabled", () -> false);
+  }
+
+  @BeforeEach
+  void setUp() {
+    var admin = userRepository.findByEmail(ADMIN_EMAIL).orElseThrow();
+    for (var i = 0; i < ROOT_JOBS; i++) {
+      var comicId = jobService.createJob(
+          CrawlJobRequest.simple(COMIC, "https://site.example/truyen/comic-" + i), admin).getId();
+      jobService.createJob(child(CHAPTER, "https://site.example/truyen/comic-" + i + "/chuong-1", "Chapter 1",
+          comicId, 0), admin);
+    }
+    SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+        ADMIN_EMAIL, null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+  }
+
+  @AfterEach
+  void tearDown() {
+    SecurityContextHolder.clearContext();
+  }
+
+  @Test
+  void pageOfAHundredJobsSendsAsManyStatementsAsAPageOfTen() {
+    // Warms up query plans and the schema before anything is counted
+    page(10);
+
+    statementCounter.reset();
+    var small = page(10);
+    var smallStatements = statementCounter.count();
+
+    statementCounter.reset();
+    var large = page(ROOT_JOBS);
+    var largeStatements = statementCounter.count();
+
+    log.info("crawlJobs page: {} statements for 10 jobs, {} statements for {} jobs",
+        smallStatements, largeStatements, ROOT_JOBS);
+    assertThat(nodes(small)).hasSize(10);
+    assertThat(nodes(large)).hasSize(ROOT_JOBS).allSatisfy(node -> {
+      assertThat(node).containsEntry("hasChildren", true).containsEntry("childrenCount", 1);
+      assertThat(node.get("progress")).isNotNull();
+      assertThat(node.get("checkpoint")).isNotNull();
+      assertThat(node.get("settings")).isNotNull();
+      assertThat(node.get("aggregatedStats")).isNotNull();
+    });
+    assertThat(largeStatements).isEqualTo(smallStatements);
+  }
+
+  // ===== Private methods =====
+
+  private ExecutionGraphQlResponse page(int first) {
+    var request = new DefaultExecutionGraphQlRequest(PAGE_QUERY, null, Map.of("first", first), null,
+        "crawl-jobs-" + first, Locale.ROOT);
+    var response = graphQlService.execute(request).block();
+    assertThat(response).isNotNull();
+    assertThat(response.getErrors()).isEmpty();
+    return response;
+  }
+
+  private List<Map<String, Object>> nodes(ExecutionGraphQlResponse response) {
+    List<Map<String, Map<String, Object>>> edges = response.field("crawlJobs.edges").getValue();
+    return edges.stream().map(edge -> edge.get("node")).toList();
+  }
+}
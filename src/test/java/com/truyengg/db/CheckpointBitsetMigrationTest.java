@@ -0,0 +1,84 @@
+package com.truyengg.db;
+
+import com.truyengg.support.PostgresIntegrationTest;
+import com.truyengg.support.PostgresTestDatabase;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.UUID;
+
+import static com.truyengg.util.CheckpointCodec.decodeIndices;
+import static com.truyengg.util.CheckpointCodec.encodeIndices;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * V10: failed_item_indices INT[] becomes the failed_items bitset, maintained by bitset_apply / bitset_trim.
+ */
+@PostgresIntegrationTest
+class CheckpointBitsetMigrationTest {
+
+  private static final UUID JOB_WITH_FAILURES = UUID.randomUUID();
+  private static final UUID JOB_WITHOUT_FAILURES = UUID.randomUUID();
+
+  private static JdbcTemplate jdbc;
+
+  @BeforeAll
+  static void migrate() {
+    var database = PostgresTestDatabase.create().migrate("9");
+    jdbc = new JdbcTemplate(database.dataSource());
+
+    for (var jobId : List.of(JOB_WITH_FAILURES, JOB_WITHOUT_FAILURES)) {
+      jdbc.update("INSERT INTO crawl_jobs (id, crawl_type, target_url) VALUES (?, 'CHAPTER', 'https://site.example')", jobId);
+    }
+    jdbc.update("INSERT INTO crawl_checkpoints (id, failed_item_indices) VALUES (?, ARRAY[3, 0, 17, 3, -1])", JOB_WITH_FAILURES);
+    jdbc.update("INSERT INTO crawl_checkpoints (id, failed_item_indices) VALUES (?, '{}')", JOB_WITHOUT_FAILURES);
+
+    database.migrate();
+  }
+
+  @Test
+  void backfillEncodesExistingIndicesLikeTheCodec() {
+    var failedItems = failedItems(JOB_WITH_FAILURES);
+
+    assertThat(failedItems).isEqualTo(encodeIndices(List.of(0, 3, 17)));
+    assertThat(decodeIndices(failedItems)).containsExactly(0, 3, 17);
+    assertThat(failedItems(JOB_WITHOUT_FAILURES)).isNull();
+  }
+
+  @Test
+  void bitsetApplyUsesTheCodecBitOrder() {
+    var random = new Random(11);
+    var indices = new TreeSet<Integer>();
+    for (var i = 0; i < 200; i++) {
+      indices.add(random.nextInt(4_000));
+    }
+
+    var applied = jdbc.queryForObject("SELECT bitset_apply(NULL, CAST(? AS INT[]), 1)", byte[].class,
+        "{" + String.join(",", indices.stream().map(String::valueOf).toList()) + "}");
+
+    assertThat(decodeIndices(applied)).containsExactlyElementsOf(indices);
+    assertThat(applied).isEqualTo(encodeIndices(indices));
+  }
+
+  @Test
+  void clearingBitsAndTrimmingDropsTrailingBytes() {
+    var cleared = jdbc.queryForObject("SELECT bitset_apply(bitset_apply(NULL, ARRAY[2, 30], 1), ARRAY[30, 99], 0)",
+        byte[].class);
+    var trimmed = jdbc.queryForObject("SELECT bitset_trim(?)", byte[].class, (Object) cleared);
+    var empty = jdbc.queryForObject("SELECT bitset_trim(bitset_apply(NULL, ARRAY[5], 0))", byte[].class);
+
+    assertThat(cleared).hasSize(4);
+    assertThat(trimmed).isEqualTo(encodeIndices(List.of(2)));
+    assertThat(empty).isNull();
+  }
+
+  // ===== Private methods =====
+
+  private byte[] failedItems(UUID jobId) {
+    return jdbc.queryForObject("SELECT failed_items FROM crawl_checkpoints WHERE id = ?", byte[].class, jobId);
+  }
+}
@@ -0,0 +1,214 @@
+package com.truyengg.db;
+
+import com.truyengg.support.PostgresIntegrationTest;
+import com.truyengg.support.PostgresTestDatabase;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * V12: crawl_job_rollup is backfilled and kept equal to a full recount by the crawl_jobs and
+ * crawl_progress triggers. V17: reconciling while jobs change status loses no delta.
+ * V18: a statement changing jobs of several trees applies one summed delta per tree.
+ */
+@PostgresIntegrationTest
+class CrawlJobRollupMigrationTest {
+
+  private static final String[] STATUSES = {"PENDING", "RUNNING", "PAUSED", "COMPLETED", "FAILED"};
+
+  @Test
+  void backfillAggregatesExistingDescendants() {
+    var database = PostgresTestDatabase.create().migrate("11");
+    var jdbc = new JdbcTemplate(database.dataSource());
+    var root = insertJob(jdbc, null, "COMIC", "RUNNING");
+    var done = insertJob(jdbc, root, "CHAPTER", "COMPLETED");
+    insertJob(jdbc, root, "CHAPTER", "FAILED");
+    jdbc.update("UPDATE crawl_jobs SET total_items = 4, completed_items = 1, failed_items = 2 WHERE id = ?", done);
+    jdbc.update("INSERT INTO crawl_progress (id, bytes_downloaded) VALUES (?, 2048)", done);
+
+    database.migrate();
+
+    var rollup = rollup(jdbc, root);
+    assertThat(rollup).containsEntry("total_jobs", 2).containsEntry("completed_jobs", 1)
+        .containsEntry("failed_jobs", 1).containsEntry("chapter_jobs", 2)
+        .containsEntry("failed_items", 2L).containsEntry("bytes_downloaded", 2048L)
+        .containsEntry("progress_sum", 25.0);
+  }
+
+  @Test
+  void triggersKeepTheRollupEqualToARecount() {
+    var database = PostgresTestDatabase.create().migrate();
+    var jdbc = new JdbcTemplate(database.dataSource());
+    var root = insertJob(jdbc, null, "COMIC", "RUNNING");
+    var first = insertJob(jdbc, root, "CHAPTER", "PENDING");
+    var second = insertJob(jdbc, root, "CHAPTER", "PENDING");
+    var image = insertJob(jdbc, first, "IMAGE", "PENDING");
+    jdbc.update("INSERT INTO crawl_progress (id) VALUES (?)", first);
+    assertThat(rollup(jdbc, root)).containsEntry("total_jobs", 3).containsEntry("pending_jobs", 3);
+
+    jdbc.update("UPDATE crawl_jobs SET status = 'RUNNING', total_items = 10, completed_items = 5 WHERE id = ?", first);
+    jdbc.update("UPDATE crawl_progress SET bytes_downloaded = 4096 WHERE id = ?", first);
+    jdbc.update("UPDATE crawl_jobs SET status = 'FAILED', failed_items = 3 WHERE id = ?", second);
+    assertThat(rollup(jdbc, root)).containsEntry("running_jobs", 1).containsEntry("failed_jobs", 1)
+        .containsEntry("pending_jobs", 1).containsEntry("failed_items", 3L)
+        .containsEntry("bytes_downloaded", 4096L).containsEntry("progress_sum", 50.0);
+    assertThat(reconcile(jdbc)).isZero();
+
+    jdbc.update("UPDATE crawl_jobs SET deleted_at = now() WHERE id = ?", second);
+    assertThat(rollup(jdbc, root)).containsEntry("total_jobs", 2).containsEntry("failed_jobs", 0)
+        .containsEntry("failed_items", 0L);
+    assertThat(reconcile(jdbc)).isZero();
+
+    jdbc.update("UPDATE crawl_jobs SET deleted_at = NULL WHERE id = ?", second);
+    jdbc.update("DELETE FROM crawl_jobs WHERE id = ?", image);
+    assertThat(rollup(jdbc, root)).containsEntry("total_jobs", 2).containsEntry("image_jobs", 0)
+        .containsEntry("failed_jobs", 1);
+    assertThat(reconcile(jdbc)).isZero();
+  }
+
+  @Test
+  void setBasedUpdatesAcrossTreesKeepEveryRollupEqualToARecount() {
+    var database = PostgresTestDatabase.create().migrate();
+    var jdbc = new JdbcTemplate(database.dataSource());
+    var firstRoot = insertJob(jdbc, null, "COMIC", "RUNNING");
+    var secondRoot = insertJob(jdbc, null, "COMIC", "RUNNING");
+    for (var i = 0; i < 20; i++) {
+      var chapter = insertJob(jdbc, i % 2 == 0 ? firstRoot : secondRoot, "CHAPTER", "RUNNING");
+      insertJob(jdbc, chapter, "IMAGE", "PENDING");
+    }
+    jdbc.update("INSERT INTO crawl_progress (id) SELECT id FROM crawl_jobs WHERE crawl_type = 'IMAGE'");
+    jdbc.update("UPDATE crawl_progress SET bytes_downloaded = 100");
+
+    jdbc.update("UPDATE crawl_jobs SET status = 'CANCELLED' WHERE root_job_id IS NOT NULL");
+    assertThat(rollup(jdbc, firstRoot)).containsEntry("total_jobs", 20).containsEntry("cancelled_jobs", 20)
+        .containsEntry("running_jobs", 0).containsEntry("pending_jobs", 0).containsEntry("bytes_downloaded", 1000L);
+    assertThat(reconcile(jdbc)).isZero();
+
+    // Unchanged rolled-up columns leave the rollups alone
+    jdbc.update("UPDATE crawl_jobs SET error_message = 'cancelled' WHERE root_job_id IS NOT NULL");
+    jdbc.update("UPDATE crawl_jobs SET deleted_at = now() WHERE root_job_id = ? AND crawl_type = 'IMAGE'", secondRoot);
+    assertThat(rollup(jdbc, secondRoot)).containsEntry("total_jobs", 10).containsEntry("image_jobs", 0)
+        .containsEntry("bytes_downloaded", 0L);
+    assertThat(reconcile(jdbc)).isZero();
+
+    // The cascade removes crawl_progress before the trigger runs, so only jobs without bytes are hard-deleted here
+    jdbc.update("UPDATE crawl_progress SET bytes_downloaded = 0");
+    jdbc.update("DELETE FROM crawl_jobs WHERE crawl_type = 'IMAGE'");
+    assertThat(rollup(jdbc, firstRoot)).containsEntry("total_jobs", 10).containsEntry("cancelled_jobs", 10)
+        .containsEntry("bytes_downloaded", 0L);
+    assertThat(reconcile(jdbc)).isZero();
+  }
+
+  @Test
+  void deletingTheRootRemovesItsRollup() {
+    var database = PostgresTestDatabase.create().migrate();
+    var jdbc = new JdbcTemplate(database.dataSource());
+    var root = insertJob(jdbc, null, "COMIC", "RUNNING");
+    insertJob(jdbc, root, "CHAPTER", "PENDING");
+
+    jdbc.update("DELETE FROM crawl_jobs WHERE id = ?", root);
+
+    assertThat(jdbc.queryForObject("SELECT count(*) FROM crawl_job_rollup", Long.class)).isZero();
+    assertThat(reconcile(jdbc)).isZero();
+  }
+
+  @Test
+  void reconcileRepairsADriftedRollup() {
+    var database = PostgresTestDatabase.create().migrate();
+    var jdbc = new JdbcTemplate(database.dataSource());
+    var root = insertJob(jdbc, null, "COMIC", "RUNNING");
+    insertJob(jdbc, root, "CHAPTER", "COMPLETED");
+
+    jdbc.update("UPDATE crawl_job_rollup SET total_jobs = 7, completed_jobs = 0 WHERE root_job_id = ?", root);
+
+    assertThat(reconcile(jdbc)).isEqualTo(1);
+    assertThat(rollup(jdbc, root)).containsEntry("total_jobs", 1).containsEntry("completed_jobs", 1);
+  }
+
+  @Test
+  void reconcileDuringConcurrentStatusChangesLosesNoDelta() throws Exception {
+    var dataSource = PostgresTestDatabase.create().migrate().dataSource();
+    var jdbc = new JdbcTemplate(dataSource);
+    var transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    var root = insertJob(jdbc, null, "COMIC", "RUNNING");
+    var chapters = IntStream.range(0, 50).mapToObj(i -> insertJob(jdbc, root, "CHAPTER", "PENDING")).toList();
+
+    // Writers keep going after the last concurrent reconcile, so a delta it overwrote stays lost
+    var reconcilerDone = new AtomicBoolean();
+    var writers = new ArrayList<Callable<Void>>();
+    for (var w = 0; w < 8; w++) {
+      var random = new Random(w);
+      writers.add(() -> {
+        for (var i = 0; !reconcilerDone.get() || i < 100; i++) {
+          // The delta stays uncommitted for a moment, as it does while the job's other work runs
+          transaction.executeWithoutResult(status -> {
+            jdbc.update("""
+                    UPDATE crawl_jobs SET status = CAST(? AS crawl_status), total_items = 10, completed_items = ?
+                    WHERE id = ?
+                    """, STATUSES[random.nextInt(STATUSES.length)], random.nextInt(11),
+                chapters.get(random.nextInt(chapters.size())));
+            jdbc.execute("SELECT pg_sleep(0.002)");
+          });
+        }
+        return null;
+      });
+    }
+    try (var executor = Executors.newFixedThreadPool(9)) {
+      var reconciler = executor.submit(() -> {
+        try {
+          for (var i = 0; i < 20; i++) {
+            reconcile(jdbc);
+          }
+        } finally {
+          reconcilerDone.set(true);
+        }
+        return null;
+      });
+      for (Future<Void> writer : executor.invokeAll(writers)) {
+        writer.get();
+      }
+      reconciler.get();
+    }
+
+    assertThat(reconcile(jdbc)).isZero();
+    var rollup = rollup(jdbc, root);
+    assertThat(rollup).containsEntry("total_jobs", 50).containsEntry("chapter_jobs", 50);
+    assertThat(Stream.of("pending_jobs", "running_jobs", "paused_jobs", "completed_jobs", "failed_jobs")
+        .mapToInt(column -> (Integer) rollup.get(column)).sum()).isEqualTo(50);
+  }
+
+  // ===== Private methods =====
+
+  private UUID insertJob(JdbcTemplate jdbc, UUID parentId, String crawlType, String status) {
+    var jobId = UUID.randomUUID();
+    var rootId = parentId == null ? null
+        : jdbc.queryForObject("SELECT COALESCE(root_job_id, id) FROM crawl_jobs WHERE id = ?", UUID.class, parentId);
+    jdbc.update("""
+        INSERT INTO crawl_jobs (id, parent_job_id, root_job_id, crawl_type, status, target_url)
+        VALUES (?, ?, ?, CAST(? AS crawl_type), CAST(? AS crawl_status), 'https://site.example')
+        """, jobId, parentId, rootId, crawlType, status);
+    return jobId;
+  }
+
+  private Map<String, Object> rollup(JdbcTemplate jdbc, UUID rootId) {
+    return jdbc.queryForMap("SELECT * FROM crawl_job_rollup WHERE root_job_id = ?", rootId);
+  }
+
+  private int reconcile(JdbcTemplate jdbc) {
+    return jdbc.queryForObject("SELECT reconcile_crawl_job_rollup()", Integer.class);
+  }
+}
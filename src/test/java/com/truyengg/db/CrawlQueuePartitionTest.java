@@ -0,0 +1,156 @@
+package com.truyengg.db;
+
+import com.truyengg.domain.repository.CrawlQueueRepository;
+import com.truyengg.model.dto.QueueItemRequest;
+import com.truyengg.service.crawl.CrawlErrorHandlingService;
+import com.truyengg.service.crawl.CrawlJobService;
+import com.truyengg.service.crawl.CrawlPartitionManager;
+import com.truyengg.service.crawl.CrawlPipeline;
+import com.truyengg.service.crawl.CrawlProgressService;
+import com.truyengg.service.crawl.CrawlQueueProcessor;
+import com.truyengg.support.PostgresIntegrationTest;
+import com.truyengg.support.PostgresTestDatabase;
+import org.jobrunr.scheduling.JobScheduler;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.UUID;
+
+import static com.truyengg.domain.enums.CrawlType.CHAPTER;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * V11 / V15 monthly crawl_queue partitions, their maintenance by {@link CrawlPartitionManager}
+ * and on-demand creation when items are enqueued.
+ */
+@PostgresIntegrationTest
+class CrawlQueuePartitionTest {
+
+  private static final String PARTITIONS_SQL = """
+      SELECT c.relname FROM pg_inherits i
+      INNER JOIN pg_class c ON c.oid = i.inhrelid
+      WHERE i.inhparent = 'crawl_queue'::regclass
+      """;
+
+  @Test
+  void rowsOutsideThePartitionRangeMoveOutOfTheDefaultPartition() {
+    var database = PostgresTestDatabase.create().migrate("14");
+    var jdbc = new JdbcTemplate(database.dataSource());
+    var jobId = insertJob(jdbc, "COMPLETED", "date_trunc('month', now()) - INTERVAL '3 years' + INTERVAL '4 days'");
+    insertQueueItem(jdbc, jobId);
+    assertThat(partitionOf(jdbc, jobId)).isEqualTo("crawl_queue_default");
+
+    database.migrate();
+
+    assertThat(partitionOf(jdbc, jobId)).isEqualTo(partitionName(jdbc, "INTERVAL '3 years'"));
+    assertThat(jdbc.queryForList(PARTITIONS_SQL, String.class)).doesNotContain("crawl_queue_default");
+  }
+
+  @Test
+  void maintenanceArchivesExpiredMonthsAndKeepsMonthsWithActiveJobs() {
+    var database = PostgresTestDatabase.create().migrate();
+    var jdbc = new JdbcTemplate(database.dataSource());
+    // A zone far from the JVM's, so month bounds computed on the wrong side would miss the boundary job
+    jdbc.execute("ALTER DATABASE " + jdbc.queryForObject("SELECT current_database()", String.class)
+        + " SET TimeZone = 'Pacific/Kiritimati'");
+
+    var expired = partitionName(jdbc, "INTERVAL '6 months'");
+    var active = partitionName(jdbc, "INTERVAL '5 months'");
+    jdbc.queryForObject("SELECT create_crawl_queue_partition(now() - INTERVAL '6 months')", String.class);
+    jdbc.queryForObject("SELECT create_crawl_queue_partition(now() - INTERVAL '5 months')", String.class);
+
+    var finishedJob = insertJob(jdbc, "COMPLETED", "date_trunc('month', now() - INTERVAL '6 months') + INTERVAL '10 days'");
+    insertQueueItem(jdbc, finishedJob);
+    var runningJob = insertJob(jdbc, "RUNNING", "date_trunc('month', now() - INTERVAL '5 months')");
+    insertQueueItem(jdbc, runningJob);
+
+    partitionManager(database).maintain();
+
+    var partitions = jdbc.queryForList(PARTITIONS_SQL, String.class);
+    assertThat(partitions).contains(active, partitionName(jdbc, "INTERVAL '0 months'"),
+        partitionName(jdbc, "INTERVAL '-2 months'"));
+    assertThat(partitions).doesNotContain(expired);
+    assertThat(partitionOf(jdbc, runningJob)).isEqualTo(active);
+    assertThat(jdbc.queryForObject("SELECT count(*) FROM crawl_archive." + expired, Long.class)).isEqualTo(1);
+  }
+
+  @Test
+  void enqueueCreatesTheMissingMonthPartitionOnce() {
+    var database = PostgresTestDatabase.create().migrate();
+    var jdbc = new JdbcTemplate(database.dataSource());
+    var jobId = insertJob(jdbc, "RUNNING", "date_trunc('month', now()) - INTERVAL '3 years' + INTERVAL '4 days'");
+    var month = partitionName(jdbc, "INTERVAL '3 years'");
+    assertThat(jdbc.queryForList(PARTITIONS_SQL, String.class)).doesNotContain(month);
+
+    var partitionManager = spy(partitionManager(database));
+    var processor = queueProcessor(database, partitionManager);
+    processor.enqueueBatch(jobId, CHAPTER, List.of(
+        new QueueItemRequest("https://site.example/chapter-1", "Chapter 1", 0),
+        new QueueItemRequest("https://site.example/chapter-2", "Chapter 2", 1)));
+    processor.enqueueBatch(jobId, CHAPTER, List.of(
+        new QueueItemRequest("https://site.example/chapter-3", "Chapter 3", 2)));
+
+    assertThat(jdbc.queryForObject("SELECT count(*) FROM " + month, Long.class)).isEqualTo(3);
+    assertThat(partitionOf(jdbc, jobId, "https://site.example/chapter-1")).isEqualTo(month);
+    verify(partitionManager, times(1)).createPartition(any());
+  }
+
+  // ===== Private methods =====
+
+  private CrawlQueueProcessor queueProcessor(PostgresTestDatabase database, CrawlPartitionManager partitionManager) {
+    return new CrawlQueueProcessor(mock(CrawlQueueRepository.class), mock(CrawlJobService.class),
+        mock(CrawlProgressService.class), mock(CrawlErrorHandlingService.class), mock(JobScheduler.class),
+        mock(ApplicationEventPublisher.class), new NamedParameterJdbcTemplate(database.dataSource()), partitionManager,
+        mock(CrawlPipeline.class));
+  }
+
+  private CrawlPartitionManager partitionManager(PostgresTestDatabase database) {
+    var manager = new CrawlPartitionManager(new NamedParameterJdbcTemplate(database.dataSource()));
+    ReflectionTestUtils.setField(manager, "enabled", true);
+    ReflectionTestUtils.setField(manager, "premakeMonths", 2);
+    ReflectionTestUtils.setField(manager, "retentionMonths", 3);
+    ReflectionTestUtils.setField(manager, "archive", true);
+    ReflectionTestUtils.setField(manager, "archiveRetentionMonths", 12);
+    return manager;
+  }
+
+  private UUID insertJob(JdbcTemplate jdbc, String status, String createdAt) {
+    var jobId = UUID.randomUUID();
+    jdbc.update("INSERT INTO crawl_jobs (id, crawl_type, target_url, status, created_at) "
+        + "VALUES (?, 'CHAPTER', 'https://site.example', CAST(? AS crawl_status), " + createdAt + ")", jobId, status);
+    return jobId;
+  }
+
+  private void insertQueueItem(JdbcTemplate jdbc, UUID jobId) {
+    jdbc.update("""
+        INSERT INTO crawl_queue (crawl_job_id, job_created_at, crawl_type, target_url)
+        SELECT id, created_at, crawl_type, target_url || '/item' FROM crawl_jobs WHERE id = ?
+        """, jobId);
+  }
+
+  private String partitionOf(JdbcTemplate jdbc, UUID jobId) {
+    return jdbc.queryForObject("SELECT tableoid::regclass::text FROM crawl_queue WHERE crawl_job_id = ?",
+        String.class, jobId);
+  }
+
+  private String partitionOf(JdbcTemplate jdbc, UUID jobId, String targetUrl) {
+    return jdbc.queryForObject("SELECT tableoid::regclass::text FROM crawl_queue WHERE crawl_job_id = ? AND target_url = ?",
+        String.class, jobId, targetUrl);
+  }
+
+  /**
+   * Partition name of the month the given interval before now, in the database time zone.
+   */
+  private String partitionName(JdbcTemplate jdbc, String monthsAgo) {
+    return jdbc.queryForObject("SELECT 'crawl_queue_p' || to_char(now() - " + monthsAgo + ", 'YYYY_MM')", String.class);
+  }
+}
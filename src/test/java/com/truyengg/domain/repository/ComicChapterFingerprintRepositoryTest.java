@@ -0,0 +1,127 @@
+package com.truyengg.domain.repository;
+
+import com.truyengg.service.crawl.SeenSourceFilter;
+import com.truyengg.support.PostgresIntegrationTest;
+import com.truyengg.support.PostgresTestDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace.NONE;
+
+@PostgresIntegrationTest
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = NONE)
+class ComicChapterFingerprintRepositoryTest {
+
+  @Autowired
+  ComicChapterFingerprintRepository repository;
+
+  @Autowired
+  JdbcTemplate jdbc;
+
+  // Required by the chapter entity listener
+  @MockBean
+  SeenSourceFilter seenSourceFilter;
+
+  long comicId;
+
+  @DynamicPropertySource
+  static void properties(DynamicPropertyRegistry registry) {
+    var database = PostgresTestDatabase.create();
+    registry.add("spring.datasource.url", database::url);
+    registry.add("spring.datasource.username", database::username);
+    registry.add("spring.datasource.password", database::password);
+  }
+
+  @BeforeEach
+  void setUp() {
+    comicId = jdbc.queryForObject("""
+        INSERT INTO comics (name, slug) VALUES ('Fingerprint', 'fingerprint-' || gen_random_uuid()) RETURNING id
+        """, Long.class);
+    for (var chapter = 1; chapter <= 3; chapter++) {
+      jdbc.update("INSERT INTO chapters (comic_id, chapter_name, source) VALUES (?, ?, ?)",
+          comicId, "Chapter " + chapter, "https://site.example/chuong-" + chapter);
+    }
+  }
+
+  @Test
+  void returnsStoredSourcesWhenNoFingerprintIsStored() {
+    var rows = repository.findSourcesUnlessFingerprint(comicId, 42L, 3);
+
+    assertThat(sources(rows)).containsExactlyInAnyOrder(
+        "https://site.example/chuong-1", "https://site.example/chuong-2", "https://site.example/chuong-3");
+    assertThat(rows).noneMatch(row -> row[0] == null);
+  }
+
+  @Test
+  void matchingFingerprintSkipsTheSources() {
+    repository.upsert(comicId, 42L, 3);
+
+    var rows = repository.findSourcesUnlessFingerprint(comicId, 42L, 3);
+
+    assertThat(rows).hasSize(1);
+    assertThat(rows.get(0)[0]).isNull();
+    assertThat(((Number) rows.get(0)[1]).longValue()).isEqualTo(42L);
+    assertThat(((Number) rows.get(0)[2]).intValue()).isEqualTo(3);
+  }
+
+  @Test
+  void differentFingerprintReturnsStoredRowAndSources() {
+    repository.upsert(comicId, 42L, 3);
+
+    var rows = repository.findSourcesUnlessFingerprint(comicId, 43L, 3);
+
+    assertThat(rows).hasSize(4);
+    assertThat(rows).filteredOn(row -> row[0] == null).hasSize(1);
+  }
+
+  @Test
+  void hardDeleteDropsTheFingerprint() {
+    repository.upsert(comicId, 42L, 3);
+
+    jdbc.update("DELETE FROM chapters WHERE comic_id = ? AND chapter_name = 'Chapter 2'", comicId);
+
+    assertThat(repository.existsById(comicId)).isFalse();
+  }
+
+  @Test
+  void softDeleteAndRestoreDropTheFingerprint() {
+    repository.upsert(comicId, 42L, 3);
+    jdbc.update("UPDATE chapters SET deleted_at = now() WHERE comic_id = ? AND chapter_name = 'Chapter 2'", comicId);
+    assertThat(repository.existsById(comicId)).isFalse();
+
+    repository.upsert(comicId, 42L, 3);
+    jdbc.update("UPDATE chapters SET deleted_at = NULL WHERE comic_id = ? AND chapter_name = 'Chapter 2'", comicId);
+    assertThat(repository.existsById(comicId)).isFalse();
+  }
+
+  @Test
+  void insertsAndUnrelatedUpdatesKeepTheFingerprint() {
+    repository.upsert(comicId, 42L, 3);
+
+    jdbc.update("INSERT INTO chapters (comic_id, chapter_name, source) VALUES (?, 'Chapter 4', 'https://site.example/chuong-4')",
+        comicId);
+    jdbc.update("UPDATE chapters SET is_backed_up = TRUE, source = source WHERE comic_id = ?", comicId);
+
+    assertThat(repository.existsById(comicId)).isTrue();
+  }
+
+  // ===== Private methods =====
+
+  private List<String> sources(List<Object[]> rows) {
+    return rows.stream()
+        .filter(row -> row[0] != null)
+        .map(row -> (String) row[0])
+        .toList();
+  }
+}
@@ -0,0 +1,119 @@
+package com.truyengg.domain.repository;
+
+import com.truyengg.domain.entity.CrawlCheckpoint;
+import com.truyengg.service.crawl.SeenSourceFilter;
+import com.truyengg.support.PostgresIntegrationTest;
+import com.truyengg.support.PostgresTestDatabase;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static com.truyengg.domain.enums.ImageTaskStatus.COMPLETED;
+import static com.truyengg.domain.enums.ImageTaskStatus.PENDING;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace.NONE;
+
+/**
+ * In-place checkpoint updates: each one must leave the columns it does not own untouched.
+ */
+@PostgresIntegrationTest
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = NONE)
+class CrawlCheckpointRepositoryTest {
+
+  @Autowired
+  CrawlCheckpointRepository repository;
+
+  @Autowired
+  EntityManager entityManager;
+
+  @Autowired
+  JdbcTemplate jdbc;
+
+  // Required by the chapter entity listener
+  @MockBean
+  SeenSourceFilter seenSourceFilter;
+
+  UUID jobId = UUID.randomUUID();
+
+  @DynamicPropertySource
+  static void properties(DynamicPropertyRegistry registry) {
+    var database = PostgresTestDatabase.create();
+    registry.add("spring.datasource.url", database::url);
+    registry.add("spring.datasource.username", database::username);
+    registry.add("spring.datasource.password", database::password);
+  }
+
+  @BeforeEach
+  void setUp() {
+    jdbc.update("INSERT INTO crawl_jobs (id, crawl_type, target_url) VALUES (?, 'CHAPTER', 'https://site.example')", jobId);
+    jdbc.update("INSERT INTO crawl_checkpoints (id) VALUES (?)", jobId);
+  }
+
+  @Test
+  void saveImageTasksWritesOnlyTheTaskColumns() {
+    repository.saveState(jobId, "imageUrls", "[\"kept\"]", ZonedDateTime.now());
+    repository.addFailedIndices(jobId, new Integer[]{4}, ZonedDateTime.now());
+
+    repository.saveImageTasks(jobId, List.of("https://img.example/1.jpg", "https://img.example/2.jpg"),
+        new byte[]{PENDING.getCode(), PENDING.getCode()}, ZonedDateTime.now());
+    repository.updateImageStatus(jobId, 1, COMPLETED.getCode());
+
+    var checkpoint = reload();
+    assertThat(checkpoint.getImageUrls()).containsExactly("https://img.example/1.jpg", "https://img.example/2.jpg");
+    assertThat(checkpoint.getImageStatuses()).containsExactly(PENDING.getCode(), COMPLETED.getCode());
+    assertThat(checkpoint.hasImageTasks()).isTrue();
+    assertThat(checkpoint.getFailedItemIndices()).containsExactly(4);
+    assertThat(checkpoint.getStateSnapshot()).containsKey("imageUrls");
+  }
+
+  @Test
+  void failedIndicesAreAddedAndRemovedInPlace() {
+    repository.addFailedIndices(jobId, new Integer[]{9, 2}, ZonedDateTime.now());
+    repository.addFailedIndices(jobId, new Integer[]{2, 40}, ZonedDateTime.now());
+    repository.removeFailedIndices(jobId, new Integer[]{40, 100}, ZonedDateTime.now());
+
+    assertThat(reload().getFailedItemIndices()).containsExactly(2, 9);
+
+    repository.removeFailedIndices(jobId, new Integer[]{2, 9}, ZonedDateTime.now());
+    assertThat(repository.compactFailedItems()).isEqualTo(1);
+    assertThat(reload().getFailedItems()).isNull();
+  }
+
+  @Test
+  void stateEntriesAreMergedIntoTheSnapshot() {
+    repository.saveImageTasks(jobId, List.of("https://img.example/1.jpg", "https://img.example/2.jpg"),
+        new byte[]{PENDING.getCode(), PENDING.getCode()}, ZonedDateTime.now());
+    repository.saveState(jobId, "lastError_3", "{\"type\": \"CAPTCHA_REQUIRED\"}", ZonedDateTime.now());
+    repository.saveState(jobId, "lastError_5", "{\"type\": \"BLOCKED\"}", ZonedDateTime.now());
+    repository.saveDownloadedImage(jobId, 0, COMPLETED.getCode(), "{\"index\": 0, \"path\": \"a\"}", ZonedDateTime.now());
+    repository.saveDownloadedImage(jobId, 1, COMPLETED.getCode(), "{\"index\": 1, \"path\": \"b\"}", ZonedDateTime.now());
+    repository.saveDownloadedImage(jobId, 0, COMPLETED.getCode(), "{\"index\": 0, \"path\": \"c\"}", ZonedDateTime.now());
+
+    var checkpoint = reload();
+    assertThat(checkpoint.getImageStatuses()).containsExactly(COMPLETED.getCode(), COMPLETED.getCode());
+    var snapshot = checkpoint.getStateSnapshot();
+    assertThat(snapshot).containsKeys("lastError_3", "lastError_5");
+    assertThat(snapshot.get("downloadedImages")).asList().hasSize(3)
+        .last().asString().contains("path=c");
+  }
+
+  // ===== Private methods =====
+
+  private CrawlCheckpoint reload() {
+    entityManager.flush();
+    entityManager.clear();
+    return repository.findById(jobId).orElseThrow();
+  }
+}
@@ -0,0 +1,55 @@
+package com.truyengg.model.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProgressDeltaTest {
+
+  @Test
+  void mergeSumsCountersAndEvents() {
+    var merged = ProgressDelta.ofCompleted(2, 100L)
+        .merge(ProgressDelta.ofFailed("boom"))
+        .merge(ProgressDelta.ofSkipped());
+
+    assertThat(merged.completed()).isEqualTo(2);
+    assertThat(merged.failed()).isEqualTo(1);
+    assertThat(merged.skipped()).isEqualTo(1);
+    assertThat(merged.bytes()).isEqualTo(100L);
+    assertThat(merged.messages()).containsExactly("boom");
+    assertThat(merged.events()).isEqualTo(3);
+  }
+
+  @Test
+  void retryMovesOneItemFromFailedToCompleted() {
+    var merged = ProgressDelta.ofFailed(null).merge(ProgressDelta.ofRetried(42L));
+
+    assertThat(merged.completed()).isEqualTo(1);
+    assertThat(merged.failed()).isZero();
+    assertThat(merged.bytes()).isEqualTo(42L);
+    assertThat(merged.hasCounters()).isTrue();
+  }
+
+  @Test
+  void mergeKeepsOnlyTheNewestMessages() {
+    var merged = IntStream.range(0, ProgressDelta.MAX_MESSAGES + 5)
+        .mapToObj(i -> ProgressDelta.ofFailed("error " + i))
+        .reduce(ProgressDelta::merge)
+        .orElseThrow();
+
+    assertThat(merged.failed()).isEqualTo(ProgressDelta.MAX_MESSAGES + 5);
+    assertThat(merged.messages()).hasSize(ProgressDelta.MAX_MESSAGES);
+    assertThat(merged.messages().get(0)).isEqualTo("error 5");
+    assertThat(merged.messages().get(ProgressDelta.MAX_MESSAGES - 1)).isEqualTo("error " + (ProgressDelta.MAX_MESSAGES + 4));
+  }
+
+  @Test
+  void messagesOnlyDeltaHasNoCounters() {
+    var delta = new ProgressDelta(0, 0, 0, 0L, List.of("note"), 1);
+
+    assertThat(delta.hasCounters()).isFalse();
+  }
+}
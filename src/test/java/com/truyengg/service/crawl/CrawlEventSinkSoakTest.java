@@ -0,0 +1,116 @@
+package com.truyengg.service.crawl;
+
+import com.truyengg.domain.entity.CrawlJob;
+import com.truyengg.model.graphql.CrawlProgressUpdate;
+import com.truyengg.model.graphql.MessageDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.truyengg.domain.enums.CrawlStatus.COMPLETED;
+import static com.truyengg.domain.enums.CrawlStatus.FAILED;
+import static com.truyengg.domain.enums.CrawlStatus.RUNNING;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 50,000 jobs through {@link CrawlEventPublisher} with subscribe / cancel churn: most jobs finish and
+ * complete their sinks, the rest are abandoned by their subscribers and left to the idle sweep.
+ * The live sink count returns to zero and the heap stays flat.
+ */
+class CrawlEventSinkSoakTest {
+
+  private static final Logger log = LoggerFactory.getLogger(CrawlEventSinkSoakTest.class);
+  private static final int JOBS = 50_000;
+  private static final int WARMUP_JOBS = 5_000;
+  private static final int SWEEP_EVERY = 1_000;
+  private static final int PROGRESS_UPDATES = 5;
+  private static final int MESSAGES = 3;
+  private static final long MAX_HEAP_GROWTH_BYTES = 8 * 1024 * 1024;
+
+  @Test
+  void sinksOfFinishedAndAbandonedJobsAreReleased() {
+    var meterRegistry = new SimpleMeterRegistry();
+    // Zero idle TTL: every sweep evicts the sinks nobody subscribes to any more
+    var publisher = new CrawlEventPublisher(meterRegistry, 256, 0);
+    var globalEvents = new AtomicLong();
+    var global = publisher.subscribeToGlobalEvents().subscribe(event -> globalEvents.incrementAndGet());
+    var received = new AtomicLong();
+    var peakSinks = 0.0;
+    var baselineHeap = 0L;
+
+    for (var i = 0; i < JOBS; i++) {
+      runJob(publisher, i, received);
+      if ((i + 1) % SWEEP_EVERY == 0) {
+        peakSinks = Math.max(peakSinks, liveSinks(meterRegistry));
+        publisher.evictIdleSinks();
+      }
+      if (i + 1 == WARMUP_JOBS) {
+        baselineHeap = usedHeapAfterGc();
+      }
+    }
+    publisher.evictIdleSinks();
+    var finalHeap = usedHeapAfterGc();
+    global.dispose();
+
+    log.info("Event sinks after {} jobs: peak {} live sinks, {} events received, {} global events, "
+            + "heap {} KB after warm-up, {} KB at the end",
+        JOBS, peakSinks, received.get(), globalEvents.get(), baselineHeap / 1024, finalHeap / 1024);
+    assertThat(liveSinks(meterRegistry)).isZero();
+    // Only the sinks abandoned since the last sweep are ever alive: three types per abandoned job
+    assertThat(peakSinks).isLessThanOrEqualTo(3.0 * SWEEP_EVERY);
+    assertThat(received.get()).isPositive();
+    assertThat(finalHeap - baselineHeap).isLessThan(MAX_HEAP_GROWTH_BYTES);
+  }
+
+  // ===== Private methods =====
+
+  /**
+   * One job: subscribe to progress, messages and status, publish a few events, then either reach a
+   * terminal status (four jobs in five) or lose the subscribers without ever finishing.
+   */
+  private void runJob(CrawlEventPublisher publisher, int index, AtomicLong received) {
+    var jobId = UUID.randomUUID();
+    var job = CrawlJob.builder().id(jobId).status(RUNNING).build();
+    var subscriptions = new ArrayList<Disposable>();
+    subscriptions.add(publisher.subscribeToProgress(jobId).subscribe(update -> received.incrementAndGet()));
+    subscriptions.add(publisher.subscribeToMessages(jobId).subscribe(message -> received.incrementAndGet()));
+    subscriptions.add(publisher.subscribeToStatusChanged(jobId).subscribe(status -> received.incrementAndGet()));
+
+    publisher.publishStatusChanged(job);
+    for (var i = 0; i < PROGRESS_UPDATES; i++) {
+      publisher.publishProgressUpdate(jobId, CrawlProgressUpdate.builder()
+          .jobId(jobId).percent(i * 20).message("Item " + i).build());
+    }
+    for (var i = 0; i < MESSAGES; i++) {
+      publisher.publishMessage(jobId, MessageDto.builder().id(jobId + "-" + i).message("Message " + i).build());
+    }
+
+    if (index % 5 == 4) {
+      subscriptions.forEach(Disposable::dispose);
+      return;
+    }
+    job.setStatus(index % 2 == 0 ? COMPLETED : FAILED);
+    publisher.publishStatusChanged(job);
+    assertThat(subscriptions).allMatch(Disposable::isDisposed);
+  }
+
+  private double liveSinks(MeterRegistry meterRegistry) {
+    return meterRegistry.find("crawl.events.sinks").gauges().stream().mapToDouble(gauge -> gauge.value()).sum();
+  }
+
+  private long usedHeapAfterGc() {
+    var memory = ManagementFactory.getMemoryMXBean();
+    for (var i = 0; i < 3; i++) {
+      System.gc();
+    }
+    return memory.getHeapMemoryUsage().getUsed();
+  }
+}
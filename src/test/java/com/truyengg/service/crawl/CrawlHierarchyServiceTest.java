@@ -0,0 +1,111 @@
+package com.truyengg.service.crawl;
+
+import com.truyengg.support.PostgresIntegrationTest;
+import com.truyengg.support.PostgresTestDatabase;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * crawl_job_closure (V9): backfill, maintenance through {@link CrawlHierarchyService#addToClosure}
+ * and the subtree lookups served from it.
+ */
+@PostgresIntegrationTest
+class CrawlHierarchyServiceTest {
+
+  @Test
+  void backfillRecordsEveryAncestorPairWithItsDepth() {
+    var database = PostgresTestDatabase.create().migrate("8");
+    var jdbc = new JdbcTemplate(database.dataSource());
+    var root = insertJob(jdbc, null);
+    var chapter = insertJob(jdbc, root);
+    var image = insertJob(jdbc, chapter);
+    var sibling = insertJob(jdbc, root);
+
+    database.migrate();
+
+    assertThat(depth(jdbc, root, root)).isZero();
+    assertThat(depth(jdbc, root, chapter)).isEqualTo(1);
+    assertThat(depth(jdbc, root, image)).isEqualTo(2);
+    assertThat(depth(jdbc, chapter, image)).isEqualTo(1);
+    assertThat(depth(jdbc, root, sibling)).isEqualTo(1);
+    assertThat(jdbc.queryForObject("SELECT count(*) FROM crawl_job_closure", Long.class)).isEqualTo(8);
+  }
+
+  @Test
+  void lookupsFollowTheClosureRowsAddedForNewJobs() {
+    var database = PostgresTestDatabase.create().migrate();
+    var jdbc = new JdbcTemplate(database.dataSource());
+    var service = new CrawlHierarchyService(new NamedParameterJdbcTemplate(database.dataSource()));
+
+    var root = insertJob(jdbc, null, service);
+    var chapter = insertJob(jdbc, root, service);
+    var image = insertJob(jdbc, chapter, service);
+    var sibling = insertJob(jdbc, root, service);
+
+    assertThat(service.findAllDescendants(root)).containsExactlyInAnyOrder(chapter, image, sibling);
+    assertThat(service.findAllDescendants(chapter)).containsExactly(image);
+    assertThat(service.findAllAncestors(image)).containsExactly(chapter, root);
+    assertThat(service.findRootJob(image)).isEqualTo(root);
+    assertThat(service.findRootJob(root)).isEqualTo(root);
+    assertThat(service.getMaxDepth(root)).isEqualTo(2);
+    assertThat(service.countDescendants(root)).isEqualTo(3);
+  }
+
+  @Test
+  void softDeletedJobHidesItsSubtree() {
+    var database = PostgresTestDatabase.create().migrate();
+    var jdbc = new JdbcTemplate(database.dataSource());
+    var service = new CrawlHierarchyService(new NamedParameterJdbcTemplate(database.dataSource()));
+    var root = insertJob(jdbc, null, service);
+    var chapter = insertJob(jdbc, root, service);
+    var image = insertJob(jdbc, chapter, service);
+    var sibling = insertJob(jdbc, root, service);
+
+    jdbc.update("UPDATE crawl_jobs SET deleted_at = now() WHERE id = ?", chapter);
+
+    assertThat(service.findAllDescendants(root)).containsExactly(sibling);
+    assertThat(service.countDescendants(root)).isEqualTo(2);
+    assertThat(service.getMaxDepth(root)).isEqualTo(2);
+    assertThat(service.findAllAncestors(image)).containsExactly(chapter, root);
+  }
+
+  @Test
+  void deletingAJobRemovesItsClosureRows() {
+    var database = PostgresTestDatabase.create().migrate();
+    var jdbc = new JdbcTemplate(database.dataSource());
+    var service = new CrawlHierarchyService(new NamedParameterJdbcTemplate(database.dataSource()));
+    var root = insertJob(jdbc, null, service);
+    var chapter = insertJob(jdbc, root, service);
+
+    jdbc.update("DELETE FROM crawl_jobs WHERE id = ?", chapter);
+
+    assertThat(service.findAllDescendants(root)).isEmpty();
+    assertThat(jdbc.queryForObject("SELECT count(*) FROM crawl_job_closure WHERE descendant_id = ?",
+        Long.class, chapter)).isZero();
+  }
+
+  // ===== Private methods =====
+
+  private UUID insertJob(JdbcTemplate jdbc, UUID parentId) {
+    var jobId = UUID.randomUUID();
+    jdbc.update("INSERT INTO crawl_jobs (id, parent_job_id, crawl_type, target_url) "
+        + "VALUES (?, ?, 'CHAPTER', 'https://site.example')", jobId, parentId);
+    return jobId;
+  }
+
+  private UUID insertJob(JdbcTemplate jdbc, UUID parentId, CrawlHierarchyService service) {
+    var jobId = insertJob(jdbc, parentId);
+    service.addToClosure(jobId, parentId);
+    return jobId;
+  }
+
+  private Integer depth(JdbcTemplate jdbc, UUID ancestorId, UUID descendantId) {
+    return jdbc.queryForObject("SELECT depth FROM crawl_job_closure WHERE ancestor_id = ? AND descendant_id = ?",
+        Integer.class, ancestorId, descendantId);
+  }
+}
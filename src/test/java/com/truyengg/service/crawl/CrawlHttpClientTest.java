@@ -0,0 +1,233 @@
+package com.truyengg.service.crawl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.truyengg.config.CrawlWebClientConfig;
+import com.truyengg.domain.entity.CrawlHttpCache;
+import com.truyengg.domain.repository.CrawlHttpCacheRepository;
+import com.truyengg.model.properties.CrawlHttpProperties;
+import com.truyengg.model.properties.CrawlPipelineProperties;
+import com.truyengg.model.properties.CrawlRateLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static com.truyengg.domain.enums.CrawlSourceType.HTML;
+import static java.lang.System.nanoTime;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.http.HttpHeaders.CONTENT_ENCODING;
+import static org.springframework.http.HttpHeaders.ETAG;
+import static org.springframework.http.HttpHeaders.IF_NONE_MATCH;
+
+/**
+ * CrawlHttpClient against a local stub server: rate limiting, the fetch stage and streamed body decoding.
+ */
+class CrawlHttpClientTest {
+
+  CrawlWebClientConfig config = new CrawlWebClientConfig();
+  SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  CrawlRateLimitProperties rateLimitProperties = new CrawlRateLimitProperties();
+  CrawlHttpCacheRepository cacheRepository = mock(CrawlHttpCacheRepository.class);
+  CrawlHttpProperties httpProperties = new CrawlHttpProperties();
+  AtomicInteger requests = new AtomicInteger();
+  HttpServer server;
+  ConnectionProvider connectionProvider;
+  CrawlHttpClient client;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    server.createContext("/", exchange -> respond(exchange, 200, "<html>ok</html>".getBytes(UTF_8)));
+    server.start();
+
+    var bucket = new CrawlRateLimitProperties.Bucket();
+    bucket.setCapacity(1);
+    bucket.setRefillPerSecond(4.0);
+    rateLimitProperties.getSources().put(HTML, bucket);
+
+    connectionProvider = config.crawlConnectionProvider(httpProperties);
+    client = client(config.crawlNettyHttpClient(connectionProvider, httpProperties, 15), new ObjectMapper());
+  }
+
+  @AfterEach
+  void tearDown() {
+    connectionProvider.dispose();
+    server.stop(0);
+  }
+
+  @Test
+  void rateLimitWaitIsPartOfTheFetchStage() {
+    for (var i = 0; i < 3; i++) {
+      assertThat(client.fetchUrl(url("/page-" + i), List.of(), false)).isEqualTo("<html>ok</html>");
+    }
+
+    // One token is free, the next two wait a quarter second each for the refill - inside the fetch stage
+    var fetchRun = meterRegistry.get("crawl.pipeline.run").tag("stage", "fetch").timer();
+    var fetchWait = meterRegistry.get("crawl.pipeline.wait").tag("stage", "fetch").timer();
+    assertThat(fetchRun.count()).isEqualTo(3);
+    assertThat(fetchRun.totalTime(MILLISECONDS)).isGreaterThanOrEqualTo(450);
+    assertThat(fetchWait.totalTime(MILLISECONDS)).isLessThan(100);
+  }
+
+  @Test
+  void jsonIsParsedWhileTheBodyIsStillArriving() {
+    var lastChunkSentAt = new AtomicLong();
+    server.createContext("/slow.json", exchange -> {
+      exchange.sendResponseHeaders(200, 0);
+      try (var output = exchange.getResponseBody()) {
+        output.write("{\"name\":\"".getBytes(UTF_8));
+        output.flush();
+        sleep(500);
+        lastChunkSentAt.set(nanoTime());
+        output.write("comic\"}".getBytes(UTF_8));
+      }
+    });
+    var parseStartedAt = new AtomicLong();
+    var objectMapper = new ObjectMapper() {
+      @Override
+      public <T> T readValue(InputStream src, Class<T> valueType) throws IOException {
+        parseStartedAt.set(nanoTime());
+        return super.readValue(src, valueType);
+      }
+    };
+    client = client(config.crawlNettyHttpClient(connectionProvider, httpProperties, 15), objectMapper);
+
+    var result = client.fetchJson(url("/slow.json"), List.of(), Map.class);
+
+    assertThat(result).containsEntry("name", "comic");
+    assertThat(parseStartedAt.get()).isLessThan(lastChunkSentAt.get());
+  }
+
+  @Test
+  void encodingsTheConnectorLeavesAloneAreDecodedInReverseOrder() throws IOException {
+    var page = "<html>" + "chapter ".repeat(1000) + "</html>";
+    var deflated = deflate(page.getBytes(UTF_8));
+    var gzippedDeflate = gzip(deflated);
+    server.createContext("/deflate", exchange -> {
+      exchange.getResponseHeaders().set(CONTENT_ENCODING, "deflate");
+      respond(exchange, 200, deflated);
+    });
+    server.createContext("/deflate-gzip", exchange -> {
+      exchange.getResponseHeaders().set(CONTENT_ENCODING, "deflate, gzip");
+      respond(exchange, 200, gzippedDeflate);
+    });
+    client = client(HttpClient.create(connectionProvider), new ObjectMapper());
+
+    assertThat(client.fetchUrl(url("/deflate"), List.of(), false)).isEqualTo(page);
+    assertThat(client.fetchUrl(url("/deflate-gzip"), List.of(), false)).isEqualTo(page);
+  }
+
+  @Test
+  void unsupportedEncodingIsRejectedWithoutRetrying() {
+    server.createContext("/zstd", exchange -> {
+      requests.incrementAndGet();
+      exchange.getResponseHeaders().set(CONTENT_ENCODING, "zstd");
+      respond(exchange, 200, new byte[]{40, -75, 47, -3});
+    });
+
+    assertThat(client.fetchUrl(url("/zstd"), List.of(), false)).isEmpty();
+    assertThat(requests).hasValue(1);
+  }
+
+  @Test
+  void notModifiedProbeLeavesNothingBehindForTheNextFetch() {
+    var comic = url("/comic");
+    server.createContext("/comic", exchange -> {
+      requests.incrementAndGet();
+      if ("\"v1\"".equals(exchange.getRequestHeaders().getFirst(IF_NONE_MATCH))) {
+        respond(exchange, 304, new byte[0]);
+        return;
+      }
+      exchange.getResponseHeaders().set(ETAG, "\"v1\"");
+      respond(exchange, 200, ("<html>" + requests.get() + "</html>").getBytes(UTF_8));
+    });
+
+    var changed = client.fetchUrlIfChanged(comic, List.of());
+    assertThat(changed.unchanged()).isFalse();
+    assertThat(changed.body()).isEqualTo("<html>1</html>");
+    assertThat(changed.etag()).isEqualTo("\"v1\"");
+
+    when(cacheRepository.findById(comic)).thenReturn(Optional.of(CrawlHttpCache.builder()
+        .url(comic).etag("\"v1\"").bodyHash("hash").bodySize(14).parseMillis(30).build()));
+    var notModified = client.fetchUrlIfChanged(comic, List.of());
+    assertThat(notModified.notModified()).isTrue();
+    assertThat(notModified.body()).isEmpty();
+    assertThat(notModified.bytesSaved()).isEqualTo(14);
+
+    // A later plain fetch goes to the server instead of reusing the probed body
+    assertThat(client.fetchUrl(comic, List.of(), false)).isEqualTo("<html>3</html>");
+    assertThat(requests).hasValue(3);
+  }
+
+  // ===== Private methods =====
+
+  private CrawlHttpClient client(HttpClient httpClient, ObjectMapper objectMapper) {
+    var webClient = config.crawlWebClient(WebClient.builder(), httpClient);
+    var crawlHttpClient = new CrawlHttpClient(webClient, objectMapper, new HostRateLimiter(rateLimitProperties),
+        new CrawlPipeline(new CrawlPipelineProperties(), meterRegistry),
+        new ConditionalFetchCache(cacheRepository));
+    ReflectionTestUtils.setField(crawlHttpClient, "maxRetries", 3);
+    ReflectionTestUtils.setField(crawlHttpClient, "retryDelay", 1);
+    ReflectionTestUtils.setField(crawlHttpClient, "requestTimeout", 15);
+    return crawlHttpClient;
+  }
+
+  private static byte[] deflate(byte[] bytes) throws IOException {
+    var output = new ByteArrayOutputStream();
+    try (var deflater = new DeflaterOutputStream(output)) {
+      deflater.write(bytes);
+    }
+    return output.toByteArray();
+  }
+
+  private static byte[] gzip(byte[] bytes) throws IOException {
+    var output = new ByteArrayOutputStream();
+    try (var gzip = new GZIPOutputStream(output)) {
+      gzip.write(bytes);
+    }
+    return output.toByteArray();
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+    exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+    try (var output = exchange.getResponseBody()) {
+      output.write(body);
+    }
+  }
+
+  private String url(String path) {
+    return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+  }
+}
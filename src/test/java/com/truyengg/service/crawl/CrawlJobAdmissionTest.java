@@ -0,0 +1,179 @@
+package com.truyengg.service.crawl;
+
+import com.truyengg.domain.entity.CrawlJob;
+import com.truyengg.domain.enums.CrawlType;
+import com.truyengg.domain.repository.UserRepository;
+import com.truyengg.model.dto.QueueItemRequest;
+import com.truyengg.model.request.CrawlJobRequest;
+import com.truyengg.service.crawl.handler.CrawlTypeHandler;
+import com.truyengg.support.PostgresIntegrationTest;
+import com.truyengg.support.PostgresTestDatabase;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static com.truyengg.domain.enums.CrawlType.CHAPTER;
+import static com.truyengg.domain.enums.CrawlType.IMAGE;
+import static com.truyengg.model.request.CrawlJobRequest.child;
+import static java.lang.System.nanoTime;
+import static java.time.Duration.ofMinutes;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Many more jobs than job slots: queue workers create child jobs only as slots free up, and a job
+ * that still gets no slot waits for one instead of failing.
+ */
+@PostgresIntegrationTest
+@SpringBootTest
+class CrawlJobAdmissionTest {
+
+  private static final String ADMIN_EMAIL = "admin@truyengg.com";
+  private static final int QUEUED_JOBS = 10_000;
+  private static final int DISPATCHED_JOBS = 200;
+
+  private static PostgresTestDatabase database;
+
+  @Autowired
+  CrawlJobService jobService;
+
+  @Autowired
+  CrawlQueueProcessor queueProcessor;
+
+  @Autowired
+  CrawlExecutor executor;
+
+  @Autowired
+  UserRepository userRepository;
+
+  @Autowired
+  MeterRegistry meterRegistry;
+
+  UUID chapterId;
+
+  @DynamicPropertySource
+  static void properties(DynamicPropertyRegistry registry) {
+    database = PostgresTestDatabase.create();
+    registry.add("spring.datasource.url", database::url);
+    registry.add("spring.datasource.username", database::username);
+    registry.add("spring.datasource.password", database::password);
+    registry.add("truyengg.crawl.pipeline.max-concurrent-jobs", () -> 8);
+    registry.add("truyengg.crawl.pipeline.max-waiting", () -> 8);
+    registry.add("truyengg.crawl.pipeline.job-acquire-timeout", () -> "100ms");
+    registry.add("crawl.pipeline.redispatch-interval-ms", () -> 50);
+    registry.add("crawl.queue.batch-size", () -> 50);
+    registry.add("jobrunr.background-job-server.enabled", () -> false);
+    registry.add("jobrunr.dashboard.enabled", () -> false);
+  }
+
+  @BeforeEach
+  void setUp() {
+    // IMAGE jobs only take their slot for a moment; nothing is downloaded
+    CrawlExecutor target = AopTestUtils.getTargetObject(executor);
+    @SuppressWarnings("unchecked")
+    var handlerMap = (Map<CrawlType, Optional<CrawlTypeHandler>>) ReflectionTestUtils.getField(target, "handlerMap");
+    handlerMap.put(IMAGE, Optional.of(new SlotHoldingHandler()));
+
+    var admin = userRepository.findByEmail(ADMIN_EMAIL).orElseThrow();
+    chapterId = jobService.createJob(
+        CrawlJobRequest.simple(CHAPTER, "https://site.example/truyen/comic/chuong-" + UUID.randomUUID()), admin).getId();
+    jobService.start(chapterId);
+  }
+
+  @Test
+  void queuedChildJobsNeverFailForWantOfASlot() {
+    var items = IntStream.range(0, QUEUED_JOBS)
+        .mapToObj(i -> new QueueItemRequest("https://site.example/images/page-%05d.jpg".formatted(i), null, i))
+        .toList();
+
+    queueProcessor.enqueueAllAndProcess(chapterId, IMAGE, items);
+
+    awaitChildren(QUEUED_JOBS);
+    assertThat(childrenWithStatus("FAILED")).isZero();
+    assertThat(childrenWithStatus("COMPLETED")).isEqualTo(QUEUED_JOBS);
+  }
+
+  @Test
+  void jobsRejectedByAFullJobStageRunLater() {
+    var admin = userRepository.findByEmail(ADMIN_EMAIL).orElseThrow();
+    var jobIds = new ArrayList<UUID>();
+    for (var i = 0; i < DISPATCHED_JOBS; i++) {
+      jobIds.add(jobService.createJob(
+          child(IMAGE, "https://site.example/images/direct-%03d.jpg".formatted(i), "", chapterId, i), admin).getId());
+    }
+    var rejectedBefore = rejectedJobs();
+
+    jobIds.forEach(executor::execute);
+
+    awaitChildren(DISPATCHED_JOBS);
+    assertThat(rejectedJobs()).isGreaterThan(rejectedBefore);
+    assertThat(childrenWithStatus("FAILED")).isZero();
+    assertThat(childrenWithStatus("COMPLETED")).isEqualTo(DISPATCHED_JOBS);
+  }
+
+  // ===== Private methods =====
+
+  private void awaitChildren(int expected) {
+    var jdbc = new JdbcTemplate(database.dataSource());
+    var deadline = nanoTime() + ofMinutes(5).toNanos();
+    while (nanoTime() < deadline) {
+      var finished = jdbc.queryForObject("""
+          SELECT count(*) FROM crawl_jobs
+          WHERE parent_job_id = ? AND status NOT IN ('PENDING', 'RUNNING')
+          """, Long.class, chapterId);
+      if (finished == expected) {
+        return;
+      }
+      sleep(200);
+    }
+    throw new AssertionError("Child jobs did not finish within 5 minutes");
+  }
+
+  private long childrenWithStatus(String status) {
+    return new JdbcTemplate(database.dataSource()).queryForObject(
+        "SELECT count(*) FROM crawl_jobs WHERE parent_job_id = ? AND status::text = ?", Long.class, chapterId, status);
+  }
+
+  private double rejectedJobs() {
+    return meterRegistry.get("crawl.pipeline.rejected").tag("stage", "job").counter().count();
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new AssertionError("Interrupted while waiting for child jobs", e);
+    }
+  }
+
+  private static class SlotHoldingHandler implements CrawlTypeHandler {
+
+    @Override
+    public void handle(CrawlJob job) {
+      CrawlJobAdmissionTest.sleep(2);
+    }
+
+    @Override
+    public void handleWithResume(CrawlJob job, int startIndex) {
+      handle(job);
+    }
+
+    @Override
+    public CrawlType getSupportedType() {
+      return IMAGE;
+    }
+  }
+}
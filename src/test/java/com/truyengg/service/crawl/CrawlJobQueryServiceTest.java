@@ -0,0 +1,198 @@
+package com.truyengg.service.crawl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.truyengg.domain.entity.CrawlJob;
+import com.truyengg.model.graphql.Connection;
+import com.truyengg.model.graphql.CrawlJobSort;
+import com.truyengg.model.graphql.CrawlJobSort.CrawlJobSortField;
+import com.truyengg.model.graphql.CrawlJobSort.SortDirection;
+import com.truyengg.support.PostgresIntegrationTest;
+import com.truyengg.support.PostgresTestDatabase;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+import static com.truyengg.domain.constant.AppConstants.JOB_COUNTS;
+import static com.truyengg.model.graphql.CrawlJobSort.CrawlJobSortField.CREATED_AT;
+import static com.truyengg.model.graphql.CrawlJobSort.CrawlJobSortField.STARTED_AT;
+import static com.truyengg.model.graphql.CrawlJobSort.CrawlJobSortField.TARGET_NAME;
+import static com.truyengg.model.graphql.CrawlJobSort.SortDirection.ASC;
+import static com.truyengg.model.graphql.CrawlJobSort.SortDirection.DESC;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace.NONE;
+
+/**
+ * Keyset pagination of crawl jobs: cursors, NULL sort keys and the V13 (sort key, id) indexes.
+ */
+@PostgresIntegrationTest
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = NONE)
+class CrawlJobQueryServiceTest {
+
+  @Autowired
+  EntityManager entityManager;
+
+  @Autowired
+  JdbcTemplate jdbc;
+
+  // Required by the chapter entity listener
+  @MockBean
+  SeenSourceFilter seenSourceFilter;
+
+  CrawlJobQueryService service;
+
+  @DynamicPropertySource
+  static void properties(DynamicPropertyRegistry registry) {
+    var database = PostgresTestDatabase.create();
+    registry.add("spring.datasource.url", database::url);
+    registry.add("spring.datasource.username", database::username);
+    registry.add("spring.datasource.password", database::password);
+  }
+
+  @BeforeEach
+  void setUp() {
+    service = new CrawlJobQueryService(entityManager, new ConcurrentMapCacheManager(JOB_COUNTS), new ObjectMapper());
+
+    // Duplicate created_at, started_at and target_name values, with NULLs in the nullable keys
+    insertJob("2026-01-01T10:00:00Z", null, "Alpha");
+    insertJob("2026-01-01T10:00:00Z", "2026-01-02T08:00:00Z", null);
+    insertJob("2026-01-01T10:00:00Z", "2026-01-02T08:00:00Z", "Alpha");
+    insertJob("2026-01-03T10:00:00Z", null, null);
+    insertJob("2026-01-03T10:00:00Z", "2026-01-04T08:00:00Z", "Beta");
+    insertJob("2026-01-05T10:00:00Z", null, "Beta");
+    insertJob("2026-01-05T10:00:00Z", "2026-01-01T08:00:00Z", "Gamma");
+  }
+
+  @Test
+  void forwardPagesVisitEveryJobOnceInSortOrder() {
+    for (var sorts : sortCombinations()) {
+      var all = ids(service.findJobsWithFilter(null, sorts, 100, null, null, null));
+      assertThat(all).as("sort %s", sorts).hasSize(7).doesNotHaveDuplicates();
+
+      var paged = new ArrayList<UUID>();
+      String after = null;
+      Connection<CrawlJob> page;
+      do {
+        page = service.findJobsWithFilter(null, sorts, 2, after, null, null);
+        paged.addAll(ids(page));
+        after = page.getPageInfo().getEndCursor();
+      } while (page.getPageInfo().isHasNextPage());
+
+      assertThat(paged).as("sort %s", sorts).containsExactlyElementsOf(all);
+    }
+  }
+
+  @Test
+  void backwardPagesVisitEveryJobBeforeTheCursorOnce() {
+    for (var sorts : sortCombinations()) {
+      var all = service.findJobsWithFilter(null, sorts, 100, null, null, null);
+
+      var paged = new ArrayList<UUID>();
+      var before = all.getEdges().getLast().getCursor();
+      Connection<CrawlJob> page;
+      do {
+        page = service.findJobsWithFilter(null, sorts, null, null, 2, before);
+        paged.addAll(0, ids(page));
+        before = page.getPageInfo().getStartCursor();
+      } while (page.getPageInfo().isHasPreviousPage());
+
+      assertThat(paged).as("sort %s", sorts).containsExactlyElementsOf(ids(all).subList(0, 6));
+    }
+  }
+
+  @Test
+  void nullsSortLastAscendingAndFirstDescending() {
+    var ascending = nodes(service.findJobsWithFilter(null, List.of(sort(STARTED_AT, ASC)), 100, null, null, null));
+    var descending = nodes(service.findJobsWithFilter(null, List.of(sort(STARTED_AT, DESC)), 100, null, null, null));
+
+    assertThat(ascending.subList(4, 7)).allMatch(job -> job.getStartedAt() == null);
+    assertThat(ascending.subList(0, 4)).noneMatch(job -> job.getStartedAt() == null);
+    assertThat(descending.subList(0, 3)).allMatch(job -> job.getStartedAt() == null);
+  }
+
+  @Test
+  void cursorOfAnotherSortOrAnInvalidCursorRestartsFromTheFirstPage() {
+    var byName = List.of(sort(TARGET_NAME, ASC));
+    var firstPage = ids(service.findJobsWithFilter(null, null, 2, null, null, null));
+    var nameCursor = service.findJobsWithFilter(null, byName, 2, null, null, null).getPageInfo().getEndCursor();
+
+    assertThat(ids(service.findJobsWithFilter(null, null, 2, nameCursor, null, null))).isEqualTo(firstPage);
+    assertThat(ids(service.findJobsWithFilter(null, null, 2, "not-a-cursor", null, null))).isEqualTo(firstPage);
+  }
+
+  @Test
+  void cursorCarriesTheSortSignatureKeyValuesAndId() throws Exception {
+    var page = service.findJobsWithFilter(null, List.of(sort(STARTED_AT, DESC)), 1, null, null, null);
+    var edge = page.getEdges().getFirst();
+
+    var cursor = new ObjectMapper().readTree(new String(Base64.getUrlDecoder().decode(edge.getCursor()), UTF_8));
+
+    assertThat(cursor.path("s").asText()).isEqualTo("STARTED_AT:DESC");
+    assertThat(cursor.path("v").get(0).isNull()).isTrue();
+    assertThat(cursor.path("id").asText()).isEqualTo(edge.getNode().getId().toString());
+  }
+
+  @Test
+  void defaultListingIsServedByAKeysetIndexWithoutSorting() {
+    jdbc.execute("SET LOCAL enable_seqscan = off");
+    // The shape of the default root listing after a cursor
+    var plan = String.join("\n", jdbc.queryForList("""
+        EXPLAIN SELECT id FROM crawl_jobs
+        WHERE parent_job_id IS NULL AND deleted_at IS NULL
+          AND (created_at < '2026-01-03T10:00:00Z'
+               OR (created_at = '2026-01-03T10:00:00Z' AND id < '7f000000-0000-0000-0000-000000000000'))
+        ORDER BY created_at DESC, id DESC
+        LIMIT 21
+        """, String.class));
+
+    assertThat(plan).containsPattern("Index Scan using idx_crawl_jobs_(root_)?created_id").doesNotContain("Sort");
+  }
+
+  // ===== Private methods =====
+
+  private List<List<CrawlJobSort>> sortCombinations() {
+    return List.of(
+        List.of(),
+        List.of(sort(CREATED_AT, ASC)),
+        List.of(sort(STARTED_AT, ASC)),
+        List.of(sort(STARTED_AT, DESC)),
+        List.of(sort(TARGET_NAME, ASC), sort(STARTED_AT, DESC)),
+        List.of(sort(TARGET_NAME, DESC), sort(CREATED_AT, ASC)));
+  }
+
+  private CrawlJobSort sort(CrawlJobSortField field, SortDirection direction) {
+    var sort = new CrawlJobSort();
+    sort.setField(field);
+    sort.setDirection(direction);
+    return sort;
+  }
+
+  private void insertJob(String createdAt, String startedAt, String targetName) {
+    jdbc.update("""
+            INSERT INTO crawl_jobs (crawl_type, target_url, target_name, created_at, started_at)
+            VALUES ('COMIC', 'https://site.example', ?, CAST(? AS TIMESTAMPTZ), CAST(? AS TIMESTAMPTZ))
+            """, targetName, createdAt, startedAt);
+  }
+
+  private List<CrawlJob> nodes(Connection<CrawlJob> connection) {
+    return connection.getEdges().stream().map(Connection.Edge::getNode).toList();
+  }
+
+  private List<UUID> ids(Connection<CrawlJob> connection) {
+    return nodes(connection).stream().map(CrawlJob::getId).toList();
+  }
+}
@@ -0,0 +1,177 @@
+package com.truyengg.service.crawl;
+
+import com.truyengg.benchmark.StatementCountingConfig;
+import com.truyengg.benchmark.StatementCountingDataSource;
+import com.truyengg.support.PostgresIntegrationTest;
+import com.truyengg.support.PostgresTestDatabase;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.lang.management.ManagementFactory;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Cancel, soft-delete and restore of a 100,000-job tree: one statement per table for the whole
+ * subtree, so the statement count matches a tree of seven jobs and the descendants are never
+ * loaded into the JVM.
+ */
+@PostgresIntegrationTest
+@SpringBootTest
+@Import(StatementCountingConfig.class)
+class CrawlJobSubtreeTest {
+
+  private static final Logger log = LoggerFactory.getLogger(CrawlJobSubtreeTest.class);
+  private static final String ADMIN_EMAIL = "admin@truyengg.com";
+  private static final int CHAPTERS = 1_000;
+  private static final int IMAGES_PER_CHAPTER = 99;
+
+  /**
+   * Allocation allowed beyond the same operation on the small tree; loading 100,000 job IDs alone takes more.
+   */
+  private static final long ALLOCATION_SLACK_BYTES = 2 * 1024 * 1024;
+
+  private static PostgresTestDatabase database;
+
+  @Autowired
+  CrawlJobService jobService;
+
+  @Autowired
+  StatementCountingDataSource statementCounter;
+
+  @DynamicPropertySource
+  static void properties(DynamicPropertyRegistry registry) {
+    database = PostgresTestDatabase.create();
+    registry.add("spring.datasource.url", database::url);
+    registry.add("spring.datasource.username", database::username);
+    registry.add("spring.datasource.password", database::password);
+    // The tree's queue items stay where the test put them
+    registry.add("crawl.queue.notify-enabled", () -> false);
+    registry.add("jobrunr.background-job-server.enabled", () -> false);
+    registry.add("jobrunr.dashboard.enabled", () -> false);
+  }
+
+  @Test
+  void subtreeOperationsOnAHundredThousandJobsTakeAsManyStatementsAsOnSeven() {
+    var smallRoot = insertTree(3, 1);
+    var largeRoot = insertTree(CHAPTERS, IMAGES_PER_CHAPTER);
+    var largeJobs = 1 + CHAPTERS + CHAPTERS * IMAGES_PER_CHAPTER;
+    assertThat(subtreeSize(largeRoot)).isEqualTo(largeJobs);
+
+    // Warms up query plans and Hibernate before anything is measured
+    var warmupRoot = insertTree(3, 1);
+    measure(warmupRoot, jobService::cancel);
+    measure(warmupRoot, jobService::softDelete);
+    measure(warmupRoot, jobService::restore);
+
+    var smallCancel = measure(smallRoot, jobService::cancel);
+    var largeCancel = measure(largeRoot, jobService::cancel);
+    assertThat(jdbc().queryForObject("""
+        SELECT count(*) FROM crawl_jobs j JOIN crawl_job_closure c ON c.descendant_id = j.id
+        WHERE c.ancestor_id = ? AND j.status::text = 'CANCELLED'
+        """, Long.class, largeRoot)).isEqualTo(largeJobs);
+    assertThat(jdbc().queryForObject("""
+        SELECT count(*) FROM crawl_queue q JOIN crawl_job_closure c ON c.descendant_id = q.crawl_job_id
+        WHERE c.ancestor_id = ? AND q.status::text = 'SKIPPED'
+        """, Long.class, largeRoot)).isEqualTo(CHAPTERS * IMAGES_PER_CHAPTER);
+
+    var smallDelete = measure(smallRoot, jobService::softDelete);
+    var largeDelete = measure(largeRoot, jobService::softDelete);
+    assertThat(subtreeSize(largeRoot)).isZero();
+
+    var smallRestore = measure(smallRoot, jobService::restore);
+    var largeRestore = measure(largeRoot, jobService::restore);
+    assertThat(subtreeSize(largeRoot)).isEqualTo(largeJobs);
+
+    log.info("Subtree operations on 7 / {} jobs: cancel {} / {}, softDelete {} / {}, restore {} / {}",
+        largeJobs, smallCancel, largeCancel, smallDelete, largeDelete, smallRestore, largeRestore);
+    assertThat(largeCancel.statements()).isEqualTo(smallCancel.statements());
+    assertThat(largeDelete.statements()).isEqualTo(smallDelete.statements());
+    assertThat(largeRestore.statements()).isEqualTo(smallRestore.statements());
+    assertThat(largeCancel.allocatedBytes()).isLessThan(smallCancel.allocatedBytes() + ALLOCATION_SLACK_BYTES);
+    assertThat(largeDelete.allocatedBytes()).isLessThan(smallDelete.allocatedBytes() + ALLOCATION_SLACK_BYTES);
+    assertThat(largeRestore.allocatedBytes()).isLessThan(smallRestore.allocatedBytes() + ALLOCATION_SLACK_BYTES);
+  }
+
+  // ===== Private methods =====
+
+  /**
+   * Statements sent and bytes allocated by the calling thread, which also runs the after-commit listeners;
+   * scheduled tasks of the context may query the database meanwhile and are left out.
+   */
+  private Measurement measure(UUID rootId, Consumer<UUID> operation) {
+    var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    statementCounter.reset();
+    var allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+    operation.accept(rootId);
+    return new Measurement(statementCounter.countOnCurrentThread(),
+        threads.getCurrentThreadAllocatedBytes() - allocatedBefore);
+  }
+
+  /**
+   * A COMIC root with RUNNING chapters and PENDING images, their closure, progress rows and one pending
+   * queue item per image, written with set-based SQL on a connection the counter does not see.
+   */
+  private UUID insertTree(int chapters, int imagesPerChapter) {
+    var jdbc = jdbc();
+    var rootId = UUID.randomUUID();
+    var url = "https://site.example/truyen/comic-" + rootId;
+    var adminId = jdbc.queryForObject("SELECT id FROM users WHERE email = ?", Long.class, ADMIN_EMAIL);
+
+    jdbc.update("""
+        INSERT INTO crawl_jobs (id, crawl_type, depth, target_url, status, created_by)
+        VALUES (?, 'COMIC', 0, ?, 'RUNNING', ?)
+        """, rootId, url, adminId);
+    jdbc.update("""
+        INSERT INTO crawl_jobs (crawl_type, parent_job_id, root_job_id, depth, target_url, item_index, status, created_by)
+        SELECT 'CHAPTER', ?, ?, 1, ? || '/chuong-' || i, i, 'RUNNING', ? FROM generate_series(0, ? - 1) i
+        """, rootId, rootId, url, adminId, chapters);
+    jdbc.update("""
+        INSERT INTO crawl_jobs (crawl_type, parent_job_id, root_job_id, depth, target_url, item_index, status, created_by)
+        SELECT 'IMAGE', c.id, c.root_job_id, 2, c.target_url || '/' || i || '.jpg', i, 'PENDING', ?
+        FROM crawl_jobs c, generate_series(0, ? - 1) i
+        WHERE c.parent_job_id = ?
+        """, adminId, imagesPerChapter, rootId);
+
+    jdbc.update("""
+        INSERT INTO crawl_job_closure (ancestor_id, descendant_id, depth)
+        SELECT id, id, 0 FROM crawl_jobs WHERE id = ? OR root_job_id = ?
+        UNION ALL
+        SELECT root_job_id, id, depth FROM crawl_jobs WHERE root_job_id = ?
+        UNION ALL
+        SELECT parent_job_id, id, 1 FROM crawl_jobs WHERE root_job_id = ? AND depth = 2
+        """, rootId, rootId, rootId, rootId);
+    jdbc.update("INSERT INTO crawl_progress (id) SELECT id FROM crawl_jobs WHERE id = ? OR root_job_id = ?",
+        rootId, rootId);
+    jdbc.update("""
+        INSERT INTO crawl_queue (crawl_job_id, job_created_at, crawl_type, target_url, item_index)
+        SELECT c.id, c.created_at, 'IMAGE', i.target_url, i.item_index
+        FROM crawl_jobs i JOIN crawl_jobs c ON c.id = i.parent_job_id
+        WHERE i.root_job_id = ? AND i.depth = 2
+        """, rootId);
+    return rootId;
+  }
+
+  private long subtreeSize(UUID rootId) {
+    return jdbc().queryForObject("""
+        SELECT count(*) FROM crawl_jobs j JOIN crawl_job_closure c ON c.descendant_id = j.id
+        WHERE c.ancestor_id = ? AND j.deleted_at IS NULL
+        """, Long.class, rootId);
+  }
+
+  private JdbcTemplate jdbc() {
+    return new JdbcTemplate(database.dataSource());
+  }
+
+  private record Measurement(long statements, long allocatedBytes) {
+  }
+}
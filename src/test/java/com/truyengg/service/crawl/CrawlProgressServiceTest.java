@@ -0,0 +1,151 @@
+package com.truyengg.service.crawl;
+
+import com.truyengg.controller.websocket.WebSocketProgressService;
+import com.truyengg.support.PostgresIntegrationTest;
+import com.truyengg.support.PostgresTestDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace.NONE;
+import static org.springframework.transaction.annotation.Propagation.NOT_SUPPORTED;
+
+/**
+ * Write-behind progress against PostgreSQL: concurrent increments, some flushed from inside
+ * transactions that roll back, must add up to the per-event sum.
+ */
+@PostgresIntegrationTest
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = NONE)
+@Transactional(propagation = NOT_SUPPORTED)
+@Import({CrawlProgressService.class, ProgressAccumulator.class})
+@TestPropertySource(properties = "crawl.progress.flush-events=7")
+class CrawlProgressServiceTest {
+
+  private static final int THREADS = 8;
+  private static final int EVENTS_PER_THREAD = 500;
+
+  @Autowired
+  CrawlProgressService progressService;
+
+  @Autowired
+  PlatformTransactionManager transactionManager;
+
+  @Autowired
+  JdbcTemplate jdbc;
+
+  @MockBean
+  WebSocketProgressService webSocketService;
+
+  // Required by the chapter entity listener
+  @MockBean
+  SeenSourceFilter seenSourceFilter;
+
+  UUID jobId = UUID.randomUUID();
+
+  @DynamicPropertySource
+  static void properties(DynamicPropertyRegistry registry) {
+    var database = PostgresTestDatabase.create();
+    registry.add("spring.datasource.url", database::url);
+    registry.add("spring.datasource.username", database::username);
+    registry.add("spring.datasource.password", database::password);
+  }
+
+  @BeforeEach
+  void setUp() {
+    jdbc.update("INSERT INTO crawl_jobs (id, crawl_type, target_url) VALUES (?, 'CHAPTER', 'https://site.example')", jobId);
+    jdbc.update("INSERT INTO crawl_progress (id, total_items) VALUES (?, 100)", jobId);
+  }
+
+  @Test
+  void flushInsideARolledBackTransactionKeepsTheCounts() {
+    var transaction = new TransactionTemplate(transactionManager);
+    transaction.executeWithoutResult(status -> {
+      for (var i = 0; i < 7; i++) {
+        progressService.incrementCompletedWithBytes(jobId, 10L);
+      }
+      status.setRollbackOnly();
+    });
+
+    var row = progress();
+    assertThat(row.get("completed_items")).isEqualTo(7);
+    assertThat(row.get("bytes_downloaded")).isEqualTo(70L);
+  }
+
+  @Test
+  void concurrentIncrementsAddUpToThePerEventSum() throws Exception {
+    var transaction = new TransactionTemplate(transactionManager);
+    var tasks = new ArrayList<Callable<Void>>();
+    for (var t = 0; t < THREADS; t++) {
+      tasks.add(() -> {
+        for (var i = 0; i < EVENTS_PER_THREAD; i++) {
+          var event = i;
+          if (event % 10 == 0) {
+            // The caller's own work fails after recording progress
+            transaction.executeWithoutResult(status -> {
+              record(event);
+              status.setRollbackOnly();
+            });
+          } else {
+            record(event);
+          }
+        }
+        return null;
+      });
+    }
+    try (var executor = Executors.newFixedThreadPool(THREADS)) {
+      for (Future<Void> future : executor.invokeAll(tasks)) {
+        future.get();
+      }
+    }
+    progressService.flush(jobId);
+
+    var events = THREADS * EVENTS_PER_THREAD;
+    var row = progress();
+    assertThat(row.get("completed_items")).isEqualTo(events / 2);
+    assertThat(row.get("failed_items")).isEqualTo(events / 4);
+    assertThat(row.get("skipped_items")).isEqualTo(events / 4);
+    assertThat(row.get("bytes_downloaded")).isEqualTo(10L * events / 2);
+    // More completed items than total_items: percent is capped
+    assertThat(row.get("percent")).isEqualTo(100);
+
+    progressService.finalize(jobId, "Crawl completed successfully");
+    assertThat(progress().get("message")).isEqualTo("Crawl completed successfully");
+  }
+
+  // ===== Private methods =====
+
+  private void record(int event) {
+    switch (event % 4) {
+      case 0, 1 -> progressService.incrementCompletedWithBytes(jobId, 10L);
+      case 2 -> progressService.incrementFailed(jobId, "boom");
+      default -> progressService.incrementSkipped(jobId);
+    }
+  }
+
+  private Map<String, Object> progress() {
+    return jdbc.queryForMap("""
+        SELECT completed_items, failed_items, skipped_items, bytes_downloaded, percent, message
+        FROM crawl_progress WHERE id = ?
+        """, jobId);
+  }
+}
@@ -0,0 +1,122 @@
+package com.truyengg.service.crawl;
+
+import com.truyengg.benchmark.StatementCountingDataSource;
+import com.truyengg.domain.repository.CrawlQueueRepository;
+import com.truyengg.model.dto.QueueItemRequest;
+import com.truyengg.support.PostgresIntegrationTest;
+import com.truyengg.support.PostgresTestDatabase;
+import org.jobrunr.scheduling.JobScheduler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static com.truyengg.domain.enums.CrawlType.CHAPTER;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Enqueueing a 5,000-chapter comic: one JDBC batch per 500 items against one INSERT per item,
+ * counting the statements and timing both.
+ */
+@PostgresIntegrationTest
+class CrawlQueueEnqueueTest {
+
+  private static final Logger log = LoggerFactory.getLogger(CrawlQueueEnqueueTest.class);
+  private static final int ITEMS = 5_000;
+
+  private static final String INSERT_ONE_SQL = """
+      INSERT INTO crawl_queue (crawl_job_id, job_created_at, crawl_type, target_url, target_name, item_index)
+      SELECT id, created_at, crawl_type, ?, ?, ? FROM crawl_jobs WHERE id = ?
+      ON CONFLICT (crawl_job_id, target_url, job_created_at) DO NOTHING
+      """;
+
+  StatementCountingDataSource dataSource;
+  JdbcTemplate jdbc;
+  TransactionTemplate transaction;
+  CrawlQueueProcessor queueProcessor;
+
+  @BeforeEach
+  void setUp() {
+    dataSource = new StatementCountingDataSource(PostgresTestDatabase.create().migrate().dataSource());
+    jdbc = new JdbcTemplate(dataSource);
+    transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    queueProcessor = new CrawlQueueProcessor(mock(CrawlQueueRepository.class), mock(CrawlJobService.class),
+        mock(CrawlProgressService.class), mock(CrawlErrorHandlingService.class), mock(JobScheduler.class),
+        mock(ApplicationEventPublisher.class), new NamedParameterJdbcTemplate(dataSource),
+        mock(CrawlPartitionManager.class), mock(CrawlPipeline.class));
+  }
+
+  @Test
+  void batchEnqueueSendsOneStatementPerFiveHundredItems() {
+    var items = chapters();
+
+    var perItemJob = insertJob();
+    dataSource.reset();
+    var perItemStart = nanoTime();
+    // In one transaction, as the per-item JPA saves ran
+    transaction.executeWithoutResult(status -> {
+      for (var item : items) {
+        jdbc.update(INSERT_ONE_SQL, item.url(), item.name(), item.itemIndex(), perItemJob);
+      }
+    });
+    var perItemMillis = NANOSECONDS.toMillis(nanoTime() - perItemStart);
+    var perItemStatements = dataSource.count();
+
+    var batchJob = insertJob();
+    dataSource.reset();
+    var batchStart = nanoTime();
+    transaction.executeWithoutResult(status -> queueProcessor.enqueueBatch(batchJob, CHAPTER, items));
+    var batchMillis = NANOSECONDS.toMillis(nanoTime() - batchStart);
+    var batchStatements = dataSource.count();
+
+    log.info("Enqueueing {} items: {} statements in {} ms one by one, {} statements in {} ms batched",
+        ITEMS, perItemStatements, perItemMillis, batchStatements, batchMillis);
+    assertThat(perItemStatements).isEqualTo(ITEMS);
+    // One partition key lookup plus one round trip per 500 rows
+    assertThat(batchStatements).isEqualTo(1 + ITEMS / 500);
+    assertThat(batchMillis).isLessThan(perItemMillis);
+    assertThat(queued(batchJob)).isEqualTo(ITEMS);
+  }
+
+  @Test
+  void reEnqueueingTheSameChaptersAddsNothing() {
+    var jobId = insertJob();
+    var items = chapters();
+
+    queueProcessor.enqueueBatch(jobId, CHAPTER, items);
+    queueProcessor.enqueueBatch(jobId, CHAPTER, items.subList(0, 100));
+
+    assertThat(queued(jobId)).isEqualTo(ITEMS);
+  }
+
+  // ===== Private methods =====
+
+  private List<QueueItemRequest> chapters() {
+    return IntStream.range(0, ITEMS)
+        .mapToObj(i -> new QueueItemRequest("https://site.example/truyen/comic/chuong-" + i, "Chapter " + i, i))
+        .toList();
+  }
+
+  private UUID insertJob() {
+    var jobId = UUID.randomUUID();
+    jdbc.update("INSERT INTO crawl_jobs (id, crawl_type, target_url, status) "
+        + "VALUES (?, 'COMIC', 'https://site.example/truyen/comic', 'RUNNING')", jobId);
+    return jobId;
+  }
+
+  private long queued(UUID jobId) {
+    return jdbc.queryForObject("SELECT count(*) FROM crawl_queue WHERE crawl_job_id = ?", Long.class, jobId);
+  }
+}
@@ -0,0 +1,167 @@
+package com.truyengg.service.crawl;
+
+import com.truyengg.domain.entity.CrawlJob;
+import com.truyengg.domain.enums.CrawlType;
+import com.truyengg.domain.repository.UserRepository;
+import com.truyengg.model.dto.QueueItemRequest;
+import com.truyengg.model.request.CrawlJobRequest;
+import com.truyengg.service.crawl.handler.CrawlTypeHandler;
+import com.truyengg.support.PostgresIntegrationTest;
+import com.truyengg.support.PostgresTestDatabase;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static com.truyengg.domain.enums.CrawlType.CHAPTER;
+import static com.truyengg.domain.enums.CrawlType.IMAGE;
+import static java.lang.System.nanoTime;
+import static java.time.Duration.ofSeconds;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Enqueue-to-start latency with LISTEN/NOTIFY wakeups, from the enqueue commit to the worker taking
+ * the item: the scheduled poll is off, so every item is picked up through the notification alone. Each item is enqueued once the previous item's job
+ * has finished, so a sample measures the wakeup rather than the previous job's work.
+ */
+@PostgresIntegrationTest
+@SpringBootTest
+class CrawlQueueNotifierTest {
+
+  private static final Logger log = LoggerFactory.getLogger(CrawlQueueNotifierTest.class);
+  private static final String ADMIN_EMAIL = "admin@truyengg.com";
+  private static final int SAMPLES = 200;
+
+  private static PostgresTestDatabase database;
+
+  @Autowired
+  CrawlJobService jobService;
+
+  @Autowired
+  CrawlQueueProcessor queueProcessor;
+
+  @Autowired
+  CrawlExecutor executor;
+
+  @Autowired
+  UserRepository userRepository;
+
+  @DynamicPropertySource
+  static void properties(DynamicPropertyRegistry registry) {
+    database = PostgresTestDatabase.create();
+    registry.add("spring.datasource.url", database::url);
+    registry.add("spring.datasource.username", database::username);
+    registry.add("spring.datasource.password", database::password);
+    registry.add("jobrunr.background-job-server.enabled", () -> false);
+    registry.add("jobrunr.dashboard.enabled", () -> false);
+  }
+
+  @Test
+  void enqueuedItemsStartWithinOneHundredMillisecondsAtP99() {
+    // The IMAGE jobs created from the items do nothing; only the pick-up is measured
+    CrawlExecutor target = AopTestUtils.getTargetObject(executor);
+    @SuppressWarnings("unchecked")
+    var handlerMap = (Map<CrawlType, Optional<CrawlTypeHandler>>) ReflectionTestUtils.getField(target, "handlerMap");
+    handlerMap.put(IMAGE, Optional.of(new NoOpHandler()));
+
+    var admin = userRepository.findByEmail(ADMIN_EMAIL).orElseThrow();
+    var chapterId = jobService.createJob(
+        CrawlJobRequest.simple(CHAPTER, "https://site.example/truyen/comic/chuong-1"), admin).getId();
+    jobService.start(chapterId);
+
+    var latencies = new ArrayList<Duration>();
+    for (var i = 0; i < SAMPLES; i++) {
+      var url = "https://site.example/images/page-%03d.jpg".formatted(i);
+      queueProcessor.enqueueAllAndProcess(chapterId, IMAGE, List.of(new QueueItemRequest(url, null, i)));
+      // The item is visible to the workers from here on
+      var committedAt = Instant.now();
+      latencies.add(Duration.between(committedAt, awaitStart(chapterId, url)));
+      awaitIdle(chapterId);
+    }
+
+    latencies.sort(null);
+    var p50 = latencies.get(SAMPLES / 2 - 1);
+    var p99 = latencies.get(SAMPLES * 99 / 100 - 1);
+    log.info("Enqueue-to-start latency over {} items: p50 {} ms, p99 {} ms, max {} ms",
+        SAMPLES, p50.toMillis(), p99.toMillis(), latencies.get(SAMPLES - 1).toMillis());
+    assertThat(p99).isLessThan(Duration.ofMillis(100));
+  }
+
+  // ===== Private methods =====
+
+  private Instant awaitStart(UUID chapterId, String url) {
+    var jdbc = new JdbcTemplate(database.dataSource());
+    var deadline = nanoTime() + ofSeconds(30).toNanos();
+    while (nanoTime() < deadline) {
+      var startedAt = jdbc.queryForList(
+          "SELECT started_at FROM crawl_queue WHERE crawl_job_id = ? AND target_url = ? AND started_at IS NOT NULL",
+          Timestamp.class, chapterId, url);
+      if (!startedAt.isEmpty()) {
+        return startedAt.get(0).toInstant();
+      }
+      sleep();
+    }
+    throw new AssertionError("Queue item was not picked up within 30 seconds: " + url);
+  }
+
+  /**
+   * Wait until the job created from the last item has finished, so each sample starts from an idle queue.
+   */
+  private void awaitIdle(UUID chapterId) {
+    var jdbc = new JdbcTemplate(database.dataSource());
+    var deadline = nanoTime() + ofSeconds(30).toNanos();
+    while (nanoTime() < deadline) {
+      var busy = jdbc.queryForObject("""
+          SELECT (SELECT count(*) FROM crawl_jobs WHERE parent_job_id = ? AND status IN ('PENDING', 'RUNNING'))
+               + (SELECT count(*) FROM crawl_queue WHERE crawl_job_id = ? AND status <> 'COMPLETED')
+          """, Long.class, chapterId, chapterId);
+      if (busy == 0) {
+        return;
+      }
+      sleep();
+    }
+    throw new AssertionError("Jobs created from the queue did not finish within 30 seconds");
+  }
+
+  private void sleep() {
+    try {
+      Thread.sleep(2);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new AssertionError("Interrupted while waiting for a queue item", e);
+    }
+  }
+
+  private static class NoOpHandler implements CrawlTypeHandler {
+
+    @Override
+    public void handle(CrawlJob job) {
+      // Nothing to download
+    }
+
+    @Override
+    public void handleWithResume(CrawlJob job, int startIndex) {
+      handle(job);
+    }
+
+    @Override
+    public CrawlType getSupportedType() {
+      return IMAGE;
+    }
+  }
+}
@@ -0,0 +1,152 @@
+package com.truyengg.service.crawl;
+
+import com.truyengg.domain.entity.CrawlJob;
+import com.truyengg.domain.repository.ChapterImageRepository;
+import com.truyengg.domain.repository.ComicChapterFingerprintRepository;
+import com.truyengg.domain.repository.CrawlSettingsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import static com.truyengg.domain.enums.CrawlType.CHAPTER;
+import static com.truyengg.domain.enums.CrawlType.COMIC;
+import static com.truyengg.domain.enums.DownloadMode.UPDATE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DownloadModeServiceTest {
+
+  private static final long COMIC_ID = 7L;
+  private static final String BASE = "https://site.example/truyen/comic/chuong-";
+
+  ChapterImageRepository imageRepository = mock(ChapterImageRepository.class);
+  ComicChapterFingerprintRepository fingerprintRepository = mock(ComicChapterFingerprintRepository.class);
+  DownloadModeService service = new DownloadModeService(imageRepository, mock(CrawlSettingsRepository.class),
+      fingerprintRepository);
+
+  // In-memory stand-in for chapters.source and comic_chapter_fingerprints of COMIC_ID
+  List<String> storedSources = new ArrayList<>();
+  Long storedFingerprint;
+  int storedCount;
+
+  @BeforeEach
+  void setUp() {
+    when(fingerprintRepository.findSourcesUnlessFingerprint(eq(COMIC_ID), anyLong(), anyInt())).thenAnswer(invocation -> {
+      var rows = new ArrayList<Object[]>();
+      if (storedFingerprint != null) {
+        rows.add(new Object[]{null, storedFingerprint, storedCount});
+        if (storedFingerprint == (long) invocation.getArgument(1) && storedCount == (int) invocation.getArgument(2)) {
+          return rows;
+        }
+      }
+      storedSources.forEach(source -> rows.add(new Object[]{source, null, null}));
+      return rows;
+    });
+    doAnswer(invocation -> {
+      storedFingerprint = invocation.getArgument(1);
+      storedCount = invocation.getArgument(2);
+      return null;
+    }).when(fingerprintRepository).upsert(eq(COMIC_ID), anyLong(), anyInt());
+  }
+
+  @Test
+  void updateReturnsSourceItemsNotStoredYet() {
+    storedSources.addAll(List.of("http://www.site.example/truyen/comic/chuong-1/", BASE + "2"));
+
+    var newItems = service.diffNewItems(comicJob(), chapters(1, 2, 3, 4));
+
+    assertThat(newItems).isEqualTo(bits(2, 3));
+  }
+
+  @Test
+  void unchangedChapterListIsAnsweredByTheFingerprint() {
+    storedSources.addAll(chapters(1, 2, 3));
+    service.diffNewItems(comicJob(), chapters(1, 2, 3, 4));
+    assertThat(storedCount).isEqualTo(3);
+
+    // The missing chapter was stored by the crawl; next run sees the same list upstream
+    storedSources.add(BASE + "4");
+    assertThat(service.diffNewItems(comicJob(), chapters(1, 2, 3, 4))).isEqualTo(new BitSet());
+    assertThat(storedCount).isEqualTo(4);
+
+    assertThat(service.diffNewItems(comicJob(), chapters(4, 3, 2, 1))).isEqualTo(new BitSet());
+    verify(fingerprintRepository, times(2)).upsert(eq(COMIC_ID), anyLong(), anyInt());
+  }
+
+  @Test
+  void unchangedStoredSetDoesNotRewriteTheFingerprint() {
+    storedSources.addAll(chapters(1, 2));
+
+    service.diffNewItems(comicJob(), chapters(1, 2, 3));
+    var newItems = service.diffNewItems(comicJob(), chapters(1, 2, 3));
+
+    assertThat(newItems).isEqualTo(bits(2));
+    verify(fingerprintRepository, times(1)).upsert(eq(COMIC_ID), anyLong(), anyInt());
+  }
+
+  @Test
+  void deletedChapterIsNewAgainOnceTheFingerprintIsDropped() {
+    storedSources.addAll(chapters(1, 2, 3));
+    assertThat(service.diffNewItems(comicJob(), chapters(1, 2, 3))).isEqualTo(new BitSet());
+    assertThat(service.diffNewItems(comicJob(), chapters(1, 2, 3))).isEqualTo(new BitSet());
+    verify(fingerprintRepository, times(1)).upsert(eq(COMIC_ID), anyLong(), anyInt());
+
+    // What the V14 trigger does when chapter 2 is deleted
+    storedSources.remove(BASE + "2");
+    storedFingerprint = null;
+
+    assertThat(service.diffNewItems(comicJob(), chapters(1, 2, 3))).isEqualTo(bits(1));
+  }
+
+  @Test
+  void chapterJobDiffsAgainstStoredImageUrls() {
+    var job = CrawlJob.builder().crawlType(CHAPTER).downloadMode(UPDATE).contentId(11L).build();
+    when(imageRepository.findOriginalUrlsByChapterId(11L)).thenReturn(List.of("https://img.example/1.jpg", ""));
+
+    var newItems = service.diffNewItems(job, List.of("https://img.example/1.jpg", "https://img.example/2.jpg"));
+
+    assertThat(newItems).isEqualTo(bits(1));
+    verify(fingerprintRepository, never()).findSourcesUnlessFingerprint(anyLong(), anyLong(), anyInt());
+  }
+
+  @Test
+  void comicWithoutStoredContentDownloadsEverything() {
+    var job = CrawlJob.builder().crawlType(COMIC).downloadMode(UPDATE).build();
+
+    assertThat(service.diffNewItems(job, chapters(1, 2, 3))).isEqualTo(bits(0, 1, 2));
+    verify(fingerprintRepository, never()).upsert(anyLong(), anyLong(), anyInt());
+  }
+
+  // ===== Private methods =====
+
+  private CrawlJob comicJob() {
+    return CrawlJob.builder().crawlType(COMIC).downloadMode(UPDATE).contentId(COMIC_ID).build();
+  }
+
+  private List<String> chapters(int... numbers) {
+    var urls = new ArrayList<String>();
+    for (var number : numbers) {
+      urls.add(BASE + number);
+    }
+    return urls;
+  }
+
+  private BitSet bits(int... indices) {
+    var bits = new BitSet();
+    for (var index : indices) {
+      bits.set(index);
+    }
+    return bits;
+  }
+}
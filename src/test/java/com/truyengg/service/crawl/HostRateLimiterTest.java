@@ -0,0 +1,101 @@
+package com.truyengg.service.crawl;
+
+import com.truyengg.model.properties.CrawlRateLimitProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+
+import static java.time.Duration.ZERO;
+import static java.time.format.DateTimeFormatter.RFC_1123_DATE_TIME;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class HostRateLimiterTest {
+
+  private static final long SECOND = 1_000_000_000L;
+  private static final String URL = "https://site.example/truyen/comic";
+
+  HostRateLimiter limiter = new HostRateLimiter(new CrawlRateLimitProperties());
+
+  @Test
+  void burstUpToCapacityIsFreeThenReservationsWaitForTheRefill() {
+    var bucket = new HostRateLimiter.TokenBucket(2, 4.0, 0);
+
+    assertThat(bucket.reserve(0)).isZero();
+    assertThat(bucket.reserve(0)).isZero();
+    assertThat(bucket.reserve(0)).isEqualTo(SECOND / 4);
+    assertThat(bucket.reserve(0)).isEqualTo(SECOND / 2);
+  }
+
+  @Test
+  void refillIsProportionalToElapsedTimeAndCappedAtCapacity() {
+    var bucket = new HostRateLimiter.TokenBucket(2, 4.0, 0);
+    bucket.reserve(0);
+    bucket.reserve(0);
+
+    // A quarter second refills one token
+    assertThat(bucket.reserve(SECOND / 4)).isZero();
+    assertThat(bucket.reserve(SECOND / 4)).isEqualTo(SECOND / 4);
+
+    // A long idle period refills no more than the capacity
+    var later = 100 * SECOND;
+    assertThat(bucket.reserve(later)).isZero();
+    assertThat(bucket.reserve(later)).isZero();
+    assertThat(bucket.reserve(later)).isEqualTo(SECOND / 4);
+  }
+
+  @Test
+  void throttleHalvesTheRateOncePerSecondAndBlocksForRetryAfter() {
+    var bucket = new HostRateLimiter.TokenBucket(2, 4.0, 0);
+
+    bucket.throttle(SECOND, 3 * SECOND, 0.05);
+    bucket.throttle(SECOND + 1, 3 * SECOND, 0.05);
+    assertThat(bucket.getRate()).isEqualTo(2.0);
+
+    // Tokens were dropped to zero: the wait is the Retry-After block, not the refill
+    assertThat(bucket.reserve(SECOND + 1)).isEqualTo(3 * SECOND);
+
+    bucket.throttle(3 * SECOND, 0, 0.05);
+    assertThat(bucket.getRate()).isEqualTo(1.0);
+  }
+
+  @Test
+  void throttledRateNeverFallsBelowTheMinimumAndRecoversToTheConfiguredRate() {
+    var bucket = new HostRateLimiter.TokenBucket(1, 1.0, 0);
+    for (var i = 1; i <= 10; i++) {
+      bucket.throttle(i * SECOND, 0, 0.1);
+    }
+    assertThat(bucket.getRate()).isEqualTo(0.1);
+
+    for (var i = 0; i < 30; i++) {
+      bucket.recover(0.05);
+    }
+    assertThat(bucket.getRate()).isEqualTo(1.0);
+  }
+
+  @Test
+  void limiterTracksTheRatePerHost() {
+    assertThat(limiter.getRefillRate("site.example")).isEqualTo(-1);
+
+    limiter.acquire(URL).block();
+    limiter.onThrottled(URL, ZERO);
+    limiter.onSuccess(URL);
+
+    assertThat(limiter.getRefillRate("site.example")).isCloseTo(0.55, within(1e-9));
+    assertThat(limiter.getRefillRate("other.example")).isEqualTo(-1);
+  }
+
+  @Test
+  void retryAfterAcceptsSecondsAndHttpDates() {
+    assertThat(HostRateLimiter.parseRetryAfter("120")).isEqualTo(Duration.ofSeconds(120));
+    assertThat(HostRateLimiter.parseRetryAfter(" ")).isEqualTo(ZERO);
+    assertThat(HostRateLimiter.parseRetryAfter("soon")).isEqualTo(ZERO);
+    assertThat(HostRateLimiter.parseRetryAfter(RFC_1123_DATE_TIME.format(ZonedDateTime.now().minusMinutes(1))))
+        .isEqualTo(ZERO);
+
+    var inFiveMinutes = RFC_1123_DATE_TIME.format(ZonedDateTime.now().plusMinutes(5));
+    assertThat(HostRateLimiter.parseRetryAfter(inFiveMinutes))
+        .isBetween(Duration.ofMinutes(4), Duration.ofMinutes(5));
+  }
+}
@@ -0,0 +1,171 @@
+package com.truyengg.service.crawl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import com.truyengg.config.CrawlWebClientConfig;
+import com.truyengg.domain.repository.CrawlHttpCacheRepository;
+import com.truyengg.model.properties.CrawlHttpProperties;
+import com.truyengg.model.properties.CrawlPipelineProperties;
+import com.truyengg.model.properties.CrawlRateLimitProperties;
+import com.truyengg.service.image.BlurHashService;
+import com.truyengg.service.image.ImageProcessingPool;
+import com.truyengg.service.image.ImageService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Executors;
+
+import static com.truyengg.domain.constant.AppConstants.CONTENT_TYPE_JPEG;
+import static java.awt.image.BufferedImage.TYPE_3BYTE_BGR;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * A 40 MB long-strip image downloaded and compressed in a JVM capped at 256 MB of heap: the body is
+ * spooled to a temporary file and decoded from it, so the encoded bytes never sit on heap next to the pixels.
+ */
+class ImageSpoolHeapTest {
+
+  private static final Logger log = LoggerFactory.getLogger(ImageSpoolHeapTest.class);
+  private static final int WIDTH = 800;
+  private static final int HEIGHT = 26_000;
+  private static final long MIN_SIZE = 40_000_000L;
+  private static final String MAX_HEAP = "-Xmx256m";
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void fortyMegabyteStripIsDownloadedAndCompressedUnderAQuarterGigabyteHeap() throws Exception {
+    var strip = directory.resolve("strip.jpg");
+    writeNoiseStrip(strip);
+    assertThat(Files.size(strip)).isGreaterThanOrEqualTo(MIN_SIZE);
+
+    var server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    server.createContext("/images/strip.jpg", exchange -> {
+      try (exchange) {
+        exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE_JPEG);
+        exchange.sendResponseHeaders(200, Files.size(strip));
+        Files.copy(strip, exchange.getResponseBody());
+      }
+    });
+    server.start();
+    try {
+      var url = "http://127.0.0.1:" + server.getAddress().getPort() + "/images/strip.jpg";
+      var java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+      var process = new ProcessBuilder(java, MAX_HEAP, "-cp", System.getProperty("java.class.path"),
+          CappedHeapCrawl.class.getName(), url, sha256(strip), String.valueOf(Files.size(strip)))
+          .redirectErrorStream(true)
+          .start();
+      var output = new String(process.getInputStream().readAllBytes(), UTF_8);
+
+      assertThat(process.waitFor(5, MINUTES)).isTrue();
+      log.info("Capped-heap crawl of a {} byte strip:\n{}", Files.size(strip), output);
+      assertThat(process.exitValue()).as(output).isZero();
+    } finally {
+      server.stop(0);
+    }
+  }
+
+  // ===== Private methods =====
+
+  /**
+   * Random pixels at full JPEG quality, about two bytes per pixel.
+   */
+  private static void writeNoiseStrip(Path file) throws IOException {
+    var image = new BufferedImage(WIDTH, HEIGHT, TYPE_3BYTE_BGR);
+    new Random(42).nextBytes(((DataBufferByte) image.getRaster().getDataBuffer()).getData());
+    var writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+    var param = writer.getDefaultWriteParam();
+    param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+    param.setCompressionQuality(1.0f);
+    try (var output = ImageIO.createImageOutputStream(file.toFile())) {
+      writer.setOutput(output);
+      writer.write(null, new IIOImage(image, null, null), param);
+    } finally {
+      writer.dispose();
+    }
+  }
+
+  private static String sha256(Path file) throws IOException, NoSuchAlgorithmException {
+    var digest = MessageDigest.getInstance("SHA-256");
+    try (InputStream input = new DigestInputStream(Files.newInputStream(file), digest)) {
+      input.transferTo(OutputStream.nullOutputStream());
+    }
+    return HexFormat.of().formatHex(digest.digest());
+  }
+
+  /**
+   * Runs in the heap-capped JVM: spool the image, check it, and compress it from the file.
+   * Arguments: image URL, expected SHA-256, expected size. Exits non-zero on a mismatch.
+   */
+  static class CappedHeapCrawl {
+
+    public static void main(String[] args) {
+      var config = new CrawlWebClientConfig();
+      var httpProperties = new CrawlHttpProperties();
+      var connectionProvider = config.crawlConnectionProvider(httpProperties);
+      var meterRegistry = new SimpleMeterRegistry();
+      var client = new CrawlHttpClient(
+          config.crawlWebClient(WebClient.builder(), config.crawlNettyHttpClient(connectionProvider, httpProperties, 60)),
+          new ObjectMapper(), new HostRateLimiter(new CrawlRateLimitProperties()),
+          new CrawlPipeline(new CrawlPipelineProperties(), meterRegistry),
+          new ConditionalFetchCache(mock(CrawlHttpCacheRepository.class)));
+      ReflectionTestUtils.setField(client, "maxRetries", 1);
+      ReflectionTestUtils.setField(client, "retryDelay", 1);
+      ReflectionTestUtils.setField(client, "requestTimeout", 60);
+
+      var processingPool = new ImageProcessingPool(meterRegistry, 1, 1);
+      var imageService = new ImageService(mock(BlurHashService.class), processingPool);
+      ReflectionTestUtils.setField(imageService, "compressionEnabled", true);
+      ReflectionTestUtils.setField(imageService, "outputFormat", "jpeg");
+      ReflectionTestUtils.setField(imageService, "jpegQuality", 0.85f);
+      ReflectionTestUtils.setField(imageService, "removeMetadata", true);
+      ReflectionTestUtils.setField(imageService, "maxWidth", 1200);
+      ReflectionTestUtils.setField(imageService, "resizeEnabled", true);
+      ReflectionTestUtils.setField(imageService, "maxDecodePixels", 40_000_000L);
+
+      var exitCode = 0;
+      try (var image = client.downloadImageToFile(args[0], List.of())) {
+        if (image == null || image.size() != Long.parseLong(args[2]) || !image.sha256().equals(args[1])) {
+          System.out.println("Spooled image does not match: " + image);
+          exitCode = 1;
+        } else {
+          var result = imageService.compressAndConvertImage(image.file(), image.size(), CONTENT_TYPE_JPEG);
+          System.out.printf("spooled %d bytes, compressed to %d bytes (%s), max heap %d MB%n", image.size(),
+              result.compressedBytes() != null ? result.compressedBytes().length : image.size(), result.contentType(),
+              Runtime.getRuntime().maxMemory() / (1024 * 1024));
+        }
+      } finally {
+        processingPool.shutdown();
+        connectionProvider.dispose();
+      }
+      System.exit(exitCode);
+    }
+  }
+}
@@ -0,0 +1,65 @@
+package com.truyengg.service.crawl;
+
+import com.truyengg.model.dto.ProgressDelta;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProgressAccumulatorTest {
+
+  ProgressAccumulator accumulator;
+  UUID jobId = UUID.randomUUID();
+
+  @BeforeEach
+  void setUp() {
+    accumulator = new ProgressAccumulator();
+    ReflectionTestUtils.setField(accumulator, "flushEvents", 3);
+  }
+
+  @Test
+  void addMergesDeltasUntilTheEventThreshold() {
+    assertThat(accumulator.add(jobId, ProgressDelta.ofCompleted(1, 10L))).isFalse();
+    assertThat(accumulator.add(jobId, ProgressDelta.ofCompleted(1, 20L))).isFalse();
+    assertThat(accumulator.add(jobId, ProgressDelta.ofFailed("boom"))).isTrue();
+
+    var delta = accumulator.drain(jobId).orElseThrow();
+    assertThat(delta.completed()).isEqualTo(2);
+    assertThat(delta.failed()).isEqualTo(1);
+    assertThat(delta.bytes()).isEqualTo(30L);
+  }
+
+  @Test
+  void drainRemovesThePendingDelta() {
+    accumulator.add(jobId, ProgressDelta.ofSkipped());
+
+    assertThat(accumulator.drain(jobId)).isPresent();
+    assertThat(accumulator.drain(jobId)).isEmpty();
+  }
+
+  @Test
+  void dirtyFlagIsClearedOnce() {
+    accumulator.markDirty(jobId);
+
+    assertThat(accumulator.pendingJobs()).containsExactly(jobId);
+    assertThat(accumulator.clearDirty(jobId)).isTrue();
+    assertThat(accumulator.clearDirty(jobId)).isFalse();
+    assertThat(accumulator.pendingJobs()).isEmpty();
+  }
+
+  @Test
+  void restoreMergesAFailedFlushBackWithNewerDeltas() {
+    accumulator.add(jobId, ProgressDelta.ofCompleted(2, 0L));
+    var drained = accumulator.drain(jobId).orElseThrow();
+    accumulator.clearDirty(jobId);
+
+    accumulator.add(jobId, ProgressDelta.ofCompleted(1, 0L));
+    accumulator.restore(jobId, drained);
+
+    assertThat(accumulator.pendingJobs()).containsExactly(jobId);
+    assertThat(accumulator.drain(jobId).orElseThrow().completed()).isEqualTo(3);
+  }
+}
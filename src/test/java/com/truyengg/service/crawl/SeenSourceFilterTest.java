@@ -0,0 +1,112 @@
+package com.truyengg.service.crawl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static com.truyengg.service.crawl.SeenSourceFilter.Kind.SLUG;
+import static com.truyengg.service.crawl.SeenSourceFilter.Kind.SOURCE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SeenSourceFilterTest {
+
+  private static final int EXPECTED_INSERTIONS = 10_000;
+  private static final double FALSE_POSITIVE_RATE = 0.01;
+
+  SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  SeenSourceFilter filter = new SeenSourceFilter(jdbcTemplate(), meterRegistry, EXPECTED_INSERTIONS,
+      FALSE_POSITIVE_RATE);
+
+  @Test
+  void everyValueIsPossiblySeenUntilTheFilterIsBuilt() {
+    assertThat(filter.mightContain(SOURCE, "https://site.example/truyen/never-stored")).isTrue();
+
+    markReady();
+
+    assertThat(filter.mightContain(SOURCE, "https://site.example/truyen/never-stored")).isFalse();
+    assertThat(filter.mightContain(SOURCE, " ")).isTrue();
+  }
+
+  @Test
+  void storedValuesAreNeverReportedNewAfterTheFilterGrows() {
+    markReady();
+    var stored = EXPECTED_INSERTIONS * 5;
+    for (var i = 0; i < stored; i++) {
+      filter.put(SOURCE, source(i));
+    }
+
+    for (var i = 0; i < stored; i++) {
+      assertThat(filter.mightContain(SOURCE, source(i))).as(source(i)).isTrue();
+    }
+  }
+
+  @Test
+  void falsePositiveRateStaysWithinTheTargetAfterTheFilterGrows() {
+    markReady();
+    var stored = EXPECTED_INSERTIONS * 5;
+    for (var i = 0; i < stored; i++) {
+      filter.put(SOURCE, source(i));
+    }
+
+    var probes = 200_000;
+    var falsePositives = 0;
+    for (var i = stored; i < stored + probes; i++) {
+      if (filter.mightContain(SOURCE, source(i))) {
+        falsePositives++;
+      }
+    }
+
+    assertThat((double) falsePositives / probes).isLessThanOrEqualTo(FALSE_POSITIVE_RATE);
+  }
+
+  @Test
+  void kindsAreKeptApart() {
+    markReady();
+    filter.put(SLUG, "one-piece");
+
+    assertThat(filter.mightContain(SLUG, "one-piece")).isTrue();
+    assertThat(filter.mightContain(SOURCE, "one-piece")).isFalse();
+  }
+
+  @Test
+  void answersAreCounted() {
+    filter.recordFalsePositive();
+    markReady();
+    filter.put(SOURCE, source(1));
+
+    filter.mightContain(SOURCE, source(1));
+    filter.mightContain(SOURCE, source(2));
+    filter.recordFalsePositive();
+
+    assertThat(count("possibly_seen")).isEqualTo(1);
+    assertThat(count("definitely_new")).isEqualTo(1);
+    assertThat(count("false_positive")).isEqualTo(1);
+  }
+
+  // ===== Private methods =====
+
+  private static NamedParameterJdbcTemplate jdbcTemplate() {
+    var jdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+    when(jdbcTemplate.getJdbcTemplate()).thenReturn(mock(JdbcTemplate.class));
+    return jdbcTemplate;
+  }
+
+  /**
+   * Build from an empty comics table.
+   */
+  private void markReady() {
+    ReflectionTestUtils.invokeMethod(filter, "load");
+  }
+
+  private String source(int i) {
+    return "https://site.example/truyen/comic-" + i;
+  }
+
+  private double count(String result) {
+    return meterRegistry.get("crawl.duplicate.filter").tag("result", result).counter().count();
+  }
+}
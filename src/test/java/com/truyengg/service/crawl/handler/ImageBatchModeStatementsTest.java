@@ -0,0 +1,214 @@
+package com.truyengg.service.crawl.handler;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.truyengg.benchmark.StatementCountingConfig;
+import com.truyengg.benchmark.StatementCountingDataSource;
+import com.truyengg.domain.repository.UserRepository;
+import com.truyengg.model.request.CrawlJobRequest;
+import com.truyengg.service.crawl.CrawlExecutor;
+import com.truyengg.service.crawl.CrawlJobService;
+import com.truyengg.support.PostgresIntegrationTest;
+import com.truyengg.support.PostgresTestDatabase;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static com.truyengg.domain.enums.CrawlType.CHAPTER;
+import static com.truyengg.domain.enums.ImageTaskStatus.COMPLETED;
+import static java.lang.System.nanoTime;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.time.Duration.ofMinutes;
+import static java.util.stream.Collectors.joining;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Crawls the same chapter from a local stub server with one IMAGE job per image and in batch image
+ * mode, counting the SQL statements each run sends.
+ */
+@PostgresIntegrationTest
+@SpringBootTest
+@Import(StatementCountingConfig.class)
+class ImageBatchModeStatementsTest {
+
+  private static final Logger log = LoggerFactory.getLogger(ImageBatchModeStatementsTest.class);
+  private static final int IMAGES = 40;
+  private static final String ADMIN_EMAIL = "admin@truyengg.com";
+
+  private static PostgresTestDatabase database;
+  private static HttpServer server;
+
+  @Autowired
+  CrawlJobService jobService;
+
+  @Autowired
+  CrawlExecutor executor;
+
+  @Autowired
+  UserRepository userRepository;
+
+  @Autowired
+  ChapterCrawlHandler chapterHandler;
+
+  @Autowired
+  StatementCountingDataSource statementCounter;
+
+  @DynamicPropertySource
+  static void properties(DynamicPropertyRegistry registry) throws IOException {
+    database = PostgresTestDatabase.create();
+    registry.add("spring.datasource.url", database::url);
+    registry.add("spring.datasource.username", database::username);
+    registry.add("spring.datasource.password", database::password);
+    registry.add("truyengg.storage.type", () -> "local");
+    registry.add("truyengg.storage.local.base-path", Files.createTempDirectory("image-batch-mode")::toString);
+    registry.add("truyengg.crawl.rate-limit.sources.HTML.capacity", () -> 64);
+    registry.add("truyengg.crawl.rate-limit.sources.HTML.refill-per-second", () -> 1000.0);
+    registry.add("jobrunr.background-job-server.enabled", () -> false);
+    registry.add("jobrunr.dashboard.enabled", () -> false);
+  }
+
+  @BeforeAll
+  static void startServer() throws IOException {
+    byte[] image;
+    try (var stream = ImageBatchModeStatementsTest.class.getResourceAsStream("/replay/images/page-01.jpg")) {
+      image = stream.readAllBytes();
+    }
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    server.createContext("/truyen/", exchange -> send(exchange, chapterPage().getBytes(UTF_8), "text/html; charset=utf-8"));
+    server.createContext("/images/", exchange -> send(exchange, image, "image/jpeg"));
+    server.start();
+  }
+
+  @AfterAll
+  static void stopServer() {
+    if (server != null) {
+      server.stop(0);
+    }
+  }
+
+  @Test
+  void batchModeCutsTheStatementsPerChapterByAnOrderOfMagnitude() {
+    var perImageJobs = crawlChapter(false, 1);
+    var batch = crawlChapter(true, 2);
+    log.info("SQL statements for a {}-image chapter: {} with one job per image, {} in batch mode",
+        IMAGES, perImageJobs, batch);
+
+    assertThat(batch * 10).isLessThanOrEqualTo(perImageJobs);
+  }
+
+  // ===== Private methods =====
+
+  private long crawlChapter(boolean batchMode, int chapter) {
+    ChapterCrawlHandler target = AopTestUtils.getTargetObject(chapterHandler);
+    ReflectionTestUtils.setField(target, "batchMode", batchMode);
+    var admin = userRepository.findByEmail(ADMIN_EMAIL).orElseThrow();
+    var request = CrawlJobRequest.simple(CHAPTER, baseUrl() + "/truyen/stub-comic/chuong-" + chapter);
+
+    statementCounter.reset();
+    var job = jobService.createJob(request, admin);
+    executor.execute(job.getId());
+    awaitCrawl(job.getId());
+    var statements = statementCounter.count();
+
+    assertThat(downloadedImages(job.getId(), batchMode)).isEqualTo(IMAGES);
+    return statements;
+  }
+
+  /**
+   * Wait until the chapter and every job below it has finished and no queue item is left.
+   * Polls through its own connection so the polling is not counted.
+   */
+  private void awaitCrawl(UUID chapterJobId) {
+    var jdbc = new JdbcTemplate(database.dataSource());
+    var deadline = nanoTime() + ofMinutes(3).toNanos();
+    while (nanoTime() < deadline) {
+      var unfinished = jdbc.queryForObject("""
+          SELECT (SELECT count(*)
+                  FROM crawl_job_closure c
+                           JOIN crawl_jobs j ON j.id = c.descendant_id
+                  WHERE c.ancestor_id = ? AND j.status IN ('PENDING', 'RUNNING'))
+               + (SELECT count(*)
+                  FROM crawl_queue q
+                           JOIN crawl_job_closure c ON c.descendant_id = q.crawl_job_id
+                  WHERE c.ancestor_id = ? AND q.status IN ('PENDING', 'PROCESSING', 'DELAYED'))
+          """, Long.class, chapterJobId, chapterJobId);
+      if (unfinished == 0) {
+        return;
+      }
+      sleep();
+    }
+    throw new AssertionError("Chapter crawl did not finish within 3 minutes");
+  }
+
+  private long downloadedImages(UUID chapterJobId, boolean batchMode) {
+    var jdbc = new JdbcTemplate(database.dataSource());
+    if (batchMode) {
+      var statuses = jdbc.queryForObject("SELECT image_statuses FROM crawl_checkpoints WHERE id = ?",
+          byte[].class, chapterJobId);
+      return IntStream.range(0, statuses.length).filter(i -> statuses[i] == COMPLETED.getCode()).count();
+    }
+    return jdbc.queryForObject("""
+        SELECT count(*) FROM crawl_job_closure c
+                 JOIN crawl_jobs j ON j.id = c.descendant_id
+        WHERE c.ancestor_id = ? AND c.depth = 1 AND j.crawl_type = 'IMAGE' AND j.status = 'COMPLETED'
+        """, Long.class, chapterJobId);
+  }
+
+  private static String chapterPage() {
+    var images = IntStream.rangeClosed(1, IMAGES)
+        .mapToObj(i -> "<img class=\"lozad\" data-original=\"%s/images/page-%02d.jpg\" alt=\"page %d\">"
+            .formatted(baseUrl(), i, i))
+        .collect(joining("\n"));
+    return """
+        <!DOCTYPE html>
+        <html lang="vi">
+        <head><meta charset="utf-8"><title>Stub Comic</title></head>
+        <body>
+        <h1 class="detail-title">Stub Comic</h1>
+        <div class="page-chapter">
+        %s
+        </div>
+        </body>
+        </html>
+        """.formatted(images);
+  }
+
+  private static void send(HttpExchange exchange, byte[] body, String contentType) throws IOException {
+    try (exchange) {
+      exchange.getResponseHeaders().set("Content-Type", contentType);
+      exchange.sendResponseHeaders(200, body.length);
+      exchange.getResponseBody().write(body);
+    }
+  }
+
+  private static String baseUrl() {
+    return "http://127.0.0.1:" + server.getAddress().getPort();
+  }
+
+  private void sleep() {
+    try {
+      Thread.sleep(200);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new AssertionError("Interrupted while waiting for the chapter crawl", e);
+    }
+  }
+}
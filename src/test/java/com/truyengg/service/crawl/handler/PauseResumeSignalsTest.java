@@ -0,0 +1,141 @@
+package com.truyengg.service.crawl.handler;
+
+import com.truyengg.benchmark.StatementCountingConfig;
+import com.truyengg.benchmark.StatementCountingDataSource;
+import com.truyengg.domain.exception.CrawlException;
+import com.truyengg.domain.exception.CrawlException.Reason;
+import com.truyengg.domain.repository.UserRepository;
+import com.truyengg.model.request.CrawlJobRequest;
+import com.truyengg.service.crawl.CrawlExecutor;
+import com.truyengg.service.crawl.CrawlJobService;
+import com.truyengg.service.crawl.JobControlSignals;
+import com.truyengg.support.PostgresIntegrationTest;
+import com.truyengg.support.PostgresTestDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.UUID;
+
+import static com.truyengg.domain.enums.CrawlStatus.PAUSED;
+import static com.truyengg.domain.enums.CrawlType.CHAPTER;
+import static com.truyengg.domain.enums.CrawlType.COMIC;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Pause and resume through CrawlJobService as seen by a handler's item loop: the loop reads
+ * in-memory signals only, and a resume only wakes the descendants its own pause cascaded to.
+ */
+@PostgresIntegrationTest
+@SpringBootTest
+@Import(StatementCountingConfig.class)
+class PauseResumeSignalsTest {
+
+  private static final String ADMIN_EMAIL = "admin@truyengg.com";
+  private static final int ITERATIONS = 10_000;
+
+  private static PostgresTestDatabase database;
+
+  @Autowired
+  CrawlJobService jobService;
+
+  @Autowired
+  JobControlSignals controlSignals;
+
+  @Autowired
+  UserRepository userRepository;
+
+  @Autowired
+  ChapterCrawlHandler handler;
+
+  @Autowired
+  StatementCountingDataSource statementCounter;
+
+  // Jobs are driven by hand; nothing is crawled
+  @MockBean
+  CrawlExecutor executor;
+
+  UUID comicId;
+  UUID firstChapterId;
+  UUID secondChapterId;
+
+  @DynamicPropertySource
+  static void properties(DynamicPropertyRegistry registry) {
+    database = PostgresTestDatabase.create();
+    registry.add("spring.datasource.url", database::url);
+    registry.add("spring.datasource.username", database::username);
+    registry.add("spring.datasource.password", database::password);
+    registry.add("jobrunr.background-job-server.enabled", () -> false);
+    registry.add("jobrunr.dashboard.enabled", () -> false);
+  }
+
+  @BeforeEach
+  void setUp() {
+    var admin = userRepository.findByEmail(ADMIN_EMAIL).orElseThrow();
+    comicId = jobService.createJob(CrawlJobRequest.simple(COMIC, "https://site.example/truyen/comic"), admin).getId();
+    firstChapterId = jobService.createChildJob(comicId, CHAPTER, "https://site.example/truyen/comic/chuong-1",
+        "Chapter 1", 0).getId();
+    secondChapterId = jobService.createChildJob(comicId, CHAPTER, "https://site.example/truyen/comic/chuong-2",
+        "Chapter 2", 1).getId();
+    for (var jobId : new UUID[]{comicId, firstChapterId, secondChapterId}) {
+      jobService.start(jobId);
+      controlSignals.register(jobService.getForExecution(jobId));
+    }
+  }
+
+  @Test
+  void itemLoopChecksSignalsWithoutQueryingCrawlJobs() {
+    statementCounter.reset();
+    checkRepeatedly(firstChapterId);
+    assertThat(crawlJobSelects()).isZero();
+
+    jobService.pause(comicId);
+
+    statementCounter.reset();
+    assertThatThrownBy(() -> checkRepeatedly(firstChapterId))
+        .isInstanceOfSatisfying(CrawlException.class, e -> assertThat(e.getReason()).isEqualTo(Reason.PAUSED));
+    assertThat(crawlJobSelects()).isZero();
+  }
+
+  @Test
+  void resumeWakesOnlyTheChildrenItsPauseCascadedTo() {
+    jobService.pause(firstChapterId);
+    jobService.pause(comicId);
+
+    jobService.resume(comicId);
+
+    assertThat(status(comicId)).isEqualTo("RUNNING");
+    assertThat(status(secondChapterId)).isEqualTo("RUNNING");
+    assertThat(status(firstChapterId)).isEqualTo("PAUSED");
+    assertThat(controlSignals.get(secondChapterId)).isNull();
+    assertThat(controlSignals.get(firstChapterId)).isEqualTo(PAUSED);
+
+    jobService.resume(firstChapterId);
+    assertThat(status(firstChapterId)).isEqualTo("RUNNING");
+    assertThat(controlSignals.get(firstChapterId)).isNull();
+  }
+
+  // ===== Private methods =====
+
+  private void checkRepeatedly(UUID jobId) {
+    for (var i = 0; i < ITERATIONS; i++) {
+      handler.checkPauseOrCancel(jobId, i);
+    }
+  }
+
+  private long crawlJobSelects() {
+    return statementCounter.count(sql -> sql.startsWith("select") && sql.contains("from crawl_jobs"));
+  }
+
+  private String status(UUID jobId) {
+    return new JdbcTemplate(database.dataSource())
+        .queryForObject("SELECT status FROM crawl_jobs WHERE id = ?", String.class, jobId);
+  }
+}
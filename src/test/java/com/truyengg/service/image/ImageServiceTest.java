@@ -0,0 +1,99 @@
+package com.truyengg.service.image;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static com.truyengg.domain.constant.AppConstants.CONTENT_TYPE_JPEG;
+import static java.awt.image.BufferedImage.TYPE_INT_RGB;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class ImageServiceTest {
+
+  SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  ImageProcessingPool processingPool = new ImageProcessingPool(meterRegistry, 1, 1);
+  ImageService service = new ImageService(mock(BlurHashService.class), processingPool);
+
+  {
+    ReflectionTestUtils.setField(service, "compressionEnabled", true);
+    ReflectionTestUtils.setField(service, "outputFormat", "jpeg");
+    ReflectionTestUtils.setField(service, "jpegQuality", 0.9f);
+    ReflectionTestUtils.setField(service, "removeMetadata", true);
+    ReflectionTestUtils.setField(service, "maxWidth", 1200);
+    ReflectionTestUtils.setField(service, "resizeEnabled", true);
+    ReflectionTestUtils.setField(service, "maxDecodePixels", 40_000_000L);
+  }
+
+  @AfterEach
+  void tearDown() {
+    processingPool.shutdown();
+  }
+
+  @Test
+  void wideImageIsScaledToMaxWidth() throws IOException {
+    var result = service.compressAndConvertImage(jpeg(4_800, 1_000), CONTENT_TYPE_JPEG);
+
+    assertThat(dimensions(result.compressedBytes())).containsExactly(1_200, 250);
+    assertThat(stageCount("resize")).isEqualTo(1);
+    assertThat(stageCount("decode")).isEqualTo(1);
+  }
+
+  @Test
+  void tallImageWithinMaxWidthKeepsItsSizeUnderThePixelBudget() throws IOException {
+    var result = service.compressAndConvertImage(jpeg(800, 20_000), CONTENT_TYPE_JPEG);
+
+    assertThat(dimensions(result.compressedBytes())).containsExactly(800, 20_000);
+    assertThat(stageCount("resize")).isZero();
+  }
+
+  @Test
+  void tallImageWithinMaxWidthIsSubsampledAboveThePixelBudget() throws IOException {
+    ReflectionTestUtils.setField(service, "maxDecodePixels", 4_000_000L);
+
+    var result = service.compressAndConvertImage(jpeg(800, 20_000), CONTENT_TYPE_JPEG);
+
+    assertThat(dimensions(result.compressedBytes())).containsExactly(400, 10_000);
+  }
+
+  @Test
+  void resizeDisabledKeepsTheOriginalSize() throws IOException {
+    ReflectionTestUtils.setField(service, "resizeEnabled", false);
+    ReflectionTestUtils.setField(service, "maxDecodePixels", 1_000_000L);
+
+    var result = service.compressAndConvertImage(jpeg(2_000, 3_000), CONTENT_TYPE_JPEG);
+
+    assertThat(dimensions(result.compressedBytes())).containsExactly(2_000, 3_000);
+    assertThat(stageCount("resize")).isZero();
+  }
+
+  // ===== Private methods =====
+
+  private byte[] jpeg(int width, int height) throws IOException {
+    var image = new BufferedImage(width, height, TYPE_INT_RGB);
+    for (var y = 0; y < height; y++) {
+      for (var x = 0; x < width; x++) {
+        image.setRGB(x, y, (x % 256) << 16 | (y % 256) << 8 | (x + y) % 256);
+      }
+    }
+    var output = new ByteArrayOutputStream();
+    ImageIO.write(image, "jpeg", output);
+    return output.toByteArray();
+  }
+
+  private int[] dimensions(byte[] imageBytes) throws IOException {
+    var image = ImageIO.read(new ByteArrayInputStream(imageBytes));
+    return new int[]{image.getWidth(), image.getHeight()};
+  }
+
+  private long stageCount(String stage) {
+    return meterRegistry.get("image.processing.stage").tag("stage", stage).timer().count();
+  }
+}
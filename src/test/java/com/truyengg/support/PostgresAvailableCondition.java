@@ -0,0 +1,21 @@
+package com.truyengg.support;
+
+import org.junit.jupiter.api.extension.ConditionEvaluationResult;
+import org.junit.jupiter.api.extension.ExecutionCondition;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import static org.junit.jupiter.api.extension.ConditionEvaluationResult.disabled;
+import static org.junit.jupiter.api.extension.ConditionEvaluationResult.enabled;
+
+/**
+ * Disables {@link PostgresIntegrationTest} classes when no PostgreSQL server can be provided.
+ */
+class PostgresAvailableCondition implements ExecutionCondition {
+
+  @Override
+  public ConditionEvaluationResult evaluateExecutionCondition(ExtensionContext context) {
+    return PostgresTestDatabase.isAvailable()
+        ? enabled("PostgreSQL available")
+        : disabled("Neither Docker nor -Dtest.postgres.url is available");
+  }
+}
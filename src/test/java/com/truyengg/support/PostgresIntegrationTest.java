@@ -0,0 +1,20 @@
+package com.truyengg.support;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a test class that needs PostgreSQL through {@link PostgresTestDatabase}.
+ * The class is skipped when neither Docker nor -Dtest.postgres.url is available.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Tag("postgres")
+@ExtendWith(PostgresAvailableCondition.class)
+public @interface PostgresIntegrationTest {
+}
@@ -0,0 +1,108 @@
+package com.truyengg.support;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.configuration.FluentConfiguration;
+import org.postgresql.ds.PGSimpleDataSource;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import javax.sql.DataSource;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.UUID;
+
+import static org.apache.commons.lang3.StringUtils.isNotBlank;
+
+/**
+ * PostgreSQL for integration tests.
+ * Uses the server given by -Dtest.postgres.url (with test.postgres.username / test.postgres.password),
+ * otherwise one Testcontainers instance shared by the whole test run.
+ * Every {@link #create()} returns a new empty database on that server, so test classes never see each
+ * other's rows; migrate it with {@link #migrate()} or up to a version with {@link #migrate(String)}.
+ */
+public record PostgresTestDatabase(String url, String username, String password) {
+
+  private static final String IMAGE = "postgres:16-alpine";
+  private static final String URL_PROPERTY = "test.postgres.url";
+
+  private static PostgreSQLContainer<?> container;
+
+  /**
+   * Whether an external server is configured or Docker is available for Testcontainers.
+   */
+  public static boolean isAvailable() {
+    return isNotBlank(System.getProperty(URL_PROPERTY)) || DockerClientFactory.instance().isDockerAvailable();
+  }
+
+  /**
+   * Create a new empty database.
+   */
+  public static synchronized PostgresTestDatabase create() {
+    var server = server();
+    var name = "truyengg_test_" + UUID.randomUUID().toString().replace("-", "");
+    try (var connection = DriverManager.getConnection(server.url(), server.username(), server.password());
+         var statement = connection.createStatement()) {
+      statement.execute("CREATE DATABASE " + name);
+    } catch (SQLException e) {
+      throw new IllegalStateException("Failed to create test database " + name, e);
+    }
+    return new PostgresTestDatabase(withDatabase(server.url(), name), server.username(), server.password());
+  }
+
+  /**
+   * Apply all Flyway migrations.
+   */
+  public PostgresTestDatabase migrate() {
+    flyway().load().migrate();
+    return this;
+  }
+
+  /**
+   * Apply Flyway migrations up to and including the given version.
+   */
+  public PostgresTestDatabase migrate(String targetVersion) {
+    flyway().target(targetVersion).load().migrate();
+    return this;
+  }
+
+  public DataSource dataSource() {
+    var dataSource = new PGSimpleDataSource();
+    dataSource.setUrl(url);
+    dataSource.setUser(username);
+    dataSource.setPassword(password);
+    return dataSource;
+  }
+
+  // ===== Private methods =====
+
+  private FluentConfiguration flyway() {
+    return Flyway.configure()
+        .dataSource(url, username, password)
+        .locations("classpath:db/migration");
+  }
+
+  private static PostgresTestDatabase server() {
+    var url = System.getProperty(URL_PROPERTY);
+    if (isNotBlank(url)) {
+      return new PostgresTestDatabase(url,
+          System.getProperty("test.postgres.username", "postgres"),
+          System.getProperty("test.postgres.password", ""));
+    }
+
+    if (container == null) {
+      container = new PostgreSQLContainer<>(IMAGE);
+      container.start();
+    }
+    return new PostgresTestDatabase(container.getJdbcUrl(), container.getUsername(), container.getPassword());
+  }
+
+  /**
+   * Replace the database name of a JDBC URL, keeping its parameters.
+   */
+  private static String withDatabase(String jdbcUrl, String database) {
+    var queryStart = jdbcUrl.indexOf('?');
+    var base = queryStart < 0 ? jdbcUrl : jdbcUrl.substring(0, queryStart);
+    var query = queryStart < 0 ? "" : jdbcUrl.substring(queryStart);
+    return base.substring(0, base.lastIndexOf('/') + 1) + database + query;
+  }
+}
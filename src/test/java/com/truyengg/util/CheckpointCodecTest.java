@@ -0,0 +1,71 @@
+package com.truyengg.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static com.truyengg.util.CheckpointCodec.addIndex;
+import static com.truyengg.util.CheckpointCodec.containsIndex;
+import static com.truyengg.util.CheckpointCodec.decodeIndices;
+import static com.truyengg.util.CheckpointCodec.encodeIndices;
+import static com.truyengg.util.CheckpointCodec.isEmpty;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CheckpointCodecTest {
+
+  @Test
+  void roundTripReturnsSortedDistinctIndices() {
+    var random = new Random(7);
+    var indices = new TreeSet<Integer>();
+    for (var i = 0; i < 500; i++) {
+      indices.add(random.nextInt(10_000));
+    }
+    var shuffled = new ArrayList<>(indices);
+    Collections.shuffle(shuffled, random);
+    shuffled.add(shuffled.get(0));
+
+    assertThat(decodeIndices(encodeIndices(shuffled))).containsExactlyElementsOf(indices);
+  }
+
+  @Test
+  void bitNumberingMatchesPostgresSetBit() {
+    // set_bit(bytes, n, 1) sets bit n % 8 (least significant first) of byte n / 8
+    var encoded = encodeIndices(List.of(0, 9, 15));
+
+    assertThat(encoded).containsExactly(0b0000_0001, 0b1000_0010);
+    assertThat(containsIndex(encoded, 9)).isTrue();
+    assertThat(containsIndex(encoded, 8)).isFalse();
+  }
+
+  @Test
+  void encodingIgnoresNullAndNegativeIndices() {
+    assertThat(encodeIndices(null)).isNull();
+    assertThat(encodeIndices(List.of())).isNull();
+    assertThat(encodeIndices(Arrays.asList(-1, null))).isNull();
+    assertThat(decodeIndices(encodeIndices(Arrays.asList(-3, 4, null)))).containsExactly(4);
+  }
+
+  @Test
+  void addIndexGrowsTheBitset() {
+    var encoded = addIndex(null, 3);
+    encoded = addIndex(encoded, 20);
+
+    assertThat(encoded).hasSize(3);
+    assertThat(decodeIndices(encoded)).containsExactly(3, 20);
+    assertThat(containsIndex(encoded, 21)).isFalse();
+    assertThat(containsIndex(encoded, 1_000)).isFalse();
+  }
+
+  @Test
+  void bitsetWithOnlyClearedBitsIsEmpty() {
+    assertThat(isEmpty(null)).isTrue();
+    assertThat(isEmpty(new byte[]{0, 0})).isTrue();
+    assertThat(decodeIndices(new byte[]{0, 0})).isEmpty();
+    assertThat(isEmpty(new byte[]{0, 4})).isFalse();
+  }
+}